@@ -20,6 +20,7 @@
 //  Aufrufe
 //  1) Microservice uebersetzen und starten
 //        .\gradlew bootRun [-Dport=8081] [tls=false] [-Ddb=mysql] [-Ddb=oracle] [--args='--debug'] [--continuous]
+//        .\gradlew bootRun -Dreactive=true      (Lesepfad mit Netty, WebFlux und R2DBC)
 //        .\gradlew compileJava
 //        .\gradlew compileTestJava
 //
@@ -149,6 +150,10 @@ plugins {
     // https://github.com/jk1/Gradle-License-Report
     alias(libs.plugins.licenseReport)
 
+    // https://github.com/melix/jmh-gradle-plugin
+    // Microbenchmarks in src/jmh/java: gradle jmh
+    alias(libs.plugins.jmh)
+
     // https://github.com/gradle-dependency-analyze/gradle-dependency-analyze
     // https://github.com/jaredsburrows/gradle-license-plugin
     // https://github.com/hierynomus/license-gradle-plugin
@@ -230,6 +235,9 @@ dependencies {
         exclude(group = "org.apache.tomcat.embed", module = "tomcat-embed-websocket")
     }
     implementation("org.springframework.boot:spring-boot-starter-json")
+    // CBOR und Smile als binaere Alternativen zu JSON fuer interne Clients
+    implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-cbor")
+    implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-smile")
     implementation("org.springframework.boot:spring-boot-starter-graphql")
     implementation("org.springframework.boot:spring-boot-starter-hateoas")
     implementation("org.springframework.boot:spring-boot-starter-validation")
@@ -240,6 +248,10 @@ dependencies {
     implementation("org.springframework.boot:spring-boot-starter-actuator")
 
     implementation("org.flywaydb:flyway-core")
+    // Profile "reactive": nicht-blockierender DB-Zugriff mit R2DBC, aber ohne Spring Data R2DBC
+    implementation("org.springframework:spring-r2dbc")
+    implementation("io.r2dbc:r2dbc-pool")
+    runtimeOnly("org.postgresql:r2dbc-postgresql")
     // https://flywaydb.org/documentation/database/mysql#java-usage
     if (System.getProperty("db") == "mysql") {
         runtimeOnly("org.flywaydb:flyway-mysql")
@@ -490,7 +502,8 @@ tasks.named<BootRun>("bootRun") {
     }
 
     systemProperty("spring.profiles.default", "dev")
-    systemProperty("spring.profiles.active", "dev")
+    // Profile "reactive" fuer den Vergleich mit Netty, WebFlux und R2DBC
+    systemProperty("spring.profiles.active", if (System.getProperty("reactive") == "true") "dev,reactive" else "dev")
     systemProperty("spring.config.location", "classpath:/application.yml")
     systemProperty("spring.datasource.password", "p")
     systemProperty("spring.output.ansi.enabled", "ALWAYS")
@@ -666,6 +679,19 @@ tasks.withType<Checkstyle>().configureEach {
     }
 }
 
+jmh {
+    // https://github.com/melix/jmh-gradle-plugin#configuration-options
+    jmhVersion.set(libs.versions.jmh.get())
+    // z.B. gradle jmh -Pjmh.includes=ProduktValidatorBenchmark
+    (project.findProperty("jmh.includes") as String?)?.let { includes.set(listOf(it)) }
+    // z.B. gradle jmh -Pjmh.profilers=gc fuer die allokierten Bytes pro Operation ("gc.alloc.rate.norm")
+    (project.findProperty("jmh.profilers") as String?)?.let { profilers.set(it.split(",")) }
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    resultFormat.set("JSON")
+}
+
 spotbugs {
     // https://github.com/spotbugs/spotbugs/releases
     toolVersion.set(libs.versions.spotbugs.get())
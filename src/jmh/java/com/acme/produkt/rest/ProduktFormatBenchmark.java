@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.rest;
+
+import com.acme.produkt.entity.Produkt;
+import com.acme.produkt.entity.Umsatz;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.time.LocalDate;
+import java.util.Currency;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Vergleich von HAL als JSON, CBOR und Smile beim Schreiben und Parsen einer Collection mit Produkten:
+ * `gradle jmh -Pjmh.includes=ProduktFormatBenchmark`.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@SuppressWarnings({"NotNullFieldNotInitialized", "PublicField", "WeakerAccess"})
+public class ProduktFormatBenchmark {
+    private static final String BASE_URI = "https://localhost:8080/rest";
+
+    /**
+     * Das Format des Response.
+     */
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    /**
+     * Anzahl der Produkte in der Collection.
+     */
+    @Param({"1", "20", "100"})
+    public int anzahl;
+
+    private ObjectMapper mapper;
+    private ProdukteModel model;
+    private byte[] bytes;
+
+    /**
+     * ObjectMapper, Model und serialisierte Bytes erzeugen.
+     *
+     * @throws IOException Falls die Homepage keine gültige URL ist oder das Serialisieren fehlschlägt
+     */
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        mapper = switch (format) {
+            case "cbor" -> new ObjectMapper(new CBORFactory());
+            case "smile" -> new ObjectMapper(new SmileFactory());
+            default -> new ObjectMapper();
+        };
+        final var homepage = new URL("https://www.acme.com");
+        final var models = IntStream.range(0, anzahl)
+            .mapToObj(i -> Produkt.builder()
+                .id(UUID.randomUUID())
+                .name("Alpha")
+                .erscheinungsdatum(LocalDate.of(2022, 1, 31))
+                .homepage(homepage)
+                .umsatz(Umsatz.builder().betrag(BigDecimal.TEN).waehrung(Currency.getInstance("EUR")).build())
+                .angestellterId(UUID.randomUUID())
+                .angestellterNachname("Nachname")
+                .angestellterEmail("nachname@acme.com")
+                .build())
+            .map(produkt -> new ProduktModel(produkt, BASE_URI, false))
+            .toList();
+        model = new ProdukteModel(models, null);
+        bytes = mapper.writeValueAsBytes(model);
+    }
+
+    /**
+     * Produkte serialisieren wie beim Response.
+     *
+     * @return Die serialisierten Bytes
+     * @throws IOException Falls das Serialisieren fehlschlägt
+     */
+    @Benchmark
+    public byte[] schreiben() throws IOException {
+        return mapper.writeValueAsBytes(model);
+    }
+
+    /**
+     * Produkte parsen wie bei einem Client.
+     *
+     * @return Der geparste Baum
+     * @throws IOException Falls das Parsen fehlschlägt
+     */
+    @Benchmark
+    public JsonNode parsen() throws IOException {
+        return mapper.readTree(bytes);
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.rest;
+
+import com.acme.produkt.entity.Produkt;
+import com.acme.produkt.entity.Umsatz;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import lombok.Getter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.LinkRelation;
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.hateoas.mediatype.MessageResolver;
+import org.springframework.hateoas.mediatype.hal.CurieProvider;
+import org.springframework.hateoas.mediatype.hal.Jackson2HalModule;
+import org.springframework.hateoas.server.core.EvoInflectorLinkRelationProvider;
+import org.springframework.hateoas.server.core.Relation;
+
+import java.math.BigDecimal;
+import java.net.URL;
+import java.time.LocalDate;
+import java.util.Currency;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Vergleich des HAL-Serializers von Spring HATEOAS mit ProduktModelSerializer und ProdukteModelSerializer, jeweils
+ * einschließlich Erzeugen der Models. Die allokierten Bytes pro Response liefert der GC-Profiler als
+ * `gc.alloc.rate.norm`: `gradle jmh -Pjmh.includes=ProduktModelSerializerBenchmark -Pjmh.profilers=gc`.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@SuppressWarnings({"NotNullFieldNotInitialized", "PublicField", "WeakerAccess"})
+public class ProduktModelSerializerBenchmark {
+    private static final String BASE_URI = "https://localhost:8080/rest";
+
+    /**
+     * Anzahl der Produkte in der Collection.
+     */
+    @Param({"1", "20", "100"})
+    public int anzahl;
+
+    private ObjectMapper halMapper;
+    private ObjectMapper mapper;
+    private Produkt produkt;
+    private List<Produkt> produkte;
+
+    /**
+     * ObjectMapper und Produkte erzeugen. Die Models werden wie bei einem Request erst im Benchmark erzeugt.
+     *
+     * @throws Exception Falls die Homepage keine gültige URL ist
+     */
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        final var homepage = new URL("https://www.acme.com");
+        produkte = IntStream.range(0, anzahl)
+            .mapToObj(i -> Produkt.builder()
+                .id(UUID.randomUUID())
+                .name("Alpha")
+                .erscheinungsdatum(LocalDate.of(2022, 1, 31))
+                .homepage(homepage)
+                .umsatz(Umsatz.builder().betrag(BigDecimal.TEN).waehrung(Currency.getInstance("EUR")).build())
+                .angestellterId(UUID.randomUUID())
+                .angestellterNachname("Nachname")
+                .angestellterEmail("nachname@acme.com")
+                .build())
+            .toList();
+
+        // wie Spring Boot mit Spring HATEOAS und "default-property-inclusion: non_null"
+        halMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .registerModule(new Jackson2HalModule())
+            .setHandlerInstantiator(new Jackson2HalModule.HalHandlerInstantiator(
+                new EvoInflectorLinkRelationProvider(),
+                CurieProvider.NONE,
+                MessageResolver.DEFAULTS_ONLY
+            ))
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        mapper = new ObjectMapper();
+        produkt = produkte.get(0);
+    }
+
+    /**
+     * Ein Produkt mit Link-Objekten und dem HAL-Serializer.
+     *
+     * @return Das JSON als Byte-Array
+     * @throws JsonProcessingException Falls das Serialisieren fehlschlägt
+     */
+    @Benchmark
+    public byte[] halModel() throws JsonProcessingException {
+        return halMapper.writeValueAsBytes(HalModel.of(produkt, true));
+    }
+
+    /**
+     * Ein Produkt mit ProduktModelSerializer.
+     *
+     * @return Das JSON als Byte-Array
+     * @throws JsonProcessingException Falls das Serialisieren fehlschlägt
+     */
+    @Benchmark
+    public byte[] produktModel() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(new ProduktModel(produkt, BASE_URI, true));
+    }
+
+    /**
+     * Produkte als CollectionModel mit Link-Objekten und dem HAL-Serializer.
+     *
+     * @return Das JSON als Byte-Array
+     * @throws JsonProcessingException Falls das Serialisieren fehlschlägt
+     */
+    @Benchmark
+    public byte[] halCollection() throws JsonProcessingException {
+        final var models = produkte.stream().map(p -> HalModel.of(p, false)).toList();
+        return halMapper.writeValueAsBytes(CollectionModel.of(models));
+    }
+
+    /**
+     * Produkte mit ProdukteModelSerializer.
+     *
+     * @return Das JSON als Byte-Array
+     * @throws JsonProcessingException Falls das Serialisieren fehlschlägt
+     */
+    @Benchmark
+    public byte[] produkteModel() throws JsonProcessingException {
+        final var models = produkte.stream().map(p -> new ProduktModel(p, BASE_URI, false)).toList();
+        return mapper.writeValueAsBytes(new ProdukteModel(models, null));
+    }
+
+    /**
+     * Bisheriges Model mit Link-Objekten als Vergleich.
+     */
+    @Relation(collectionRelation = "produkte", itemRelation = "produkte")
+    @Getter
+    @SuppressWarnings("unused")
+    static final class HalModel extends RepresentationModel<HalModel> {
+        private final String name;
+        private final LocalDate erscheinungsdatum;
+        private final URL homepage;
+        private final Umsatz umsatz;
+        private final UUID angestellterId;
+        private final String angestellterNachname;
+        private final String angestellterEmail;
+
+        private HalModel(final Produkt produkt) {
+            name = produkt.getName();
+            erscheinungsdatum = produkt.getErscheinungsdatum();
+            homepage = produkt.getHomepage();
+            umsatz = produkt.getUmsatz();
+            angestellterId = produkt.getAngestellterId();
+            angestellterNachname = produkt.getAngestellterNachname();
+            angestellterEmail = produkt.getAngestellterEmail();
+        }
+
+        static HalModel of(final Produkt produkt, final boolean alleLinks) {
+            final var model = new HalModel(produkt);
+            final var idUri = BASE_URI + '/' + produkt.getId();
+            model.add(Link.of(idUri));
+            if (alleLinks) {
+                model.add(
+                    Link.of(BASE_URI, LinkRelation.of("list")),
+                    Link.of(BASE_URI, LinkRelation.of("add")),
+                    Link.of(idUri, LinkRelation.of("update")),
+                    Link.of(idUri, LinkRelation.of("remove"))
+                );
+            }
+            return model;
+        }
+    }
+}
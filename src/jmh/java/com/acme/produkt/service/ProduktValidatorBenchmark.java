@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.service;
+
+import com.acme.produkt.entity.Produkt;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Vergleich von Bean Validation mit ProduktValidator: `gradle jmh -Pjmh.includes=ProduktValidatorBenchmark`.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@SuppressWarnings({"NotNullFieldNotInitialized", "PublicField", "WeakerAccess"})
+public class ProduktValidatorBenchmark {
+    private static final int ANZAHL = 10_000;
+
+    /**
+     * Gültiges oder ungültiges Produkt.
+     */
+    @Param({"true", "false"})
+    public boolean gueltig;
+
+    private ValidatorFactory validatorFactory;
+    private Validator beanValidator;
+    private ProduktValidator produktValidator;
+    private Produkt produkt;
+    private List<Produkt> produkte;
+
+    /**
+     * Validatoren und Produkte erzeugen.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        beanValidator = validatorFactory.getValidator();
+        produktValidator = new ProduktValidator(validatorFactory);
+        produkt = gueltig
+            ? Produkt.builder().name("Alpha").erscheinungsdatum(LocalDate.of(2022, 1, 31)).build()
+            : Produkt.builder().name("alpha-1").erscheinungsdatum(LocalDate.now().plusDays(1)).build();
+        produkte = IntStream.range(0, ANZAHL).mapToObj(i -> produkt).toList();
+    }
+
+    /**
+     * ValidatorFactory schließen.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    /**
+     * Bean Validation mit Reflection.
+     *
+     * @return Die verletzten Constraints
+     */
+    @Benchmark
+    public Set<ConstraintViolation<Produkt>> beanValidation() {
+        return beanValidator.validate(produkt);
+    }
+
+    /**
+     * ProduktValidator ohne Reflection.
+     *
+     * @return Die verletzten Constraints
+     */
+    @Benchmark
+    public Set<ConstraintViolation<Produkt>> produktValidator() {
+        return produktValidator.validate(produkt);
+    }
+
+    /**
+     * Bean Validation für viele Produkte nacheinander.
+     *
+     * @return Die verletzten Constraints
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<Set<ConstraintViolation<Produkt>>> beanValidationBatch() {
+        return produkte.stream().map(beanValidator::validate).toList();
+    }
+
+    /**
+     * ProduktValidator für viele Produkte in parallelen Abschnitten.
+     *
+     * @return Die verletzten Constraints
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<Set<ConstraintViolation<Produkt>>> produktValidatorBatch() {
+        return produktValidator.validateAll(produkte);
+    }
+}
@@ -34,7 +34,17 @@ import static org.springframework.hateoas.support.WebStack.WEBMVC;
  */
 @SpringBootApplication(proxyBeanMethods = false)
 @Import({ApplicationConfig.class, DevConfig.class})
-@EnableConfigurationProperties(MailProps.class)
+@EnableConfigurationProperties({
+    MailProps.class,
+    AuftragProps.class,
+    EreignisProps.class,
+    ResponseCacheProps.class,
+    ChangesProps.class,
+    GraphQlKostenProps.class,
+    GraphQlDokumentProps.class,
+    GraphQlMetrikProps.class,
+    LimitProps.class
+})
 @EnableHypermediaSupport(type = HAL, stacks = WEBMVC)
 @EnableJpaRepositories
 @SuppressWarnings({"ImplicitSubclassInspection", "ClassUnconnectedToPackage"})
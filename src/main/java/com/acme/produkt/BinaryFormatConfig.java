@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Konverter für die binären Formate CBOR (`application/cbor`) und Smile (`application/x-jackson-smile`) als
+ * Alternative zu JSON, z.B. für interne Clients. Die Konverter ersetzen die Default-Konverter von Spring MVC, damit
+ * die Properties `spring.jackson.*` wie bei JSON angewendet werden.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+interface BinaryFormatConfig {
+    /**
+     * Bean-Definition für CBOR.
+     *
+     * @param builder Der von Spring Boot konfigurierte Builder für ObjectMapper
+     * @return Konverter für CBOR
+     */
+    @Bean
+    default MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(
+        final Jackson2ObjectMapperBuilder builder
+    ) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    /**
+     * Bean-Definition für Smile.
+     *
+     * @param builder Der von Spring Boot konfigurierte Builder für ObjectMapper
+     * @return Konverter für Smile
+     */
+    @Bean
+    default MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(
+        final Jackson2ObjectMapperBuilder builder
+    ) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Spring-Konfiguration für Properties "app.changes.*" zum Änderungs-Feed mit Server-Sent Events.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ * @param replaySize Anzahl der letzten Änderungen, ab denen ein Client mit `Last-Event-ID` fortsetzen kann
+ * @param queueCapacity Maximale Anzahl an Änderungen, die für einen langsamen Client gepuffert werden, bevor die
+ *                      Verbindung beendet wird
+ * @param heartbeat Intervall für Kommentarzeilen, damit Proxies die Verbindung nicht schließen und abgebrochene
+ *                  Verbindungen erkannt werden
+ * @param maxDuration Maximale Dauer einer Verbindung, nach der sich der Client mit `Last-Event-ID` neu verbindet
+ * @param pollInterval Intervall, in dem jede Instanz die Outbox-Tabelle nach neuen Ereignissen abfragt
+ */
+@ConfigurationProperties(prefix = "app.changes")
+public record ChangesProps(
+    @DefaultValue("1000")
+    int replaySize,
+
+    @DefaultValue("256")
+    int queueCapacity,
+
+    @DefaultValue("15s")
+    Duration heartbeat,
+
+    @DefaultValue("25m")
+    Duration maxDuration,
+
+    @DefaultValue("500ms")
+    Duration pollInterval) {
+}
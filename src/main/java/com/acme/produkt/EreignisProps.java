@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Spring-Konfiguration für Properties "app.ereignis.*" zur Zustellung der Änderungsereignisse.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ * @param batchSize Maximale Anzahl an Ereignissen, die in einer Transaktion zugestellt werden
+ * @param pollInterval Wartezeit, falls keine neuen Ereignisse vorliegen oder die Zustellung fehlgeschlagen ist
+ * @param aufbewahrung Dauer, für die zugestellte Ereignisse aufbewahrt werden
+ * @param maxVersuche Maximale Anzahl an Zustellversuchen, bevor ein Ereignis den Status FEHLER erhält
+ */
+@ConfigurationProperties(prefix = "app.ereignis")
+public record EreignisProps(
+    @DefaultValue("100")
+    int batchSize,
+
+    @DefaultValue("1s")
+    Duration pollInterval,
+
+    @DefaultValue("7d")
+    Duration aufbewahrung,
+
+    @DefaultValue("5")
+    int maxVersuche) {
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt;
+
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import org.springframework.boot.autoconfigure.graphql.GraphQlSourceBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Konfiguration für graphql-java, damit geparste und validierte Dokumente wiederverwendet werden.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+interface GraphQlConfig {
+    /**
+     * Bean-Definition, um einen PreparsedDocumentProvider bei graphql-java zu registrieren.
+     *
+     * @param preparsedDocumentProvider Der Cache für geparste und validierte Dokumente
+     * @return Customizer für GraphQlSource von Spring for GraphQL
+     */
+    @Bean
+    default GraphQlSourceBuilderCustomizer preparsedDocumentProviderCustomizer(
+        final PreparsedDocumentProvider preparsedDocumentProvider
+    ) {
+        return builder -> builder.configureGraphQl(
+            graphQl -> graphQl.preparsedDocumentProvider(preparsedDocumentProvider)
+        );
+    }
+}
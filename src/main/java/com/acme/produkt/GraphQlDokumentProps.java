@@ -0,0 +1,43 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Spring-Konfiguration für Properties "app.graphql.dokumente.*" zum Cache für geparste und validierte
+ * GraphQL-Dokumente sowie zu den registrierten "Persisted Queries".
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ * @param maxSize Maximale Anzahl an gecachten Dokumenten, die nach LRU verdrängt werden
+ * @param maxQueryLength Maximale Länge des Dokuments in Zeichen, bis zu der es gecacht wird. Längere Dokumente werden
+ *                       bei jedem Request geparst und validiert, damit der Cache nicht durch einzelne sehr große
+ *                       Dokumente beliebig viel Speicher belegt.
+ * @param persistedQueries Pfadmuster für die Dateien der Persisted Queries, deren Dateiname ohne Endung die ID ist
+ */
+@ConfigurationProperties(prefix = "app.graphql.dokumente")
+public record GraphQlDokumentProps(
+    @DefaultValue("500")
+    int maxSize,
+
+    @DefaultValue("10000")
+    int maxQueryLength,
+
+    @DefaultValue("classpath:graphql/persisted/*.graphql")
+    String persistedQueries) {
+}
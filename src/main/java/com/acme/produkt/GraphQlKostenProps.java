@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Spring-Konfiguration für Properties "app.graphql.kosten.*" zur Begrenzung der statisch berechneten Kosten einer
+ * GraphQL-Operation.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ * @param max Maximale Kosten einer Operation, bei deren Überschreitung die Operation nicht ausgeführt wird
+ * @param maxTiefe Maximale Schachtelungstiefe der Felder ohne Introspection
+ * @param listenGroesse Angenommene Anzahl an Elementen bei Listen ohne `first` oder `ids`
+ * @param gewichte Gewichte einzelner Felder in der Form "Typ.feld", die zu den voreingestellten Gewichten ergänzt
+ *                 werden. Felder ohne Gewicht haben das Gewicht 1.
+ */
+@ConfigurationProperties(prefix = "app.graphql.kosten")
+public record GraphQlKostenProps(
+    @DefaultValue("2500")
+    int max,
+
+    @DefaultValue("10")
+    int maxTiefe,
+
+    @DefaultValue("10")
+    int listenGroesse,
+
+    Map<String, Integer> gewichte) {
+    // Nachname und Emailadresse erfordern Aufrufe beim Angestellter-Service, totalCount eine zusaetzliche Query
+    private static final Map<String, Integer> STANDARD_GEWICHTE = Map.of(
+        "Produkt.angestellterNachname", 10,
+        "Produkt.angestellterEmail", 10,
+        "ProduktConnection.totalCount", 5
+    );
+
+    /**
+     * Die konfigurierten Gewichte zu den voreingestellten Gewichten ergänzen.
+     *
+     * @param max Maximale Kosten einer Operation
+     * @param maxTiefe Maximale Schachtelungstiefe
+     * @param listenGroesse Angenommene Anzahl an Elementen bei Listen
+     * @param gewichte Konfigurierte Gewichte oder null
+     */
+    public GraphQlKostenProps {
+        final Map<String, Integer> alleGewichte = new HashMap<>(STANDARD_GEWICHTE);
+        if (gewichte != null) {
+            alleGewichte.putAll(gewichte);
+        }
+        gewichte = Map.copyOf(alleGewichte);
+    }
+
+    /**
+     * Das Gewicht eines Feldes ermitteln.
+     *
+     * @param feld Das Feld in der Form "Typ.feld"
+     * @return Das Gewicht
+     */
+    public int gewicht(final String feld) {
+        return gewichte.getOrDefault(feld, 1);
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Spring-Konfiguration für Properties "app.graphql.metriken.*" zur Zeitmessung von GraphQL-Operationen und Resolvern.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ * @param enabled Flag, ob die Zeitmessung beim Start aktiviert ist. Zur Laufzeit kann sie mit
+ *                `POST /actuator/graphqlmetriken` ein- und ausgeschaltet werden.
+ * @param maxOperationen Maximale Anzahl unterschiedlicher Operationsnamen als Tag. Weitere Namen werden als "andere"
+ *                       zusammengefasst, weil die Namen von den Clients stammen.
+ */
+@ConfigurationProperties(prefix = "app.graphql.metriken")
+public record GraphQlMetrikProps(
+    @DefaultValue("false")
+    boolean enabled,
+
+    @DefaultValue("100")
+    int maxOperationen) {
+}
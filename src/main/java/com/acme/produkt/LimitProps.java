@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Spring-Konfiguration für Properties "app.limit.*" zur adaptiven Begrenzung gleichzeitig bearbeiteter Requests.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ * @param enabled Requests mit Statuscode 503 abweisen, falls das Limit erreicht ist. Voreingestellt ausgeschaltet,
+ *                weil das Limit erst unter Last gelernt wird.
+ * @param initial Anfangswert für das Limit pro Endpunktklasse, der großzügig ist, damit nach dem Start keine Requests
+ *                abgewiesen werden, bevor Latenzen gemessen wurden
+ * @param min Untergrenze für das Limit
+ * @param max Obergrenze für das Limit
+ * @param toleranz Faktor, um den die aktuelle Latenz die langfristige Latenz überschreiten darf, bevor das Limit
+ *                 gesenkt wird
+ * @param glaettung Gewicht eines neu berechneten Limits gegenüber dem bisherigen Limit zwischen 0 und 1
+ * @param fenster Anzahl an Requests für den gleitenden Durchschnitt der langfristigen Latenz
+ */
+@ConfigurationProperties(prefix = "app.limit")
+public record LimitProps(
+    @DefaultValue("false")
+    boolean enabled,
+
+    @DefaultValue("100")
+    int initial,
+
+    @DefaultValue("5")
+    int min,
+
+    @DefaultValue("1000")
+    int max,
+
+    @DefaultValue("1.5")
+    double toleranz,
+
+    @DefaultValue("0.2")
+    double glaettung,
+
+    @DefaultValue("600")
+    int fenster) {
+}
@@ -16,20 +16,57 @@
  */
 package com.acme.produkt;
 
+import jakarta.validation.constraints.Min;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
 
 /**
- * Spring-Konfiguration für Properties "app.mail.*".
+ * Spring-Konfiguration für Properties "app.mail.*". Ungültige Werte, z.B. 0 Emails pro Minute, verhindern den Start.
  *
  * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
  * @param from Emailadresse des Absenders
  * @param sales Emailadresse des Vertriebs
+ * @param enabled Emails an den Vertrieb bei neuen Produkten versenden
+ * @param queueCapacity Maximale Anzahl an Produkten in der Warteschlange für Emails
+ * @param digestSize Maximale Anzahl an Produkten in einer Email, d.h. bei 1 eine Email pro Produkt
+ * @param digestWindow Maximale Wartezeit auf weitere Produkte für eine Email
+ * @param maxPerMinute Maximale Anzahl an Emails pro Minute
+ * @param maxRetries Maximale Anzahl an Wiederholungen, falls der Mailserver nicht erreichbar ist
+ * @param backoff Wartezeit vor der 1. Wiederholung, die sich bei jeder weiteren Wiederholung verdoppelt
  */
 @ConfigurationProperties(prefix = "app.mail")
+@Validated
 public record MailProps(
     @DefaultValue("Theo Test <theo@test.de>")
     String from,
 
-    @DefaultValue("Maxi Musterfrau <maxi.musterfrau@test.de>") String sales) {
+    @DefaultValue("Maxi Musterfrau <maxi.musterfrau@test.de>") String sales,
+
+    @DefaultValue("true")
+    boolean enabled,
+
+    @DefaultValue("1000")
+    @Min(1)
+    int queueCapacity,
+
+    @DefaultValue("1")
+    @Min(1)
+    int digestSize,
+
+    @DefaultValue("5s")
+    Duration digestWindow,
+
+    @DefaultValue("60")
+    @Min(1)
+    int maxPerMinute,
+
+    @DefaultValue("3")
+    @Min(0)
+    int maxRetries,
+
+    @DefaultValue("2s")
+    Duration backoff) {
 }
@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt;
+
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import static io.r2dbc.spi.ConnectionFactoryOptions.PASSWORD;
+import static io.r2dbc.spi.ConnectionFactoryOptions.USER;
+import static org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type.REACTIVE;
+
+/**
+ * Beans für das Profile "reactive", d.h. `spring.main.web-application-type: reactive`. Der Lesepfad läuft dann mit
+ * Netty, WebFlux und R2DBC statt mit Tomcat, Spring MVC und JPA. R2DBC verwendet dieselbe DB wie JDBC, wobei die URL
+ * aus `spring.datasource.url` abgeleitet wird.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+interface ReactiveConfig {
+    /**
+     * Netty statt Tomcat als Webserver, obwohl Tomcat im Classpath ist.
+     *
+     * @return Factory für den Webserver Netty
+     */
+    @Bean
+    @ConditionalOnWebApplication(type = REACTIVE)
+    default NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    /**
+     * ConnectionFactory für R2DBC mit einem Pool von Verbindungen durch r2dbc-pool.
+     *
+     * @param dataSourceProperties Die Properties `spring.datasource.*` für URL, Benutzername und Passwort
+     * @return ConnectionFactory für R2DBC
+     */
+    @Bean(destroyMethod = "dispose")
+    @ConditionalOnWebApplication(type = REACTIVE)
+    default ConnectionFactory connectionFactory(final DataSourceProperties dataSourceProperties) {
+        // z.B. jdbc:postgresql://localhost/produkt -> r2dbc:pool:postgresql://localhost/produkt
+        final var url = "r2dbc:pool:" + dataSourceProperties.determineUrl().substring("jdbc:".length());
+        final var options = ConnectionFactoryOptions.parse(url)
+            .mutate()
+            .option(USER, dataSourceProperties.determineUsername())
+            .option(PASSWORD, dataSourceProperties.determinePassword())
+            .build();
+        return ConnectionFactories.get(options);
+    }
+
+    /**
+     * DatabaseClient für SQL-Anweisungen mit R2DBC.
+     *
+     * @param connectionFactory ConnectionFactory für R2DBC
+     * @return DatabaseClient von Spring
+     */
+    @Bean
+    @ConditionalOnWebApplication(type = REACTIVE)
+    default DatabaseClient databaseClient(final ConnectionFactory connectionFactory) {
+        return DatabaseClient.create(connectionFactory);
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Spring-Konfiguration für Properties "app.response-cache.*" zum Cache für serialisierte Responses.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ * @param enabled Serialisierte Responses für GET-Requests mit einer Produkt-ID cachen
+ * @param maxSize Maximale Größe aller gecachten Responses einschließlich der gzip-Varianten
+ * @param ttl Maximales Alter eines Eintrags, weil sich z.B. die Daten des Angestellten ohne neue Versionsnummer beim
+ *            Produkt ändern können
+ */
+@ConfigurationProperties(prefix = "app.response-cache")
+public record ResponseCacheProps(
+    @DefaultValue("true")
+    boolean enabled,
+
+    @DefaultValue("16MB")
+    DataSize maxSize,
+
+    @DefaultValue("5m")
+    Duration ttl) {
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.entity;
+
+/**
+ * Status eines Änderungsereignisses in der Outbox-Tabelle.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+public enum EreignisStatus {
+    /**
+     * Das Ereignis ist noch nicht an alle Listener zugestellt.
+     */
+    NEU,
+
+    /**
+     * Das Ereignis wurde an alle Listener zugestellt.
+     */
+    ZUGESTELLT,
+
+    /**
+     * Das Ereignis konnte nach der maximalen Anzahl an Versuchen nicht zugestellt werden ("Dead Letter").
+     */
+    FEHLER
+}
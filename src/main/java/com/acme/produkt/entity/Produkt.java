@@ -37,6 +37,7 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.net.URL;
@@ -57,6 +58,8 @@ import static jakarta.persistence.FetchType.LAZY;
 // https://thorben-janssen.com/java-records-hibernate-jpa
 @Entity
 @Table(name = "produkt")
+// UPDATE nur mit den geaenderten Spalten, z.B. bei PATCH
+@DynamicUpdate
 @NoArgsConstructor
 @AllArgsConstructor
 @EqualsAndHashCode(onlyExplicitlyIncluded = true, callSuper = false)
@@ -76,7 +79,14 @@ public class Produkt {
     private static final int MAX_LENGTH = 40;
 
     /**
-     * Die ID des Produktes.
+     * Validierungsgruppe für das Neuanlegen im Batch, z.B. durch die Mutation createProdukte. Ohne Angestellter-ID
+     * würde ein einzelnes Produkt erst beim INSERT scheitern und den ganzen Batch zurückrollen.
+     */
+    public interface Batch {
+    }
+
+    /**
+     * Die ID des Produktes, die wegen der Partitionierung nur durch die Generierung als UUID eindeutig ist.
      * @param id Die ID.
      * @return Die ID.
      */
@@ -127,7 +137,8 @@ public class Produkt {
     @ToString.Exclude
     private Umsatz umsatz;
 
-    // der Spaltenwert referenziert einen Wert aus einer anderen DB
+    // der Spaltenwert referenziert einen Wert aus einer anderen DB; nur im Batch wird er vorab geprueft
+    @NotNull(groups = Batch.class)
     @Column(name = "angestellter_id")
     private UUID angestellterId;
 
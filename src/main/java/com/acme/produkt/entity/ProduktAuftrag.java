@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.math.BigDecimal;
+import java.net.URL;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Currency;
+import java.util.UUID;
+
+/**
+ * Auftrag zum asynchronen Neuanlegen eines Produktes mit den bereits validierten Produktdaten.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@Entity
+@Table(name = "produkt_auftrag")
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@Getter
+@Setter
+@ToString
+@Builder
+@SuppressWarnings({"ClassFanOutComplexity", "JavadocDeclaration", "RequireEmptyLineBeforeBlockTagGroup"})
+public class ProduktAuftrag {
+    /**
+     * Maximale Länge der Fehlermeldung.
+     */
+    public static final int MAX_LENGTH_FEHLER = 512;
+
+    @Id
+    @GeneratedValue
+    @EqualsAndHashCode.Include
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    private AuftragStatus status;
+
+    private String name;
+
+    private LocalDate erscheinungsdatum;
+
+    private URL homepage;
+
+    private BigDecimal betrag;
+
+    private Currency waehrung;
+
+    @Column(name = "angestellter_id")
+    private UUID angestellterId;
+
+    /**
+     * Die ID des angelegten Produktes, sobald der Auftrag erledigt ist.
+     * @return Die ID des Produktes oder null.
+     */
+    @Column(name = "produkt_id")
+    private UUID produktId;
+
+    private String fehler;
+
+    @CreationTimestamp
+    private LocalDateTime erzeugt;
+
+    @UpdateTimestamp
+    private LocalDateTime aktualisiert;
+
+    /**
+     * Einen neuen Auftrag aus den Produktdaten erstellen.
+     *
+     * @param produkt Die Daten des neu anzulegenden Produktes.
+     * @return Der Auftrag mit dem Status NEU.
+     */
+    public static ProduktAuftrag of(final Produkt produkt) {
+        final var umsatz = produkt.getUmsatz();
+        return ProduktAuftrag.builder()
+            .status(AuftragStatus.NEU)
+            .name(produkt.getName())
+            .erscheinungsdatum(produkt.getErscheinungsdatum())
+            .homepage(produkt.getHomepage())
+            .betrag(umsatz == null ? null : umsatz.getBetrag())
+            .waehrung(umsatz == null ? null : umsatz.getWaehrung())
+            .angestellterId(produkt.getAngestellterId())
+            .build();
+    }
+
+    /**
+     * Konvertierung in ein neu anzulegendes Produkt.
+     *
+     * @return Das Produkt ohne ID.
+     */
+    public Produkt toProdukt() {
+        final var umsatz = betrag == null && waehrung == null
+            ? null
+            : Umsatz.builder().betrag(betrag).waehrung(waehrung).build();
+        return Produkt.builder()
+            .name(name)
+            .erscheinungsdatum(erscheinungsdatum)
+            .homepage(homepage)
+            .umsatz(umsatz)
+            .angestellterId(angestellterId)
+            .build();
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import static com.acme.produkt.entity.EreignisStatus.NEU;
+import static jakarta.persistence.GenerationType.SEQUENCE;
+
+/**
+ * Änderungsereignis zu einem Produkt in der Outbox-Tabelle. Das Ereignis wird in derselben Transaktion wie die
+ * Änderung gespeichert. Das Relay vergibt anschließend die Position und stellt es in dieser Reihenfolge an die Listener
+ * zu.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@Entity
+@Table(name = "produkt_ereignis")
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@Getter
+@Setter
+@ToString
+@Builder
+@SuppressWarnings({"JavadocDeclaration", "RequireEmptyLineBeforeBlockTagGroup"})
+public class ProduktEreignis {
+    /**
+     * Maximale Länge der Fehlermeldung.
+     */
+    public static final int MAX_LENGTH_FEHLER = 512;
+
+    /**
+     * Anzahl der IDs, die Hibernate mit einem einzigen Aufruf der Sequenz reserviert. Muss mit dem Inkrement von
+     * produkt_ereignis_id_seq übereinstimmen.
+     */
+    public static final int ALLOCATION_SIZE = 100;
+
+    private static final String ID_SEQUENCE = "produkt_ereignis_id_seq";
+
+    private static final String TRENNZEICHEN = ",";
+
+    /**
+     * Die ID aus einer Sequenz, von der Hibernate jeweils einen Block reserviert, so dass die INSERT-Anweisungen
+     * z.B. bei createAll() als Batch gesendet werden. Weil Transaktionen in anderer Reihenfolge abgeschlossen werden
+     * können, bestimmt die ID nicht die Reihenfolge der Zustellung.
+     * @return Die ID.
+     */
+    @Id
+    @GeneratedValue(strategy = SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ALLOCATION_SIZE)
+    @EqualsAndHashCode.Include
+    private Long id;
+
+    @Column(name = "produkt_id")
+    private UUID produktId;
+
+    /**
+     * Die Versionsnummer des Produktes nach der Änderung.
+     * @return Die Versionsnummer.
+     */
+    private int version;
+
+    @Enumerated(EnumType.STRING)
+    private EreignisArt art;
+
+    /**
+     * Die Namen der geänderten Attribute, durch Komma getrennt.
+     * @return Die Namen der geänderten Attribute.
+     */
+    private String felder;
+
+    @Enumerated(EnumType.STRING)
+    private EreignisStatus status;
+
+    /**
+     * Die fortlaufende Position in der Reihenfolge der Zustellung, die das Relay unter einer Sperre vergibt, oder
+     * null, solange das Relay das Ereignis noch nicht gelesen hat.
+     * @return Die Position.
+     */
+    private Long position;
+
+    /**
+     * Die Anzahl der fehlgeschlagenen Zustellversuche.
+     * @return Die Anzahl der Versuche.
+     */
+    private int versuche;
+
+    /**
+     * Die Fehlermeldung des letzten fehlgeschlagenen Zustellversuchs oder null.
+     * @return Die Fehlermeldung.
+     */
+    private String fehler;
+
+    @CreationTimestamp
+    private LocalDateTime erzeugt;
+
+    /**
+     * Der Zeitpunkt der Zustellung an die Listener oder null.
+     * @return Der Zeitpunkt der Zustellung.
+     */
+    private LocalDateTime zugestellt;
+
+    /**
+     * Ein neues Ereignis erstellen.
+     *
+     * @param art Die Art der Änderung
+     * @param produkt Das neu angelegte oder geänderte Produkt mit der neuen Versionsnummer
+     * @param felder Die Namen der geänderten Attribute
+     * @return Das noch nicht zugestellte Ereignis.
+     */
+    public static ProduktEreignis of(final EreignisArt art, final Produkt produkt, final Collection<String> felder) {
+        return ProduktEreignis.builder()
+            .produktId(produkt.getId())
+            .version(produkt.getVersion())
+            .art(art)
+            .felder(String.join(TRENNZEICHEN, felder))
+            .status(NEU)
+            .build();
+    }
+
+    /**
+     * Die Namen der geänderten Attribute als Liste.
+     *
+     * @return Die Namen der geänderten Attribute.
+     */
+    public List<String> getFeldListe() {
+        return felder == null || felder.isEmpty() ? List.of() : Arrays.asList(felder.split(TRENNZEICHEN));
+    }
+}
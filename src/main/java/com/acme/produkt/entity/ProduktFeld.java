@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.entity;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Felder eines Produktes, die bei einer Abfrage einzeln ausgewählt werden können, z.B. mit dem Query-Parameter
+ * `fields`. Die ID und die Versionsnummer sind immer enthalten.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+public enum ProduktFeld {
+    /**
+     * Der Name.
+     */
+    NAME("name"),
+
+    /**
+     * Das Erscheinungsdatum.
+     */
+    ERSCHEINUNGSDATUM("erscheinungsdatum"),
+
+    /**
+     * Die Homepage.
+     */
+    HOMEPAGE("homepage"),
+
+    /**
+     * Der Umsatz aus der Tabelle "umsatz".
+     */
+    UMSATZ("umsatz"),
+
+    /**
+     * Die ID des Angestellten.
+     */
+    ANGESTELLTER_ID("angestellterId"),
+
+    /**
+     * Der Nachname des Angestellten vom Angestellter-Service.
+     */
+    ANGESTELLTER_NACHNAME("angestellterNachname"),
+
+    /**
+     * Die Emailadresse des Angestellten vom Angestellter-Service.
+     */
+    ANGESTELLTER_EMAIL("angestellterEmail");
+
+    private final String value;
+
+    ProduktFeld(final String value) {
+        this.value = value;
+    }
+
+    /**
+     * Konvertierung eines Strings in einen Enum-Wert.
+     *
+     * @param value Der String, zu dem ein passender Enum-Wert ermittelt werden soll, z.B. `angestellterId`.
+     * @return Passender Enum-Wert oder ein leeres Optional.
+     */
+    public static Optional<ProduktFeld> of(final String value) {
+        return Arrays.stream(values())
+            .filter(feld -> feld.value.equals(value))
+            .findFirst();
+    }
+
+    /**
+     * Der Name des Feldes wie im JSON-Datensatz.
+     *
+     * @return Der Name des Feldes
+     */
+    public String getValue() {
+        return value;
+    }
+}
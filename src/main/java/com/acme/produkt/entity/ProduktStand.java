@@ -0,0 +1,29 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.entity;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stand einer Menge von Produkten, d.h. Anzahl und letzte Änderung, z.B. für ETag und Last-Modified bei Collections.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ * @param anzahl Anzahl der Produkte
+ * @param aktualisiert Zeitpunkt der letzten Änderung oder null, falls es keine Produkte gibt
+ */
+public record ProduktStand(long anzahl, LocalDateTime aktualisiert) {
+}
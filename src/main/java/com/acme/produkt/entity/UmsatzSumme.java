@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+import java.util.UUID;
+
+/**
+ * Anzahl der Produkte und Summe ihrer Umsätze zu einem Angestellten und einer Währung. Die Datensätze werden beim
+ * Neuanlegen von Produkten fortgeschrieben und nur gelesen.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@Entity
+@Table(name = "umsatz_summe")
+@IdClass(UmsatzSummeId.class)
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@Getter
+@ToString
+@Builder
+@SuppressWarnings({"JavadocDeclaration", "RequireEmptyLineBeforeBlockTagGroup"})
+public class UmsatzSumme {
+    /**
+     * Die ID des Angestellten.
+     * @return Die ID des Angestellten.
+     */
+    @Id
+    @Column(name = "angestellter_id")
+    @EqualsAndHashCode.Include
+    private UUID angestellterId;
+
+    /**
+     * Die Währung der Umsätze.
+     * @return Die Währung.
+     */
+    @Id
+    @EqualsAndHashCode.Include
+    private Currency waehrung;
+
+    /**
+     * Die Anzahl der Produkte mit Umsatz in dieser Währung.
+     * @return Die Anzahl.
+     */
+    private long anzahl;
+
+    /**
+     * Die Summe der Umsatzbeträge.
+     * @return Die Summe.
+     */
+    private BigDecimal summe;
+}
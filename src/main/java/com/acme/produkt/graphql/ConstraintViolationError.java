@@ -40,6 +40,18 @@ import static org.springframework.graphql.execution.ErrorType.BAD_REQUEST;
 final class ConstraintViolationError implements GraphQLError {
     private final ConstraintViolation<Produkt> violation;
 
+    // Index des Elements bei einer Batch-Mutation wie createProdukte, sonst null
+    private final Integer index;
+
+    /**
+     * Konstruktor für eine Mutation mit einem einzelnen Produkt als Input.
+     *
+     * @param violation Das verletzte Constraint
+     */
+    ConstraintViolationError(final ConstraintViolation<Produkt> violation) {
+        this(violation, null);
+    }
+
     /**
      * ErrorType auf BAD_REQUEST setzen.
      *
@@ -61,7 +73,7 @@ final class ConstraintViolationError implements GraphQLError {
     }
 
     /**
-     * Pfadangabe von der Wurzel bis zum fehlerhaften Datenfeld.
+     * Pfadangabe von der Wurzel bis zum fehlerhaften Datenfeld, bei einer Batch-Mutation mit dem Index des Elements.
      *
      * @return Liste der Datenfelder von der Wurzel bis zum Fehler
      */
@@ -69,6 +81,9 @@ final class ConstraintViolationError implements GraphQLError {
     public List<Object> getPath() {
         final List<Object> result = new ArrayList<>(5);
         result.add("input");
+        if (index != null) {
+            result.add(index);
+        }
         for (final Node node : violation.getPropertyPath()) {
             result.add(node.toString());
         }
@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.graphql;
+
+import com.acme.produkt.GraphQlDokumentProps;
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+
+/**
+ * Cache für geparste und validierte GraphQL-Dokumente, so dass wiederholte Operationen weder geparst noch validiert
+ * werden. Schlüssel ist der Text des Dokuments, d.h. dessen Hashwert und ggf. der Vergleich bei Kollisionen. Verdrängt
+ * wird nach LRU. Dokumente mit Fehlern und Dokumente, die länger als `maxQueryLength` sind, werden nicht gecacht.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@Component
+@Slf4j
+final class DokumentCache implements PreparsedDocumentProvider {
+    private static final String METRIC = "graphql.dokument.cache";
+
+    // ReentrantLock statt synchronized, damit "Virtual Threads" nicht an den Carrier-Thread gebunden werden
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, PreparsedDocumentEntry> eintraege;
+    private final int maxQueryLength;
+    private final Counter treffer;
+    private final Counter fehlschlaege;
+
+    DokumentCache(final GraphQlDokumentProps props, final MeterRegistry meterRegistry) {
+        final var maxSize = props.maxSize();
+        maxQueryLength = props.maxQueryLength();
+        // Zugriffsreihenfolge fuer LRU
+        eintraege = new LinkedHashMap<>(64, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, PreparsedDocumentEntry> eldest) {
+                return size() > maxSize;
+            }
+        };
+        treffer = Counter.builder(METRIC).tag("ergebnis", "treffer").register(meterRegistry);
+        fehlschlaege = Counter.builder(METRIC).tag("ergebnis", "fehlschlag").register(meterRegistry);
+        Gauge.builder(METRIC + ".size", this, DokumentCache::size).register(meterRegistry);
+    }
+
+    @Override
+    public CompletableFuture<PreparsedDocumentEntry> getDocumentAsync(
+        final ExecutionInput executionInput,
+        final Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction
+    ) {
+        final var query = executionInput.getQuery();
+        if (query.length() > maxQueryLength) {
+            // nicht cachen und nicht als Fehlschlag zaehlen
+            log.debug("getDocumentAsync: Dokument mit {} Zeichen wird nicht gecacht", query.length());
+            return completedFuture(parseAndValidateFunction.apply(executionInput));
+        }
+        PreparsedDocumentEntry eintrag;
+        lock.lock();
+        try {
+            eintrag = eintraege.get(query);
+        } finally {
+            lock.unlock();
+        }
+        if (eintrag != null) {
+            treffer.increment();
+            return completedFuture(eintrag);
+        }
+
+        fehlschlaege.increment();
+        // Parsen und Validieren ausserhalb des Locks; bei gleichzeitigen Requests ggf. mehrfach
+        eintrag = parseAndValidateFunction.apply(executionInput);
+        if (eintrag.hasErrors()) {
+            log.debug("getDocumentAsync: fehlerhaftes Dokument wird nicht gecacht");
+        } else {
+            lock.lock();
+            try {
+                eintraege.put(query, eintrag);
+            } finally {
+                lock.unlock();
+            }
+        }
+        return completedFuture(eintrag);
+    }
+
+    private int size() {
+        lock.lock();
+        try {
+            return eintraege.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -19,6 +19,7 @@ package com.acme.produkt.graphql;
 import com.acme.produkt.service.ConstraintViolationsException;
 import com.acme.produkt.service.NotFoundException;
 import graphql.GraphQLError;
+import graphql.GraphqlErrorBuilder;
 import graphql.schema.DataFetchingEnvironment;
 import org.springframework.graphql.execution.DataFetcherExceptionResolverAdapter;
 import org.springframework.stereotype.Component;
@@ -27,6 +28,8 @@ import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import static org.springframework.graphql.execution.ErrorType.BAD_REQUEST;
+
 /**
  * Abbildung von Exceptions auf GraphQLError.
  *
@@ -52,6 +55,12 @@ final class ExceptionHandler extends DataFetcherExceptionResolverAdapter {
             return new NotFoundError(notFound.getId(), notFound.getSuchkriterien());
         } else if (ex instanceof DateTimeParseException dateTimeParse) {
             return new DateTimeParseError(dateTimeParse.getParsedString());
+        } else if (ex instanceof final PaginationException pagination) {
+            // ungueltige Argumente first oder after; andere Exceptions bleiben INTERNAL_ERROR
+            return GraphqlErrorBuilder.newError(env)
+                .errorType(BAD_REQUEST)
+                .message(pagination.getMessage())
+                .build();
         }
         return super.resolveToSingleError(ex, env);
     }
@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.graphql;
+
+import com.acme.produkt.GraphQlKostenProps;
+import graphql.ExecutionResult;
+import graphql.analysis.QueryTraverser;
+import graphql.analysis.QueryVisitorFieldEnvironment;
+import graphql.analysis.QueryVisitorStub;
+import graphql.execution.AbortExecutionException;
+import graphql.execution.ExecutionContext;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import static graphql.schema.GraphQLTypeUtil.isList;
+import static graphql.schema.GraphQLTypeUtil.unwrapNonNull;
+
+/**
+ * Instrumentation, die vor der Ausführung einer GraphQL-Operation deren Kosten und Schachtelungstiefe statisch aus dem
+ * Dokument berechnet. Die Kosten eines Feldes sind sein Gewicht aus GraphQlKostenProps zuzüglich der Kosten der
+ * Unterfelder. Bei Listen werden die Kosten der Unterfelder mit der Seitengröße `first`, der Anzahl der `ids` bzw.
+ * der Elemente von `input` oder der angenommenen Listengröße multipliziert. Operationen über dem Budget werden
+ * abgelehnt, ohne dass ein Resolver aufgerufen wird. Die Kosten jeder Operation werden als Metrik
+ * "graphql.operation.kosten" erfasst.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+final class KostenInstrumentation extends SimplePerformantInstrumentation {
+    private static final String METRIC = "graphql.operation.kosten";
+    private static final String INTROSPECTION_PREFIX = "__";
+
+    private final GraphQlKostenProps props;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecuteOperation(
+        final InstrumentationExecuteOperationParameters parameters,
+        final InstrumentationState state
+    ) {
+        final var context = parameters.getExecutionContext();
+        final var visitor = new KostenVisitor();
+        traverser(context).visitPostOrder(visitor);
+        final var kosten = visitor.getKosten();
+        final var tiefe = visitor.maxTiefe;
+
+        final var abgelehnt = kosten > props.max() || tiefe > props.maxTiefe();
+        final var operation = context.getOperationDefinition().getOperation().name().toLowerCase(Locale.ROOT);
+        DistributionSummary.builder(METRIC)
+            .tag("operation", operation)
+            .tag("ergebnis", abgelehnt ? "abgelehnt" : "akzeptiert")
+            .register(meterRegistry)
+            .record(kosten);
+        log.debug("beginExecuteOperation: operation={}, kosten={}, tiefe={}", operation, kosten, tiefe);
+        if (abgelehnt) {
+            throw new AbortExecutionException(
+                "Die Operation ist zu aufwendig: Kosten " + (long) kosten + " bei hoechstens " + props.max() +
+                    ", Tiefe " + tiefe + " bei hoechstens " + props.maxTiefe()
+            );
+        }
+        return super.beginExecuteOperation(parameters, state);
+    }
+
+    private static QueryTraverser traverser(final ExecutionContext context) {
+        return QueryTraverser.newQueryTraverser()
+            .schema(context.getGraphQLSchema())
+            .document(context.getDocument())
+            .operationName(context.getOperationDefinition().getName())
+            .coercedVariables(context.getCoercedVariables())
+            .build();
+    }
+
+    // Kosten als double, damit sehr grosse Werte fuer "first" bei geschachtelten Listen nicht ueberlaufen
+    private final class KostenVisitor extends QueryVisitorStub {
+        // Summe der Kosten aller Unterfelder pro uebergeordnetem Feld; null fuer die Felder der Operation
+        private final Map<QueryVisitorFieldEnvironment, Double> kostenUnterfelder = new HashMap<>();
+        private int maxTiefe;
+
+        @Override
+        public void visitField(final QueryVisitorFieldEnvironment env) {
+            // Introspection, z.B. von GraphiQL, ist weder bei den Kosten noch bei der Tiefe relevant
+            final var tiefe = tiefe(env);
+            if (tiefe == 0) {
+                return;
+            }
+            final var unterfelder = kostenUnterfelder.getOrDefault(env, 0.0);
+            final var gewicht = props.gewicht(env.getFieldsContainer().getName() + '.' + env.getField().getName());
+            final var kosten = isList(unwrapNonNull(env.getFieldDefinition().getType()))
+                ? gewicht + multiplikator(env) * unterfelder
+                : gewicht + unterfelder;
+            kostenUnterfelder.merge(env.getParentEnvironment(), kosten, Double::sum);
+            maxTiefe = Math.max(maxTiefe, tiefe);
+        }
+
+        double getKosten() {
+            return kostenUnterfelder.getOrDefault(null, 0.0);
+        }
+
+        // Bei einer Connection steht "first" beim uebergeordneten Feld, z.B. produkte(first: 50) { edges { ... } }
+        private int multiplikator(final QueryVisitorFieldEnvironment env) {
+            if (env.getArguments().get("ids") instanceof final Collection<?> ids) {
+                return ids.size();
+            }
+            // Batch-Mutation, z.B. createProdukte(input: [...]) { id }
+            if (env.getArguments().get("input") instanceof final Collection<?> input) {
+                return input.size();
+            }
+            var first = env.getArguments().get("first");
+            final var parent = env.getParentEnvironment();
+            if (first == null && parent != null) {
+                first = parent.getArguments().get("first");
+            }
+            return first instanceof final Integer anzahl ? Math.max(anzahl, 0) : props.listenGroesse();
+        }
+
+        // 0 fuer Felder der Introspection einschliesslich ihrer Unterfelder
+        private static int tiefe(final QueryVisitorFieldEnvironment env) {
+            var tiefe = 0;
+            for (var feld = env; feld != null; feld = feld.getParentEnvironment()) {
+                if (feld.getField().getName().startsWith(INTROSPECTION_PREFIX)) {
+                    return 0;
+                }
+                tiefe++;
+            }
+            return tiefe;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.graphql;
+
+/**
+ * RuntimeException, falls die Argumente `first` oder `after` für die Pagination ungültig sind. Die Abbildung auf
+ * BAD_REQUEST erfolgt in ExceptionHandler.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+final class PaginationException extends RuntimeException {
+    PaginationException(final String message) {
+        super(message);
+    }
+
+    PaginationException(final String message, final Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.graphql;
+
+import com.acme.produkt.GraphQlDokumentProps;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Registrierte "Persisted Queries", die beim Start aus Dateien gelesen werden. Ein Dokument wird über den Dateinamen
+ * ohne Endung, z.B. "produkt", oder über den SHA-256-Hashwert seines Textes in Hexadezimaldarstellung gefunden.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@Component
+@Slf4j
+final class PersistedQueries {
+    private static final String ENDUNG = ".graphql";
+
+    private final Map<String, String> dokumente = new HashMap<>();
+
+    PersistedQueries(final GraphQlDokumentProps props, final ResourcePatternResolver resolver) {
+        try {
+            final var digest = MessageDigest.getInstance("SHA-256");
+            for (final var resource : resolver.getResources(props.persistedQueries())) {
+                final var dateiname = resource.getFilename();
+                if (dateiname == null || !dateiname.endsWith(ENDUNG)) {
+                    continue;
+                }
+                final var dokument = resource.getContentAsString(UTF_8);
+                final var hash = HexFormat.of().formatHex(digest.digest(dokument.getBytes(UTF_8)));
+                final var id = dateiname.substring(0, dateiname.length() - ENDUNG.length());
+                dokumente.put(id, dokument);
+                dokumente.put(hash, dokument);
+                log.debug("PersistedQueries: id={}, hash={}", id, hash);
+            }
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        } catch (final NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Ein registriertes Dokument suchen.
+     *
+     * @param id Die ID, d.h. der Dateiname ohne Endung, oder der SHA-256-Hashwert des Dokuments
+     * @return Der Text des Dokuments oder ein leeres Optional
+     */
+    Optional<String> find(final String id) {
+        return Optional.ofNullable(dokumente.get(id));
+    }
+}
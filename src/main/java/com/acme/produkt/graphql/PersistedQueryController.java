@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.graphql;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.graphql.ExecutionGraphQlService;
+import org.springframework.graphql.support.DefaultExecutionGraphQlRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.ResponseEntity.notFound;
+import static org.springframework.http.ResponseEntity.ok;
+
+/**
+ * Ausführung registrierter "Persisted Queries", so dass ein Client nur die ID und die Variablen statt des gesamten
+ * Dokuments sendet. Das Dokument wird wie bei "/graphql" ausgeführt, d.h. mit den Instrumentations und dem Cache
+ * für geparste Dokumente. Als Return-Typ wird Mono verwendet, damit der Controller auch im Profile "reactive"
+ * funktioniert.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@RestController
+@RequestMapping(PersistedQueryController.PERSISTED_PATH)
+@RequiredArgsConstructor
+@Slf4j
+final class PersistedQueryController {
+    /**
+     * Pfad für Persisted Queries.
+     */
+    static final String PERSISTED_PATH = "/graphql/persisted";
+
+    private final PersistedQueries persistedQueries;
+    private final ExecutionGraphQlService graphQlService;
+
+    /**
+     * Eine registrierte Query ausführen.
+     *
+     * @param id Die ID oder der SHA-256-Hashwert der Query
+     * @param body Optional der Name der Operation und die Variablen
+     * @param locale Die Locale für die Fehlermeldungen
+     * @return Das Ergebnis im Format eines GraphQL-Response oder Statuscode 404 bei einer unbekannten ID
+     */
+    @PostMapping(path = "/{id}", produces = APPLICATION_JSON_VALUE)
+    Mono<ResponseEntity<Map<String, Object>>> execute(
+        @PathVariable final String id,
+        @RequestBody(required = false) final PersistedQueryRequest body,
+        final Locale locale
+    ) {
+        log.debug("execute: id={}, body={}", id, body);
+        final var dokument = persistedQueries.find(id);
+        if (dokument.isEmpty()) {
+            return Mono.just(notFound().build());
+        }
+        final var request = new DefaultExecutionGraphQlRequest(
+            dokument.get(),
+            body == null ? null : body.operationName(),
+            body == null ? null : body.variables(),
+            null,
+            UUID.randomUUID().toString(),
+            locale
+        );
+        return graphQlService.execute(request).map(response -> ok().body(response.toMap()));
+    }
+
+    /**
+     * Request-Body für eine Persisted Query.
+     *
+     * @param operationName Der Name der Operation, falls das Dokument mehrere Operationen enthält
+     * @param variables Die Variablen
+     */
+    record PersistedQueryRequest(String operationName, Map<String, Object> variables) {
+    }
+}
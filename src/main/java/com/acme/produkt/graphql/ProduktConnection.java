@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.graphql;
+
+import com.acme.produkt.entity.Produkt;
+
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Eine Seite gefundener Produkte gemäß der Spezifikation "GraphQL Cursor Connections" von Relay. Das Feld
+ * `totalCount` wird nicht beim Lesen der Seite, sondern nur bei Bedarf aus den Suchkriterien ermittelt.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ *
+ * @param edges Die Produkte der Seite mit ihrem Cursor
+ * @param pageInfo Angaben zur Seite
+ * @param suchkriterien Die Suchkriterien für `totalCount`
+ */
+record ProduktConnection(List<ProduktEdge> edges, PageInfo pageInfo, Map<String, List<String>> suchkriterien) {
+    /**
+     * Maximale Seitengröße.
+     */
+    static final int MAX_FIRST = 100;
+
+    /**
+     * Eine Connection aus den gelesenen Produkten erstellen. Es wird 1 Produkt mehr als `first` gelesen, um ohne
+     * zusätzliche Query zu erkennen, ob es eine Folgeseite gibt.
+     *
+     * @param produkte Die gelesenen Produkte, d.h. höchstens `first` + 1
+     * @param first Die angeforderte Seitengröße
+     * @param after Der Cursor aus dem Argument `after` oder null
+     * @param suchkriterien Die Suchkriterien für `totalCount`
+     * @return Die Connection mit höchstens `first` Produkten
+     */
+    static ProduktConnection of(
+        final List<Produkt> produkte,
+        final int first,
+        final String after,
+        final Map<String, List<String>> suchkriterien
+    ) {
+        final var hasNextPage = produkte.size() > first;
+        final var edges = (hasNextPage ? produkte.subList(0, first) : produkte)
+            .stream()
+            .map(produkt -> new ProduktEdge(produkt, encodeCursor(produkt.getId())))
+            .toList();
+        final var startCursor = edges.isEmpty() ? null : edges.get(0).cursor();
+        final var endCursor = edges.isEmpty() ? null : edges.get(edges.size() - 1).cursor();
+        return new ProduktConnection(
+            edges,
+            new PageInfo(hasNextPage, after != null, startCursor, endCursor),
+            suchkriterien
+        );
+    }
+
+    /**
+     * Die angeforderte Seitengröße prüfen.
+     *
+     * @param first Das Argument `first`
+     * @throws PaginationException Falls die Seitengröße nicht zwischen 1 und MAX_FIRST liegt
+     */
+    static void pruefeFirst(final int first) {
+        if (first < 1 || first > MAX_FIRST) {
+            throw new PaginationException("first muss zwischen 1 und " + MAX_FIRST + " liegen: " + first);
+        }
+    }
+
+    /**
+     * Einen Cursor in die ID des zuletzt gelieferten Produktes konvertieren.
+     *
+     * @param cursor Der Cursor aus dem Argument `after`
+     * @return Die ID
+     * @throws PaginationException Falls der Cursor ungültig ist
+     */
+    static UUID decodeCursor(final String cursor) {
+        try {
+            return UUID.fromString(new String(Base64.getUrlDecoder().decode(cursor), UTF_8));
+        } catch (final IllegalArgumentException ex) {
+            // ungueltiges Base64 oder keine UUID
+            throw new PaginationException("Ungueltiger Cursor: " + cursor, ex);
+        }
+    }
+
+    // Opaker Cursor fuer "Keyset Pagination" nach der ID
+    private static String encodeCursor(final UUID id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id.toString().getBytes(UTF_8));
+    }
+
+    /**
+     * Ein Produkt innerhalb einer Connection.
+     *
+     * @param node Das Produkt
+     * @param cursor Der Cursor, um nach diesem Produkt fortzusetzen
+     */
+    record ProduktEdge(Produkt node, String cursor) {
+    }
+
+    /**
+     * Angaben zu einer Seite.
+     *
+     * @param hasNextPage Gibt es eine Folgeseite?
+     * @param hasPreviousPage Gibt es eine vorherige Seite, d.h. wurde mit `after` gesucht?
+     * @param startCursor Der Cursor des 1. Produktes oder null
+     * @param endCursor Der Cursor des letzten Produktes oder null
+     */
+    record PageInfo(boolean hasNextPage, boolean hasPreviousPage, String startCursor, String endCursor) {
+    }
+}
@@ -17,18 +17,26 @@
 package com.acme.produkt.graphql;
 
 import com.acme.produkt.service.ProduktWriteService;
+import graphql.execution.DataFetcherResult;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.stereotype.Controller;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type.SERVLET;
+
 /**
  * Eine Controller-Klasse für das Schreiben mit der GraphQL-Schnittstelle und den Typen aus dem GraphQL-Schema.
  *
  * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
  */
 @Controller
+@ConditionalOnWebApplication(type = SERVLET)
 @RequiredArgsConstructor
 @Slf4j
 final class ProduktMutationController {
@@ -47,4 +55,33 @@ final class ProduktMutationController {
         log.debug("create: id={}", id);
         return new CreatePayload(id);
     }
+
+    /**
+     * Mehrere neue Produkte in einer einzigen Transaktion anlegen. Für ein fehlerhaftes Produkt ist das Element null
+     * und es gibt Fehler mit dem Index des Elements im Pfad, z.B. `["input", 1, "name"]`.
+     *
+     * @param input Die Eingabedaten für die neuen Produkte
+     * @return Die generierten IDs bzw. null sowie ggf. die Fehler
+     */
+    @MutationMapping
+    DataFetcherResult<List<CreatePayload>> createProdukte(@Argument final List<ProduktInput> input) {
+        log.debug("createProdukte: anzahl={}", input.size());
+        final var produkte = input.stream().map(ProduktInput::toProdukt).toList();
+        final var ergebnisse = service.createAll(produkte);
+
+        final var result = DataFetcherResult.<List<CreatePayload>>newResult();
+        final List<CreatePayload> data = new ArrayList<>(ergebnisse.size());
+        for (var i = 0; i < ergebnisse.size(); i++) {
+            final var ergebnis = ergebnisse.get(i);
+            if (ergebnis.isAngelegt()) {
+                data.add(new CreatePayload(ergebnis.produkt().getId()));
+                continue;
+            }
+            data.add(null);
+            final var index = i;
+            ergebnis.violations().forEach(violation -> result.error(new ConstraintViolationError(violation, index)));
+        }
+        log.debug("createProdukte: {}", data);
+        return result.data(data).build();
+    }
 }
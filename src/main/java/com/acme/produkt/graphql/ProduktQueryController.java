@@ -18,17 +18,28 @@ package com.acme.produkt.graphql;
 
 import com.acme.produkt.entity.Produkt;
 import com.acme.produkt.service.ProduktReadService;
+import graphql.GraphqlErrorBuilder;
+import graphql.execution.DataFetcherResult;
+import graphql.schema.DataFetchingEnvironment;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.method.annotation.SchemaMapping;
 import org.springframework.stereotype.Controller;
 
-import java.util.Collection;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import static com.acme.produkt.service.ProduktReadService.MAX_IDS;
 import static java.util.Collections.emptyMap;
+import static org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type.SERVLET;
+import static org.springframework.graphql.execution.ErrorType.BAD_REQUEST;
+import static org.springframework.graphql.execution.ErrorType.NOT_FOUND;
 
 /**
  * Eine Controller-Klasse für das Lesen mit der GraphQL-Schnittstelle und den Typen aus dem GraphQL-Schema.
@@ -36,6 +47,7 @@ import static java.util.Collections.emptyMap;
  * @author [Jürgen Zimmermann](mailto:Juergen.Zimmermann@h-ka.de)
  */
 @Controller
+@ConditionalOnWebApplication(type = SERVLET)
 @RequiredArgsConstructor
 @Slf4j
 final class ProduktQueryController {
@@ -57,17 +69,82 @@ final class ProduktQueryController {
     }
 
     /**
-     * Suche mit diversen Suchkriterien.
+     * Seitenweise Suche mit diversen Suchkriterien. Es wird 1 Produkt mehr als `first` nach dem Cursor gelesen, so
+     * dass der Speicherbedarf unabhängig von der Anzahl aller gefundenen Produkte ist.
      *
      * @param input Suchkriterien und ihre Werte, z.B. `name` und `Alpha`
-     * @return Die gefundenen Produkte als Collection
+     * @param first Maximale Anzahl an Produkten
+     * @param after Cursor des zuletzt gelieferten Produktes
+     * @return Die gefundenen Produkte als Connection
      */
     @QueryMapping
-    Collection<Produkt> produkte(@Argument final Optional<Suchkriterien> input) {
-        log.debug("produkte: input={}", input);
+    ProduktConnection produkte(
+        @Argument final Optional<Suchkriterien> input,
+        @Argument final int first,
+        @Argument final Optional<String> after
+    ) {
+        log.debug("produkte: input={}, first={}, after={}", input, first, after);
+        ProduktConnection.pruefeFirst(first);
+        final var nachId = after.map(ProduktConnection::decodeCursor).orElse(null);
         final var suchkriterien = input.map(Suchkriterien::toMap).orElse(emptyMap());
-        final var produkte = service.find(suchkriterien);
-        log.debug("produkte: {}", produkte);
-        return produkte;
+        final var produkte = service.findSeite(suchkriterien, nachId, first + 1);
+        log.debug("produkte: anzahl={}", produkte.size());
+        return ProduktConnection.of(produkte, first, after.orElse(null), suchkriterien);
+    }
+
+    /**
+     * Anzahl aller Produkte zu den Suchkriterien einer Connection, die nur ermittelt wird, wenn das Feld
+     * `totalCount` angefordert ist.
+     *
+     * @param connection Die Connection mit den Suchkriterien
+     * @return Die Anzahl der Produkte
+     */
+    @SchemaMapping(typeName = "ProduktConnection")
+    int totalCount(final ProduktConnection connection) {
+        return Math.toIntExact(service.count(connection.suchkriterien()));
+    }
+
+    /**
+     * Suche mit mehreren Produkt-IDs in einem einzigen Request. Die Produkte werden in der Reihenfolge der IDs
+     * geliefert. Für eine nicht vorhandene ID ist das Element null und es gibt einen Fehler mit dem Pfad des Elements.
+     *
+     * @param ids IDs der zu suchenden Produkte
+     * @param env Environment-Objekt, um die Fehler den Elementen zuzuordnen
+     * @return Die gefundenen Produkte bzw. null sowie ggf. die Fehler
+     */
+    @QueryMapping
+    DataFetcherResult<List<Produkt>> produkteByIds(
+        @Argument final List<UUID> ids,
+        final DataFetchingEnvironment env
+    ) {
+        log.debug("produkteByIds: ids={}", ids);
+        final var result = DataFetcherResult.<List<Produkt>>newResult();
+        final var idSet = new LinkedHashSet<>(ids);
+        if (idSet.size() > MAX_IDS) {
+            final var error = GraphqlErrorBuilder.newError(env)
+                .errorType(BAD_REQUEST)
+                .message("Hoechstens %d IDs statt %d", MAX_IDS, idSet.size())
+                .build();
+            return result.error(error).build();
+        }
+
+        final var produkte = service.findByIds(idSet);
+        final var path = env.getExecutionStepInfo().getPath();
+        final List<Produkt> data = new ArrayList<>(ids.size());
+        for (var i = 0; i < ids.size(); i++) {
+            final var id = ids.get(i);
+            final var produkt = produkte.get(id);
+            data.add(produkt);
+            if (produkt == null) {
+                final var error = GraphqlErrorBuilder.newError(env)
+                    .errorType(NOT_FOUND)
+                    .path(path.segment(i))
+                    .message("Kein Produkt mit der ID %s gefunden", id)
+                    .build();
+                result.error(error);
+            }
+        }
+        log.debug("produkteByIds: gefunden={}", produkte.size());
+        return result.data(data).build();
     }
 }
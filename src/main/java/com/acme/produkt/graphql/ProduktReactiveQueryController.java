@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.graphql;
+
+import com.acme.produkt.entity.Produkt;
+import com.acme.produkt.service.ProduktReactiveReadService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.method.annotation.SchemaMapping;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static java.util.Collections.emptyMap;
+import static org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type.REACTIVE;
+
+/**
+ * Reaktive Variante von ProduktQueryController für das Profile "reactive", d.h. GraphQL über WebFlux mit R2DBC und
+ * nicht-blockierenden Aufrufen beim Angestellter-Service.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@Controller
+@ConditionalOnWebApplication(type = REACTIVE)
+@RequiredArgsConstructor
+@Slf4j
+final class ProduktReactiveQueryController {
+    private final ProduktReactiveReadService service;
+
+    /**
+     * Suche anhand der Produkt-ID.
+     *
+     * @param id ID des zu suchenden Produktes
+     * @return Mono mit dem gefundenen Produkt
+     */
+    @QueryMapping
+    Mono<Produkt> produkt(@Argument final UUID id) {
+        log.debug("produkt: id={}", id);
+        return service.findById(id);
+    }
+
+    /**
+     * Seitenweise Suche mit diversen Suchkriterien wie bei ProduktQueryController.
+     *
+     * @param input Suchkriterien und ihre Werte, z.B. `name` und `Alpha`
+     * @param first Maximale Anzahl an Produkten
+     * @param after Cursor des zuletzt gelieferten Produktes
+     * @return Mono mit den gefundenen Produkten als Connection
+     */
+    @QueryMapping
+    Mono<ProduktConnection> produkte(
+        @Argument final Optional<Suchkriterien> input,
+        @Argument final int first,
+        @Argument final Optional<String> after
+    ) {
+        log.debug("produkte: input={}, first={}, after={}", input, first, after);
+        ProduktConnection.pruefeFirst(first);
+        final var nachId = after.map(ProduktConnection::decodeCursor).orElse(null);
+        final var suchkriterien = input.map(Suchkriterien::toMap).orElse(emptyMap());
+        return service.findSeite(suchkriterien, nachId, first + 1)
+            .collectList()
+            .map(produkte -> ProduktConnection.of(produkte, first, after.orElse(null), suchkriterien));
+    }
+
+    /**
+     * Anzahl aller Produkte zu den Suchkriterien einer Connection, nur falls `totalCount` angefordert ist.
+     *
+     * @param connection Die Connection mit den Suchkriterien
+     * @return Mono mit der Anzahl der Produkte
+     */
+    @SchemaMapping(typeName = "ProduktConnection")
+    Mono<Integer> totalCount(final ProduktConnection connection) {
+        return service.count(connection.suchkriterien()).map(Math::toIntExact);
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.graphql;
+
+import com.acme.produkt.entity.UmsatzSumme;
+import com.acme.produkt.service.UmsatzSummeService;
+import graphql.GraphqlErrorBuilder;
+import graphql.execution.DataFetcherResult;
+import graphql.schema.DataFetchingEnvironment;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.stereotype.Controller;
+
+import java.util.Currency;
+import java.util.List;
+import java.util.UUID;
+
+import static org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type.SERVLET;
+import static org.springframework.graphql.execution.ErrorType.BAD_REQUEST;
+
+/**
+ * Eine Controller-Klasse für die Umsatzsummen pro Angestellter und Währung mit der GraphQL-Schnittstelle.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@Controller
+@ConditionalOnWebApplication(type = SERVLET)
+@RequiredArgsConstructor
+@Slf4j
+final class UmsatzSummeQueryController {
+    private final UmsatzSummeService service;
+
+    /**
+     * Umsatzsummen suchen, optional zu einem Angestellten und/oder einer Währung.
+     *
+     * @param angestellterId ID des Angestellten oder null
+     * @param waehrung ISO-Code der Währung oder null
+     * @param env Environment-Objekt für den Fehler bei einer ungültigen Währung
+     * @return Die gefundenen Umsatzsummen oder ein Fehler mit BAD_REQUEST bei einer ungültigen Währung
+     */
+    @QueryMapping
+    DataFetcherResult<List<UmsatzSumme>> umsatzSummen(
+        @Argument final UUID angestellterId,
+        @Argument final String waehrung,
+        final DataFetchingEnvironment env
+    ) {
+        log.debug("umsatzSummen: angestellterId={}, waehrung={}", angestellterId, waehrung);
+        final var result = DataFetcherResult.<List<UmsatzSumme>>newResult();
+        Currency currency = null;
+        if (waehrung != null) {
+            try {
+                currency = Currency.getInstance(waehrung);
+            } catch (final IllegalArgumentException ex) {
+                log.debug("umsatzSummen: ungueltige Waehrung {}", waehrung);
+                final var error = GraphqlErrorBuilder.newError(env)
+                    .errorType(BAD_REQUEST)
+                    .message("Ungueltige Waehrung %s", waehrung)
+                    .build();
+                return result.error(error).build();
+            }
+        }
+        final var summen = service.find(angestellterId, currency);
+        log.debug("umsatzSummen: {}", summen);
+        return result.data(summen).build();
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.graphql;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Actuator-Endpoint, um die Zeitmessung für GraphQL abzufragen (`GET /actuator/graphqlmetriken`) und zur Laufzeit
+ * ein- oder auszuschalten (`POST /actuator/graphqlmetriken` mit z.B. `{"enabled": true}`).
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@Component
+@Endpoint(id = "graphqlmetriken")
+@RequiredArgsConstructor
+class ZeitmessungEndpoint {
+    private static final String ENABLED = "enabled";
+
+    private final ZeitmessungInstrumentation instrumentation;
+
+    /**
+     * Abfrage, ob die Zeitmessung eingeschaltet ist.
+     *
+     * @return Map mit dem Schlüssel "enabled"
+     */
+    @ReadOperation
+    public Map<String, Boolean> status() {
+        return Map.of(ENABLED, instrumentation.isAktiv());
+    }
+
+    /**
+     * Die Zeitmessung ein- oder ausschalten.
+     *
+     * @param enabled true, um die Zeitmessung einzuschalten
+     * @return Map mit dem Schlüssel "enabled"
+     */
+    @WriteOperation
+    public Map<String, Boolean> setEnabled(final boolean enabled) {
+        instrumentation.setAktiv(enabled);
+        return status();
+    }
+}
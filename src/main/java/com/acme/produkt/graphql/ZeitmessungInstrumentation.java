@@ -0,0 +1,193 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.graphql;
+
+import com.acme.produkt.GraphQlMetrikProps;
+import graphql.ExecutionResult;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationCreateStateParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Instrumentation, die die Dauer jeder GraphQL-Operation pro Operationsname sowie die Dauer jedes Resolvers pro Feld
+ * als Timer mit Histogramm erfasst, z.B. um die DB-Zugriffe von den Aufrufen beim Angestellter-Service zu
+ * unterscheiden. Triviale Data Fetcher für Properties werden nicht gemessen. Bei asynchronen Resolvern wird bis zum
+ * Vorliegen des Resultats gemessen. Ist die Zeitmessung ausgeschaltet, bleiben die Resolver unverändert.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@Component
+@Slf4j
+final class ZeitmessungInstrumentation extends SimplePerformantInstrumentation {
+    private static final String METRIC_OPERATION = "graphql.operation.dauer";
+    private static final String METRIC_FELD = "graphql.feld.dauer";
+    private static final String UNBEKANNT = "unbekannt";
+    private static final String ANONYM = "anonym";
+    private static final String ANDERE = "andere";
+    private static final Duration MIN_ERWARTET = Duration.ofMillis(1);
+    private static final Duration MAX_ERWARTET = Duration.ofSeconds(10);
+
+    // Gemeinsamer Zustand bei ausgeschalteter Zeitmessung, damit pro Operation kein Objekt erzeugt wird
+    private static final InstrumentationState INAKTIV = new InstrumentationState() { };
+
+    private final MeterRegistry meterRegistry;
+    private final int maxOperationen;
+    private final Set<String> operationen = ConcurrentHashMap.newKeySet();
+    // ReentrantLock statt synchronized, damit "Virtual Threads" nicht an den Carrier-Thread gebunden werden
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, Timer> feldTimer = new ConcurrentHashMap<>();
+    private volatile boolean aktiv;
+
+    ZeitmessungInstrumentation(final GraphQlMetrikProps props, final MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        maxOperationen = props.maxOperationen();
+        aktiv = props.enabled();
+    }
+
+    /**
+     * Abfrage, ob die Zeitmessung eingeschaltet ist.
+     *
+     * @return true, falls die Zeitmessung eingeschaltet ist
+     */
+    boolean isAktiv() {
+        return aktiv;
+    }
+
+    /**
+     * Die Zeitmessung ein- oder ausschalten. Bereits laufende Operationen werden nicht umgeschaltet.
+     *
+     * @param aktiv true, um die Zeitmessung einzuschalten
+     */
+    void setAktiv(final boolean aktiv) {
+        log.info("setAktiv: {}", aktiv);
+        this.aktiv = aktiv;
+    }
+
+    @Override
+    public InstrumentationState createState(final InstrumentationCreateStateParameters parameters) {
+        return aktiv ? new Messung() : INAKTIV;
+    }
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecution(
+        final InstrumentationExecutionParameters parameters,
+        final InstrumentationState state
+    ) {
+        if (!(state instanceof final Messung messung)) {
+            return super.beginExecution(parameters, state);
+        }
+        final var start = System.nanoTime();
+        return SimpleInstrumentationContext.whenCompleted((result, ex) -> {
+            final var erfolg = ex == null && result != null && result.getErrors().isEmpty();
+            Timer.builder(METRIC_OPERATION)
+                .tag("operation", messung.operation)
+                .tag("typ", messung.typ)
+                .tag("ergebnis", erfolg ? "erfolg" : "fehler")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(MIN_ERWARTET)
+                .maximumExpectedValue(MAX_ERWARTET)
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, NANOSECONDS);
+        });
+    }
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecuteOperation(
+        final InstrumentationExecuteOperationParameters parameters,
+        final InstrumentationState state
+    ) {
+        if (state instanceof final Messung messung) {
+            final var definition = parameters.getExecutionContext().getOperationDefinition();
+            messung.operation = operation(definition.getName());
+            messung.typ = definition.getOperation().name().toLowerCase(Locale.ROOT);
+        }
+        return super.beginExecuteOperation(parameters, state);
+    }
+
+    @Override
+    public InstrumentationContext<Object> beginFieldFetch(
+        final InstrumentationFieldFetchParameters parameters,
+        final InstrumentationState state
+    ) {
+        if (!(state instanceof Messung) || parameters.isTrivialDataFetcher()) {
+            return super.beginFieldFetch(parameters, state);
+        }
+        // Die Felder sind durch das Schema begrenzt, z.B. "Produkt.angestellterNachname"
+        final var feld = parameters.getExecutionStepInfo().getObjectType().getName() + '.' +
+            parameters.getField().getName();
+        final var start = System.nanoTime();
+        return SimpleInstrumentationContext.whenCompleted((result, ex) ->
+            feldTimer(feld, ex == null).record(System.nanoTime() - start, NANOSECONDS)
+        );
+    }
+
+    // Die Operationsnamen stammen vom Client und werden deshalb begrenzt
+    private String operation(final String name) {
+        if (name == null) {
+            return ANONYM;
+        }
+        if (operationen.contains(name)) {
+            return name;
+        }
+        // Pruefen und Hinzufuegen atomar, damit gleichzeitige neue Namen das Limit nicht ueberschreiten
+        lock.lock();
+        try {
+            if (!operationen.contains(name) && operationen.size() >= maxOperationen) {
+                return ANDERE;
+            }
+            operationen.add(name);
+            return name;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Timer feldTimer(final String feld, final boolean erfolg) {
+        final var ergebnis = erfolg ? "erfolg" : "fehler";
+        return feldTimer.computeIfAbsent(feld + ' ' + ergebnis, key -> Timer.builder(METRIC_FELD)
+            .tag("feld", feld)
+            .tag("ergebnis", ergebnis)
+            .publishPercentileHistogram()
+            .minimumExpectedValue(MIN_ERWARTET)
+            .maximumExpectedValue(MAX_ERWARTET)
+            .register(meterRegistry));
+    }
+
+    // Zustand einer einzelnen Operation, wobei Name und Typ erst nach dem Parsen bekannt sind
+    private static final class Messung implements InstrumentationState {
+        private volatile String operation = UNBEKANNT;
+        private volatile String typ = UNBEKANNT;
+    }
+}
@@ -24,6 +24,7 @@ import org.springframework.graphql.client.HttpGraphQlClient;
 import org.springframework.stereotype.Repository;
 import org.springframework.web.reactive.function.client.WebClientException;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
 
 import java.util.Optional;
 import java.util.UUID;
@@ -49,20 +50,28 @@ public class AngestellterRepository {
      */
     public Optional<Angestellter> findById(final UUID angestellterId) {
         log.debug("findById: angestellterId={}", angestellterId);
-
-        final Angestellter angestellter;
-        try {
-            angestellter = angestellterRestRepository.getAngestellter(angestellterId.toString()).block();
-        } catch (final WebClientResponseException.NotFound ex) {
-            log.error("findById: WebClientResponseException.NotFound");
-            return Optional.empty();
-        } catch (final WebClientException ex) {
-            log.error("findById: {}", ex.getClass().getSimpleName());
-            throw new AngestellterServiceException(ex);
-        }
-
+        final var angestellter = findByIdReactive(angestellterId).blockOptional();
         log.debug("findById: {}", angestellter);
-        return Optional.ofNullable(angestellter);
+        return angestellter;
+    }
+
+    /**
+     * Angestellter anhand der Angestellter-ID suchen, ohne zu blockieren.
+     *
+     * @param angestellterId Die Id des gesuchten Angestellter.
+     * @return Mono mit dem gefundenen Angestellten oder ein leeres Mono. Bei einem Fehler beim Zugriff auf den Web
+     *      Service enthält das Mono eine AngestellterServiceException.
+     */
+    public Mono<Angestellter> findByIdReactive(final UUID angestellterId) {
+        return angestellterRestRepository.getAngestellter(angestellterId.toString())
+            .onErrorResume(WebClientResponseException.NotFound.class, ex -> {
+                log.error("findById: WebClientResponseException.NotFound");
+                return Mono.empty();
+            })
+            .onErrorMap(WebClientException.class, ex -> {
+                log.error("findById: {}", ex.getClass().getSimpleName());
+                return new AngestellterServiceException(ex);
+            });
     }
 
     /**
@@ -74,6 +83,19 @@ public class AngestellterRepository {
      */
     public Optional<String> findEmailById(final UUID angestellterId) {
         log.debug("findEmailById: angestellterId={}", angestellterId);
+        final var email = findEmailByIdReactive(angestellterId).blockOptional();
+        log.debug("findEmailById: {}", email);
+        return email;
+    }
+
+    /**
+     * Die Emailadresse anhand der Angestellter-ID suchen, ohne zu blockieren.
+     *
+     * @param angestellterId Die Id des gesuchten Angestellten.
+     * @return Mono mit der Emailadresse oder ein leeres Mono. Bei einem Fehler beim Zugriff auf den Web Service
+     *      enthält das Mono eine AngestellterServiceException.
+     */
+    public Mono<String> findEmailByIdReactive(final UUID angestellterId) {
         final var query = """
             query {
                 angestellter(id: "%s") {
@@ -82,22 +104,17 @@ public class AngestellterRepository {
             }
             """.formatted(angestellterId);
 
-        final String email;
-        try {
-            email = graphQlClient.document(query)
-                .retrieve("angestellter")
-                .toEntity(EmailEntity.class)
-                .map(EmailEntity::email)
-                .block();
-        } catch (final FieldAccessException ex) {
-            log.warn("findEmailById: {}", ex.getClass().getSimpleName());
-            return Optional.empty();
-        } catch (final GraphQlTransportException ex) {
-            log.warn("findEmailById: {}", ex.getClass().getSimpleName());
-            throw new AngestellterServiceException(ex);
-        }
-
-        log.debug("findEmailById: {}", email);
-        return Optional.ofNullable(email);
+        return graphQlClient.document(query)
+            .retrieve("angestellter")
+            .toEntity(EmailEntity.class)
+            .map(EmailEntity::email)
+            .onErrorResume(FieldAccessException.class, ex -> {
+                log.warn("findEmailById: {}", ex.getClass().getSimpleName());
+                return Mono.empty();
+            })
+            .onErrorMap(GraphQlTransportException.class, ex -> {
+                log.warn("findEmailById: {}", ex.getClass().getSimpleName());
+                return new AngestellterServiceException(ex);
+            });
     }
 }
@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.repository;
+
+import com.acme.produkt.entity.AuftragStatus;
+import com.acme.produkt.entity.ProduktAuftrag;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static jakarta.persistence.LockModeType.PESSIMISTIC_WRITE;
+
+/**
+ * Repository für die Aufträge zum asynchronen Neuanlegen von Produkten.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@Repository
+public interface ProduktAuftragRepository extends JpaRepository<ProduktAuftrag, UUID> {
+    /**
+     * Lock-Timeout für "SELECT ... FOR UPDATE SKIP LOCKED", siehe org.hibernate.LockOptions.SKIP_LOCKED.
+     */
+    String SKIP_LOCKED = "-2";
+
+    /**
+     * Die ältesten Aufträge mit einem Status lesen und sperren. Von anderen Transaktionen gesperrte Aufträge werden
+     * übersprungen, so dass mehrere Hintergrund-Threads oder Pods parallel arbeiten können.
+     *
+     * @param status Der Status der Aufträge
+     * @param pageable Die maximale Anzahl an Aufträgen, wobei nur die Seitengröße ausgewertet wird
+     * @return Die gesperrten Aufträge
+     */
+    @Query("""
+        SELECT   a
+        FROM     ProduktAuftrag a
+        WHERE    a.status = :status
+        ORDER BY a.erzeugt
+        """)
+    @Lock(PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = SKIP_LOCKED))
+    List<ProduktAuftrag> findByStatusAndLock(AuftragStatus status, Pageable pageable);
+
+    /**
+     * Die IDs der ältesten Aufträge mit einem Status lesen, ohne sie zu sperren.
+     *
+     * @param status Der Status der Aufträge
+     * @param pageable Die maximale Anzahl an Aufträgen, wobei nur die Seitengröße ausgewertet wird
+     * @return Die IDs der Aufträge
+     */
+    @Query("""
+        SELECT   a.id
+        FROM     ProduktAuftrag a
+        WHERE    a.status = :status
+        ORDER BY a.erzeugt
+        """)
+    List<UUID> findIdsByStatus(AuftragStatus status, Pageable pageable);
+
+    /**
+     * Einen Auftrag mit einem Status lesen und sperren, sofern er nicht von einer anderen Transaktion gesperrt ist.
+     *
+     * @param id Die ID des Auftrags
+     * @param status Der Status des Auftrags
+     * @return Der gesperrte Auftrag oder ein leeres Optional
+     */
+    @Lock(PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = SKIP_LOCKED))
+    Optional<ProduktAuftrag> findByIdAndStatus(UUID id, AuftragStatus status);
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.repository;
+
+import com.acme.produkt.entity.EreignisStatus;
+import com.acme.produkt.entity.ProduktEreignis;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository für die Outbox-Tabelle mit den Änderungsereignissen zu Produkten.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@Repository
+public interface ProduktEreignisRepository extends JpaRepository<ProduktEreignis, Long> {
+    /**
+     * Die Sperre für das Relay bis zum Ende der Transaktion anfordern ("Advisory Lock"). Parallele Relays z.B. in
+     * anderen Pods warten auf die Sperre, so dass die Positionen in der Reihenfolge der Commits vergeben werden.
+     *
+     * @return Immer 1
+     */
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(hashtext('produkt_ereignis'))", nativeQuery = true)
+    int sperren();
+
+    /**
+     * Die ältesten Ereignisse mit einem Status lesen: zuerst die Ereignisse, die schon eine Position haben, danach
+     * die übrigen Ereignisse in der Reihenfolge der IDs. Die Ereignisse werden nicht gesperrt, weil das Relay zuvor
+     * die Sperre mit {@link #sperren()} anfordert.
+     *
+     * @param status Der Status der Ereignisse
+     * @param pageable Die maximale Anzahl an Ereignissen, wobei nur die Seitengröße ausgewertet wird
+     * @return Die Ereignisse in der Reihenfolge der Zustellung
+     */
+    // PostgreSQL sortiert NULL bei aufsteigender Reihenfolge ans Ende, passend zum Index produkt_ereignis_neu_idx
+    @Query("""
+        SELECT   e
+        FROM     ProduktEreignis e
+        WHERE    e.status = :status
+        ORDER BY e.position, e.id
+        """)
+    List<ProduktEreignis> findByStatus(EreignisStatus status, Pageable pageable);
+
+    /**
+     * Die nächsten Positionen aus der Sequenz in aufsteigender Reihenfolge lesen.
+     *
+     * @param anzahl Die Anzahl der Positionen
+     * @return Die Positionen
+     */
+    @Query(
+        value = "SELECT nextval('produkt_ereignis_position_seq') FROM generate_series(1, :anzahl) ORDER BY 1",
+        nativeQuery = true
+    )
+    List<Long> naechstePositionen(int anzahl);
+
+    /**
+     * Die Ereignisse nach einer Position in aufsteigender Reihenfolge lesen, d.h. nur Ereignisse, die bereits eine
+     * Position vom Relay erhalten haben.
+     *
+     * @param position Die Position des zuletzt gelesenen Ereignisses
+     * @param pageable Die maximale Anzahl an Ereignissen, wobei nur die Seitengröße ausgewertet wird
+     * @return Die Ereignisse in der Reihenfolge ihrer Positionen
+     */
+    @Query("""
+        SELECT   e
+        FROM     ProduktEreignis e
+        WHERE    e.position > :position
+        ORDER BY e.position
+        """)
+    List<ProduktEreignis> findByPositionNach(long position, Pageable pageable);
+
+    /**
+     * Die Ereignisse mit den höchsten Positionen in absteigender Reihenfolge lesen.
+     *
+     * @param pageable Die maximale Anzahl an Ereignissen, wobei nur die Seitengröße ausgewertet wird
+     * @return Die Ereignisse beginnend mit der höchsten Position
+     */
+    @Query("""
+        SELECT   e
+        FROM     ProduktEreignis e
+        WHERE    e.position IS NOT NULL
+        ORDER BY e.position DESC
+        """)
+    List<ProduktEreignis> findLetzte(Pageable pageable);
+
+    /**
+     * Zugestellte Ereignisse löschen, die älter als ein Zeitpunkt sind.
+     *
+     * @param grenze Der Zeitpunkt
+     * @return Die Anzahl der gelöschten Ereignisse
+     */
+    @Modifying
+    @Query("""
+        DELETE FROM ProduktEreignis e
+        WHERE       e.zugestellt < :grenze
+        """)
+    int deleteZugestelltVor(LocalDateTime grenze);
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.repository;
+
+import java.math.BigDecimal;
+import java.net.URL;
+import java.time.LocalDate;
+import java.util.Currency;
+import java.util.UUID;
+
+/**
+ * Projektion für Produktlisten, deren Spalten aus "produkt" vollständig im Index
+ * "produkt_angestellter_id_name_idx" enthalten sind.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ * @param id ID
+ * @param version Versionsnummer
+ * @param name Name
+ * @param erscheinungsdatum Erscheinungsdatum
+ * @param homepage URL der Homepage
+ * @param angestellterId ID des Angestellten
+ * @param betrag Betrag des Umsatzes oder null
+ * @param waehrung Währung des Umsatzes oder null
+ */
+@SuppressWarnings("RecordComponentNumber")
+public record ProduktKurzform(
+    UUID id,
+    int version,
+    String name,
+    LocalDate erscheinungsdatum,
+    URL homepage,
+    UUID angestellterId,
+    BigDecimal betrag,
+    Currency waehrung
+) {
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.repository;
+
+import com.acme.produkt.entity.Produkt;
+import com.acme.produkt.entity.ProduktFeld;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Repository-Fragment für Abfragen, die nur die ausgewählten Spalten lesen. Der Umsatz wird nur bei Bedarf über
+ * einen Join gelesen. Die gelieferten Produkte sind keine Entities im Persistence Context, sondern enthalten
+ * lediglich die ausgewählten Felder sowie ID und Versionsnummer.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+public interface ProduktProjektionRepository {
+    /**
+     * Ein Produkt mit den ausgewählten Feldern anhand der ID suchen.
+     *
+     * @param id Die ID des gesuchten Produktes
+     * @param felder Die auszuwählenden Felder
+     * @return Das gefundene Produkt oder ein leeres Optional
+     */
+    Optional<Produkt> findProjektionById(UUID id, Set<ProduktFeld> felder);
+
+    /**
+     * Produkte mit den ausgewählten Feldern suchen, optional zu einer Angestellter-ID und seitenweise.
+     *
+     * @param angestellterId Die ID des Angestellten oder null für alle Produkte. Bei einer Angestellter-ID wird nach
+     *                       Name und ID sortiert.
+     * @param nachName Name des zuletzt gelieferten Produktes für die Folgeseite oder null
+     * @param nachId ID des zuletzt gelieferten Produktes für die Folgeseite oder null
+     * @param anzahl Maximale Anzahl an Produkten oder 0 für keine Begrenzung
+     * @param felder Die auszuwählenden Felder
+     * @return Die gefundenen Produkte oder eine leere Liste
+     */
+    List<Produkt> findProjektion(
+        UUID angestellterId,
+        String nachName,
+        UUID nachId,
+        int anzahl,
+        Set<ProduktFeld> felder
+    );
+}
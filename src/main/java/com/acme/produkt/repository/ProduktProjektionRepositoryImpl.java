@@ -0,0 +1,185 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.repository;
+
+import com.acme.produkt.entity.Produkt;
+import com.acme.produkt.entity.ProduktFeld;
+import com.acme.produkt.entity.Produkt_;
+import com.acme.produkt.entity.Umsatz;
+import com.acme.produkt.entity.Umsatz_;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.net.URL;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static com.acme.produkt.entity.ProduktFeld.ANGESTELLTER_EMAIL;
+import static com.acme.produkt.entity.ProduktFeld.ANGESTELLTER_ID;
+import static com.acme.produkt.entity.ProduktFeld.ANGESTELLTER_NACHNAME;
+import static com.acme.produkt.entity.ProduktFeld.ERSCHEINUNGSDATUM;
+import static com.acme.produkt.entity.ProduktFeld.HOMEPAGE;
+import static com.acme.produkt.entity.ProduktFeld.NAME;
+import static com.acme.produkt.entity.ProduktFeld.UMSATZ;
+import static jakarta.persistence.criteria.JoinType.LEFT;
+
+/**
+ * Implementierung des Repository-Fragments mit der Criteria API, so dass das SELECT nur die ausgewählten Spalten und
+ * den Join mit "umsatz" nur bei Bedarf enthält.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@RequiredArgsConstructor
+@Slf4j
+final class ProduktProjektionRepositoryImpl implements ProduktProjektionRepository {
+    private static final String ID = "id";
+    private static final String VERSION = "version";
+    private static final String BETRAG = "betrag";
+    private static final String WAEHRUNG = "waehrung";
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Optional<Produkt> findProjektionById(final UUID id, final Set<ProduktFeld> felder) {
+        final var cb = entityManager.getCriteriaBuilder();
+        final var query = cb.createTupleQuery();
+        final var produkt = query.from(Produkt.class);
+        select(query, produkt, felder);
+        query.where(cb.equal(produkt.get(Produkt_.id), id));
+        return entityManager.createQuery(query)
+            .getResultStream()
+            .findFirst()
+            .map(tuple -> toProdukt(tuple, felder));
+    }
+
+    @Override
+    public List<Produkt> findProjektion(
+        final UUID angestellterId,
+        final String nachName,
+        final UUID nachId,
+        final int anzahl,
+        final Set<ProduktFeld> felder
+    ) {
+        log.debug(
+            "findProjektion: angestellterId={}, nachName={}, nachId={}, anzahl={}, felder={}",
+            angestellterId,
+            nachName,
+            nachId,
+            anzahl,
+            felder
+        );
+        final var cb = entityManager.getCriteriaBuilder();
+        final var query = cb.createTupleQuery();
+        final var produkt = query.from(Produkt.class);
+        select(query, produkt, felder);
+
+        if (angestellterId != null) {
+            final var name = produkt.get(Produkt_.name);
+            final var id = produkt.get(Produkt_.id);
+            final List<Predicate> predicates = new ArrayList<>(2);
+            predicates.add(cb.equal(produkt.get(Produkt_.angestellterId), angestellterId));
+            if (nachName != null && nachId != null) {
+                // "Keyset Pagination" wie bei findKurzformByAngestellterIdNach()
+                predicates.add(cb.or(
+                    cb.greaterThan(name, nachName),
+                    cb.and(cb.equal(name, nachName), cb.greaterThan(id, nachId))
+                ));
+            }
+            query.where(predicates.toArray(Predicate[]::new));
+            query.orderBy(cb.asc(name), cb.asc(id));
+        }
+
+        final var typedQuery = entityManager.createQuery(query);
+        if (anzahl > 0) {
+            typedQuery.setMaxResults(anzahl);
+        }
+        return typedQuery.getResultStream()
+            .map(tuple -> toProdukt(tuple, felder))
+            .toList();
+    }
+
+    private static void select(
+        final CriteriaQuery<Tuple> query,
+        final Root<Produkt> produkt,
+        final Set<ProduktFeld> felder
+    ) {
+        final List<Selection<?>> spalten = new ArrayList<>();
+        spalten.add(produkt.get(Produkt_.id).alias(ID));
+        spalten.add(produkt.get(Produkt_.version).alias(VERSION));
+        if (felder.contains(NAME)) {
+            spalten.add(produkt.get(Produkt_.name).alias(NAME.getValue()));
+        }
+        if (felder.contains(ERSCHEINUNGSDATUM)) {
+            spalten.add(produkt.get(Produkt_.erscheinungsdatum).alias(ERSCHEINUNGSDATUM.getValue()));
+        }
+        if (felder.contains(HOMEPAGE)) {
+            spalten.add(produkt.get(Produkt_.homepage).alias(HOMEPAGE.getValue()));
+        }
+        // Die Angestellter-ID wird auch fuer die Daten vom Angestellter-Service benoetigt
+        if (mitAngestellterId(felder)) {
+            spalten.add(produkt.get(Produkt_.angestellterId).alias(ANGESTELLTER_ID.getValue()));
+        }
+        if (felder.contains(UMSATZ)) {
+            final var umsatz = produkt.join(Produkt_.umsatz, LEFT);
+            spalten.add(umsatz.get(Umsatz_.betrag).alias(BETRAG));
+            spalten.add(umsatz.get(Umsatz_.waehrung).alias(WAEHRUNG));
+        }
+        query.multiselect(spalten);
+    }
+
+    private static boolean mitAngestellterId(final Set<ProduktFeld> felder) {
+        return felder.contains(ANGESTELLTER_ID) || felder.contains(ANGESTELLTER_NACHNAME) ||
+            felder.contains(ANGESTELLTER_EMAIL);
+    }
+
+    private static Produkt toProdukt(final Tuple tuple, final Set<ProduktFeld> felder) {
+        final var builder = Produkt.builder()
+            .id(tuple.get(ID, UUID.class))
+            .version(tuple.get(VERSION, Integer.class));
+        if (felder.contains(NAME)) {
+            builder.name(tuple.get(NAME.getValue(), String.class));
+        }
+        if (felder.contains(ERSCHEINUNGSDATUM)) {
+            builder.erscheinungsdatum(tuple.get(ERSCHEINUNGSDATUM.getValue(), LocalDate.class));
+        }
+        if (felder.contains(HOMEPAGE)) {
+            builder.homepage(tuple.get(HOMEPAGE.getValue(), URL.class));
+        }
+        if (mitAngestellterId(felder)) {
+            builder.angestellterId(tuple.get(ANGESTELLTER_ID.getValue(), UUID.class));
+        }
+        if (felder.contains(UMSATZ)) {
+            final var betrag = tuple.get(BETRAG, BigDecimal.class);
+            if (betrag != null) {
+                builder.umsatz(Umsatz.builder().betrag(betrag).waehrung(tuple.get(WAEHRUNG, Currency.class)).build());
+            }
+        }
+        return builder.build();
+    }
+}
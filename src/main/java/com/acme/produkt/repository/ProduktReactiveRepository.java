@@ -0,0 +1,184 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.repository;
+
+import com.acme.produkt.entity.Produkt;
+import com.acme.produkt.entity.Umsatz;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+import java.util.UUID;
+
+import static org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type.REACTIVE;
+
+/**
+ * Nicht-blockierender DB-Zugriff mit R2DBC für den reaktiven Lesepfad im Profile "reactive". Es werden dieselben
+ * Tabellen wie bei JPA gelesen, d.h. "produkt" mit einem LEFT JOIN auf "umsatz".
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@Repository
+@ConditionalOnWebApplication(type = REACTIVE)
+@RequiredArgsConstructor
+@Slf4j
+public class ProduktReactiveRepository {
+    private static final String SELECT = """
+        SELECT    p.id, p.version, p.name, p.erscheinungsdatum, p.homepage, p.angestellter_id, u.betrag, u.waehrung
+        FROM      produkt p LEFT JOIN umsatz u ON u.id = p.umsatz_id
+        """;
+    private static final String NAME_BEDINGUNG = "lower(p.name) LIKE '%' || lower(:name) || '%'";
+
+    private final DatabaseClient client;
+
+    /**
+     * Ein Produkt anhand der ID suchen.
+     *
+     * @param id Die ID des gesuchten Produktes
+     * @return Mono mit dem gefundenen Produkt oder ein leeres Mono
+     */
+    public Mono<Produkt> findById(final UUID id) {
+        log.debug("findById: id={}", id);
+        return client.sql(SELECT + "WHERE p.id = :id")
+            .bind("id", id)
+            .map(ProduktReactiveRepository::toProdukt)
+            .one();
+    }
+
+    /**
+     * Alle Produkte suchen.
+     *
+     * @return Flux mit allen Produkten
+     */
+    public Flux<Produkt> findAll() {
+        return client.sql(SELECT + "ORDER BY p.id")
+            .map(ProduktReactiveRepository::toProdukt)
+            .all();
+    }
+
+    /**
+     * Produkte anhand des Namens suchen.
+     *
+     * @param name Der (Teil-) Name der gesuchten Produkte
+     * @return Flux mit den gefundenen Produkten
+     */
+    public Flux<Produkt> findByName(final String name) {
+        log.debug("findByName: name={}", name);
+        return client.sql(SELECT + "WHERE " + NAME_BEDINGUNG + " ORDER BY p.id")
+            .bind("name", name)
+            .map(ProduktReactiveRepository::toProdukt)
+            .all();
+    }
+
+    /**
+     * Produkte zu einer Angestellter-ID suchen, sortiert nach Name und ID. Durch "Partition Pruning" wird nur eine
+     * Partition gelesen.
+     *
+     * @param angestellterId Angestellter-ID für die Suche
+     * @return Flux mit den gefundenen Produkten
+     */
+    public Flux<Produkt> findByAngestellterId(final UUID angestellterId) {
+        log.debug("findByAngestellterId: angestellterId={}", angestellterId);
+        return client.sql(SELECT + "WHERE p.angestellter_id = :angestellterId ORDER BY p.name, p.id")
+            .bind("angestellterId", angestellterId)
+            .map(ProduktReactiveRepository::toProdukt)
+            .all();
+    }
+
+    /**
+     * Eine Seite der Produkte optional zu einem (Teil-) Namen suchen, sortiert nach der ID. Eine Folgeseite beginnt
+     * nach dem zuletzt gelieferten Produkt, d.h. "Keyset Pagination".
+     *
+     * @param name Der (Teil-) Name der gesuchten Produkte oder null für alle Produkte
+     * @param nachId ID des zuletzt gelieferten Produktes oder null für die 1. Seite
+     * @param anzahl Maximale Anzahl an Produkten
+     * @return Flux mit den gefundenen Produkten
+     */
+    public Flux<Produkt> findSeite(final String name, final UUID nachId, final int anzahl) {
+        log.debug("findSeite: name={}, nachId={}, anzahl={}", name, nachId, anzahl);
+        final List<String> bedingungen = new ArrayList<>(2);
+        if (name != null) {
+            bedingungen.add(NAME_BEDINGUNG);
+        }
+        if (nachId != null) {
+            bedingungen.add("p.id > :nachId");
+        }
+        final var where = bedingungen.isEmpty() ? "" : "WHERE " + String.join(" AND ", bedingungen) + ' ';
+        var spec = client.sql(SELECT + where + "ORDER BY p.id LIMIT :anzahl").bind("anzahl", anzahl);
+        if (name != null) {
+            spec = spec.bind("name", name);
+        }
+        if (nachId != null) {
+            spec = spec.bind("nachId", nachId);
+        }
+        return spec.map(ProduktReactiveRepository::toProdukt).all();
+    }
+
+    /**
+     * Anzahl der Produkte optional zu einem (Teil-) Namen ermitteln.
+     *
+     * @param name Der (Teil-) Name der gesuchten Produkte oder null für alle Produkte
+     * @return Mono mit der Anzahl
+     */
+    public Mono<Long> count(final String name) {
+        log.debug("count: name={}", name);
+        final var spec = name == null
+            ? client.sql("SELECT count(*) AS anzahl FROM produkt p")
+            : client.sql("SELECT count(*) AS anzahl FROM produkt p WHERE " + NAME_BEDINGUNG).bind("name", name);
+        return spec.map(row -> row.get("anzahl", Long.class)).one();
+    }
+
+    private static Produkt toProdukt(final Readable row) {
+        final var betrag = row.get("betrag", BigDecimal.class);
+        final var umsatz = betrag == null
+            ? null
+            : Umsatz.builder().betrag(betrag).waehrung(Currency.getInstance(row.get("waehrung", String.class))).build();
+        final var version = row.get("version", Integer.class);
+        return Produkt.builder()
+            .id(row.get("id", UUID.class))
+            .version(version == null ? 0 : version)
+            .name(row.get("name", String.class))
+            .erscheinungsdatum(row.get("erscheinungsdatum", LocalDate.class))
+            .homepage(toUrl(row.get("homepage", String.class)))
+            .umsatz(umsatz)
+            .angestellterId(row.get("angestellter_id", UUID.class))
+            .build();
+    }
+
+    private static URL toUrl(final String homepage) {
+        if (homepage == null) {
+            return null;
+        }
+        try {
+            return new URL(homepage);
+        } catch (final MalformedURLException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -17,24 +17,49 @@
 package com.acme.produkt.repository;
 
 import com.acme.produkt.entity.Produkt;
+import com.acme.produkt.entity.ProduktStand;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.net.URL;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 /**
  * Repository für den DB-Zugriff bei Produkte.
+ * <p>
+ * Die Tabelle "produkt" ist nach "angestellter_id" partitioniert und der Primärschlüssel ist deshalb
+ * `(id, angestellter_id)`. Die DB garantiert die Eindeutigkeit der ID nicht mehr; sie folgt nur aus den generierten
+ * UUIDs. Zugriffe ausschließlich über die ID, z.B. findById oder UPDATE, prüfen den Index jeder Partition. Nur
+ * Queries mit "angestellter_id" wie findByAngestellterId lesen eine einzige Partition.
+ * </p>
  *
  * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
  */
 @Repository
-public interface ProduktRepository extends JpaRepository<Produkt, UUID>, JpaSpecificationExecutor<Produkt> {
+public interface ProduktRepository extends
+    JpaRepository<Produkt, UUID>, JpaSpecificationExecutor<Produkt>, ProduktProjektionRepository {
+    /**
+     * Anzahl der Datensätze, die beim Export pro Roundtrip über den serverseitigen Cursor gelesen werden.
+     */
+    String EXPORT_FETCH_SIZE = "500";
+
     @EntityGraph
     @Override
     List<Produkt> findAll();
@@ -43,6 +68,58 @@ public interface ProduktRepository extends JpaRepository<Produkt, UUID>, JpaSpec
     @Override
     Optional<Produkt> findById(UUID id);
 
+    /**
+     * Produkte zu mehreren IDs mit einer einzigen Query einschließlich Umsatz ermitteln.
+     *
+     * @param ids Die IDs der gesuchten Produkte
+     * @return Die gefundenen Produkte in beliebiger Reihenfolge oder eine leere Liste
+     */
+    @Query("""
+        SELECT p
+        FROM   Produkt p LEFT JOIN FETCH p.umsatz
+        WHERE  p.id IN :ids
+        """)
+    List<Produkt> findByIdIn(Collection<UUID> ids);
+
+    /**
+     * Nur die Versionsnummer zu einer ID ermitteln, z.B. für bedingte GET- und HEAD-Requests. Es wird lediglich über
+     * den Primärschlüssel-Index zugegriffen, ohne die Entity oder den Umsatz zu laden.
+     *
+     * @param id Die ID des Produktes
+     * @return Die Versionsnummer oder ein leeres Optional
+     */
+    @Query("""
+        SELECT p.version
+        FROM   Produkt p
+        WHERE  p.id = :id
+        """)
+    Optional<Integer> findVersionById(UUID id);
+
+    /**
+     * Anzahl und letzte Änderung aller Produkte ermitteln.
+     *
+     * @return Anzahl und letzte Änderung
+     */
+    @Query("""
+        SELECT new com.acme.produkt.entity.ProduktStand(count(p), max(p.aktualisiert))
+        FROM   Produkt p
+        """)
+    ProduktStand findStand();
+
+    /**
+     * Anzahl und letzte Änderung der Produkte zu einer Angestellter-ID ermitteln. Durch "Partition Pruning" wird nur
+     * eine Partition gelesen.
+     *
+     * @param angestellterId Die ID des Angestellten
+     * @return Anzahl und letzte Änderung
+     */
+    @Query("""
+        SELECT new com.acme.produkt.entity.ProduktStand(count(p), max(p.aktualisiert))
+        FROM   Produkt p
+        WHERE  p.angestellterId = :angestellterId
+        """)
+    ProduktStand findStandByAngestellterId(UUID angestellterId);
+
     /**
      * Produkte anhand des Namens suchen.
      *
@@ -58,6 +135,80 @@ public interface ProduktRepository extends JpaRepository<Produkt, UUID>, JpaSpec
     @EntityGraph
     Collection<Produkt> findByName(CharSequence name);
 
+    /**
+     * Die 1. Seite aller Produkte einschließlich Umsatz ermitteln, sortiert nach der ID.
+     *
+     * @param pageable Die maximale Anzahl an Produkten, wobei nur die Seitengröße ausgewertet wird
+     * @return Liste der gefundenen Produkte
+     */
+    @Query("""
+        SELECT   p
+        FROM     Produkt p LEFT JOIN FETCH p.umsatz
+        ORDER BY p.id
+        """)
+    List<Produkt> findSeite(Pageable pageable);
+
+    /**
+     * Eine Folgeseite aller Produkte ermitteln, d.h. "Keyset Pagination" nach dem zuletzt gelieferten Produkt.
+     *
+     * @param nachId ID des zuletzt gelieferten Produktes
+     * @param pageable Die maximale Anzahl an Produkten, wobei nur die Seitengröße ausgewertet wird
+     * @return Liste der gefundenen Produkte
+     */
+    @Query("""
+        SELECT   p
+        FROM     Produkt p LEFT JOIN FETCH p.umsatz
+        WHERE    p.id > :nachId
+        ORDER BY p.id
+        """)
+    List<Produkt> findSeiteNach(UUID nachId, Pageable pageable);
+
+    /**
+     * Die 1. Seite der Produkte zu einem (Teil-) Namen ermitteln, sortiert nach der ID.
+     *
+     * @param name Der (Teil-) Name der gesuchten Produkte
+     * @param pageable Die maximale Anzahl an Produkten, wobei nur die Seitengröße ausgewertet wird
+     * @return Liste der gefundenen Produkte
+     */
+    @Query("""
+        SELECT   p
+        FROM     Produkt p LEFT JOIN FETCH p.umsatz
+        WHERE    lower(p.name) LIKE concat('%', lower(:name), '%')
+        ORDER BY p.id
+        """)
+    List<Produkt> findSeiteByName(CharSequence name, Pageable pageable);
+
+    /**
+     * Eine Folgeseite der Produkte zu einem (Teil-) Namen ermitteln, d.h. "Keyset Pagination" nach dem zuletzt
+     * gelieferten Produkt.
+     *
+     * @param name Der (Teil-) Name der gesuchten Produkte
+     * @param nachId ID des zuletzt gelieferten Produktes
+     * @param pageable Die maximale Anzahl an Produkten, wobei nur die Seitengröße ausgewertet wird
+     * @return Liste der gefundenen Produkte
+     */
+    @Query("""
+        SELECT   p
+        FROM     Produkt p LEFT JOIN FETCH p.umsatz
+        WHERE    lower(p.name) LIKE concat('%', lower(:name), '%')
+                 AND p.id > :nachId
+        ORDER BY p.id
+        """)
+    List<Produkt> findSeiteByNameNach(CharSequence name, UUID nachId, Pageable pageable);
+
+    /**
+     * Anzahl der Produkte zu einem (Teil-) Namen ermitteln.
+     *
+     * @param name Der (Teil-) Name der gesuchten Produkte
+     * @return Die Anzahl der gefundenen Produkte
+     */
+    @Query("""
+        SELECT count(p)
+        FROM   Produkt p
+        WHERE  lower(p.name) LIKE concat('%', lower(:name), '%')
+        """)
+    long countByName(CharSequence name);
+
     /**
      * Abfrage, welche Namen es zu einem Präfix gibt.
      *
@@ -73,11 +224,153 @@ public interface ProduktRepository extends JpaRepository<Produkt, UUID>, JpaSpec
     Collection<String> findNamenByPrefix(String prefix);
 
     /**
-     * Produkte zu gegebener Angestellter-ID aus der DB ermitteln.
+     * Produkte zu gegebener Angestellter-ID aus der DB ermitteln. Wegen der Hash-Partitionierung von "produkt" nach
+     * "angestellter_id" wird dabei nur eine Partition gelesen.
      *
      * @param angestellterId Angestellter-ID für die Suche
      * @return Liste der gefundenen Produkte
      */
     @EntityGraph
     List<Produkt> findByAngestellterId(UUID angestellterId);
+
+    /**
+     * Die 1. Seite der Produkte zu einer Angestellter-ID als Projektion ermitteln, sortiert nach Name und ID.
+     * Die Tabelle "produkt" wird dabei nur über den Covering Index "produkt_angestellter_id_name_idx" gelesen.
+     *
+     * @param angestellterId Angestellter-ID für die Suche
+     * @param pageable Die maximale Anzahl an Produkten, wobei nur die Seitengröße ausgewertet wird
+     * @return Liste der gefundenen Produkte
+     */
+    @Query("""
+        SELECT   new com.acme.produkt.repository.ProduktKurzform(
+                     p.id, p.version, p.name, p.erscheinungsdatum, p.homepage, p.angestellterId, u.betrag, u.waehrung
+                 )
+        FROM     Produkt p LEFT JOIN p.umsatz u
+        WHERE    p.angestellterId = :angestellterId
+        ORDER BY p.name, p.id
+        """)
+    List<ProduktKurzform> findKurzformByAngestellterId(UUID angestellterId, Pageable pageable);
+
+    /**
+     * Die Folgeseite der Produkte zu einer Angestellter-ID als Projektion ermitteln, d.h. "Keyset Pagination" nach
+     * dem zuletzt gelieferten Produkt.
+     *
+     * @param angestellterId Angestellter-ID für die Suche
+     * @param name Name des zuletzt gelieferten Produktes
+     * @param id ID des zuletzt gelieferten Produktes
+     * @param pageable Die maximale Anzahl an Produkten, wobei nur die Seitengröße ausgewertet wird
+     * @return Liste der gefundenen Produkte
+     */
+    @Query("""
+        SELECT   new com.acme.produkt.repository.ProduktKurzform(
+                     p.id, p.version, p.name, p.erscheinungsdatum, p.homepage, p.angestellterId, u.betrag, u.waehrung
+                 )
+        FROM     Produkt p LEFT JOIN p.umsatz u
+        WHERE    p.angestellterId = :angestellterId
+                 AND (p.name > :name OR (p.name = :name AND p.id > :id))
+        ORDER BY p.name, p.id
+        """)
+    List<ProduktKurzform> findKurzformByAngestellterIdNach(
+        UUID angestellterId,
+        String name,
+        UUID id,
+        Pageable pageable
+    );
+
+    /**
+     * Alle Produkte innerhalb eines ID-Bereichs als Stream über einen serverseitigen Cursor lesen.
+     *
+     * @param von Kleinste ID des Bereichs (inklusive)
+     * @param bis Größte ID des Bereichs (inklusive)
+     * @return Stream der gefundenen Produkte, der innerhalb einer Transaktion konsumiert und geschlossen werden muss
+     */
+    @Query("""
+        SELECT   p
+        FROM     Produkt p LEFT JOIN FETCH p.umsatz
+        WHERE    p.id BETWEEN :von AND :bis
+        ORDER BY p.id
+        """)
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+        @QueryHint(name = HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HINT_CACHEABLE, value = "false")
+    })
+    Stream<Produkt> streamByIdBetween(UUID von, UUID bis);
+
+    /**
+     * Produkte zu einem (Teil-) Namen innerhalb eines ID-Bereichs als Stream über einen serverseitigen Cursor lesen.
+     *
+     * @param name Der (Teil-) Name der gesuchten Produkte
+     * @param von Kleinste ID des Bereichs (inklusive)
+     * @param bis Größte ID des Bereichs (inklusive)
+     * @return Stream der gefundenen Produkte, der innerhalb einer Transaktion konsumiert und geschlossen werden muss
+     */
+    @Query("""
+        SELECT   p
+        FROM     Produkt p LEFT JOIN FETCH p.umsatz
+        WHERE    lower(p.name) LIKE concat('%', lower(:name), '%')
+                 AND p.id BETWEEN :von AND :bis
+        ORDER BY p.id
+        """)
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+        @QueryHint(name = HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HINT_CACHEABLE, value = "false")
+    })
+    Stream<Produkt> streamByNameAndIdBetween(CharSequence name, UUID von, UUID bis);
+
+    /**
+     * Produkte zu einer Angestellter-ID innerhalb eines ID-Bereichs als Stream über einen serverseitigen Cursor lesen.
+     *
+     * @param angestellterId Angestellter-ID für die Suche
+     * @param von Kleinste ID des Bereichs (inklusive)
+     * @param bis Größte ID des Bereichs (inklusive)
+     * @return Stream der gefundenen Produkte, der innerhalb einer Transaktion konsumiert und geschlossen werden muss
+     */
+    @Query("""
+        SELECT   p
+        FROM     Produkt p LEFT JOIN FETCH p.umsatz
+        WHERE    p.angestellterId = :angestellterId
+                 AND p.id BETWEEN :von AND :bis
+        ORDER BY p.id
+        """)
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+        @QueryHint(name = HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HINT_CACHEABLE, value = "false")
+    })
+    Stream<Produkt> streamByAngestellterIdAndIdBetween(UUID angestellterId, UUID von, UUID bis);
+
+    /**
+     * Ein Produkt mit einer einzigen UPDATE-Anweisung aktualisieren, falls die Versionsnummer noch aktuell ist. Dabei
+     * wird die Versionsnummer inkrementiert.
+     *
+     * @param id ID des zu aktualisierenden Produktes
+     * @param version Die erwartete Versionsnummer
+     * @param name Der neue Name
+     * @param erscheinungsdatum Das neue Erscheinungsdatum
+     * @param homepage Die neue URL der Homepage
+     * @param aktualisiert Der Zeitstempel der Änderung
+     * @return Anzahl der aktualisierten Datensätze, d.h. 1 oder 0, falls die ID nicht existiert oder die
+     *      Versionsnummer veraltet ist
+     */
+    @Modifying
+    @Query("""
+        UPDATE Produkt p
+        SET    p.name = :name,
+               p.erscheinungsdatum = :erscheinungsdatum,
+               p.homepage = :homepage,
+               p.aktualisiert = :aktualisiert,
+               p.version = p.version + 1
+        WHERE  p.id = :id AND p.version = :version
+        """)
+    @SuppressWarnings("MethodWithTooManyParameters")
+    int update(
+        UUID id,
+        int version,
+        String name,
+        LocalDate erscheinungsdatum,
+        URL homepage,
+        LocalDateTime aktualisiert
+    );
 }
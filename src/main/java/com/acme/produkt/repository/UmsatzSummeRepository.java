@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.repository;
+
+import com.acme.produkt.entity.UmsatzSumme;
+import com.acme.produkt.entity.UmsatzSummeId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository für die fortgeschriebenen Umsatzsummen pro Angestellter und Währung.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@Repository
+public interface UmsatzSummeRepository extends JpaRepository<UmsatzSumme, UmsatzSummeId> {
+    /**
+     * Alle Umsatzsummen sortiert nach Angestellter-ID und Währung.
+     *
+     * @return Liste der Umsatzsummen
+     */
+    List<UmsatzSumme> findAllByOrderByAngestellterIdAscWaehrungAsc();
+
+    /**
+     * Umsatzsummen zu einem Angestellten.
+     *
+     * @param angestellterId ID des Angestellten
+     * @return Liste der Umsatzsummen
+     */
+    List<UmsatzSumme> findByAngestellterIdOrderByWaehrung(UUID angestellterId);
+
+    /**
+     * Umsatzsummen zu einer Währung.
+     *
+     * @param waehrung Die Währung
+     * @return Liste der Umsatzsummen
+     */
+    List<UmsatzSumme> findByWaehrungOrderByAngestellterId(Currency waehrung);
+
+    /**
+     * Umsatzsumme zu einem Angestellten und einer Währung.
+     *
+     * @param angestellterId ID des Angestellten
+     * @param waehrung Die Währung
+     * @return Liste mit der Umsatzsumme oder leere Liste
+     */
+    List<UmsatzSumme> findByAngestellterIdAndWaehrung(UUID angestellterId, Currency waehrung);
+
+    /**
+     * Anzahl und Betrag atomar zur Umsatzsumme eines Angestellten und einer Währung addieren. Falls es noch keinen
+     * Datensatz gibt, wird er angelegt.
+     *
+     * @param angestellterId ID des Angestellten
+     * @param waehrung ISO-Code der Währung
+     * @param anzahl Zu addierende Anzahl, ggf. negativ
+     * @param betrag Zu addierender Betrag, ggf. negativ
+     * @return Anzahl der geänderten Datensätze, d.h. 1
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+        INSERT INTO umsatz_summe (angestellter_id, waehrung, anzahl, summe)
+        VALUES (:angestellterId, :waehrung, :anzahl, :betrag)
+        ON CONFLICT (angestellter_id, waehrung) DO UPDATE
+        SET anzahl = umsatz_summe.anzahl + EXCLUDED.anzahl,
+            summe = umsatz_summe.summe + EXCLUDED.summe
+        """)
+    int addiere(UUID angestellterId, String waehrung, long anzahl, BigDecimal betrag);
+
+    /**
+     * Die Tabelle sperren, damit beim Neuberechnen keine parallelen Transaktionen die Summen fortschreiben.
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = "LOCK TABLE umsatz_summe IN EXCLUSIVE MODE")
+    void sperren();
+
+    /**
+     * Alle Umsatzsummen löschen.
+     *
+     * @return Anzahl der gelöschten Datensätze
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = "DELETE FROM umsatz_summe")
+    int loeschen();
+
+    /**
+     * Alle Umsatzsummen aus den Tabellen "produkt" und "umsatz" neu berechnen.
+     *
+     * @return Anzahl der neu berechneten Datensätze
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+        INSERT INTO umsatz_summe (angestellter_id, waehrung, anzahl, summe)
+        SELECT   p.angestellter_id, u.waehrung, count(*), sum(u.betrag)
+        FROM     produkt p JOIN umsatz u ON p.umsatz_id = u.id
+        GROUP BY p.angestellter_id, u.waehrung
+        """)
+    int berechnen();
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.rest;
+
+import java.util.Locale;
+
+/**
+ * Auswertung des Headers `Accept-Encoding` gemäß RFC 9110 Abschnitt 12.5.3 einschließlich der Gewichte `q`. Eine
+ * Kodierung mit `q=0` ist ausdrücklich nicht akzeptabel, `*` steht für alle nicht explizit genannten Kodierungen.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+final class AcceptEncoding {
+    private static final String GZIP = "gzip";
+    private static final String X_GZIP = "x-gzip";
+    private static final String ALLE = "*";
+    private static final String Q = "q";
+
+    private AcceptEncoding() {
+    }
+
+    /**
+     * Prüfen, ob der Client gzip akzeptiert.
+     *
+     * @param header Der Header, wobei mehrere Header durch Komma getrennt sein können, oder null
+     * @return true, falls gzip mit einem Gewicht größer 0 akzeptiert wird
+     */
+    static boolean gzip(final String header) {
+        if (header == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double alle = null;
+        for (final var eintrag : header.split(",")) {
+            final var teile = eintrag.split(";");
+            final var kodierung = teile[0].strip().toLowerCase(Locale.ROOT);
+            if (kodierung.equals(GZIP) || kodierung.equals(X_GZIP)) {
+                gzip = gewicht(teile);
+            } else if (kodierung.equals(ALLE)) {
+                alle = gewicht(teile);
+            }
+        }
+        if (gzip != null) {
+            return gzip > 0;
+        }
+        return alle != null && alle > 0;
+    }
+
+    // ohne Gewicht 1, bei einem ungueltigen Gewicht 0, d.h. nicht akzeptabel
+    private static double gewicht(final String[] teile) {
+        for (var i = 1; i < teile.length; i++) {
+            final var parameter = teile[i].split("=", 2);
+            if (parameter.length == 2 && parameter[0].strip().equalsIgnoreCase(Q)) {
+                try {
+                    final var q = Double.parseDouble(parameter[1].strip());
+                    return q >= 0 && q <= 1 ? q : 0;
+                } catch (final NumberFormatException ex) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.rest;
+
+import com.acme.produkt.LimitProps;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Adaptives Limit für gleichzeitig bearbeitete Requests nach dem Gradienten-Verfahren, d.h. ähnlich wie TCP Vegas.
+ * Die Latenz jedes Requests wird mit dem gleitenden Durchschnitt über ein langes Fenster verglichen. Steigt die
+ * Latenz, weil sich Requests z.B. vor dem DB-Pool stauen, sinkt das Limit proportional. Andernfalls wächst das Limit
+ * um die Quadratwurzel des Limits als erlaubte Warteschlange.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+final class AdaptivesLimit {
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double ABKLINGEN = 0.95;
+
+    // ReentrantLock statt synchronized, damit "Virtual Threads" nicht an den Carrier-Thread gebunden werden
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicInteger laufend = new AtomicInteger();
+    private final LimitProps props;
+    private final double gewichtLang;
+
+    // durch "lock" geschuetzt
+    private double schaetzung;
+    private double langRtt;
+
+    // ohne Sperre gelesen
+    private volatile int limit;
+
+    AdaptivesLimit(final LimitProps props) {
+        this.props = props;
+        gewichtLang = 2.0 / (props.fenster() + 1);
+        schaetzung = props.initial();
+        limit = props.initial();
+    }
+
+    /**
+     * Einen Platz für einen Request belegen, falls das Limit noch nicht erreicht ist.
+     *
+     * @return true, falls ein Platz belegt wurde
+     */
+    boolean belegen() {
+        while (true) {
+            final var aktuell = laufend.get();
+            if (aktuell >= limit) {
+                return false;
+            }
+            if (laufend.compareAndSet(aktuell, aktuell + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Einen belegten Platz freigeben und das Limit mit der gemessenen Latenz anpassen.
+     *
+     * @param rttNanos Latenz des Requests in Nanosekunden
+     */
+    void freigeben(final long rttNanos) {
+        final var inFlight = laufend.getAndDecrement();
+        if (rttNanos <= 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            anpassen(rttNanos, inFlight);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Das aktuelle Limit, z.B. für eine Metrik.
+     *
+     * @return Das aktuelle Limit
+     */
+    int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Die Anzahl der gerade bearbeiteten Requests, z.B. für eine Metrik.
+     *
+     * @return Die Anzahl der belegten Plätze
+     */
+    int getLaufend() {
+        return laufend.get();
+    }
+
+    private void anpassen(final double kurzRtt, final int inFlight) {
+        if (langRtt == 0) {
+            langRtt = kurzRtt;
+        } else {
+            langRtt = langRtt * (1 - gewichtLang) + kurzRtt * gewichtLang;
+        }
+        // Nach einer Lastspitze sinkt die langfristige Latenz schneller, damit das Limit wieder wachsen kann
+        if (langRtt / kurzRtt > 2) {
+            langRtt *= ABKLINGEN;
+        }
+        // Bei geringer Auslastung ist die Latenz nicht aussagekraeftig, d.h. das Limit wuerde grundlos wachsen
+        if (inFlight < schaetzung / 2) {
+            return;
+        }
+
+        final var gradient = Math.max(MIN_GRADIENT, Math.min(1.0, props.toleranz() * langRtt / kurzRtt));
+        final var neu = schaetzung * gradient + Math.sqrt(schaetzung);
+        final var geglaettet = schaetzung * (1 - props.glaettung()) + neu * props.glaettung();
+        schaetzung = Math.max(props.min(), Math.min(props.max(), geglaettet));
+        limit = (int) schaetzung;
+    }
+}
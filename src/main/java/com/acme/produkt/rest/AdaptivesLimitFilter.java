@@ -0,0 +1,197 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.rest;
+
+import com.acme.produkt.LimitProps;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import static com.acme.produkt.rest.ProduktChangesController.CHANGES_PATH;
+import static com.acme.produkt.rest.ProduktExportController.EXPORT_PATH;
+import static com.acme.produkt.rest.ProduktGetController.ID_PATTERN;
+import static com.acme.produkt.rest.ProduktGetController.REST_PATH;
+import static jakarta.servlet.http.HttpServletResponse.SC_SERVICE_UNAVAILABLE;
+import static org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type.SERVLET;
+import static org.springframework.core.Ordered.HIGHEST_PRECEDENCE;
+import static org.springframework.http.HttpHeaders.RETRY_AFTER;
+import static org.springframework.http.HttpMethod.GET;
+import static org.springframework.http.HttpMethod.HEAD;
+
+/**
+ * Servlet-Filter, der die gleichzeitig bearbeiteten Requests pro Endpunktklasse mit einem AdaptivesLimit begrenzt.
+ * Weil Tomcat mit "Virtual Threads" jeden Request annimmt, werden überzählige Requests sofort mit dem Statuscode 503
+ * abgewiesen, statt die Latenz aller Requests zu erhöhen. Lang laufende Streams wie der Export und der Änderungsfeed
+ * werden nicht begrenzt, weil sie einen Platz über ihre gesamte Dauer belegen würden.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@Component
+@ConditionalOnWebApplication(type = SERVLET)
+// nach ServerHttpObservationFilter, damit abgewiesene Requests in "http.server.requests" erfasst werden
+@Order(HIGHEST_PRECEDENCE + 2)
+@Slf4j
+final class AdaptivesLimitFilter extends OncePerRequestFilter {
+    private static final String GRAPHQL_PATH = "/graphql";
+    private static final Pattern ID_PATH = Pattern.compile(REST_PATH + "/" + ID_PATTERN);
+    private static final String RETRY_AFTER_SEKUNDEN = "1";
+
+    private final LimitProps props;
+    private final Map<Endpunktklasse, AdaptivesLimit> limits = new EnumMap<>(Endpunktklasse.class);
+    private final Map<Endpunktklasse, Counter> abgelehnt = new EnumMap<>(Endpunktklasse.class);
+
+    AdaptivesLimitFilter(final LimitProps props, final MeterRegistry meterRegistry) {
+        this.props = props;
+        for (final var klasse : Endpunktklasse.values()) {
+            final var limit = new AdaptivesLimit(props);
+            final var tag = klasse.name().toLowerCase(Locale.ROOT);
+            limits.put(klasse, limit);
+            Gauge.builder("http.limit", limit, AdaptivesLimit::getLimit)
+                .description("Aktuelles Limit gleichzeitiger Requests")
+                .tag("klasse", tag)
+                .register(meterRegistry);
+            Gauge.builder("http.limit.laufend", limit, AdaptivesLimit::getLaufend)
+                .description("Gleichzeitig bearbeitete Requests")
+                .tag("klasse", tag)
+                .register(meterRegistry);
+            abgelehnt.put(klasse, Counter.builder("http.limit.abgelehnt")
+                .description("Mit Statuscode 503 abgewiesene Requests")
+                .tag("klasse", tag)
+                .register(meterRegistry));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(final HttpServletRequest request) {
+        return !props.enabled() || endpunktklasse(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(
+        final HttpServletRequest request,
+        final HttpServletResponse response,
+        final FilterChain chain
+    ) throws ServletException, IOException {
+        final var klasse = endpunktklasse(request);
+        final var limit = limits.get(klasse);
+        if (!limit.belegen()) {
+            log.debug("doFilterInternal: Limit {} fuer {} erreicht", limit.getLimit(), klasse);
+            abgelehnt.get(klasse).increment();
+            response.setHeader(RETRY_AFTER, RETRY_AFTER_SEKUNDEN);
+            response.sendError(SC_SERVICE_UNAVAILABLE);
+            return;
+        }
+
+        final var start = System.nanoTime();
+        var asynchron = false;
+        try {
+            chain.doFilter(request, response);
+            // z.B. GraphQL mit ServerResponse.async(): der Platz bleibt bis zum Ende des Requests belegt
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new Freigabe(limit, start));
+                asynchron = true;
+            }
+        } finally {
+            if (!asynchron) {
+                limit.freigeben(System.nanoTime() - start);
+            }
+        }
+    }
+
+    @SuppressWarnings("ReturnCount")
+    private static Endpunktklasse endpunktklasse(final HttpServletRequest request) {
+        final var path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.equals(GRAPHQL_PATH) || path.startsWith(GRAPHQL_PATH + '/')) {
+            return Endpunktklasse.GRAPHQL;
+        }
+        if (!path.startsWith(REST_PATH) || path.startsWith(REST_PATH + EXPORT_PATH) ||
+            path.startsWith(REST_PATH + CHANGES_PATH)) {
+            return null;
+        }
+        final var method = request.getMethod();
+        if (!GET.matches(method) && !HEAD.matches(method)) {
+            return Endpunktklasse.SCHREIBEN;
+        }
+        return ID_PATH.matcher(path).matches() ? Endpunktklasse.ID : Endpunktklasse.LISTE;
+    }
+
+    /**
+     * Klassen von Endpunkten mit jeweils eigenem Limit, weil sich ihre Latenzen deutlich unterscheiden.
+     */
+    enum Endpunktklasse {
+        /**
+         * GET-Requests mit einer Produkt-ID.
+         */
+        ID,
+
+        /**
+         * Sonstige GET-Requests, z.B. Suche mit Query-Parametern.
+         */
+        LISTE,
+
+        /**
+         * POST-, PUT-, PATCH- und DELETE-Requests.
+         */
+        SCHREIBEN,
+
+        /**
+         * GraphQL-Requests einschließlich "Persisted Queries".
+         */
+        GRAPHQL
+    }
+
+    private record Freigabe(AdaptivesLimit limit, long start) implements AsyncListener {
+        // onComplete wird auch nach einem Timeout oder Fehler aufgerufen
+        @Override
+        public void onComplete(final AsyncEvent event) {
+            limit.freigeben(System.nanoTime() - start);
+        }
+
+        @Override
+        public void onTimeout(final AsyncEvent event) {
+            // Freigabe in onComplete
+        }
+
+        @Override
+        public void onError(final AsyncEvent event) {
+            // Freigabe in onComplete
+        }
+
+        @Override
+        public void onStartAsync(final AsyncEvent event) {
+            // erneuter Start, z.B. bei einer weiteren asynchronen Verarbeitung
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
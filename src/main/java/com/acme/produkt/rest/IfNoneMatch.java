@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.rest;
+
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Der Header `If-None-Match` mit den ETags. Wie bei `ServletWebRequest.checkNotModified()` sind mehrere ETags durch
+ * Komma getrennt möglich und `*` passt zu jedem ETag. Gemäß RFC 9110 Abschnitt 13.1.2 wird schwach verglichen, d.h.
+ * `W/` wird ignoriert, aber der ETag eines anderen Formats passt nicht.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ * @param alle true bei `*`
+ * @param eTags Die ETags ohne `W/`, aber mit Anführungszeichen
+ */
+record IfNoneMatch(boolean alle, Set<String> eTags) {
+    private static final String ALLE = "*";
+    private static final String WEAK_PREFIX = "W/";
+    // "*" oder ein ETag, ggf. mit "W/" als Praefix
+    private static final Pattern ETAG = Pattern.compile("\\*|(?:W/)?\"[^\"]*\"");
+
+    /**
+     * Den Header `If-None-Match` auswerten.
+     *
+     * @param header Der Header, wobei mehrere Header durch Komma getrennt sein können
+     * @return Die ETags oder ein leeres Optional, falls der Header keinen ETag enthält
+     */
+    static Optional<IfNoneMatch> of(final String header) {
+        if (header == null) {
+            return Optional.empty();
+        }
+        var alle = false;
+        final Set<String> eTags = new HashSet<>();
+        final var matcher = ETAG.matcher(header);
+        while (matcher.find()) {
+            final var eTag = matcher.group();
+            if (ALLE.equals(eTag)) {
+                alle = true;
+            } else {
+                eTags.add(ohneWeakPrefix(eTag));
+            }
+        }
+        return alle || !eTags.isEmpty() ? Optional.of(new IfNoneMatch(alle, eTags)) : Optional.empty();
+    }
+
+    /**
+     * Prüfen, ob der aktuelle ETag zu einem ETag im Header passt.
+     *
+     * @param eTag Der aktuelle ETag, z.B. von ProduktGetController.toETag()
+     * @return true, falls der Client die aktuelle Version im selben Format hat
+     */
+    boolean passt(final String eTag) {
+        return alle || eTags.contains(ohneWeakPrefix(eTag));
+    }
+
+    private static String ohneWeakPrefix(final String eTag) {
+        return eTag.startsWith(WEAK_PREFIX) ? eTag.substring(WEAK_PREFIX.length()) : eTag;
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.rest;
+
+import com.acme.produkt.service.ProduktAuftragService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+import java.util.UUID;
+
+import static com.acme.produkt.entity.AuftragStatus.ERLEDIGT;
+import static com.acme.produkt.rest.ProduktGetController.ID_PATTERN;
+import static com.acme.produkt.rest.ProduktGetController.REST_PATH;
+import static org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type.SERVLET;
+import static org.springframework.http.HttpHeaders.LOCATION;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.ResponseEntity.ok;
+
+/**
+ * REST-Schnittstelle für den Status der Aufträge zum asynchronen Neuanlegen.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@RestController
+@RequestMapping(REST_PATH)
+@ConditionalOnWebApplication(type = SERVLET)
+@RequiredArgsConstructor
+@Slf4j
+final class ProduktAuftragController {
+    /**
+     * Pfad für die Aufträge.
+     */
+    static final String AUFTRAEGE_PATH = "/auftraege";
+
+    private final ProduktAuftragService service;
+
+    /**
+     * Den Status eines Auftrags abfragen.
+     *
+     * @param id ID des Auftrags als Pfadvariable.
+     * @param request Das Request-Objekt, um ggf. `Location` für das angelegte Produkt zu erstellen.
+     * @return Der Status des Auftrags, bei einem erledigten Auftrag mit `Location` für das angelegte Produkt.
+     */
+    @GetMapping(path = AUFTRAEGE_PATH + "/{id:" + ID_PATTERN + "}", produces = APPLICATION_JSON_VALUE)
+    @Operation(summary = "Status eines Auftrags zum Neuanlegen", tags = "Neuanlegen")
+    @ApiResponse(responseCode = "200", description = "Auftrag gefunden")
+    @ApiResponse(responseCode = "404", description = "Auftrag nicht gefunden")
+    ResponseEntity<ProduktAuftragModel> findById(@PathVariable final UUID id, final HttpServletRequest request) {
+        log.debug("findById: id={}", id);
+        final var auftrag = service.findById(id);
+        final var model = new ProduktAuftragModel(auftrag);
+        log.debug("findById: {}", model);
+
+        final var response = ok();
+        if (auftrag.getStatus() == ERLEDIGT) {
+            final var baseUri = request.getRequestURI();
+            final var restUri = baseUri.substring(0, baseUri.indexOf(AUFTRAEGE_PATH));
+            response.header(LOCATION, URI.create(restUri + "/" + auftrag.getProduktId()).toString());
+        }
+        return response.body(model);
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.rest;
+
+import com.acme.produkt.entity.AuftragStatus;
+import com.acme.produkt.entity.ProduktAuftrag;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Status eines Auftrags zum asynchronen Neuanlegen für die REST-Schnittstelle.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ * @param status Status des Auftrags
+ * @param produktId ID des angelegten Produktes, sobald der Auftrag erledigt ist
+ * @param fehler Fehlermeldung, falls das Produkt nicht angelegt werden konnte
+ * @param erzeugt Zeitpunkt des Auftrags
+ * @param aktualisiert Zeitpunkt der letzten Statusänderung
+ */
+record ProduktAuftragModel(
+    AuftragStatus status,
+    UUID produktId,
+    String fehler,
+    LocalDateTime erzeugt,
+    LocalDateTime aktualisiert
+) {
+    ProduktAuftragModel(final ProduktAuftrag auftrag) {
+        this(
+            auftrag.getStatus(),
+            auftrag.getProduktId(),
+            auftrag.getFehler(),
+            auftrag.getErzeugt(),
+            auftrag.getAktualisiert()
+        );
+    }
+}
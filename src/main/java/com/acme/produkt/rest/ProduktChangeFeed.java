@@ -0,0 +1,317 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.rest;
+
+import com.acme.produkt.ChangesProps;
+import com.acme.produkt.entity.EreignisArt;
+import com.acme.produkt.entity.ProduktEreignis;
+import com.acme.produkt.service.ProduktEreignisService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.fasterxml.jackson.databind.SerializationFeature.INDENT_OUTPUT;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type.SERVLET;
+
+/**
+ * Feed der Änderungen an Produkten als Server-Sent Events. Jede Instanz liest die Änderungsereignisse selbst aus der
+ * Outbox-Tabelle, und zwar periodisch nach ihrer Position, die das Relay unter einer Sperre in der Reihenfolge der
+ * Commits vergibt. Deshalb erhalten die Abonnenten aller Instanzen dieselben Änderungen mit derselben Event-ID,
+ * unabhängig davon, in welcher Instanz das Relay ein Ereignis zustellt.
+ *
+ * Die Ereignisse werden einmal serialisiert, in einem Ringpuffer für die Fortsetzung mit `Last-Event-ID` gehalten
+ * und an alle Abonnenten verteilt. Jeder Abonnent hat eine eigene, beschränkte Queue, die ein "Virtual Thread" in den
+ * Response schreibt. Ein wartender Abonnent belegt deshalb nur einen blockierten "Virtual Thread" und keinen
+ * Plattform-Thread.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@Component
+@ConditionalOnWebApplication(type = SERVLET)
+@Slf4j
+final class ProduktChangeFeed implements SmartLifecycle {
+    private static final String METRIC = "produkt.changes";
+    private static final byte[] HEARTBEAT = ":\n\n".getBytes(UTF_8);
+    // Der Client soll seinen Zustand neu laden, weil Aenderungen nicht mehr im Ringpuffer sind
+    private static final byte[] RESET = "event: reset\ndata: {}\n\n".getBytes(UTF_8);
+    // Markierung fuer das Ende des Streams, die nur ueber die Identitaet verglichen wird
+    private static final byte[] ENDE = new byte[0];
+
+    // ReentrantLock statt synchronized, damit "Virtual Threads" nicht an den Carrier-Thread gebunden werden
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ArrayDeque<Eintrag> puffer;
+    private final Set<BlockingQueue<byte[]>> abonnenten = ConcurrentHashMap.newKeySet();
+    private final ChangesProps props;
+    private final ProduktEreignisService service;
+    private final AsyncTaskExecutor applicationTaskExecutor;
+    private final ObjectWriter writer;
+    private final Counter verworfen;
+    private final Semaphore signal = new Semaphore(0);
+    private volatile boolean running;
+    // Position des zuletzt gelesenen Ereignisses oder -1 vor dem ersten Lesen
+    private long letztePosition = -1;
+    // true, solange der Ringpuffer alle Ereignisse mit einer Position enthaelt
+    private boolean vollstaendig;
+
+    ProduktChangeFeed(
+        final ChangesProps props,
+        final ProduktEreignisService service,
+        final AsyncTaskExecutor applicationTaskExecutor,
+        final ObjectMapper objectMapper,
+        final MeterRegistry meterRegistry
+    ) {
+        this.props = props;
+        this.service = service;
+        this.applicationTaskExecutor = applicationTaskExecutor;
+        puffer = new ArrayDeque<>(props.replaySize());
+        // Eine Zeile pro Ereignis, auch im Profile "dev"
+        writer = objectMapper.writer().without(INDENT_OUTPUT);
+        verworfen = Counter.builder(METRIC + ".verworfen").register(meterRegistry);
+        Gauge.builder(METRIC + ".abonnenten", abonnenten, Set::size).register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        log.debug("start: {}", props);
+        running = true;
+        applicationTaskExecutor.execute(this::pollen);
+    }
+
+    @Override
+    public void stop() {
+        log.debug("stop: abonnenten={}", abonnenten.size());
+        running = false;
+        signal.release();
+        // Vor dem "Graceful Shutdown" des Webservers, damit er nicht auf die offenen Streams wartet
+        abonnenten.forEach(ProduktChangeFeed::beenden);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Die neuen Ereignisse aus der Outbox-Tabelle lesen und an alle Abonnenten verteilen. Beim ersten Aufruf werden
+     * die letzten Ereignisse für den Ringpuffer gelesen, aber nicht verteilt.
+     *
+     * @return Die Anzahl der gelesenen Ereignisse
+     */
+    int abfragen() {
+        if (letztePosition < 0) {
+            final var letzte = service.findLetzte(props.replaySize());
+            lock.lock();
+            try {
+                letzte.forEach(this::puffern);
+                vollstaendig = letzte.size() < props.replaySize();
+            } finally {
+                lock.unlock();
+            }
+            letztePosition = letzte.isEmpty() ? 0 : letzte.get(letzte.size() - 1).getPosition();
+            log.debug("abfragen: {} Ereignisse bis Position {} gepuffert", letzte.size(), letztePosition);
+            return letzte.size();
+        }
+
+        final var ereignisse = service.findNachPosition(letztePosition, props.replaySize());
+        for (final var ereignis : ereignisse) {
+            lock.lock();
+            try {
+                final var frame = puffern(ereignis);
+                abonnenten.forEach(queue -> senden(queue, frame));
+            } finally {
+                lock.unlock();
+            }
+            letztePosition = ereignis.getPosition();
+        }
+        log.trace("abfragen: ereignisse={}, abonnenten={}", ereignisse.size(), abonnenten.size());
+        return ereignisse.size();
+    }
+
+    /**
+     * Einen neuen Abonnenten registrieren. Änderungen, die nach der Registrierung verteilt werden, gehen nicht
+     * verloren, auch wenn der Stream erst später geschrieben wird.
+     *
+     * @param lastEventId Der Header `Last-Event-ID` oder null
+     * @return Der Stream der Änderungen, der bis zum Abbruch durch den Client oder bis zur maximalen Dauer läuft
+     */
+    StreamingResponseBody abonnieren(final String lastEventId) {
+        final BlockingQueue<byte[]> queue = new ArrayBlockingQueue<>(props.queueCapacity());
+        final List<byte[]> replay;
+        lock.lock();
+        try {
+            replay = replay(lastEventId);
+            abonnenten.add(queue);
+        } finally {
+            lock.unlock();
+        }
+        log.debug("abonnieren: lastEventId={}, replay={}", lastEventId, replay.size());
+        return out -> streamen(queue, replay, out);
+    }
+
+    private void pollen() {
+        final var anzahl = props.replaySize();
+        while (running) {
+            int gelesen;
+            try {
+                gelesen = abfragen();
+            } catch (final RuntimeException ex) {
+                // z.B. DB nicht erreichbar
+                log.warn("pollen: erneuter Versuch nach {}", props.pollInterval(), ex);
+                gelesen = 0;
+            }
+            if (gelesen < anzahl && !warten()) {
+                return;
+            }
+        }
+        log.debug("pollen: beendet");
+    }
+
+    private boolean warten() {
+        try {
+            signal.tryAcquire(props.pollInterval().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        return running;
+    }
+
+    // Ein Ereignis serialisieren und in den Ringpuffer einfuegen, wobei die Sperre gehalten wird
+    private byte[] puffern(final ProduktEreignis ereignis) {
+        final long position = ereignis.getPosition();
+        final var aenderung = new Aenderung(ereignis.getProduktId(), ereignis.getVersion(), ereignis.getArt());
+        final var frame = frame(position, aenderung);
+        if (puffer.size() >= props.replaySize()) {
+            puffer.removeFirst();
+            vollstaendig = false;
+        }
+        puffer.addLast(new Eintrag(position, frame));
+        return frame;
+    }
+
+    // Aenderungen nach der Last-Event-ID, d.h. nach der Position, in der Reihenfolge der Positionen
+    private List<byte[]> replay(final String lastEventId) {
+        if (lastEventId == null) {
+            return List.of();
+        }
+        final long letzte;
+        try {
+            letzte = Long.parseLong(lastEventId.strip());
+        } catch (final NumberFormatException ex) {
+            return List.of(RESET);
+        }
+        final var erster = puffer.peekFirst();
+        // z.B. vor dem ersten Lesen oder wenn der Client zu lange getrennt war
+        if (!vollstaendig && (erster == null || letzte < erster.position())) {
+            return List.of(RESET);
+        }
+        final List<byte[]> frames = new ArrayList<>();
+        for (final var eintrag : puffer) {
+            if (eintrag.position() > letzte) {
+                frames.add(eintrag.frame());
+            }
+        }
+        return frames;
+    }
+
+    private void streamen(final BlockingQueue<byte[]> queue, final List<byte[]> replay, final OutputStream out) {
+        final var heartbeat = props.heartbeat().toNanos();
+        final var ende = System.nanoTime() + props.maxDuration().toNanos();
+        try {
+            for (final var frame : replay) {
+                out.write(frame);
+            }
+            out.flush();
+            while (running) {
+                final var rest = ende - System.nanoTime();
+                if (rest <= 0) {
+                    break;
+                }
+                final var frame = queue.poll(Math.min(heartbeat, rest), NANOSECONDS);
+                if (frame == ENDE) {
+                    break;
+                }
+                out.write(frame == null ? HEARTBEAT : frame);
+                out.flush();
+            }
+        } catch (final IOException ex) {
+            // Der Client hat die Verbindung beendet und wird erst beim naechsten Schreiben erkannt
+            log.debug("streamen: {}", ex.getMessage());
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            abonnenten.remove(queue);
+        }
+    }
+
+    private void senden(final BlockingQueue<byte[]> queue, final byte[] frame) {
+        if (!queue.offer(frame)) {
+            // Ein zu langsamer Client bremst die Verteilung nicht, sondern setzt spaeter mit Last-Event-ID fort
+            log.debug("senden: Queue voll");
+            verworfen.increment();
+            abonnenten.remove(queue);
+            beenden(queue);
+        }
+    }
+
+    private static void beenden(final BlockingQueue<byte[]> queue) {
+        queue.clear();
+        queue.offer(ENDE);
+    }
+
+    private byte[] frame(final long position, final Aenderung aenderung) {
+        final String data;
+        try {
+            data = writer.writeValueAsString(aenderung);
+        } catch (final JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return ("id: " + position + "\ndata: " + data + "\n\n").getBytes(UTF_8);
+    }
+
+    private record Eintrag(long position, byte[] frame) {
+    }
+
+    private record Aenderung(UUID id, int version, EreignisArt art) {
+    }
+}
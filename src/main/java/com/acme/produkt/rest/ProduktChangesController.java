@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.rest;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.CacheControl;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.Optional;
+
+import static com.acme.produkt.rest.ProduktGetController.REST_PATH;
+import static org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type.SERVLET;
+import static org.springframework.http.HttpHeaders.CACHE_CONTROL;
+import static org.springframework.http.MediaType.TEXT_EVENT_STREAM_VALUE;
+
+/**
+ * REST-Schnittstelle für den Feed der Änderungen an Produkten als Server-Sent Events. Jedes Event enthält die
+ * Produkt-ID, die neue Versionsnummer und die Art der Änderung. Die Event-ID ist die Position des Änderungsereignisses
+ * und deshalb in allen Instanzen gleich.
+ * Die Events werden im "Virtual Thread" des Requests geschrieben, d.h. ohne asynchrone Verarbeitung und deren Timeout.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@RestController
+@RequestMapping(REST_PATH)
+@ConditionalOnWebApplication(type = SERVLET)
+@RequiredArgsConstructor
+@Slf4j
+final class ProduktChangesController {
+    /**
+     * Pfad für den Feed der Änderungen.
+     */
+    static final String CHANGES_PATH = "/changes";
+
+    private static final String LAST_EVENT_ID = "Last-Event-ID";
+
+    private final ProduktChangeFeed feed;
+
+    /**
+     * Änderungen an Produkten abonnieren. Mit dem Header `Last-Event-ID` wird nach einer Unterbrechung fortgesetzt.
+     * Sind die fehlenden Änderungen nicht mehr gepuffert, wird zuerst ein Event `reset` gesendet.
+     *
+     * @param lastEventId Der Header `Last-Event-ID`, den der Browser beim Wiederverbinden automatisch sendet
+     * @param response Response, in den die Events geschrieben werden
+     * @throws IOException Falls der Client die Verbindung abbricht
+     */
+    @GetMapping(path = CHANGES_PATH, produces = TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Änderungen an Produkten als Server-Sent Events", tags = "Änderungen")
+    @ApiResponse(responseCode = "200", description = "Stream der Änderungen")
+    void changes(
+        @RequestHeader(LAST_EVENT_ID) final Optional<String> lastEventId,
+        final HttpServletResponse response
+    ) throws IOException {
+        log.debug("changes: lastEventId={}", lastEventId);
+        final var stream = feed.abonnieren(lastEventId.orElse(null));
+        response.setContentType(TEXT_EVENT_STREAM_VALUE);
+        response.setHeader(CACHE_CONTROL, CacheControl.noStore().getHeaderValue());
+        // kein Puffern in einem Reverse Proxy wie nginx
+        response.setHeader("X-Accel-Buffering", "no");
+        stream.writeTo(response.getOutputStream());
+    }
+}
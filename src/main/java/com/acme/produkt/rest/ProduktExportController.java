@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.rest;
+
+import com.acme.produkt.service.ProduktExportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+import static com.acme.produkt.rest.ProduktGetController.REST_PATH;
+import static org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type.SERVLET;
+import static org.springframework.http.HttpHeaders.ACCEPT_ENCODING;
+import static org.springframework.http.HttpHeaders.CONTENT_ENCODING;
+import static org.springframework.http.HttpHeaders.VARY;
+import static jakarta.servlet.http.HttpServletResponse.SC_BAD_REQUEST;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
+
+/**
+ * REST-Schnittstelle für den Massenexport aller Produkte als NDJSON oder CSV. Die Produkte werden über einen
+ * serverseitigen Cursor gelesen und direkt in den Response geschrieben. Ein langsamer Client bremst dabei das Lesen
+ * aus der DB, weil das Schreiben in den Response blockiert. Der Export läuft im "Virtual Thread" des Requests, d.h.
+ * ohne asynchrone Verarbeitung und deshalb ohne deren Timeout, so dass auch große Datenbestände vollständig
+ * übertragen werden.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@RestController
+@RequestMapping(REST_PATH)
+@ConditionalOnWebApplication(type = SERVLET)
+@RequiredArgsConstructor
+@Slf4j
+final class ProduktExportController {
+    /**
+     * Pfad für den Export.
+     */
+    static final String EXPORT_PATH = "/export";
+
+    /**
+     * MIME-Type für CSV.
+     */
+    static final String TEXT_CSV_VALUE = "text/csv";
+
+    private static final String GZIP = "gzip";
+    private static final String PARTITION_PARAM = "partition";
+    private static final String PARTITIONS_PARAM = "partitions";
+    private static final String ANGESTELLTER_ID_PARAM = "angestellterId";
+
+    private final ProduktExportService service;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Export als NDJSON.
+     *
+     * @param suchkriterien Query-Parameter als Map, d.h. optional `name` oder `angestellterId` sowie optional
+     *                      `partition` und `partitions` für einen partitionierten, parallelen Export
+     * @param acceptEncoding Der Header `Accept-Encoding`, um ggf. mit gzip zu komprimieren
+     * @param response Response, in den die Produkte geschrieben werden
+     * @throws IOException Falls der Client die Verbindung abbricht
+     */
+    @GetMapping(path = EXPORT_PATH, produces = APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export aller Produkte als NDJSON", tags = "Export")
+    @ApiResponse(responseCode = "200", description = "Produkte als NDJSON")
+    @ApiResponse(responseCode = "400", description = "Ungültige Suchkriterien oder Partitionsangaben")
+    void exportNdjson(
+        @RequestParam @NonNull final Map<String, String> suchkriterien,
+        @RequestHeader(ACCEPT_ENCODING) final Optional<String> acceptEncoding,
+        final HttpServletResponse response
+    ) throws IOException {
+        log.debug("exportNdjson: suchkriterien={}", suchkriterien);
+        export(
+            suchkriterien,
+            acceptEncoding,
+            response,
+            APPLICATION_NDJSON_VALUE,
+            out -> ProduktExportWriter.ndjson(out, objectMapper.getFactory())
+        );
+    }
+
+    /**
+     * Export als CSV.
+     *
+     * @param suchkriterien Query-Parameter als Map, d.h. optional `name` oder `angestellterId` sowie optional
+     *                      `partition` und `partitions` für einen partitionierten, parallelen Export
+     * @param acceptEncoding Der Header `Accept-Encoding`, um ggf. mit gzip zu komprimieren
+     * @param response Response, in den die Produkte geschrieben werden
+     * @throws IOException Falls der Client die Verbindung abbricht
+     */
+    @GetMapping(path = EXPORT_PATH, produces = TEXT_CSV_VALUE)
+    @Operation(summary = "Export aller Produkte als CSV", tags = "Export")
+    @ApiResponse(responseCode = "200", description = "Produkte als CSV")
+    @ApiResponse(responseCode = "400", description = "Ungültige Suchkriterien oder Partitionsangaben")
+    void exportCsv(
+        @RequestParam @NonNull final Map<String, String> suchkriterien,
+        @RequestHeader(ACCEPT_ENCODING) final Optional<String> acceptEncoding,
+        final HttpServletResponse response
+    ) throws IOException {
+        log.debug("exportCsv: suchkriterien={}", suchkriterien);
+        export(suchkriterien, acceptEncoding, response, TEXT_CSV_VALUE, ProduktExportWriter::csv);
+    }
+
+    @SuppressWarnings({"ReturnCount", "CyclomaticComplexity"})
+    private void export(
+        final Map<String, String> queryParams,
+        final Optional<String> acceptEncoding,
+        final HttpServletResponse response,
+        final String contentType,
+        final Function<OutputStream, ProduktExportWriter> writerFactory
+    ) throws IOException {
+        final int partition;
+        final int partitions;
+        try {
+            partition = Integer.parseInt(queryParams.getOrDefault(PARTITION_PARAM, "0"));
+            partitions = Integer.parseInt(queryParams.getOrDefault(PARTITIONS_PARAM, "1"));
+        } catch (final NumberFormatException ex) {
+            log.debug("export: {}", ex.getMessage());
+            response.sendError(SC_BAD_REQUEST);
+            return;
+        }
+        if (partitions < 1 || partitions > ProduktExportService.MAX_PARTITIONS ||
+            partition < 0 || partition >= partitions) {
+            response.sendError(SC_BAD_REQUEST);
+            return;
+        }
+        final Map<String, List<String>> suchkriterien = queryParams.entrySet()
+            .stream()
+            .filter(entry -> !PARTITION_PARAM.equals(entry.getKey()) && !PARTITIONS_PARAM.equals(entry.getKey()))
+            .collect(Collectors.toMap(Map.Entry::getKey, entry -> List.of(entry.getValue())));
+        if (suchkriterien.size() > 1 ||
+            (suchkriterien.size() == 1 && !suchkriterien.containsKey("name") &&
+                !suchkriterien.containsKey(ANGESTELLTER_ID_PARAM))) {
+            response.sendError(SC_BAD_REQUEST);
+            return;
+        }
+        final var angestellterId = queryParams.get(ANGESTELLTER_ID_PARAM);
+        if (angestellterId != null) {
+            try {
+                UUID.fromString(angestellterId);
+            } catch (final IllegalArgumentException ex) {
+                log.debug("export: {}", ex.getMessage());
+                response.sendError(SC_BAD_REQUEST);
+                return;
+            }
+        }
+
+        final var gzip = AcceptEncoding.gzip(acceptEncoding.orElse(null));
+        response.setContentType(contentType);
+        response.setHeader(VARY, ACCEPT_ENCODING);
+        if (gzip) {
+            response.setHeader(CONTENT_ENCODING, GZIP);
+        }
+        final var responseStream = response.getOutputStream();
+        final OutputStream out = gzip ? new GZIPOutputStream(responseStream) : responseStream;
+        try (var writer = writerFactory.apply(out)) {
+            final var anzahl = service.export(suchkriterien, partition, partitions, writer);
+            log.debug("export: anzahl={}", anzahl);
+        }
+        if (out instanceof final GZIPOutputStream gzipOut) {
+            gzipOut.finish();
+        }
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.rest;
+
+import com.acme.produkt.entity.Produkt;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Schreiben einzelner Produkte als NDJSON oder CSV direkt in einen OutputStream, ohne die Produkte zu sammeln.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+abstract sealed class ProduktExportWriter implements Consumer<Produkt>, Closeable {
+    private static final String[] SPALTEN = {
+        "id", "version", "name", "erscheinungsdatum", "homepage", "betrag", "waehrung", "angestellterId", "erzeugt",
+        "aktualisiert"
+    };
+
+    /**
+     * Writer für NDJSON, d.h. ein JSON-Objekt pro Zeile.
+     *
+     * @param out OutputStream des Response
+     * @param jsonFactory JsonFactory von Jackson
+     * @return Writer für NDJSON
+     */
+    static ProduktExportWriter ndjson(final OutputStream out, final JsonFactory jsonFactory) {
+        return new Ndjson(out, jsonFactory);
+    }
+
+    /**
+     * Writer für CSV gemäß RFC 4180 mit Kopfzeile.
+     *
+     * @param out OutputStream des Response
+     * @return Writer für CSV
+     */
+    static ProduktExportWriter csv(final OutputStream out) {
+        return new Csv(out);
+    }
+
+    @Override
+    public final void accept(final Produkt produkt) {
+        try {
+            write(produkt);
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    abstract void write(Produkt produkt) throws IOException;
+
+    private static String toStringOrNull(final Object obj) {
+        return obj == null ? null : obj.toString();
+    }
+
+    private static final class Ndjson extends ProduktExportWriter {
+        private final JsonGenerator generator;
+
+        Ndjson(final OutputStream out, final JsonFactory jsonFactory) {
+            try {
+                generator = jsonFactory.createGenerator(out);
+            } catch (final IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            // kein Pretty Printing, auch nicht im Profile "dev"
+            generator.setPrettyPrinter(null);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        @Override
+        void write(final Produkt produkt) throws IOException {
+            final var umsatz = produkt.getUmsatz();
+            generator.writeStartObject();
+            generator.writeStringField(SPALTEN[0], produkt.getId().toString());
+            generator.writeNumberField(SPALTEN[1], produkt.getVersion());
+            generator.writeStringField(SPALTEN[2], produkt.getName());
+            writeOptional(SPALTEN[3], toStringOrNull(produkt.getErscheinungsdatum()));
+            writeOptional(SPALTEN[4], toStringOrNull(produkt.getHomepage()));
+            if (umsatz != null) {
+                generator.writeNumberField(SPALTEN[5], umsatz.getBetrag());
+                writeOptional(SPALTEN[6], toStringOrNull(umsatz.getWaehrung()));
+            }
+            writeOptional(SPALTEN[7], toStringOrNull(produkt.getAngestellterId()));
+            writeOptional(SPALTEN[8], toStringOrNull(produkt.getErzeugt()));
+            writeOptional(SPALTEN[9], toStringOrNull(produkt.getAktualisiert()));
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        private void writeOptional(final String name, final String value) throws IOException {
+            if (value != null) {
+                generator.writeStringField(name, value);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+
+    private static final class Csv extends ProduktExportWriter {
+        private static final char TRENNZEICHEN = ',';
+        private static final String ZEILENENDE = "\r\n";
+
+        private final Writer writer;
+
+        Csv(final OutputStream out) {
+            writer = new BufferedWriter(new OutputStreamWriter(out, UTF_8));
+            try {
+                writer.write(String.join(String.valueOf(TRENNZEICHEN), SPALTEN));
+                writer.write(ZEILENENDE);
+            } catch (final IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        @Override
+        void write(final Produkt produkt) throws IOException {
+            final var umsatz = produkt.getUmsatz();
+            writeFeld(produkt.getId());
+            writeFeld(produkt.getVersion());
+            writeFeld(produkt.getName());
+            writeFeld(produkt.getErscheinungsdatum());
+            writeFeld(produkt.getHomepage());
+            writeFeld(umsatz == null ? null : umsatz.getBetrag());
+            writeFeld(umsatz == null ? null : umsatz.getWaehrung());
+            writeFeld(produkt.getAngestellterId());
+            writeFeld(produkt.getErzeugt());
+            writer.write(Objects.toString(produkt.getAktualisiert(), ""));
+            writer.write(ZEILENENDE);
+        }
+
+        private void writeFeld(final Object wert) throws IOException {
+            if (wert != null) {
+                final var str = wert.toString();
+                if (str.indexOf(TRENNZEICHEN) >= 0 || str.indexOf('"') >= 0 || str.indexOf('\n') >= 0 ||
+                    str.indexOf('\r') >= 0) {
+                    writer.write('"');
+                    writer.write(str.replace("\"", "\"\""));
+                    writer.write('"');
+                } else {
+                    writer.write(str);
+                }
+            }
+            writer.write(TRENNZEICHEN);
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+    }
+}
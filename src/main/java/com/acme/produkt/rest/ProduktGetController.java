@@ -17,6 +17,8 @@
 package com.acme.produkt.rest;
 
 import com.acme.produkt.entity.Produkt;
+import com.acme.produkt.entity.ProduktFeld;
+import com.acme.produkt.entity.ProduktStand;
 import com.acme.produkt.service.ProduktReadService;
 import io.swagger.v3.oas.annotations.OpenAPIDefinition;
 import io.swagger.v3.oas.annotations.Operation;
@@ -26,9 +28,9 @@ import jakarta.servlet.http.HttpServletRequest;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.hateoas.CollectionModel;
-import org.springframework.hateoas.Link;
-import org.springframework.hateoas.LinkRelation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -36,19 +38,39 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.regex.Pattern;
 
+import static com.acme.produkt.entity.ProduktFeld.NAME;
 import static com.acme.produkt.rest.ProduktGetController.REST_PATH;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type.SERVLET;
+import static org.springframework.hateoas.MediaTypes.HAL_JSON;
 import static org.springframework.hateoas.MediaTypes.HAL_JSON_VALUE;
+import static org.springframework.http.HttpHeaders.ACCEPT;
 import static org.springframework.http.HttpStatus.NOT_MODIFIED;
+import static org.springframework.http.MediaType.APPLICATION_CBOR;
+import static org.springframework.http.MediaType.APPLICATION_CBOR_VALUE;
+import static org.springframework.http.ResponseEntity.badRequest;
 import static org.springframework.http.ResponseEntity.notFound;
 import static org.springframework.http.ResponseEntity.ok;
 import static org.springframework.http.ResponseEntity.status;
+import static org.springframework.web.bind.annotation.RequestMethod.HEAD;
 
 
 /**
@@ -60,6 +82,7 @@ import static org.springframework.http.ResponseEntity.status;
  */
 @RestController
 @RequestMapping(REST_PATH)
+@ConditionalOnWebApplication(type = SERVLET)
 @OpenAPIDefinition(info = @Info(title = "Produkt API", version = "v2"))
 @RequiredArgsConstructor
 @Slf4j
@@ -70,6 +93,11 @@ final class ProduktGetController {
      */
     static final String REST_PATH = "/rest";
 
+    /**
+     * MIME-Type für Smile, d.h. binäres JSON von Jackson.
+     */
+    static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
     /**
      * Muster für eine UUID. `$HEX_PATTERN{8}-($HEX_PATTERN{4}-){3}$HEX_PATTERN{12}` enthält eine _capturing group_
      * und ist nicht zulässig.
@@ -83,97 +111,290 @@ final class ProduktGetController {
     @SuppressWarnings("TrailingComment")
     private static final String NAME_PATH = "/name"; //NOSONAR
 
+    private static final String ANGESTELLTER_ID_PARAM = "angestellterId";
+    private static final String SIZE_PARAM = "size";
+    private static final String AFTER_PARAM = "after";
+    private static final String FIELDS_PARAM = "fields";
+    private static final String IDS_PARAM = "ids";
+    private static final int DEFAULT_SIZE = 20;
+    private static final int MAX_SIZE = 100;
+    private static final int UUID_LENGTH = 36;
+
+    private static final MediaType APPLICATION_SMILE = MediaType.parseMediaType(APPLICATION_SMILE_VALUE);
+
+    // Reihenfolge wie bei "produces", d.h. HAL ist der Default
+    private static final List<MediaType> MEDIA_TYPES = List.of(HAL_JSON, APPLICATION_CBOR, APPLICATION_SMILE);
+
+    // Suffix im ETag fuer CBOR und Smile; HAL als JSON ohne Suffix
+    private static final String CBOR_SUFFIX = "-cbor";
+    private static final String SMILE_SUFFIX = "-smile";
+    private static final Pattern STRONG_ETAG =
+        Pattern.compile("\"(\\d{1,9})(?:" + CBOR_SUFFIX + '|' + SMILE_SUFFIX + ")?\"");
+
     private final ProduktReadService service;
 
     private final UriHelper uriHelper;
 
     /**
-     * Suche anhand der Produkt-ID als Pfad-Parameter.
+     * Suche anhand der Produkt-ID als Pfad-Parameter. Bei `If-None-Match` wird zuerst nur die Versionsnummer gelesen,
+     * so dass ein unverändertes Produkt weder geladen noch um die Daten des Angestellten ergänzt wird. Außer HAL im
+     * JSON-Format sind CBOR und Smile für interne Clients möglich. Mit `fields` werden nur die ausgewählten Felder
+     * aus der DB gelesen, z.B. `fields=name,umsatz`.
      *
      * @param id      ID des zu suchenden Produktes.
      * @param version Die Version des zu suchenden Produktes.
+     * @param accept  Der Header `Accept` für den ETag des ausgehandelten Formats.
+     * @param fields  Die kommaseparierten Namen der auszugebenden Felder.
      * @param request Das Request-Objekt, um Links für HATEOAS zu erstellen.
-     * @return Gefundenes Produkt mit Atom-Links.
+     * @return Gefundenes Produkt mit Atom-Links oder Statuscode 400 bei unbekannten Feldern.
      */
-    @GetMapping(path = "{id:" + ID_PATTERN + "}", produces = HAL_JSON_VALUE)
+    @GetMapping(
+        path = "{id:" + ID_PATTERN + "}",
+        produces = {HAL_JSON_VALUE, APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE}
+    )
     @Operation(summary = "Suche mit der Produkt-ID", tags = "Suchen")
     @ApiResponse(responseCode = "200", description = "Produkt gefunden")
+    @ApiResponse(responseCode = "304", description = "Produkt nicht geändert")
     @ApiResponse(responseCode = "404", description = "Produkt nicht gefunden")
+    @ApiResponse(responseCode = "400", description = "Unbekannte Felder")
     ResponseEntity<ProduktModel> findById(
         @PathVariable final UUID id,
         @RequestHeader("If-None-Match") final Optional<String> version,
+        @RequestHeader(ACCEPT) final Optional<String> accept,
+        @RequestParam(FIELDS_PARAM) final Optional<String> fields,
         final HttpServletRequest request) {
+        final var felder = fields.map(ProduktGetController::toFelder).orElse(null);
+        if (felder != null && felder.isEmpty()) {
+            return badRequest().build();
+        }
 
         // Anwendungskern
-        final var produkt = service.findById(id);
-        log.debug("findById: {}", produkt);
-
-        final var currentVersion = "\"" + produkt.getVersion() + '"';
-        if (Objects.equals(version.orElse(null), currentVersion)) {
-            return status(NOT_MODIFIED).build();
+        final var contentType = toContentType(accept.orElse(null)).orElse(HAL_JSON);
+        final var ifNoneMatch = version.flatMap(IfNoneMatch::of);
+        if (ifNoneMatch.isPresent()) {
+            // nur die Versionsnummer lesen; das Produkt wird nur bei einer anderen Versionsnummer geladen
+            final var eTag = toETag(service.findVersionById(id), contentType);
+            if (ifNoneMatch.get().passt(eTag)) {
+                log.debug("findById: id={} nicht geaendert", id);
+                return status(NOT_MODIFIED).eTag(eTag).varyBy(ACCEPT).build();
+            }
         }
+        final var produkt = felder == null ? service.findById(id) : service.findById(id, felder);
+        log.debug("findById: {}", produkt);
 
         final var model = produktToModel(produkt, request);
         log.debug("findById: model={}", model);
-        return ok().eTag(currentVersion).body(model);
+        final var response = ok().eTag(toETag(produkt.getVersion(), contentType)).varyBy(ACCEPT);
+        if (ProduktReadService.hatErsatzwerte(produkt)) {
+            // Weder Clients noch ProduktResponseCacheFilter sollen Ersatzwerte fuer den Angestellten cachen
+            response.cacheControl(CacheControl.noStore());
+        }
+        return response.body(model);
     }
 
-    private ProduktModel produktToModel(final Produkt produkt, final HttpServletRequest request) {
-        final var model = new ProduktModel(produkt);
-        final var baseUri = uriHelper.getBaseUri(request).toString();
-        final var idUri = baseUri + '/' + produkt.getId();
+    /**
+     * Header zu einem Produkt ohne Body, z.B. um die Existenz oder die Versionsnummer zu prüfen. Es wird nur die
+     * Versionsnummer gelesen. Wie bei GET sind HAL im JSON-Format, CBOR und Smile möglich.
+     *
+     * @param id      ID des Produktes.
+     * @param version Die Version aus `If-None-Match`.
+     * @param accept  Der Header `Accept` für den Header `Content-Type`.
+     * @return Statuscode 200 oder 304 mit ETag.
+     */
+    @RequestMapping(
+        path = "{id:" + ID_PATTERN + "}",
+        method = HEAD,
+        produces = {HAL_JSON_VALUE, APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE}
+    )
+    @Operation(summary = "Header zur Produkt-ID", tags = "Suchen")
+    @ApiResponse(responseCode = "200", description = "Produkt vorhanden")
+    @ApiResponse(responseCode = "304", description = "Produkt nicht geändert")
+    @ApiResponse(responseCode = "404", description = "Produkt nicht gefunden")
+    ResponseEntity<Void> head(
+        @PathVariable final UUID id,
+        @RequestHeader("If-None-Match") final Optional<String> version,
+        @RequestHeader(ACCEPT) final Optional<String> accept
+    ) {
+        final var currentVersion = service.findVersionById(id);
+        log.debug("head: id={}, currentVersion={}", id, currentVersion);
+        final var contentType = toContentType(accept.orElse(null)).orElse(HAL_JSON);
+        final var eTag = toETag(currentVersion, contentType);
+        final var nichtGeaendert = version.flatMap(IfNoneMatch::of)
+            .map(ifNoneMatch -> ifNoneMatch.passt(eTag))
+            .orElse(false);
+        final var response = nichtGeaendert ? status(NOT_MODIFIED) : ok();
+        return response.eTag(eTag).varyBy(ACCEPT).contentType(contentType).build();
+    }
 
-        final var selfLink = Link.of(idUri);
-        final var listLink = Link.of(baseUri, LinkRelation.of("list"));
-        final var addLink = Link.of(baseUri, LinkRelation.of("add"));
-        final var updateLink = Link.of(idUri, LinkRelation.of("update"));
-        final var removeLink = Link.of(idUri, LinkRelation.of("remove"));
-        model.add(selfLink, listLink, addLink, updateLink, removeLink);
-        return model;
+    /**
+     * Den Content-Type für ein einzelnes Produkt wie bei GET aus dem Header `Accept` aushandeln, z.B. für HEAD und
+     * als Schlüssel in ProduktResponseCache.
+     *
+     * @param accept Der Header `Accept`, wobei mehrere Header durch Komma getrennt sein können, oder null
+     * @return HAL, CBOR oder Smile zum höchsten Gewicht in `Accept` oder ein leeres Optional, falls keiner davon
+     *      akzeptabel ist
+     * @throws org.springframework.http.InvalidMediaTypeException Falls der Header syntaktisch falsch ist
+     */
+    static Optional<MediaType> toContentType(final String accept) {
+        final var akzeptiert = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        if (akzeptiert.isEmpty()) {
+            // ohne Accept ist jeder Typ akzeptabel
+            akzeptiert.add(MediaType.ALL);
+        }
+        akzeptiert.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (final var mediaType : akzeptiert) {
+            if (mediaType.getQualityValue() > 0) {
+                for (final var produziert : MEDIA_TYPES) {
+                    if (produziert.isCompatibleWith(mediaType)) {
+                        return Optional.of(produziert);
+                    }
+                }
+            }
+        }
+        return Optional.empty();
     }
 
     /**
-     * Suche mit diversen Suchkriterien als Query-Parameter.
+     * Starker ETag zu einer Versionsnummer und einem Format. HAL als JSON, CBOR und Smile haben bei derselben
+     * Versionsnummer verschiedene Bytes und deshalb verschiedene ETags, z.B. `"3"`, `"3-cbor"` und `"3-smile"`. Jeder
+     * dieser ETags ist bei `If-Match` mit dem starken Vergleich gemäß RFC 9110 zulässig.
      *
-     * @param suchkriterien Query-Parameter als Map.
+     * @param version Die Versionsnummer
+     * @param contentType Das Format, z.B. aus {@link #toContentType(String)}
+     * @return Der starke ETag
+     */
+    static String toETag(final int version, final MediaType contentType) {
+        if (APPLICATION_CBOR.equalsTypeAndSubtype(contentType)) {
+            return "\"" + version + CBOR_SUFFIX + '"';
+        }
+        if (APPLICATION_SMILE.equalsTypeAndSubtype(contentType)) {
+            return "\"" + version + SMILE_SUFFIX + '"';
+        }
+        return "\"" + version + '"';
+    }
+
+    /**
+     * Die Versionsnummer aus einem starken ETag von {@link #toETag(int, MediaType)} ermitteln, z.B. bei `If-Match`.
+     *
+     * @param eTag Der ETag
+     * @return Die Versionsnummer oder ein leeres Optional bei einem schwachen oder fremden ETag
+     */
+    static Optional<Integer> toVersion(final String eTag) {
+        final var matcher = STRONG_ETAG.matcher(eTag);
+        return matcher.matches() ? Optional.of(Integer.valueOf(matcher.group(1))) : Optional.empty();
+    }
+
+    private ProduktModel produktToModel(final Produkt produkt, final HttpServletRequest request) {
+        // Links werden erst beim Serialisieren aus der Basis-URI geschrieben
+        return new ProduktModel(produkt, uriHelper.getBaseUri(request).toString(), true);
+    }
+
+    /**
+     * Suche mit diversen Suchkriterien als Query-Parameter. Außer HAL im JSON-Format sind CBOR und Smile möglich.
+     *
+     * @param suchkriterien Query-Parameter als Map. Bei der Suche anhand von `angestellterId` sind zusätzlich `size`
+     *                      und `after` für eine seitenweise Suche möglich. Mit `fields` werden nur die ausgewählten
+     *                      Felder gelesen, wobei bei seitenweiser Suche wegen des Cursors auch `name` enthalten ist.
      * @param request       Das Request-Objekt, um Links für HATEOAS zu erstellen.
-     * @return Gefundene Produkte als CollectionModel.
+     * @param webRequest    Der Request für `If-None-Match` und `If-Modified-Since`.
+     * @return Gefundene Produkte als ProdukteModel, ggf. mit dem Link `next` zur Folgeseite, oder Statuscode 304,
+     *      falls sich die Produkte zu den Suchkriterien nicht geändert haben.
      */
-    @GetMapping(produces = HAL_JSON_VALUE)
+    @GetMapping(produces = {HAL_JSON_VALUE, APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
     @Operation(summary = "Suche mit Suchkriterien", tags = "Suchen")
     @ApiResponse(responseCode = "200", description = "CollectionModel mit dem Produkten")
+    @ApiResponse(responseCode = "304", description = "Produkte nicht geändert")
     @ApiResponse(responseCode = "404", description = "Keine Produkte gefunden")
-    @SuppressWarnings("ReturnCount")
-    ResponseEntity<CollectionModel<? extends ProduktModel>> find(
+    @ApiResponse(responseCode = "400", description = "Ungültige Angaben zur Pagination oder unbekannte Felder")
+    @SuppressWarnings({"ReturnCount", "CyclomaticComplexity", "NPathComplexity"})
+    ResponseEntity<ProdukteModel> find(
         @RequestParam @NonNull final Map<String, String> suchkriterien,
-        final HttpServletRequest request
+        final HttpServletRequest request,
+        final WebRequest webRequest
     ) {
         log.debug("find: suchkriterien={}", suchkriterien);
-        if (suchkriterien.size() > 1) {
+        // Pagination nur fuer die Suche anhand der Angestellter-ID
+        final var sizeStr = suchkriterien.get(SIZE_PARAM);
+        final var after = suchkriterien.get(AFTER_PARAM);
+        final var fields = suchkriterien.get(FIELDS_PARAM);
+        final var anzahlSuchkriterien = suchkriterien.size() - (sizeStr == null ? 0 : 1) - (after == null ? 0 : 1) -
+            (fields == null ? 0 : 1);
+        if (anzahlSuchkriterien > 1) {
             return notFound().build();
         }
+        final var felder = fields == null ? null : toFelder(fields);
+        if (felder != null && felder.isEmpty()) {
+            return badRequest().build();
+        }
+
+        UUID angestellterId = null;
+        if (anzahlSuchkriterien == 1) {
+            final var angestellterIdStr = suchkriterien.get(ANGESTELLTER_ID_PARAM);
+            if (angestellterIdStr == null) {
+                return notFound().build();
+            }
+            angestellterId = UUID.fromString(angestellterIdStr);
+        }
 
+        // Angaben zur Pagination vor der Query fuer die Validatoren pruefen
+        Seite seite = null;
+        if (angestellterId != null && (sizeStr != null || after != null)) {
+            try {
+                seite = toSeite(sizeStr, after);
+            } catch (final IllegalArgumentException ex) {
+                log.debug("find: {}", ex.getMessage());
+                return badRequest().build();
+            }
+        }
+
+        // Validatoren aus Anzahl und letzter Aenderung, bevor die Produkte geladen und ergaenzt werden
+        final var stand = service.findStand(angestellterId);
+        if (stand.anzahl() == 0) {
+            return notFound().build();
+        }
+        // ETag und Last-Modified werden von checkNotModified() auch bei Statuscode 200 gesetzt
+        if (webRequest.checkNotModified(toETag(stand, suchkriterien), toEpochMilli(stand))) {
+            log.debug("find: nicht geaendert, stand={}", stand);
+            return status(NOT_MODIFIED).build();
+        }
 
         final Collection<Produkt> produkte;
-        if (suchkriterien.isEmpty()) {
-            produkte = service.findAll();
+        String nextUri = null;
+        if (angestellterId == null) {
+            produkte = felder == null ? service.findAll() : service.find(null, null, null, 0, felder);
         } else {
-            final var angestellterIdStr = suchkriterien.get("angestellterId");
-            if (angestellterIdStr == null) {
-                return notFound().build();
+            if (seite == null) {
+                produkte = felder == null
+                    ? service.findByAngestellterId(angestellterId)
+                    : service.find(angestellterId, null, null, 0, felder);
+            } else {
+                final var size = seite.size();
+                final List<Produkt> gefunden;
+                if (felder == null) {
+                    gefunden = service.findByAngestellterId(angestellterId, seite.nachName(), seite.nachId(), size);
+                } else {
+                    // der Cursor fuer die Folgeseite benoetigt den Namen
+                    felder.add(NAME);
+                    gefunden = service.find(angestellterId, seite.nachName(), seite.nachId(), size, felder);
+                }
+                if (gefunden.size() == size) {
+                    final var letztes = gefunden.get(gefunden.size() - 1);
+                    nextUri = UriComponentsBuilder.fromUri(uriHelper.getBaseUri(request))
+                        .queryParam(ANGESTELLTER_ID_PARAM, angestellterId)
+                        .queryParam(SIZE_PARAM, size)
+                        .queryParam(AFTER_PARAM, encodeCursor(letztes))
+                        .queryParamIfPresent(FIELDS_PARAM, Optional.ofNullable(fields))
+                        .build()
+                        .toUriString();
+                }
+                produkte = gefunden;
             }
-            final var angestellterId = UUID.fromString(angestellterIdStr);
-            produkte = service.findByAngestellterId(angestellterId);
         }
 
         final var baseUri = uriHelper.getBaseUri(request).toString();
         final var models = produkte
             .stream()
-            .map(produkt -> {
-                final var model = new ProduktModel(produkt);
-                model.add(Link.of(baseUri + '/' + produkt.getId()));
-                return model;
-            })
+            .map(produkt -> new ProduktModel(produkt, baseUri, false))
             .toList();
         log.debug("find: {}", models);
 
@@ -181,7 +402,102 @@ final class ProduktGetController {
             return notFound().build();
         }
 
-        return ok(CollectionModel.of(models));
+        return ok().varyBy(ACCEPT).body(new ProdukteModel(models, nextUri));
+    }
+
+    /**
+     * Suche mit mehreren Produkt-IDs in einem einzigen Request, z.B. `ids=id1,id2`. Die Produkte werden mit einer
+     * einzigen Query gelesen und in der Reihenfolge der IDs geliefert. IDs ohne Produkt werden in `nichtGefunden`
+     * aufgelistet.
+     *
+     * @param ids     Die IDs der gesuchten Produkte, kommasepariert oder als wiederholter Query-Parameter.
+     * @param request Das Request-Objekt, um Links für HATEOAS zu erstellen.
+     * @return Gefundene Produkte als ProdukteModel oder Statuscode 400 bei keinen oder zu vielen IDs.
+     */
+    @GetMapping(params = IDS_PARAM, produces = {HAL_JSON_VALUE, APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+    @Operation(summary = "Suche mit mehreren Produkt-IDs", tags = "Suchen")
+    @ApiResponse(responseCode = "200", description = "Gefundene Produkte und nicht gefundene IDs")
+    @ApiResponse(responseCode = "400", description = "Keine, ungültige oder zu viele IDs")
+    ResponseEntity<ProdukteModel> findByIds(
+        @RequestParam(IDS_PARAM) final List<UUID> ids,
+        final HttpServletRequest request
+    ) {
+        log.debug("findByIds: ids={}", ids);
+        // doppelte IDs nur einmal suchen
+        final var idSet = new LinkedHashSet<>(ids);
+        if (idSet.isEmpty() || idSet.size() > ProduktReadService.MAX_IDS) {
+            return badRequest().build();
+        }
+
+        final var produkte = service.findByIds(idSet);
+        final var baseUri = uriHelper.getBaseUri(request).toString();
+        final List<ProduktModel> models = new ArrayList<>(produkte.size());
+        final List<UUID> nichtGefunden = new ArrayList<>();
+        idSet.forEach(id -> {
+            final var produkt = produkte.get(id);
+            if (produkt == null) {
+                nichtGefunden.add(id);
+            } else {
+                models.add(new ProduktModel(produkt, baseUri, false));
+            }
+        });
+        log.debug("findByIds: gefunden={}, nichtGefunden={}", models.size(), nichtGefunden);
+        return ok().varyBy(ACCEPT).body(new ProdukteModel(models, null, nichtGefunden));
+    }
+
+    // Leere Menge bei unbekannten oder fehlenden Feldern
+    private static Set<ProduktFeld> toFelder(final String fields) {
+        final var felder = EnumSet.noneOf(ProduktFeld.class);
+        for (final var field : fields.split(",")) {
+            final var feld = ProduktFeld.of(field.strip());
+            if (feld.isEmpty()) {
+                log.debug("toFelder: unbekanntes Feld {}", field);
+                return EnumSet.noneOf(ProduktFeld.class);
+            }
+            felder.add(feld.get());
+        }
+        return felder;
+    }
+
+    // Schwacher ETag aus Anzahl, letzter Aenderung und Suchkriterien einschliesslich size und after
+    private static String toETag(final ProduktStand stand, final Map<String, String> suchkriterien) {
+        final var filter = new TreeMap<>(suchkriterien).toString();
+        return "W/\"" + stand.anzahl() + '-' + toEpochMilli(stand) + '-' + Integer.toHexString(filter.hashCode()) + '"';
+    }
+
+    private static long toEpochMilli(final ProduktStand stand) {
+        final var aktualisiert = stand.aktualisiert();
+        return aktualisiert == null ? -1 : aktualisiert.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    // Seitengroesse und Cursor pruefen, wobei IllegalArgumentException auch NumberFormatException umfasst
+    private static Seite toSeite(final String sizeStr, final String after) {
+        final var size = sizeStr == null ? DEFAULT_SIZE : Integer.parseInt(sizeStr);
+        if (size < 1 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("Ungueltige Seitengroesse " + size);
+        }
+        if (after == null) {
+            return new Seite(size, null, null);
+        }
+        final var position = decodeCursor(after);
+        return new Seite(size, position[1], UUID.fromString(position[0]));
+    }
+
+    // Cursor fuer "Keyset Pagination": ID und Name des zuletzt gelieferten Produkts
+    private static String encodeCursor(final Produkt produkt) {
+        final var cursor = produkt.getId().toString() + produkt.getName();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(UTF_8));
+    }
+
+    private static String[] decodeCursor(final String cursor) {
+        final var decoded = new String(Base64.getUrlDecoder().decode(cursor), UTF_8);
+        if (decoded.length() <= UUID_LENGTH) {
+            throw new IllegalArgumentException("Ungueltiger Cursor " + cursor);
+        }
+        final var id = decoded.substring(0, UUID_LENGTH);
+        // Format der ID pruefen
+        UUID.fromString(id);
+        return new String[]{id, decoded.substring(UUID_LENGTH)};
     }
 
     /**
@@ -197,4 +513,8 @@ final class ProduktGetController {
         log.debug("findNamenByPrefix: {}", namen);
         return namen.toString();
     }
+
+    // Seitengroesse und Position nach dem Cursor fuer die seitenweise Suche
+    private record Seite(int size, String nachName, UUID nachId) {
+    }
 }
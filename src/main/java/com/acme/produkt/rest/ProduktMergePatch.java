@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.rest;
+
+import com.acme.produkt.entity.Produkt;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Ein Dokument gemäß JSON Merge Patch (RFC 7396) für ein Produkt: nur die enthaltenen Properties werden geändert und
+ * `null` entfernt einen Wert.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ * @param patch Das JSON-Dokument aus dem Request-Body
+ */
+record ProduktMergePatch(JsonNode patch) {
+    /**
+     * MIME-Type für JSON Merge Patch.
+     */
+    static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+
+    /**
+     * Konvertierung in die Änderungen an einem Produkt-Objekt.
+     *
+     * @return Consumer, der die Änderungen auf ein Produkt-Objekt anwendet
+     * @throws IllegalArgumentException Falls das Dokument kein Objekt ist, eine Property nicht änderbar ist oder
+     *      einen ungültigen Wert hat
+     */
+    @SuppressWarnings("CyclomaticComplexity")
+    Consumer<Produkt> toAenderungen() {
+        if (patch == null || !patch.isObject()) {
+            throw new IllegalArgumentException("Der Request-Body ist kein JSON-Objekt");
+        }
+
+        final List<Consumer<Produkt>> aenderungen = new ArrayList<>(patch.size());
+        final var felder = patch.fields();
+        while (felder.hasNext()) {
+            final var feld = felder.next();
+            final var wert = feld.getValue();
+            final var name = feld.getKey();
+            switch (name) {
+                case "name" -> {
+                    final var neuerName = toText(name, wert);
+                    aenderungen.add(produkt -> produkt.setName(neuerName));
+                }
+                case "erscheinungsdatum" -> {
+                    final var text = toText(name, wert);
+                    final LocalDate datum;
+                    try {
+                        datum = text == null ? null : LocalDate.parse(text);
+                    } catch (final DateTimeParseException ex) {
+                        throw new IllegalArgumentException("Ungueltiges Datum " + text, ex);
+                    }
+                    aenderungen.add(produkt -> produkt.setErscheinungsdatum(datum));
+                }
+                case "homepage" -> {
+                    final var text = toText(name, wert);
+                    final URL homepage;
+                    try {
+                        homepage = text == null ? null : new URL(text);
+                    } catch (final MalformedURLException ex) {
+                        throw new IllegalArgumentException("Ungueltige URL " + text, ex);
+                    }
+                    aenderungen.add(produkt -> produkt.setHomepage(homepage));
+                }
+                default -> throw new IllegalArgumentException("Die Property " + name + " ist nicht aenderbar");
+            }
+        }
+
+        return produkt -> aenderungen.forEach(aenderung -> aenderung.accept(produkt));
+    }
+
+    private static String toText(final String name, final JsonNode wert) {
+        if (wert.isNull()) {
+            return null;
+        }
+        if (!wert.isTextual()) {
+            throw new IllegalArgumentException("Die Property " + name + " muss ein String sein");
+        }
+        return wert.textValue();
+    }
+}
@@ -19,6 +19,7 @@ package com.acme.produkt.rest;
 import com.acme.produkt.entity.Produkt;
 import com.acme.produkt.entity.Umsatz;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
@@ -32,7 +33,8 @@ import java.util.UUID;
 
 /**
  * Model-Klasse für Spring HATEOAS. @lombok.Data fasst die Annotationsn @ToString, @EqualsAndHashCode, @Getter, @Setter
- * und @RequiredArgsConstructor zusammen.
+ * und @RequiredArgsConstructor zusammen. Die Links werden nicht als Link-Objekte erzeugt, sondern von
+ * ProduktModelSerializer aus der Basis-URI direkt in den Response geschrieben.
  * <img src="../../../../../asciidoc/ProduktModel.svg" alt="Klassendiagramm">
  *
  * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
@@ -40,6 +42,7 @@ import java.util.UUID;
 @JsonPropertyOrder({
     "name", "erscheinungsdatum", "homepage", "umsatz", "angestellterId", "angestellterNachname", "angestellterEmail"
 })
+@JsonSerialize(using = ProduktModelSerializer.class)
 @Relation(collectionRelation = "produkte", itemRelation = "produkte")
 @EqualsAndHashCode(onlyExplicitlyIncluded = true, callSuper = false)
 @Getter
@@ -54,8 +57,20 @@ class ProduktModel extends RepresentationModel<ProduktModel> {
     private final String angestellterNachname;
     private final String angestellterEmail;
 
+    // URI des Produkts fuer die Links "self", "update" und "remove"
+    private final String idUri;
 
-    ProduktModel(final Produkt produkt) {
+    // Basis-URI fuer die Links "list" und "add" oder null, falls es nur den Link "self" gibt
+    private final String baseUri;
+
+    /**
+     * Model zu einem Produkt mit den Links.
+     *
+     * @param produkt Das Produkt
+     * @param baseUri Die Basis-URI, z.B. von UriHelper
+     * @param alleLinks true, falls es außer `self` auch die Links `list`, `add`, `update` und `remove` gibt
+     */
+    ProduktModel(final Produkt produkt, final String baseUri, final boolean alleLinks) {
         name = produkt.getName();
         erscheinungsdatum = produkt.getErscheinungsdatum();
         homepage = produkt.getHomepage();
@@ -63,5 +78,7 @@ class ProduktModel extends RepresentationModel<ProduktModel> {
         angestellterId = produkt.getAngestellterId();
         angestellterNachname = produkt.getAngestellterNachname();
         angestellterEmail = produkt.getAngestellterEmail();
+        idUri = baseUri + '/' + produkt.getId();
+        this.baseUri = alleLinks ? baseUri : null;
     }
 }
@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.rest;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Serializer für ProduktModel, der die Properties und `_links` direkt in den JsonGenerator schreibt. Dadurch entfallen
+ * pro Response die Link-Objekte und die Maps, die der HAL-Serializer von Spring HATEOAS für `_links` aufbaut. Das
+ * JSON entspricht dem bisherigen HAL-Format einschließlich `default-property-inclusion: non_null`.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+final class ProduktModelSerializer extends StdSerializer<ProduktModel> {
+    static final SerializableString LINKS = new SerializedString("_links");
+    static final SerializableString HREF = new SerializedString("href");
+    static final SerializableString SELF = new SerializedString("self");
+
+    private static final SerializableString NAME = new SerializedString("name");
+    private static final SerializableString ERSCHEINUNGSDATUM = new SerializedString("erscheinungsdatum");
+    private static final SerializableString HOMEPAGE = new SerializedString("homepage");
+    private static final SerializableString UMSATZ = new SerializedString("umsatz");
+    private static final SerializableString BETRAG = new SerializedString("betrag");
+    private static final SerializableString WAEHRUNG = new SerializedString("waehrung");
+    private static final SerializableString ANGESTELLTER_ID = new SerializedString("angestellterId");
+    private static final SerializableString ANGESTELLTER_NACHNAME = new SerializedString("angestellterNachname");
+    private static final SerializableString ANGESTELLTER_EMAIL = new SerializedString("angestellterEmail");
+    private static final SerializableString LIST = new SerializedString("list");
+    private static final SerializableString ADD = new SerializedString("add");
+    private static final SerializableString UPDATE = new SerializedString("update");
+    private static final SerializableString REMOVE = new SerializedString("remove");
+
+    /**
+     * Konstruktor für Jackson.
+     */
+    ProduktModelSerializer() {
+        super(ProduktModel.class);
+    }
+
+    @Override
+    public void serialize(
+        final ProduktModel model,
+        final JsonGenerator gen,
+        final SerializerProvider provider
+    ) throws IOException {
+        gen.writeStartObject(model);
+        writeOptional(gen, NAME, model.getName());
+        // ISO 8601 wie bei JavaTimeModule mit WRITE_DATES_AS_TIMESTAMPS=false durch Spring Boot
+        final var erscheinungsdatum = model.getErscheinungsdatum();
+        if (erscheinungsdatum != null) {
+            gen.writeFieldName(ERSCHEINUNGSDATUM);
+            gen.writeString(erscheinungsdatum.toString());
+        }
+        final var homepage = model.getHomepage();
+        if (homepage != null) {
+            gen.writeFieldName(HOMEPAGE);
+            gen.writeString(homepage.toString());
+        }
+        final var umsatz = model.getUmsatz();
+        if (umsatz != null) {
+            gen.writeFieldName(UMSATZ);
+            gen.writeStartObject();
+            if (umsatz.getBetrag() != null) {
+                gen.writeFieldName(BETRAG);
+                gen.writeNumber(umsatz.getBetrag());
+            }
+            if (umsatz.getWaehrung() != null) {
+                gen.writeFieldName(WAEHRUNG);
+                gen.writeString(umsatz.getWaehrung().getCurrencyCode());
+            }
+            gen.writeEndObject();
+        }
+        final var angestellterId = model.getAngestellterId();
+        if (angestellterId != null) {
+            gen.writeFieldName(ANGESTELLTER_ID);
+            gen.writeString(angestellterId.toString());
+        }
+        writeOptional(gen, ANGESTELLTER_NACHNAME, model.getAngestellterNachname());
+        writeOptional(gen, ANGESTELLTER_EMAIL, model.getAngestellterEmail());
+        writeLinks(gen, model);
+        gen.writeEndObject();
+    }
+
+    private static void writeOptional(
+        final JsonGenerator gen,
+        final SerializableString name,
+        final String value
+    ) throws IOException {
+        if (value != null) {
+            gen.writeFieldName(name);
+            gen.writeString(value);
+        }
+    }
+
+    private static void writeLinks(final JsonGenerator gen, final ProduktModel model) throws IOException {
+        gen.writeFieldName(LINKS);
+        gen.writeStartObject();
+        final var idUri = model.getIdUri();
+        writeLink(gen, SELF, idUri);
+        final var baseUri = model.getBaseUri();
+        if (baseUri != null) {
+            writeLink(gen, LIST, baseUri);
+            writeLink(gen, ADD, baseUri);
+            writeLink(gen, UPDATE, idUri);
+            writeLink(gen, REMOVE, idUri);
+        }
+        gen.writeEndObject();
+    }
+
+    /**
+     * Einen Link im HAL-Format schreiben, d.h. `"rel": {"href": "..."}`.
+     *
+     * @param gen Der JsonGenerator
+     * @param rel Die Relation des Links
+     * @param href Die URI des Links
+     * @throws IOException Falls der JsonGenerator nicht schreiben kann
+     */
+    static void writeLink(final JsonGenerator gen, final SerializableString rel, final String href) throws IOException {
+        gen.writeFieldName(rel);
+        gen.writeStartObject();
+        gen.writeFieldName(HREF);
+        gen.writeString(href);
+        gen.writeEndObject();
+    }
+}
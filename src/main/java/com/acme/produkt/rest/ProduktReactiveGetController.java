@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.rest;
+
+import com.acme.produkt.service.ProduktReactiveReadService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static com.acme.produkt.rest.ProduktGetController.APPLICATION_SMILE_VALUE;
+import static com.acme.produkt.rest.ProduktGetController.ID_PATTERN;
+import static com.acme.produkt.rest.ProduktGetController.REST_PATH;
+import static com.acme.produkt.rest.ProduktGetController.toContentType;
+import static com.acme.produkt.rest.ProduktGetController.toETag;
+import static org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type.REACTIVE;
+import static org.springframework.hateoas.MediaTypes.HAL_JSON;
+import static org.springframework.hateoas.MediaTypes.HAL_JSON_VALUE;
+import static org.springframework.http.HttpHeaders.ACCEPT;
+import static org.springframework.http.HttpStatus.NOT_MODIFIED;
+import static org.springframework.http.MediaType.APPLICATION_CBOR_VALUE;
+import static org.springframework.http.ResponseEntity.ok;
+import static org.springframework.http.ResponseEntity.status;
+
+/**
+ * Reaktive REST-Schnittstelle zum Lesen von Produkten im Profile "reactive" mit Netty und WebFlux. Die Pfade und das
+ * JSON-Format entsprechen ProduktGetController, so dass der Durchsatz beider Varianten verglichen werden kann.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@RestController
+@RequestMapping(REST_PATH)
+@ConditionalOnWebApplication(type = REACTIVE)
+@RequiredArgsConstructor
+@Slf4j
+final class ProduktReactiveGetController {
+    private final ProduktReactiveReadService service;
+
+    /**
+     * Suche anhand der Produkt-ID als Pfad-Parameter.
+     *
+     * @param id ID des zu suchenden Produktes.
+     * @param version Die Version aus `If-None-Match`.
+     * @param accept Der Header `Accept` für den ETag des ausgehandelten Formats.
+     * @param request Das Request-Objekt, um Links für HATEOAS zu erstellen.
+     * @return Mono mit dem gefundenen Produkt, Statuscode 304 oder NotFoundException für Statuscode 404.
+     */
+    @GetMapping(
+        path = "{id:" + ID_PATTERN + "}",
+        produces = {HAL_JSON_VALUE, APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE}
+    )
+    Mono<ResponseEntity<ProduktModel>> findById(
+        @PathVariable final UUID id,
+        @RequestHeader("If-None-Match") final Optional<String> version,
+        @RequestHeader(ACCEPT) final Optional<String> accept,
+        final ServerHttpRequest request
+    ) {
+        log.debug("findById: id={}", id);
+        final var contentType = toContentType(accept.orElse(null)).orElse(HAL_JSON);
+        return service.findById(id).map(produkt -> {
+            final var eTag = toETag(produkt.getVersion(), contentType);
+            if (version.flatMap(IfNoneMatch::of).map(header -> header.passt(eTag)).orElse(false)) {
+                return status(NOT_MODIFIED).eTag(eTag).varyBy(ACCEPT).build();
+            }
+            final var model = new ProduktModel(produkt, getBaseUri(request), true);
+            return ok().eTag(eTag).varyBy(ACCEPT).body(model);
+        });
+    }
+
+    /**
+     * Suche mit den Suchkriterien `name` oder `angestellterId` als Query-Parameter.
+     *
+     * @param suchkriterien Query-Parameter als Map.
+     * @param request Das Request-Objekt, um Links für HATEOAS zu erstellen.
+     * @return Mono mit den gefundenen Produkten oder NotFoundException für Statuscode 404.
+     */
+    @GetMapping(produces = {HAL_JSON_VALUE, APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+    Mono<ResponseEntity<ProdukteModel>> find(
+        @RequestParam final Map<String, String> suchkriterien,
+        final ServerHttpRequest request
+    ) {
+        log.debug("find: suchkriterien={}", suchkriterien);
+        final var baseUri = getBaseUri(request);
+        final Map<String, List<String>> kriterien = suchkriterien.entrySet()
+            .stream()
+            .collect(Collectors.toMap(Map.Entry::getKey, entry -> List.of(entry.getValue())));
+        return service.find(kriterien)
+            .map(produkt -> new ProduktModel(produkt, baseUri, false))
+            .collectList()
+            .map(models -> ok().varyBy(ACCEPT).body(new ProdukteModel(models, null)));
+    }
+
+    // Schema, Host und Port aus dem Request; Forwarding-Header werden bei WebFlux durch ForwardedHeaderTransformer
+    // mit server.forward-headers-strategy=framework ausgewertet
+    private static String getBaseUri(final ServerHttpRequest request) {
+        return UriComponentsBuilder.fromUri(request.getURI())
+            .replacePath(REST_PATH)
+            .replaceQuery(null)
+            .build()
+            .toUriString();
+    }
+}
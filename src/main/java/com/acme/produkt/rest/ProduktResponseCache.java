@@ -0,0 +1,222 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.rest;
+
+import com.acme.produkt.ResponseCacheProps;
+import com.acme.produkt.entity.ProduktEreignis;
+import com.acme.produkt.service.ProduktEreignisListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPOutputStream;
+
+import static org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type.SERVLET;
+
+/**
+ * Cache für fertig serialisierte Responses zu einzelnen Produkten, jeweils unkomprimiert und mit gzip komprimiert.
+ * Ein Eintrag gehört zu ID, Versionsnummer und Repräsentation, d.h. Basis-URI der Links und ausgehandeltem
+ * Content-Type. Der Header `Accept` ist bewusst nicht Teil des Schlüssels, damit Clients mit beliebigen Werten keine
+ * zusätzlichen Einträge erzeugen. Verdrängt wird nach LRU pro Produkt, sobald die Gesamtgröße überschritten ist. Bei
+ * Änderungsereignissen werden die Einträge zum Produkt entfernt.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@Component
+@ConditionalOnWebApplication(type = SERVLET)
+@Slf4j
+final class ProduktResponseCache implements ProduktEreignisListener {
+    private static final String METRIC = "produkt.response.cache";
+
+    // ReentrantLock statt synchronized, damit "Virtual Threads" nicht an den Carrier-Thread gebunden werden
+    private final ReentrantLock lock = new ReentrantLock();
+    // Zugriffsreihenfolge fuer LRU
+    private final Map<UUID, Map<Variante, Antwort>> eintraege = new LinkedHashMap<>(64, 0.75F, true);
+    private final long maxBytes;
+    private final long ttlNanos;
+    private final Counter treffer;
+    private final Counter fehlschlaege;
+    private long bytes;
+
+    ProduktResponseCache(final ResponseCacheProps props, final MeterRegistry meterRegistry) {
+        maxBytes = props.maxSize().toBytes();
+        ttlNanos = props.ttl().toNanos();
+        treffer = Counter.builder(METRIC).tag("ergebnis", "treffer").register(meterRegistry);
+        fehlschlaege = Counter.builder(METRIC).tag("ergebnis", "fehlschlag").register(meterRegistry);
+        Gauge.builder(METRIC + ".bytes", this, ProduktResponseCache::getBytes).register(meterRegistry);
+    }
+
+    /**
+     * Eine gecachte Response suchen.
+     *
+     * @param id ID des Produktes
+     * @param version Aktuelle Versionsnummer des Produktes
+     * @param baseUri Basis-URI für die Links
+     * @param contentType Der aus `Accept` ausgehandelte Content-Type
+     * @return Die gecachte Response oder ein leeres Optional
+     */
+    Optional<Antwort> get(final UUID id, final int version, final String baseUri, final MediaType contentType) {
+        final var variante = new Variante(version, baseUri, contentType);
+        lock.lock();
+        try {
+            final var varianten = eintraege.get(id);
+            final var antwort = varianten == null ? null : varianten.get(variante);
+            if (antwort == null || System.nanoTime() - antwort.erzeugt() > ttlNanos) {
+                fehlschlaege.increment();
+                return Optional.empty();
+            }
+            treffer.increment();
+            return Optional.of(antwort);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Eine serialisierte Response cachen. Einträge zu anderen Versionsnummern des Produktes werden entfernt.
+     *
+     * @param id ID des Produktes
+     * @param version Versionsnummer des Produktes
+     * @param baseUri Basis-URI für die Links
+     * @param contentType Der Content-Type der Response
+     * @param antwort Die serialisierte Response
+     */
+    void put(
+        final UUID id,
+        final int version,
+        final String baseUri,
+        final MediaType contentType,
+        final Antwort antwort
+    ) {
+        if (antwort.groesse() > maxBytes) {
+            return;
+        }
+        lock.lock();
+        try {
+            final var varianten = eintraege.computeIfAbsent(id, key -> new HashMap<>());
+            varianten.entrySet().removeIf(eintrag -> {
+                if (eintrag.getKey().version() == version) {
+                    return false;
+                }
+                bytes -= eintrag.getValue().groesse();
+                return true;
+            });
+            final var alt = varianten.put(new Variante(version, baseUri, contentType), antwort);
+            bytes += antwort.groesse() - (alt == null ? 0 : alt.groesse());
+
+            final var iterator = eintraege.entrySet().iterator();
+            while (bytes > maxBytes && iterator.hasNext()) {
+                final var eintrag = iterator.next();
+                if (eintrag.getKey().equals(id)) {
+                    continue;
+                }
+                bytes -= groesse(eintrag.getValue());
+                iterator.remove();
+            }
+        } finally {
+            lock.unlock();
+        }
+        log.trace("put: id={}, version={}, bytes={}", id, version, bytes);
+    }
+
+    /**
+     * Alle Einträge zu einem Produkt entfernen.
+     *
+     * @param id ID des Produktes
+     */
+    void invalidate(final UUID id) {
+        lock.lock();
+        try {
+            final var varianten = eintraege.remove(id);
+            if (varianten != null) {
+                bytes -= groesse(varianten);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void onEreignis(final ProduktEreignis ereignis) {
+        log.trace("onEreignis: {}", ereignis);
+        invalidate(ereignis.getProduktId());
+    }
+
+    private long getBytes() {
+        lock.lock();
+        try {
+            return bytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static long groesse(final Map<Variante, Antwort> varianten) {
+        return varianten.values().stream().mapToLong(Antwort::groesse).sum();
+    }
+
+    private record Variante(int version, String baseUri, MediaType contentType) {
+    }
+
+    /**
+     * Serialisierte Response.
+     *
+     * @param contentType Der Header `Content-Type`
+     * @param header Die übrigen Header des Controllers, z.B. `ETag` und `Vary`
+     * @param body Der unkomprimierte Body
+     * @param gzip Der mit gzip komprimierte Body
+     * @param erzeugt Zeitpunkt der Serialisierung durch System.nanoTime()
+     */
+    record Antwort(String contentType, HttpHeaders header, byte[] body, byte[] gzip, long erzeugt) {
+        /**
+         * Eine serialisierte Response erstellen und dabei den Body mit gzip komprimieren.
+         *
+         * @param contentType Der Header `Content-Type`
+         * @param header Die übrigen Header des Controllers
+         * @param body Der unkomprimierte Body
+         * @return Die serialisierte Response
+         */
+        static Antwort of(final String contentType, final HttpHeaders header, final byte[] body) {
+            final var out = new ByteArrayOutputStream(body.length / 2 + 32);
+            try (var gzipOut = new GZIPOutputStream(out)) {
+                gzipOut.write(body);
+            } catch (final IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            return new Antwort(contentType, HttpHeaders.readOnlyHttpHeaders(header), body, out.toByteArray(),
+                System.nanoTime());
+        }
+
+        long groesse() {
+            return (long) body.length + gzip.length;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.rest;
+
+import com.acme.produkt.ResponseCacheProps;
+import com.acme.produkt.service.NotFoundException;
+import com.acme.produkt.service.ProduktReadService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+import static com.acme.produkt.rest.ProduktGetController.ID_PATTERN;
+import static com.acme.produkt.rest.ProduktGetController.REST_PATH;
+import static com.acme.produkt.rest.ProduktGetController.toContentType;
+import static com.acme.produkt.rest.ProduktGetController.toETag;
+import static jakarta.servlet.http.HttpServletResponse.SC_NOT_MODIFIED;
+import static jakarta.servlet.http.HttpServletResponse.SC_OK;
+import static org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type.SERVLET;
+import static org.springframework.http.HttpHeaders.ACCEPT;
+import static org.springframework.http.HttpHeaders.ACCEPT_ENCODING;
+import static org.springframework.http.HttpHeaders.CACHE_CONTROL;
+import static org.springframework.http.HttpHeaders.CONTENT_ENCODING;
+import static org.springframework.http.HttpHeaders.ETAG;
+import static org.springframework.http.HttpHeaders.IF_NONE_MATCH;
+import static org.springframework.http.HttpHeaders.VARY;
+import static org.springframework.http.HttpMethod.GET;
+
+/**
+ * Servlet-Filter für `GET /rest/{id}`, der serialisierte Responses aus ProduktResponseCache liefert. Bei einem Treffer
+ * wird nur die aktuelle Versionsnummer gelesen, d.h. ohne Laden des Produktes, ohne Aufrufe beim Angestellter-Service,
+ * ohne HATEOAS und ohne Jackson. Andernfalls wird der Response des Controllers mit seinen Headern gepuffert und
+ * gecacht, sofern er nicht `Cache-Control: no-store` enthält, z.B. wegen Ersatzwerten für den Angestellten. Der
+ * Schlüssel im Cache ist der aus `Accept` ausgehandelte Content-Type und nicht der Header selbst.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@Component
+@ConditionalOnWebApplication(type = SERVLET)
+@RequiredArgsConstructor
+@Slf4j
+final class ProduktResponseCacheFilter extends OncePerRequestFilter {
+    private static final Pattern ID_PATH = Pattern.compile(REST_PATH + "/(" + ID_PATTERN + ')');
+    private static final String GZIP = "gzip";
+    private static final String NO_STORE = "no-store";
+    // Header, die beim Schreiben neu gesetzt werden oder nicht zur gecachten Response gehoeren
+    private static final Set<String> NICHT_GECACHT = Set.of(
+        "connection", "content-encoding", "content-length", "content-type", "date", "keep-alive", "set-cookie",
+        "transfer-encoding"
+    );
+
+    private final ProduktResponseCache cache;
+    private final ProduktReadService service;
+    private final UriHelper uriHelper;
+    private final ResponseCacheProps props;
+
+    @Override
+    protected boolean shouldNotFilter(final HttpServletRequest request) {
+        // nur vollstaendige Darstellungen, d.h. z.B. nicht mit "fields"
+        return !props.enabled() || !GET.matches(request.getMethod()) || request.getQueryString() != null ||
+            !ID_PATH.matcher(getPath(request)).matches();
+    }
+
+    @Override
+    protected void doFilterInternal(
+        final HttpServletRequest request,
+        final HttpServletResponse response,
+        final FilterChain chain
+    ) throws ServletException, IOException {
+        final var matcher = ID_PATH.matcher(getPath(request));
+        if (!matcher.matches()) {
+            chain.doFilter(request, response);
+            return;
+        }
+        final var contentType = aushandeln(request);
+        if (contentType.isEmpty()) {
+            // Statuscode 406 bzw. 400 durch Spring MVC
+            chain.doFilter(request, response);
+            return;
+        }
+        final var id = UUID.fromString(matcher.group(1));
+        final int version;
+        try {
+            version = service.findVersionById(id);
+        } catch (final NotFoundException ex) {
+            // Statuscode 404 durch den Controller
+            chain.doFilter(request, response);
+            return;
+        }
+        final var eTag = toETag(version, contentType.get());
+        final var ifNoneMatch = IfNoneMatch.of(String.join(",", Collections.list(request.getHeaders(IF_NONE_MATCH))));
+        if (ifNoneMatch.map(header -> header.passt(eTag)).orElse(false)) {
+            // Statuscode 304 ohne Controller, d.h. ohne weitere Query
+            log.trace("doFilterInternal: nicht geaendert: id={}, version={}", id, version);
+            response.setStatus(SC_NOT_MODIFIED);
+            response.setHeader(ETAG, eTag);
+            response.addHeader(VARY, ACCEPT);
+            response.addHeader(VARY, ACCEPT_ENCODING);
+            return;
+        }
+
+        final var baseUri = uriHelper.getBaseUri(request).toString();
+        final var gzip = AcceptEncoding.gzip(String.join(",", Collections.list(request.getHeaders(ACCEPT_ENCODING))));
+        final var treffer = cache.get(id, version, baseUri, contentType.get());
+        if (treffer.isPresent()) {
+            log.trace("doFilterInternal: Treffer fuer id={}, version={}", id, version);
+            schreiben(response, treffer.get(), gzip);
+            return;
+        }
+
+        final var wrapper = new ContentCachingResponseWrapper(response);
+        chain.doFilter(request, wrapper);
+        // Nicht cachen, falls das Produkt zwischenzeitlich geaendert wurde, ein Fehler aufgetreten ist, der Controller
+        // das Cachen untersagt oder einen anderen Content-Type ausgehandelt hat
+        if (wrapper.getStatus() != SC_OK || !eTag.equals(wrapper.getHeader(ETAG)) ||
+            !contentType.get().equalsTypeAndSubtype(toMediaType(wrapper.getContentType())) ||
+            wrapper.getHeaders(CACHE_CONTROL).stream().anyMatch(value -> value.contains(NO_STORE))) {
+            wrapper.copyBodyToResponse();
+            return;
+        }
+        final var antwort = ProduktResponseCache.Antwort.of(
+            wrapper.getContentType(),
+            header(wrapper),
+            wrapper.getContentAsByteArray()
+        );
+        cache.put(id, version, baseUri, contentType.get(), antwort);
+        schreiben(response, antwort, gzip);
+    }
+
+    private static void schreiben(
+        final HttpServletResponse response,
+        final ProduktResponseCache.Antwort antwort,
+        final boolean gzip
+    ) throws IOException {
+        final var body = gzip ? antwort.gzip() : antwort.body();
+        response.setStatus(SC_OK);
+        response.setContentType(antwort.contentType());
+        // setHeader() statt addHeader(), weil nach einem Fehlschlag die Header des Controllers bereits gesetzt sind
+        antwort.header().forEach((name, values) -> {
+            response.setHeader(name, values.get(0));
+            values.stream().skip(1).forEach(value -> response.addHeader(name, value));
+        });
+        if (response.getHeaders(VARY).stream().noneMatch(value -> value.contains(ACCEPT_ENCODING))) {
+            response.addHeader(VARY, ACCEPT_ENCODING);
+        }
+        if (gzip) {
+            response.setHeader(CONTENT_ENCODING, GZIP);
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    // Header des Controllers ohne die Header, die beim Schreiben gesetzt werden
+    private static HttpHeaders header(final HttpServletResponse response) {
+        final var header = new HttpHeaders();
+        response.getHeaderNames()
+            .stream()
+            .filter(name -> !NICHT_GECACHT.contains(name.toLowerCase(Locale.ROOT)))
+            .forEach(name -> header.put(name, List.copyOf(response.getHeaders(name))));
+        return header;
+    }
+
+    // Content-Type wie im Controller aushandeln; ein leeres Optional bei einem ungueltigen Header Accept
+    private static Optional<MediaType> aushandeln(final HttpServletRequest request) {
+        try {
+            return toContentType(String.join(",", Collections.list(request.getHeaders(ACCEPT))));
+        } catch (final InvalidMediaTypeException ex) {
+            return Optional.empty();
+        }
+    }
+
+    private static MediaType toMediaType(final String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        try {
+            return MediaType.parseMediaType(contentType);
+        } catch (final InvalidMediaTypeException ex) {
+            return null;
+        }
+    }
+
+    private static String getPath(final HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+}
@@ -16,18 +16,25 @@
  */
 package com.acme.produkt.rest;
 
+import com.acme.produkt.entity.Produkt;
 import com.acme.produkt.service.ConstraintViolationsException;
+import com.acme.produkt.service.ProduktAuftragService;
 import com.acme.produkt.service.ProduktWriteService;
+import com.acme.produkt.service.VersionOutdatedException;
+import com.fasterxml.jackson.databind.JsonNode;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.ErrorResponseException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -41,16 +48,26 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+import static com.acme.produkt.rest.ProduktAuftragController.AUFTRAEGE_PATH;
+import static com.acme.produkt.rest.ProduktGetController.APPLICATION_SMILE_VALUE;
 import static com.acme.produkt.rest.ProduktGetController.ID_PATTERN;
 import static com.acme.produkt.rest.ProduktGetController.REST_PATH;
+import static com.acme.produkt.rest.ProduktGetController.toETag;
+import static com.acme.produkt.rest.ProduktGetController.toVersion;
+import static com.acme.produkt.rest.ProduktMergePatch.MERGE_PATCH_JSON_VALUE;
+import static org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type.SERVLET;
+import static org.springframework.hateoas.MediaTypes.HAL_JSON;
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.NO_CONTENT;
 import static org.springframework.http.HttpStatus.PRECONDITION_FAILED;
 import static org.springframework.http.HttpStatus.PRECONDITION_REQUIRED;
 import static org.springframework.http.HttpStatus.UNPROCESSABLE_ENTITY;
+import static org.springframework.http.MediaType.APPLICATION_CBOR_VALUE;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.ResponseEntity.accepted;
 import static org.springframework.http.ResponseEntity.created;
 import static org.springframework.http.ResponseEntity.noContent;
 
@@ -63,6 +80,7 @@ import static org.springframework.http.ResponseEntity.noContent;
  */
 @RestController
 @RequestMapping(REST_PATH)
+@ConditionalOnWebApplication(type = SERVLET)
 @Tag(name = "Produkt API")
 @RequiredArgsConstructor
 @Slf4j
@@ -72,27 +90,47 @@ final class ProduktWriteController {
     public static final String PROBLEM_PATH = "/problem/"; //NOSONAR
 
     private static final String VERSIONSNUMMER_FEHLT = "Versionsnummer fehlt";
+    private static final String WEAK_PREFIX = "W/";
+
+    // RFC 7240
+    private static final String PREFER = "Prefer";
+    private static final String PREFERENCE_APPLIED = "Preference-Applied";
+    private static final String RESPOND_ASYNC = "respond-async";
 
     private final ProduktWriteService service;
+    private final ProduktAuftragService auftragService;
 
     /**
      * Einen neuen Produkt-Datensatz anlegen.
      *
      * @param produktDTO Das Produktobjekt aus dem eingegangenen Request-Body.
+     * @param prefer Der Header `Prefer`: bei `respond-async` wird nur ein Auftrag gespeichert und das Produkt
+     *               anschließend im Hintergrund angelegt.
      * @param request Das Request-Objekt, um `Location` im Response-Header zu erstellen.
-     * @return Response mit Statuscode 201 einschließlich Location-Header oder Statuscode 422 falls Constraints verletzt
-     *      sind oder Statuscode 400, falls syntaktische Fehler im Request-Body vorliegen.
+     * @return Response mit Statuscode 201 einschließlich Location-Header oder Statuscode 202 mit dem Location-Header
+     *      für den Status des Auftrags oder Statuscode 422 falls Constraints verletzt sind oder Statuscode 400, falls
+     *      syntaktische Fehler im Request-Body vorliegen.
      * @throws URISyntaxException falls die URI im Request-Objekt nicht korrekt wäre
      */
-    @PostMapping(consumes = APPLICATION_JSON_VALUE)
+    @PostMapping(consumes = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
     @ResponseStatus(NO_CONTENT)
     @Operation(summary = "Ein neues Produkt anlegen", tags = "Neuanlegen")
     @ApiResponse(responseCode = "201", description = "Produkt neu angelegt")
+    @ApiResponse(responseCode = "202", description = "Auftrag zum Neuanlegen angenommen")
     @ApiResponse(responseCode = "400", description = "Syntaktische Fehler im Request-Body")
     @ApiResponse(responseCode = "422", description = "Ungültige Werte")
     @SuppressWarnings("TrailingComment")
-    ResponseEntity<Void> create(@RequestBody final ProduktDTO produktDTO, final HttpServletRequest request)
-        throws URISyntaxException {
+    ResponseEntity<Void> create(
+        @RequestBody final ProduktDTO produktDTO,
+        @RequestHeader(PREFER) final Optional<String> prefer,
+        final HttpServletRequest request
+    ) throws URISyntaxException {
+        if (prefer.map(value -> value.contains(RESPOND_ASYNC)).orElse(false)) {
+            final var auftrag = auftragService.create(produktDTO.toProdukt());
+            final var location = new URI(request.getRequestURI() + AUFTRAEGE_PATH + "/" + auftrag.getId());
+            return accepted().location(location).header(PREFERENCE_APPLIED, RESPOND_ASYNC).build();
+        }
+
         final var produktDB = service.create(produktDTO.toProdukt());
         final var location = new URI(request.getRequestURI() + "/" + produktDB.getId());
         return created(location).build();
@@ -106,15 +144,19 @@ final class ProduktWriteController {
      * @param version Die Versionsnummer des ziu aktualieserenden Produktes
      * @param request Das Request-Objekt, um `Location` im Response-Header zu erstellen.
      * @return Response mit Statuscode 204 oder Statuscode 400, falls der JSON-Datensatz syntaktisch nicht korrekt ist
-     *     oder 422 falls Constraints verletzt sindoder 412 falls die Versionsnummer nicht ok ist oder 428 falls
+     *     oder 422 falls Constraints verletzt sind oder 412 falls die Versionsnummer nicht ok ist oder 428 falls
      *     die Versionsnummer fehlt.
      */
-    @PutMapping(path = "{id:" + ID_PATTERN + "}", consumes = APPLICATION_JSON_VALUE)
+    @PutMapping(
+        path = "{id:" + ID_PATTERN + "}",
+        consumes = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE}
+    )
     @ResponseStatus(NO_CONTENT)
     @Operation(summary = "Ein Produkt mit neuen Werten aktualisieren", tags = "Aktualisieren")
     @ApiResponse(responseCode = "204", description = "Aktualisiert")
     @ApiResponse(responseCode = "400", description = "Syntaktische Fehler im Request-Body")
     @ApiResponse(responseCode = "404", description = "Produkt nicht vorhanden")
+    @ApiResponse(responseCode = "412", description = "Versionsnummer falsch")
     @ApiResponse(responseCode = "422", description = "Ungültige Werte")
     @ApiResponse(responseCode = "428", description = VERSIONSNUMMER_FEHLT)
     ResponseEntity<Void> update(
@@ -127,10 +169,53 @@ final class ProduktWriteController {
         final int versionInt = getVersion(version, request);
         final var produkt = service.update(produktDTO.toProdukt(), id, versionInt);
         log.debug("update: {}", produkt);
-        return noContent().eTag("\"" + produkt.getVersion() + '"').build();
+        return noContent().eTag(toETag(produkt.getVersion(), HAL_JSON)).build();
+    }
+
+    /**
+     * Einen vorhandenen Produkt-Datensatz gemäß JSON Merge Patch teilweise aktualisieren.
+     *
+     * @param id ID des zu aktualisierenden Produktes.
+     * @param patch Das Dokument gemäß JSON Merge Patch aus dem Request-Body.
+     * @param version Die Versionsnummer des zu aktualisierenden Produktes
+     * @param request Das Request-Objekt, um ggf. die URI für ProblemDetail zu erstellen.
+     * @return Response mit Statuscode 204 oder Statuscode 400, falls das Dokument nicht änderbare Properties oder
+     *     ungültige Werte enthält oder 422 falls Constraints verletzt sind oder 412 falls die Versionsnummer nicht ok
+     *     ist oder 428 falls die Versionsnummer fehlt.
+     */
+    @PatchMapping(path = "{id:" + ID_PATTERN + "}", consumes = MERGE_PATCH_JSON_VALUE)
+    @ResponseStatus(NO_CONTENT)
+    @Operation(summary = "Ein Produkt mit JSON Merge Patch teilweise aktualisieren", tags = "Aktualisieren")
+    @ApiResponse(responseCode = "204", description = "Aktualisiert")
+    @ApiResponse(responseCode = "400", description = "Syntaktische Fehler im Request-Body")
+    @ApiResponse(responseCode = "404", description = "Produkt nicht vorhanden")
+    @ApiResponse(responseCode = "412", description = "Versionsnummer falsch")
+    @ApiResponse(responseCode = "422", description = "Ungültige Werte")
+    @ApiResponse(responseCode = "428", description = VERSIONSNUMMER_FEHLT)
+    ResponseEntity<Void> patch(
+        @PathVariable final UUID id,
+        @RequestBody final JsonNode patch,
+        @RequestHeader("If-Match") final Optional<String> version,
+        final HttpServletRequest request
+    ) {
+        log.debug("patch: id={}, patch={}", id, patch);
+        final int versionInt = getVersion(version, request);
+        final Consumer<Produkt> aenderungen;
+        try {
+            aenderungen = new ProduktMergePatch(patch).toAenderungen();
+        } catch (final IllegalArgumentException ex) {
+            log.debug("patch: {}", ex.getMessage());
+            final var problemDetail = ProblemDetail.forStatusAndDetail(BAD_REQUEST, ex.getMessage());
+            problemDetail.setType(URI.create(PROBLEM_PATH + ProblemType.BAD_REQUEST.getValue()));
+            problemDetail.setInstance(URI.create(request.getRequestURL().toString()));
+            throw new ErrorResponseException(BAD_REQUEST, problemDetail, ex);
+        }
+
+        final var produkt = service.patch(id, versionInt, aenderungen);
+        log.debug("patch: {}", produkt);
+        return noContent().eTag(toETag(produkt.getVersion(), HAL_JSON)).build();
     }
 
-    @SuppressWarnings({"MagicNumber", "RedundantSuppression"})
     private int getVersion(final Optional<String> versionOpt, final HttpServletRequest request) {
         log.trace("getVersion: {}", versionOpt);
         if (versionOpt.isEmpty()) {
@@ -140,28 +225,21 @@ final class ProduktWriteController {
                 URI.create(request.getRequestURL().toString()));
         }
 
-        final var versionStr = versionOpt.get();
-        if (versionStr.length() < 3 ||
-            versionStr.charAt(0) != '"' ||
-            versionStr.charAt(versionStr.length() - 1) != '"') {
+        // RFC 9110 Abschnitt 13.1.1: starker Vergleich, d.h. ein schwacher ETag passt nie
+        final var eTag = versionOpt.get();
+        if (eTag.startsWith(WEAK_PREFIX)) {
             throw new VersionInvalidException(
                 PRECONDITION_FAILED,
-                "Ungueltiges ETag " + versionStr,
+                "Schwaches ETag " + eTag + " bei If-Match nicht zulaessig",
                 URI.create(request.getRequestURL().toString())
             );
         }
-
-        final int version;
-        try {
-            version = Integer.parseInt(versionStr.substring(1, versionStr.length() - 1));
-        } catch (final NumberFormatException ex) {
-            throw new VersionInvalidException(
-                PRECONDITION_FAILED,
-                "Ungueltiges ETag " + versionStr,
-                URI.create(request.getRequestURL().toString()),
-                ex
-            );
-        }
+        // starker ETag eines beliebigen Formats, z.B. "3" fuer HAL als JSON oder "3-cbor"
+        final int version = toVersion(eTag).orElseThrow(() -> new VersionInvalidException(
+            PRECONDITION_FAILED,
+            "Ungueltiges ETag " + eTag,
+            URI.create(request.getRequestURL().toString())
+        ));
 
         log.trace("getVersion: version={}", version);
         return version;
@@ -195,6 +273,17 @@ final class ProduktWriteController {
         return problemDetail;
     }
 
+    @ExceptionHandler
+    @ResponseStatus(PRECONDITION_FAILED)
+    @SuppressWarnings("unused")
+    ProblemDetail handleVersionOutdated(final VersionOutdatedException ex, final HttpServletRequest request) {
+        log.debug("handleVersionOutdated: {}", ex.getMessage());
+        final var problemDetail = ProblemDetail.forStatusAndDetail(PRECONDITION_FAILED, ex.getMessage());
+        problemDetail.setType(URI.create(PROBLEM_PATH + ProblemType.PRECONDITION.getValue()));
+        problemDetail.setInstance(URI.create(request.getRequestURL().toString()));
+        return problemDetail;
+    }
+
     @ExceptionHandler
     @ResponseStatus(BAD_REQUEST)
     @SuppressWarnings("unused")
@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.rest;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Gefundene Produkte für HAL mit `_embedded.produkte` und ggf. dem Link `next` zur Folgeseite. Anstatt eines
+ * CollectionModel mit Link-Objekten wird das JSON von ProdukteModelSerializer direkt geschrieben. Bei der Suche mit
+ * mehreren IDs werden die nicht gefundenen IDs in `nichtGefunden` aufgelistet.
+ *
+ * @param produkte Die Models der gefundenen Produkte
+ * @param nextUri Die URI der Folgeseite oder null
+ * @param nichtGefunden Die IDs, zu denen es kein Produkt gibt
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@JsonSerialize(using = ProdukteModelSerializer.class)
+record ProdukteModel(List<ProduktModel> produkte, String nextUri, List<UUID> nichtGefunden) {
+    /**
+     * Gefundene Produkte ohne nicht gefundene IDs.
+     *
+     * @param produkte Die Models der gefundenen Produkte
+     * @param nextUri Die URI der Folgeseite oder null
+     */
+    ProdukteModel(final List<ProduktModel> produkte, final String nextUri) {
+        this(produkte, nextUri, List.of());
+    }
+}
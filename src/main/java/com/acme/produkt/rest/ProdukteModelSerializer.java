@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.rest;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+import static com.acme.produkt.rest.ProduktModelSerializer.LINKS;
+
+/**
+ * Serializer für ProdukteModel im HAL-Format, d.h. `_embedded.produkte`, ggf. `nichtGefunden` und ggf. `_links.next`.
+ * Die einzelnen Produkte werden mit ProduktModelSerializer geschrieben, ohne den Serializer pro Element über den
+ * SerializerProvider zu ermitteln.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+final class ProdukteModelSerializer extends StdSerializer<ProdukteModel> {
+    private static final SerializableString EMBEDDED = new SerializedString("_embedded");
+    private static final SerializableString PRODUKTE = new SerializedString("produkte");
+    private static final SerializableString NEXT = new SerializedString("next");
+    private static final SerializableString NICHT_GEFUNDEN = new SerializedString("nichtGefunden");
+
+    private final ProduktModelSerializer produktSerializer = new ProduktModelSerializer();
+
+    /**
+     * Konstruktor für Jackson.
+     */
+    ProdukteModelSerializer() {
+        super(ProdukteModel.class);
+    }
+
+    @Override
+    public void serialize(
+        final ProdukteModel model,
+        final JsonGenerator gen,
+        final SerializerProvider provider
+    ) throws IOException {
+        gen.writeStartObject(model);
+        final var produkte = model.produkte();
+        if (!produkte.isEmpty()) {
+            gen.writeFieldName(EMBEDDED);
+            gen.writeStartObject();
+            gen.writeFieldName(PRODUKTE);
+            gen.writeStartArray(produkte, produkte.size());
+            for (final var produkt : produkte) {
+                produktSerializer.serialize(produkt, gen, provider);
+            }
+            gen.writeEndArray();
+            gen.writeEndObject();
+        }
+        final var nichtGefunden = model.nichtGefunden();
+        if (!nichtGefunden.isEmpty()) {
+            gen.writeFieldName(NICHT_GEFUNDEN);
+            gen.writeStartArray(nichtGefunden, nichtGefunden.size());
+            for (final var id : nichtGefunden) {
+                gen.writeString(id.toString());
+            }
+            gen.writeEndArray();
+        }
+        final var nextUri = model.nextUri();
+        if (nextUri != null) {
+            gen.writeFieldName(LINKS);
+            gen.writeStartObject();
+            ProduktModelSerializer.writeLink(gen, NEXT, nextUri);
+            gen.writeEndObject();
+        }
+        gen.writeEndObject();
+    }
+}
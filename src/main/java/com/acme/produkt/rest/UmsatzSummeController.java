@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.rest;
+
+import com.acme.produkt.service.UmsatzSummeService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Currency;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static com.acme.produkt.rest.ProduktGetController.REST_PATH;
+import static org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type.SERVLET;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+/**
+ * REST-Schnittstelle für die Anzahl der Produkte und die Summe der Umsätze pro Angestellter und Währung.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@RestController
+@RequestMapping(REST_PATH)
+@ConditionalOnWebApplication(type = SERVLET)
+@RequiredArgsConstructor
+@Slf4j
+final class UmsatzSummeController {
+    /**
+     * Pfad für die Umsatzsummen.
+     */
+    static final String UMSATZSUMMEN_PATH = "/umsatzsummen";
+
+    private final UmsatzSummeService service;
+
+    /**
+     * Umsatzsummen suchen, optional zu einem Angestellten und/oder einer Währung.
+     *
+     * @param angestellterId Optionale ID des Angestellten als Query-Parameter.
+     * @param waehrung Optionale Währung als Query-Parameter, z.B. `EUR`.
+     * @return Die gefundenen Umsatzsummen.
+     */
+    @GetMapping(path = UMSATZSUMMEN_PATH, produces = APPLICATION_JSON_VALUE)
+    @Operation(summary = "Umsatzsummen pro Angestellter und Währung", tags = "Suchen")
+    @ApiResponse(responseCode = "200", description = "Umsatzsummen gefunden")
+    @ApiResponse(responseCode = "400", description = "Ungültige Angestellter-ID oder Währung")
+    @ApiResponse(responseCode = "404", description = "Keine Umsatzsummen gefunden")
+    List<UmsatzSummeModel> find(
+        @RequestParam final Optional<UUID> angestellterId,
+        @RequestParam final Optional<Currency> waehrung
+    ) {
+        log.debug("find: angestellterId={}, waehrung={}", angestellterId, waehrung);
+        final var summen = service.find(angestellterId.orElse(null), waehrung.orElse(null))
+            .stream()
+            .map(UmsatzSummeModel::new)
+            .toList();
+        log.debug("find: {}", summen);
+        return summen;
+    }
+}
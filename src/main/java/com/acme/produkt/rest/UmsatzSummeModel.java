@@ -0,0 +1,43 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.rest;
+
+import com.acme.produkt.entity.UmsatzSumme;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+import java.util.UUID;
+
+/**
+ * Umsatzsumme zu einem Angestellten und einer Währung für die REST-Schnittstelle.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ * @param angestellterId ID des Angestellten
+ * @param waehrung Währung
+ * @param anzahl Anzahl der Produkte mit Umsatz in dieser Währung
+ * @param summe Summe der Umsatzbeträge
+ */
+record UmsatzSummeModel(UUID angestellterId, Currency waehrung, long anzahl, BigDecimal summe) {
+    UmsatzSummeModel(final UmsatzSumme umsatzSumme) {
+        this(
+            umsatzSumme.getAngestellterId(),
+            umsatzSumme.getWaehrung(),
+            umsatzSumme.getAnzahl(),
+            umsatzSumme.getSumme()
+        );
+    }
+}
@@ -18,13 +18,17 @@ package com.acme.produkt.rest;
 
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static com.acme.produkt.rest.ProduktGetController.REST_PATH;
+import static org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type.SERVLET;
 
 /**
  * Hilfsklasse um URIs für HATEOAS oder für URIs in ProblemDetail zu ermitteln, falls ein API-Gateway verwendet wird.
@@ -32,6 +36,7 @@ import static com.acme.produkt.rest.ProduktGetController.REST_PATH;
  * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
  */
 @Component
+@ConditionalOnWebApplication(type = SERVLET)
 @Slf4j
 class UriHelper {
     private static final String X_FORWARDED_PROTO = "X-Forwarded-Proto";
@@ -39,14 +44,38 @@ class UriHelper {
     private static final String X_FORWARDED_PREFIX = "x-forwarded-prefix";
     private static final String PRODUKTE_PREFIX = "/produkte";
 
+    // Obergrenze, weil Host und Forwarding-Header vom Client stammen
+    private static final int MAX_BASE_URIS = 64;
+
+    private final Map<BaseUriKey, URI> baseUris = new ConcurrentHashMap<>();
+
     /**
-     * Basis-URI ermitteln, d.h. ohne Query-Parameter.
+     * Basis-URI ermitteln, d.h. ohne Query-Parameter. Die Basis-URI wird pro Schema, Host, Port bzw. Forwarding-Header
+     * nur einmal berechnet.
      *
      * @param request Servlet-Request
      * @return Die Basis-URI als String
      */
     URI getBaseUri(final HttpServletRequest request) {
         final var forwardedHost = request.getHeader(X_FORWARDED_HOST);
+        final var key = forwardedHost == null
+            ? new BaseUriKey(request.getScheme(), request.getServerName(), request.getServerPort(), null)
+            : new BaseUriKey(
+                request.getHeader(X_FORWARDED_PROTO), forwardedHost, -1, request.getHeader(X_FORWARDED_PREFIX)
+            );
+        final var baseUri = baseUris.get(key);
+        if (baseUri != null) {
+            return baseUri;
+        }
+
+        final var neueBaseUri = computeBaseUri(request, forwardedHost);
+        if (baseUris.size() < MAX_BASE_URIS) {
+            baseUris.put(key, neueBaseUri);
+        }
+        return neueBaseUri;
+    }
+
+    private URI computeBaseUri(final HttpServletRequest request, final String forwardedHost) {
         if (forwardedHost != null) {
             // Forwarding durch Kubernetes Ingress Controller oder Spring Cloud Gateway
             return getBaseUriForwarded(request, forwardedHost);
@@ -92,4 +121,7 @@ class UriHelper {
         }
         return baseUri;
     }
+
+    private record BaseUriKey(String scheme, String host, int port, String prefix) {
+    }
 }
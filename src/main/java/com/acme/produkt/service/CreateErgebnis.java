@@ -0,0 +1,41 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.service;
+
+import com.acme.produkt.entity.Produkt;
+import jakarta.validation.ConstraintViolation;
+
+import java.util.Set;
+
+/**
+ * Ergebnis für ein einzelnes Produkt beim Neuanlegen im Batch.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ *
+ * @param produkt Das Produkt, bei Erfolg mit generierter ID
+ * @param violations Die verletzten Constraints, bei Erfolg leer
+ */
+public record CreateErgebnis(Produkt produkt, Set<ConstraintViolation<Produkt>> violations) {
+    /**
+     * Abfrage, ob das Produkt angelegt wurde.
+     *
+     * @return true, falls keine Constraints verletzt sind
+     */
+    public boolean isAngelegt() {
+        return violations.isEmpty();
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.service;
+
+import com.acme.produkt.entity.AuftragStatus;
+import com.acme.produkt.entity.Produkt;
+import com.acme.produkt.entity.ProduktAuftrag;
+import com.acme.produkt.repository.ProduktAuftragRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+import static com.acme.produkt.entity.AuftragStatus.ERLEDIGT;
+import static com.acme.produkt.entity.AuftragStatus.FEHLER;
+import static com.acme.produkt.entity.AuftragStatus.NEU;
+import static com.acme.produkt.entity.ProduktAuftrag.MAX_LENGTH_FEHLER;
+
+/**
+ * Anwendungslogik für das asynchrone Neuanlegen von Produkten. Ein Auftrag wird validiert und mit einem einzigen
+ * INSERT gespeichert. Die Aufträge werden von einem Hintergrund-Thread in Batches in Produkte übertragen.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProduktAuftragService {
+    private final ProduktAuftragRepository repo;
+    private final ProduktWriteService writeService;
+    private final ProduktValidator validator;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Einen Auftrag zum Neuanlegen eines Produktes speichern.
+     *
+     * @param produkt Das Objekt des neu anzulegenden Produktes.
+     * @return Der gespeicherte Auftrag mit generierter ID.
+     * @throws ConstraintViolationsException Falls mindestens ein Constraint verletzt ist.
+     */
+    @Transactional
+    public ProduktAuftrag create(final Produkt produkt) {
+        log.debug("create: {}", produkt);
+
+        final var violations = validator.validate(produkt);
+        if (!violations.isEmpty()) {
+            log.debug("create: violations={}", violations);
+            throw new ConstraintViolationsException(violations);
+        }
+
+        final var auftragDb = repo.save(ProduktAuftrag.of(produkt));
+        // Der Hintergrund-Thread wird erst nach dem Commit benachrichtigt
+        eventPublisher.publishEvent(auftragDb);
+        log.debug("create: {}", auftragDb);
+        return auftragDb;
+    }
+
+    /**
+     * Einen Auftrag anhand seiner ID suchen, z.B. um den Status abzufragen.
+     *
+     * @param id Die ID des gesuchten Auftrags
+     * @return Der gefundene Auftrag
+     * @throws NotFoundException Falls kein Auftrag gefunden wurde
+     */
+    @Transactional(readOnly = true)
+    public ProduktAuftrag findById(final UUID id) {
+        log.debug("findById: id={}", id);
+        final var auftrag = repo.findById(id).orElseThrow(() -> new NotFoundException(id));
+        log.debug("findById: {}", auftrag);
+        return auftrag;
+    }
+
+    /**
+     * Die ältesten neuen Aufträge in einer einzigen Transaktion verarbeiten. Aufträge, die von einer anderen
+     * Transaktion gesperrt sind, werden übersprungen.
+     *
+     * @param anzahl Maximale Anzahl an Aufträgen
+     * @return Anzahl der verarbeiteten Aufträge
+     */
+    @Transactional
+    public int verarbeiten(final int anzahl) {
+        final var auftraege = repo.findByStatusAndLock(NEU, PageRequest.ofSize(anzahl));
+        log.trace("verarbeiten: {} Auftraege", auftraege.size());
+        auftraege.forEach(this::verarbeiten);
+        if (!auftraege.isEmpty()) {
+            log.debug("verarbeiten: {} Auftraege verarbeitet", auftraege.size());
+        }
+        return auftraege.size();
+    }
+
+    /**
+     * Die IDs der ältesten neuen Aufträge ermitteln, z.B. um sie nach einem fehlgeschlagenen Batch einzeln zu
+     * verarbeiten.
+     *
+     * @param anzahl Maximale Anzahl an Aufträgen
+     * @return Die IDs der Aufträge
+     */
+    @Transactional(readOnly = true)
+    public List<UUID> findNeu(final int anzahl) {
+        return repo.findIdsByStatus(NEU, PageRequest.ofSize(anzahl));
+    }
+
+    /**
+     * Einen einzelnen neuen Auftrag in einer eigenen Transaktion verarbeiten.
+     *
+     * @param id Die ID des Auftrags
+     */
+    @Transactional
+    public void verarbeiten(final UUID id) {
+        log.debug("verarbeiten: id={}", id);
+        repo.findByIdAndStatus(id, NEU).ifPresent(this::verarbeiten);
+    }
+
+    /**
+     * Einen neuen Auftrag als fehlerhaft markieren, damit er nicht erneut verarbeitet wird.
+     *
+     * @param id Die ID des Auftrags
+     * @param fehler Die Fehlermeldung
+     */
+    @Transactional
+    public void markiereFehler(final UUID id, final String fehler) {
+        log.debug("markiereFehler: id={}, fehler={}", id, fehler);
+        repo.findByIdAndStatus(id, NEU).ifPresent(auftrag -> setStatus(auftrag, FEHLER, fehler));
+    }
+
+    private void verarbeiten(final ProduktAuftrag auftrag) {
+        final var produkt = auftrag.toProdukt();
+        // Vorab pruefen, weil eine Exception in ProduktWriteService die gesamte Transaktion fuer den Rollback markiert
+        final var violations = validator.validate(produkt);
+        if (!violations.isEmpty()) {
+            log.debug("verarbeiten: id={}, violations={}", auftrag.getId(), violations);
+            setStatus(auftrag, FEHLER, violations.toString());
+            return;
+        }
+
+        final var produktDb = writeService.create(produkt);
+        auftrag.setProduktId(produktDb.getId());
+        setStatus(auftrag, ERLEDIGT, null);
+    }
+
+    private static void setStatus(final ProduktAuftrag auftrag, final AuftragStatus status, final String fehler) {
+        auftrag.setStatus(status);
+        auftrag.setFehler(fehler == null || fehler.length() <= MAX_LENGTH_FEHLER
+            ? fehler
+            : fehler.substring(0, MAX_LENGTH_FEHLER));
+    }
+}
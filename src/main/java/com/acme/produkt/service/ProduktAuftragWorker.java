@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.service;
+
+import com.acme.produkt.AuftragProps;
+import com.acme.produkt.entity.ProduktAuftrag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hintergrund-Thread, der die Aufträge zum asynchronen Neuanlegen in Batches in Produkte überträgt. Der Thread läuft
+ * als "Virtual Thread" über den AsyncTaskExecutor aus ThreadConfig und wird nach dem Commit eines neuen Auftrags
+ * sofort geweckt. Andernfalls wird periodisch nach Aufträgen gesucht, z.B. nach einem Neustart.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+final class ProduktAuftragWorker implements SmartLifecycle {
+    private final ProduktAuftragService service;
+    private final AsyncTaskExecutor applicationTaskExecutor;
+    private final AuftragProps props;
+    private final Semaphore signal = new Semaphore(0);
+    private volatile boolean running;
+
+    @Override
+    public void start() {
+        log.debug("start: {}", props);
+        running = true;
+        applicationTaskExecutor.execute(this::abarbeiten);
+    }
+
+    @Override
+    public void stop() {
+        log.debug("stop");
+        running = false;
+        signal.release();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Den Hintergrund-Thread nach dem Commit eines neuen Auftrags wecken.
+     *
+     * @param auftrag Der neue Auftrag
+     */
+    @TransactionalEventListener
+    void onCreate(final ProduktAuftrag auftrag) {
+        log.trace("onCreate: id={}", auftrag.getId());
+        signal.release();
+    }
+
+    private void abarbeiten() {
+        final var batchSize = props.batchSize();
+        while (running) {
+            int anzahl;
+            try {
+                anzahl = service.verarbeiten(batchSize);
+            } catch (final RuntimeException ex) {
+                log.warn("abarbeiten: Batch fehlgeschlagen, die Auftraege werden einzeln verarbeitet", ex);
+                anzahl = einzelnVerarbeiten(batchSize);
+            }
+
+            if (anzahl < batchSize && !warten()) {
+                return;
+            }
+        }
+        log.debug("abarbeiten: beendet");
+    }
+
+    // Fehlerhafte Auftraege einzeln markieren, damit sie nachfolgende Batches nicht blockieren
+    private int einzelnVerarbeiten(final int batchSize) {
+        try {
+            final var ids = service.findNeu(batchSize);
+            for (final var id : ids) {
+                try {
+                    service.verarbeiten(id);
+                } catch (final RuntimeException ex) {
+                    log.warn("einzelnVerarbeiten: id={}", id, ex);
+                    service.markiereFehler(id, ex.getMessage());
+                }
+            }
+            return ids.size();
+        } catch (final RuntimeException ex) {
+            // z.B. DB nicht erreichbar: erneuter Versuch nach dem Poll-Intervall
+            log.error("einzelnVerarbeiten", ex);
+            return 0;
+        }
+    }
+
+    private boolean warten() {
+        try {
+            signal.tryAcquire(props.pollInterval().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        // mehrere Benachrichtigungen werden mit dem naechsten Batch gemeinsam abgearbeitet
+        signal.drainPermits();
+        return true;
+    }
+}
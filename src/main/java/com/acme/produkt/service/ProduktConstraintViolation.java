@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.service;
+
+import com.acme.produkt.entity.Produkt;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ElementKind;
+import jakarta.validation.Path;
+import jakarta.validation.ValidationException;
+import jakarta.validation.metadata.ConstraintDescriptor;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Verletztes Constraint bei einem Produkt, das von ProduktValidator ohne Reflection erzeugt wird. Meldung und
+ * ConstraintDescriptor stammen vom Jakarta Validator, so dass z.B. ConstraintViolationsException und die GraphQL-Fehler
+ * dieselben Angaben wie bei Bean Validation erhalten.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ * @param message Die interpolierte Meldung
+ * @param messageTemplate Die Vorlage für die Meldung
+ * @param rootBean Das validierte Produkt
+ * @param invalidValue Der ungültige Wert
+ * @param propertyPath Der Pfad zum Attribut
+ * @param constraintDescriptor Der ConstraintDescriptor vom Jakarta Validator
+ */
+record ProduktConstraintViolation(
+    String message,
+    String messageTemplate,
+    Produkt rootBean,
+    Object invalidValue,
+    PropertyPath propertyPath,
+    ConstraintDescriptor<?> constraintDescriptor
+) implements ConstraintViolation<Produkt> {
+    @Override
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String getMessageTemplate() {
+        return messageTemplate;
+    }
+
+    @Override
+    public Produkt getRootBean() {
+        return rootBean;
+    }
+
+    @Override
+    public Class<Produkt> getRootBeanClass() {
+        return Produkt.class;
+    }
+
+    @Override
+    public Object getLeafBean() {
+        return rootBean;
+    }
+
+    @Override
+    public Object[] getExecutableParameters() {
+        //noinspection ReturnOfNull
+        return null;
+    }
+
+    @Override
+    public Object getExecutableReturnValue() {
+        return null;
+    }
+
+    @Override
+    public Path getPropertyPath() {
+        return propertyPath;
+    }
+
+    @Override
+    public Object getInvalidValue() {
+        return invalidValue;
+    }
+
+    @Override
+    public ConstraintDescriptor<?> getConstraintDescriptor() {
+        return constraintDescriptor;
+    }
+
+    @Override
+    public <U> U unwrap(final Class<U> type) {
+        if (type.isInstance(this)) {
+            return type.cast(this);
+        }
+        throw new ValidationException("Typ nicht unterstuetzt: " + type);
+    }
+
+    @Override
+    public String toString() {
+        return propertyPath + ": " + message;
+    }
+
+    /**
+     * Pfad zu einem Attribut des Produktes mit genau einem Knoten.
+     *
+     * @param name Der Name des Attributs
+     */
+    record PropertyPath(String name) implements Path, Path.PropertyNode {
+        @Override
+        public Iterator<Node> iterator() {
+            return List.<Node>of(this).iterator();
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public boolean isInIterable() {
+            return false;
+        }
+
+        @Override
+        public Integer getIndex() {
+            return null;
+        }
+
+        @Override
+        public Object getKey() {
+            return null;
+        }
+
+        @Override
+        public ElementKind getKind() {
+            return ElementKind.PROPERTY;
+        }
+
+        @Override
+        public <T extends Node> T as(final Class<T> nodeType) {
+            return nodeType.cast(this);
+        }
+
+        @Override
+        public Class<?> getContainerClass() {
+            return null;
+        }
+
+        @Override
+        public Integer getTypeArgumentIndex() {
+            return null;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.service;
+
+import com.acme.produkt.entity.ProduktEreignis;
+
+/**
+ * Listener für Änderungsereignisse zu Produkten, z.B. um Caches zu invalidieren. Jede Spring-Bean mit diesem
+ * Interface wird vom Relay aufgerufen, wobei die Reihenfolge der Listener mit `@Order` festgelegt werden kann.
+ *
+ * Die Ereignisse zu einem Produkt werden in der Reihenfolge ihrer Versionen zugestellt, Ereignisse zu verschiedenen
+ * Produkten in der Reihenfolge ihrer Position, die das Relay beim ersten Lesen vergibt. Die Zustellung erfolgt
+ * mindestens einmal: nach einem Fehler, auch in einem anderen Listener, oder nach einem Neustart kann ein Ereignis
+ * erneut zugestellt werden, d.h. die Verarbeitung muss idempotent sein. Ein Listener wird in der Transaktion des
+ * Relays aufgerufen und darf sie nicht als "rollback-only" markieren.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@FunctionalInterface
+public interface ProduktEreignisListener {
+    /**
+     * Ein Änderungsereignis verarbeiten.
+     *
+     * @param ereignis Das Ereignis
+     * @throws RuntimeException Falls das Ereignis nicht verarbeitet werden konnte, wird es erneut zugestellt, bis die
+     *      maximale Anzahl an Versuchen erreicht ist.
+     */
+    void onEreignis(ProduktEreignis ereignis);
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.service;
+
+import com.acme.produkt.EreignisProps;
+import com.acme.produkt.entity.ProduktEreignis;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Relay, das die Änderungsereignisse aus der Outbox-Tabelle an die Listener im selben Prozess zustellt. Das Relay
+ * läuft als "Virtual Thread" über den AsyncTaskExecutor aus ThreadConfig und wird nach dem Commit einer Änderung
+ * sofort geweckt. Andernfalls wird periodisch nach Ereignissen gesucht, z.B. nach einem Neustart.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+final class ProduktEreignisRelay implements SmartLifecycle {
+    private final ProduktEreignisService service;
+    private final AsyncTaskExecutor applicationTaskExecutor;
+    private final EreignisProps props;
+    private final Semaphore signal = new Semaphore(0);
+    private volatile boolean running;
+    private LocalDateTime naechstesLoeschen = LocalDateTime.now();
+
+    @Override
+    public void start() {
+        log.debug("start: {}", props);
+        running = true;
+        applicationTaskExecutor.execute(this::zustellen);
+    }
+
+    @Override
+    public void stop() {
+        log.debug("stop");
+        running = false;
+        signal.release();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Das Relay nach dem Commit einer Änderung wecken.
+     *
+     * @param ereignis Das neue Ereignis
+     */
+    @TransactionalEventListener
+    void onEreignis(final ProduktEreignis ereignis) {
+        log.trace("onEreignis: id={}", ereignis.getId());
+        signal.release();
+    }
+
+    private void zustellen() {
+        final var batchSize = props.batchSize();
+        while (running) {
+            int anzahl;
+            try {
+                anzahl = service.zustellen(batchSize);
+            } catch (final RuntimeException ex) {
+                // z.B. DB nicht erreichbar: die Fehler der Listener werden bereits in ProduktEreignisService gezaehlt
+                log.warn("zustellen: erneuter Versuch nach {}", props.pollInterval(), ex);
+                anzahl = 0;
+            }
+
+            if (anzahl < batchSize) {
+                loeschen();
+                if (!warten()) {
+                    return;
+                }
+            }
+        }
+        log.debug("zustellen: beendet");
+    }
+
+    // Zugestellte Ereignisse hoechstens einmal pro Stunde loeschen
+    private void loeschen() {
+        final var jetzt = LocalDateTime.now();
+        if (jetzt.isBefore(naechstesLoeschen)) {
+            return;
+        }
+        naechstesLoeschen = jetzt.plusHours(1);
+        try {
+            service.loeschen(jetzt.minus(props.aufbewahrung()));
+        } catch (final RuntimeException ex) {
+            log.warn("loeschen", ex);
+        }
+    }
+
+    private boolean warten() {
+        try {
+            signal.tryAcquire(props.pollInterval().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        // mehrere Benachrichtigungen werden mit dem naechsten Batch gemeinsam zugestellt
+        signal.drainPermits();
+        return true;
+    }
+}
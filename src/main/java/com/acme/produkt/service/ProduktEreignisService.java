@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.service;
+
+import com.acme.produkt.EreignisProps;
+import com.acme.produkt.entity.ProduktEreignis;
+import com.acme.produkt.repository.ProduktEreignisRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static com.acme.produkt.entity.EreignisStatus.FEHLER;
+import static com.acme.produkt.entity.EreignisStatus.NEU;
+import static com.acme.produkt.entity.EreignisStatus.ZUGESTELLT;
+import static com.acme.produkt.entity.ProduktEreignis.MAX_LENGTH_FEHLER;
+
+/**
+ * Anwendungslogik für die Zustellung der Änderungsereignisse aus der Outbox-Tabelle an die Listener.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProduktEreignisService {
+    private final ProduktEreignisRepository repo;
+    private final ObjectProvider<ProduktEreignisListener> listeners;
+    private final EreignisProps props;
+
+    /**
+     * Die ältesten noch nicht zugestellten Ereignisse in der Reihenfolge ihrer Position an alle Listener zustellen.
+     * Die Positionen werden unter einer Sperre vergeben, die bis zum Commit gehalten wird, d.h. in der Reihenfolge, in
+     * der das Relay die committeten Ereignisse sieht. Änderungen an demselben Produkt werden wegen der Sperre auf dem
+     * Datensatz nacheinander committet und deshalb in ihrer Reihenfolge zugestellt.
+     *
+     * Wirft ein Listener eine Exception, wird die Anzahl der Versuche erhöht und die Zustellung des Batches an dieser
+     * Stelle beendet, damit die Reihenfolge erhalten bleibt. Nach der maximalen Anzahl an Versuchen erhält das
+     * Ereignis den Status FEHLER und wird übersprungen.
+     *
+     * @param anzahl Maximale Anzahl an Ereignissen
+     * @return Anzahl der verarbeiteten Ereignisse, d.h. der zugestellten und der endgültig fehlgeschlagenen
+     */
+    @Transactional
+    public int zustellen(final int anzahl) {
+        repo.sperren();
+        final var ereignisse = repo.findByStatus(NEU, PageRequest.ofSize(anzahl));
+        if (ereignisse.isEmpty()) {
+            return 0;
+        }
+        positionenVergeben(ereignisse);
+
+        final var zugestellt = LocalDateTime.now();
+        final var listenerList = listeners.orderedStream().toList();
+        var verarbeitet = 0;
+        for (final var ereignis : ereignisse) {
+            log.trace("zustellen: {}", ereignis);
+            try {
+                listenerList.forEach(listener -> listener.onEreignis(ereignis));
+            } catch (final RuntimeException ex) {
+                if (!fehlgeschlagen(ereignis, ex)) {
+                    // Die nachfolgenden Ereignisse erst nach dem erneuten Versuch zustellen
+                    break;
+                }
+                verarbeitet++;
+                continue;
+            }
+            ereignis.setStatus(ZUGESTELLT);
+            ereignis.setZugestellt(zugestellt);
+            verarbeitet++;
+        }
+        log.debug("zustellen: {} von {} Ereignissen an {} Listener", verarbeitet, ereignisse.size(),
+            listenerList.size());
+        return verarbeitet;
+    }
+
+    /**
+     * Ereignisse nach einer Position lesen, z.B. für den Änderungs-Feed, der in jeder Instanz die Outbox-Tabelle
+     * abfragt. Weil das Relay die Positionen unter einer Sperre bis zum Commit vergibt, wird ein Ereignis erst nach
+     * allen Ereignissen mit kleinerer Position sichtbar.
+     *
+     * @param position Die Position des zuletzt gelesenen Ereignisses
+     * @param anzahl Maximale Anzahl an Ereignissen
+     * @return Die Ereignisse in der Reihenfolge ihrer Positionen
+     */
+    @Transactional(readOnly = true)
+    public List<ProduktEreignis> findNachPosition(final long position, final int anzahl) {
+        return repo.findByPositionNach(position, PageRequest.ofSize(anzahl));
+    }
+
+    /**
+     * Die Ereignisse mit den höchsten Positionen lesen, z.B. beim Start des Änderungs-Feeds.
+     *
+     * @param anzahl Maximale Anzahl an Ereignissen
+     * @return Die Ereignisse in der Reihenfolge ihrer Positionen
+     */
+    @Transactional(readOnly = true)
+    public List<ProduktEreignis> findLetzte(final int anzahl) {
+        final var ereignisse = new ArrayList<>(repo.findLetzte(PageRequest.ofSize(anzahl)));
+        Collections.reverse(ereignisse);
+        return ereignisse;
+    }
+
+    /**
+     * Zugestellte Ereignisse löschen, die vor einem Zeitpunkt zugestellt wurden.
+     *
+     * @param grenze Der Zeitpunkt
+     * @return Die Anzahl der gelöschten Ereignisse
+     */
+    @Transactional
+    public int loeschen(final LocalDateTime grenze) {
+        final var anzahl = repo.deleteZugestelltVor(grenze);
+        log.debug("loeschen: grenze={}, anzahl={}", grenze, anzahl);
+        return anzahl;
+    }
+
+    // Positionen nur fuer Ereignisse vergeben, die das Relay zum ersten Mal liest
+    private void positionenVergeben(final List<ProduktEreignis> ereignisse) {
+        final var ohnePosition = ereignisse.stream()
+            .filter(ereignis -> ereignis.getPosition() == null)
+            .toList();
+        if (ohnePosition.isEmpty()) {
+            return;
+        }
+        final var positionen = repo.naechstePositionen(ohnePosition.size());
+        for (var i = 0; i < ohnePosition.size(); i++) {
+            ohnePosition.get(i).setPosition(positionen.get(i));
+        }
+    }
+
+    // true, falls das Ereignis nach der maximalen Anzahl an Versuchen den Status FEHLER erhalten hat
+    private boolean fehlgeschlagen(final ProduktEreignis ereignis, final RuntimeException ex) {
+        final var versuche = ereignis.getVersuche() + 1;
+        ereignis.setVersuche(versuche);
+        final var fehler = ex.toString();
+        ereignis.setFehler(fehler.length() <= MAX_LENGTH_FEHLER ? fehler : fehler.substring(0, MAX_LENGTH_FEHLER));
+        if (versuche < props.maxVersuche()) {
+            log.warn("zustellen: Versuch {} fuer Ereignis {} fehlgeschlagen", versuche, ereignis.getId(), ex);
+            return false;
+        }
+        log.error("zustellen: Ereignis {} nach {} Versuchen nicht zugestellt", ereignis.getId(), versuche, ex);
+        ereignis.setStatus(FEHLER);
+        return true;
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.service;
+
+import com.acme.produkt.entity.Produkt;
+import com.acme.produkt.repository.ProduktRepository;
+import jakarta.persistence.EntityManager;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.springframework.transaction.annotation.Isolation.REPEATABLE_READ;
+
+/**
+ * Anwendungslogik für den Massenexport von Produkten. Die Produkte werden über einen serverseitigen Cursor gelesen
+ * und einzeln an einen Consumer übergeben, so dass der Speicherbedarf unabhängig von der Anzahl der Produkte ist.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProduktExportService {
+    /**
+     * Maximale Anzahl an Partitionen für einen parallelen Export.
+     */
+    public static final int MAX_PARTITIONS = 64;
+
+    private static final long MAX_UNSIGNED = -1L;
+
+    private final ProduktRepository repo;
+    private final EntityManager entityManager;
+
+    /**
+     * Produkte zu Suchkriterien innerhalb eines konsistenten Snapshots exportieren.
+     *
+     * @param suchkriterien Die Suchkriterien, d.h. "name" oder "angestellterId" oder keine
+     * @param partition Die Nummer der zu exportierenden Partition, beginnend bei 0
+     * @param partitions Die Anzahl der Partitionen, in die der ID-Bereich aufgeteilt wird
+     * @param consumer Consumer, der jedes gelesene Produkt z.B. in den Response schreibt
+     * @return Die Anzahl der exportierten Produkte
+     * @throws IllegalArgumentException Falls die Partitionsangaben oder die Suchkriterien ungültig sind
+     */
+    @Transactional(readOnly = true, isolation = REPEATABLE_READ)
+    public long export(
+        @NonNull final Map<String, List<String>> suchkriterien,
+        final int partition,
+        final int partitions,
+        @NonNull final Consumer<Produkt> consumer
+    ) {
+        log.debug("export: suchkriterien={}, partition={}, partitions={}", suchkriterien, partition, partitions);
+        if (partitions < 1 || partitions > MAX_PARTITIONS || partition < 0 || partition >= partitions) {
+            throw new IllegalArgumentException("Ungueltige Partition " + partition + " von " + partitions);
+        }
+
+        // Aufteilung des UUID-Wertebereichs anhand der hoeherwertigen 64 Bit, die vorzeichenlos interpretiert werden
+        final var schrittweite = Long.divideUnsigned(MAX_UNSIGNED, partitions);
+        final var von = new UUID(partition * schrittweite, 0L);
+        final var bis = partition == partitions - 1
+            ? new UUID(MAX_UNSIGNED, MAX_UNSIGNED)
+            : new UUID((partition + 1) * schrittweite - 1, MAX_UNSIGNED);
+        log.trace("export: von={}, bis={}", von, bis);
+
+        long anzahl = 0;
+        try (var produkte = stream(suchkriterien, von, bis)) {
+            final var iterator = produkte.iterator();
+            while (iterator.hasNext()) {
+                final var produkt = iterator.next();
+                consumer.accept(produkt);
+                // Persistence Context nicht anwachsen lassen
+                entityManager.detach(produkt);
+                if (produkt.getUmsatz() != null) {
+                    entityManager.detach(produkt.getUmsatz());
+                }
+                anzahl++;
+            }
+        }
+        log.debug("export: anzahl={}", anzahl);
+        return anzahl;
+    }
+
+    private Stream<Produkt> stream(final Map<String, List<String>> suchkriterien, final UUID von, final UUID bis) {
+        if (suchkriterien.isEmpty()) {
+            return repo.streamByIdBetween(von, bis);
+        }
+        if (suchkriterien.size() == 1) {
+            final var namen = suchkriterien.get("name");
+            if (namen != null && namen.size() == 1) {
+                return repo.streamByNameAndIdBetween(namen.get(0), von, bis);
+            }
+            final var angestellterIds = suchkriterien.get("angestellterId");
+            if (angestellterIds != null && angestellterIds.size() == 1) {
+                final var angestellterId = UUID.fromString(angestellterIds.get(0));
+                return repo.streamByAngestellterIdAndIdBetween(angestellterId, von, bis);
+            }
+        }
+        throw new IllegalArgumentException("Ungueltige Suchkriterien " + suchkriterien);
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.service;
+
+import com.acme.produkt.MailProps;
+import com.acme.produkt.entity.Produkt;
+import com.acme.produkt.entity.ProduktEreignis;
+import com.acme.produkt.repository.ProduktRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.mail.MailException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static com.acme.produkt.entity.EreignisArt.ERZEUGT;
+
+/**
+ * Emails an den Vertrieb zu neu angelegten Produkten. Die IDs werden erst nach dem Commit in eine begrenzte
+ * Warteschlange eingereiht, so dass die Latenz des Mailservers nicht in den Request eingeht. Ein einzelner
+ * "Virtual Thread" aus ThreadConfig versendet die Emails gedrosselt, optional als Sammelmail und mit Wiederholungen.
+ * Die Metrik `produkt.mail` zählt Emails, d.h. eine Sammelmail einmal, und `produkt.mail.verworfen` zählt Produkte,
+ * zu denen keine Email versendet wird.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@Component
+@Slf4j
+final class ProduktMailer implements SmartLifecycle {
+    private static final String METRIC = "produkt.mail";
+    private static final String ERGEBNIS = "ergebnis";
+    private static final long NANOS_PRO_MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    private final JavaMailSender mailSender;
+    private final ProduktRepository repo;
+    private final AsyncTaskExecutor applicationTaskExecutor;
+    private final MailProps props;
+    private final BlockingQueue<UUID> queue;
+    private final Counter gesendet;
+    private final Counter fehlgeschlagen;
+    private final Counter verworfen;
+    private final Timer versand;
+    private volatile boolean running;
+    private long naechsterVersand = System.nanoTime();
+
+    @SuppressWarnings("ParameterNumber")
+    ProduktMailer(
+        final JavaMailSender mailSender,
+        final ProduktRepository repo,
+        final AsyncTaskExecutor applicationTaskExecutor,
+        final MailProps props,
+        final MeterRegistry meterRegistry
+    ) {
+        this.mailSender = mailSender;
+        this.repo = repo;
+        this.applicationTaskExecutor = applicationTaskExecutor;
+        this.props = props;
+        queue = new ArrayBlockingQueue<>(props.queueCapacity());
+        gesendet = Counter.builder(METRIC).baseUnit("mails").tag(ERGEBNIS, "gesendet").register(meterRegistry);
+        fehlgeschlagen = Counter.builder(METRIC).baseUnit("mails").tag(ERGEBNIS, "fehler").register(meterRegistry);
+        verworfen = Counter.builder(METRIC + ".verworfen").baseUnit("produkte").register(meterRegistry);
+        versand = Timer.builder(METRIC + ".versand").register(meterRegistry);
+        Gauge.builder(METRIC + ".warteschlange", queue, Collection::size).register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        log.debug("start: {}", props);
+        running = props.enabled();
+        if (running) {
+            applicationTaskExecutor.execute(this::versenden);
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        // Die Warteschlange ist nur im Speicher, d.h. fuer diese Produkte wird keine Email mehr versendet
+        final var verbleibend = new ArrayList<UUID>(queue.size());
+        queue.drainTo(verbleibend);
+        if (verbleibend.isEmpty()) {
+            log.debug("stop");
+            return;
+        }
+        verworfen.increment(verbleibend.size());
+        log.warn("stop: keine Email fuer {} Produkte: {}", verbleibend.size(), verbleibend);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Ein neu angelegtes Produkt nach dem Commit in die Warteschlange einreihen.
+     *
+     * @param ereignis Das Änderungsereignis zum Produkt
+     */
+    @TransactionalEventListener
+    void onEreignis(final ProduktEreignis ereignis) {
+        if (!running || ereignis.getArt() != ERZEUGT) {
+            return;
+        }
+        if (!queue.offer(ereignis.getProduktId())) {
+            verworfen.increment();
+            log.warn("onEreignis: Warteschlange voll, keine Email fuer {}", ereignis.getProduktId());
+        }
+    }
+
+    private void versenden() {
+        while (running) {
+            try {
+                final var id = queue.poll(1, TimeUnit.SECONDS);
+                if (id == null) {
+                    continue;
+                }
+                final var ids = sammeln(id);
+                drosseln();
+                senden(ids);
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (final RuntimeException ex) {
+                // z.B. DB nicht erreichbar: der Thread fuer die Emails darf nicht beendet werden
+                log.error("versenden", ex);
+            }
+        }
+        log.debug("versenden: beendet");
+    }
+
+    // Weitere IDs fuer eine Sammelmail bis zur maximalen Anzahl oder bis zum Ablauf des Zeitfensters abholen
+    private List<UUID> sammeln(final UUID erste) throws InterruptedException {
+        final var digestSize = props.digestSize();
+        final var ids = new ArrayList<UUID>(digestSize);
+        ids.add(erste);
+        final var ende = System.nanoTime() + props.digestWindow().toNanos();
+        while (ids.size() < digestSize) {
+            final var rest = ende - System.nanoTime();
+            if (rest <= 0) {
+                break;
+            }
+            final var id = queue.poll(rest, TimeUnit.NANOSECONDS);
+            if (id == null) {
+                break;
+            }
+            ids.add(id);
+        }
+        return ids;
+    }
+
+    private void drosseln() throws InterruptedException {
+        final var warten = naechsterVersand - System.nanoTime();
+        if (warten > 0) {
+            TimeUnit.NANOSECONDS.sleep(warten);
+        }
+        naechsterVersand = Math.max(naechsterVersand, System.nanoTime()) + NANOS_PRO_MINUTE / props.maxPerMinute();
+    }
+
+    private void senden(final List<UUID> ids) throws InterruptedException {
+        final var produkte = repo.findAllById(ids);
+        if (produkte.isEmpty()) {
+            return;
+        }
+        final var message = createMessage(produkte);
+
+        var backoff = props.backoff();
+        for (int versuch = 0; ; versuch++) {
+            try {
+                versand.record(() -> mailSender.send(message));
+                gesendet.increment();
+                log.debug("senden: {} Produkte", produkte.size());
+                return;
+            } catch (final MailException ex) {
+                if (versuch >= props.maxRetries()) {
+                    fehlgeschlagen.increment();
+                    log.error("senden: keine Email fuer {}", ids, ex);
+                    return;
+                }
+                log.warn("senden: {}. Wiederholung in {}: {}", versuch + 1, backoff, ex.getMessage());
+                TimeUnit.MILLISECONDS.sleep(backoff.toMillis());
+                backoff = backoff.multipliedBy(2);
+            }
+        }
+    }
+
+    private SimpleMailMessage createMessage(final List<Produkt> produkte) {
+        final var message = new SimpleMailMessage();
+        message.setFrom(props.from());
+        message.setTo(props.sales());
+        message.setSubject(produkte.size() == 1
+            ? "Neues Produkt " + produkte.get(0).getName()
+            : produkte.size() + " neue Produkte");
+        message.setText(produkte.stream()
+            .map(produkt -> produkt.getName() + " mit der ID " + produkt.getId() +
+                (produkt.getErscheinungsdatum() == null ? "" : ", Erscheinungsdatum " + produkt.getErscheinungsdatum()))
+            .collect(Collectors.joining("\n")));
+        return message;
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.service;
+
+import com.acme.produkt.entity.Produkt;
+import com.acme.produkt.repository.Angestellter;
+import com.acme.produkt.repository.AngestellterRepository;
+import com.acme.produkt.repository.AngestellterServiceException;
+import com.acme.produkt.repository.ProduktReactiveRepository;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type.REACTIVE;
+
+/**
+ * Nicht-blockierende Anwendungslogik für das Lesen von Produkten im Profile "reactive". Die Produkte werden mit R2DBC
+ * gelesen und ohne blockierende Aufrufe um die Daten vom Angestellter-Service ergänzt. Das Verhalten entspricht
+ * ProduktReadService, z.B. "N/A" bei einem nicht gefundenen Angestellten.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@Service
+@ConditionalOnWebApplication(type = REACTIVE)
+@RequiredArgsConstructor
+@Slf4j
+public class ProduktReactiveReadService {
+    private static final String NICHT_VORHANDEN = "N/A";
+    private static final Angestellter ANGESTELLTER_NICHT_GEFUNDEN = new Angestellter(NICHT_VORHANDEN, "n.a@acme.com");
+    private static final Angestellter ANGESTELLTER_FEHLER = new Angestellter("Exception", "exception@acme.com");
+
+    private final ProduktReactiveRepository repo;
+    private final AngestellterRepository angestellterRepo;
+
+    /**
+     * Ein Produkt anhand seiner ID suchen.
+     *
+     * @param id Die Id des gesuchten Produktes
+     * @return Mono mit dem gefundenen Produkt oder mit NotFoundException
+     */
+    public Mono<Produkt> findById(final UUID id) {
+        log.debug("findById: id={}", id);
+        return repo.findById(id)
+            .switchIfEmpty(Mono.error(() -> new NotFoundException(id)))
+            .flatMap(produkt -> ergaenzen(produkt, new ConcurrentHashMap<>()));
+    }
+
+    /**
+     * Produkte anhand von Suchkriterien suchen, d.h. `name` oder `angestellterId` oder keine.
+     *
+     * @param suchkriterien Die Suchkriterien
+     * @return Flux mit den gefundenen Produkten oder mit NotFoundException
+     */
+    public Flux<Produkt> find(@NonNull final Map<String, List<String>> suchkriterien) {
+        log.debug("find: suchkriterien={}", suchkriterien);
+        final Flux<Produkt> produkte;
+        if (suchkriterien.isEmpty()) {
+            produkte = repo.findAll();
+        } else {
+            final var namen = suchkriterien.get("name");
+            final var angestellterIds = suchkriterien.get("angestellterId");
+            if (suchkriterien.size() == 1 && namen != null && namen.size() == 1) {
+                produkte = repo.findByName(namen.get(0));
+            } else if (suchkriterien.size() == 1 && angestellterIds != null && angestellterIds.size() == 1) {
+                produkte = repo.findByAngestellterId(UUID.fromString(angestellterIds.get(0)));
+            } else {
+                return Flux.error(new NotFoundException(suchkriterien));
+            }
+        }
+
+        // Pro Angestellter-ID nur 1 Aufruf beim Angestellter-Service, auch bei vielen Produkten
+        final Map<UUID, Mono<Angestellter>> angestellte = new ConcurrentHashMap<>();
+        return produkte
+            .switchIfEmpty(Flux.error(() -> new NotFoundException(suchkriterien)))
+            .concatMap(produkt -> ergaenzen(produkt, angestellte));
+    }
+
+    /**
+     * Eine Seite der Produkte zu Suchkriterien suchen, sortiert nach der ID, wie bei ProduktReadService.
+     *
+     * @param suchkriterien Die Suchkriterien, d.h. "name" oder keine
+     * @param nachId ID des zuletzt gelieferten Produktes oder null für die 1. Seite
+     * @param anzahl Maximale Anzahl an Produkten
+     * @return Flux mit den gefundenen Produkten oder mit IllegalArgumentException bei ungültigen Suchkriterien
+     */
+    public Flux<Produkt> findSeite(
+        @NonNull final Map<String, List<String>> suchkriterien,
+        final UUID nachId,
+        final int anzahl
+    ) {
+        log.debug("findSeite: suchkriterien={}, nachId={}, anzahl={}", suchkriterien, nachId, anzahl);
+        final Map<UUID, Mono<Angestellter>> angestellte = new ConcurrentHashMap<>();
+        // defer(), damit eine Exception bei ungueltigen Suchkriterien als Fehler im Flux geliefert wird
+        return Flux.defer(() -> repo.findSeite(ProduktReadService.toName(suchkriterien), nachId, anzahl))
+            .concatMap(produkt -> ergaenzen(produkt, angestellte));
+    }
+
+    /**
+     * Anzahl der Produkte zu Suchkriterien ermitteln, ohne die Produkte zu laden.
+     *
+     * @param suchkriterien Die Suchkriterien, d.h. "name" oder keine
+     * @return Mono mit der Anzahl oder mit IllegalArgumentException bei ungültigen Suchkriterien
+     */
+    public Mono<Long> count(@NonNull final Map<String, List<String>> suchkriterien) {
+        return Mono.defer(() -> repo.count(ProduktReadService.toName(suchkriterien)));
+    }
+
+    private Mono<Produkt> ergaenzen(final Produkt produkt, final Map<UUID, Mono<Angestellter>> angestellte) {
+        final var angestellterId = produkt.getAngestellterId();
+        if (angestellterId == null) {
+            return Mono.just(produkt);
+        }
+        return angestellte.computeIfAbsent(angestellterId, this::fetchAngestellter)
+            .map(angestellter -> {
+                produkt.setAngestellterNachname(angestellter.nachname());
+                produkt.setAngestellterEmail(angestellter.email());
+                return produkt;
+            });
+    }
+
+    // Nachname per REST und Emailadresse per GraphQL parallel abfragen; das Ergebnis wird fuer weitere Produkte
+    // desselben Angestellten wiederverwendet
+    private Mono<Angestellter> fetchAngestellter(final UUID angestellterId) {
+        log.debug("fetchAngestellter: angestellterId={}", angestellterId);
+        final var nachname = angestellterRepo.findByIdReactive(angestellterId)
+            .defaultIfEmpty(ANGESTELLTER_NICHT_GEFUNDEN)
+            .onErrorReturn(AngestellterServiceException.class, ANGESTELLTER_FEHLER)
+            .map(Angestellter::nachname);
+        final var email = angestellterRepo.findEmailByIdReactive(angestellterId)
+            .defaultIfEmpty(NICHT_VORHANDEN)
+            .onErrorReturn(AngestellterServiceException.class, NICHT_VORHANDEN);
+        return Mono.zip(nachname, email, Angestellter::new).cache();
+    }
+}
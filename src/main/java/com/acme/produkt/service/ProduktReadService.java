@@ -17,20 +17,36 @@
 package com.acme.produkt.service;
 
 import com.acme.produkt.entity.Produkt;
+import com.acme.produkt.entity.ProduktFeld;
+import com.acme.produkt.entity.ProduktStand;
+import com.acme.produkt.entity.Umsatz;
 import com.acme.produkt.repository.Angestellter;
 import com.acme.produkt.repository.AngestellterRepository;
 import com.acme.produkt.repository.AngestellterServiceException;
+import com.acme.produkt.repository.ProduktKurzform;
 import com.acme.produkt.repository.ProduktRepository;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static com.acme.produkt.entity.ProduktFeld.ANGESTELLTER_EMAIL;
+import static com.acme.produkt.entity.ProduktFeld.ANGESTELLTER_ID;
+import static com.acme.produkt.entity.ProduktFeld.ANGESTELLTER_NACHNAME;
 
 /**
  * Anwendungslogik für Produkt.
@@ -43,6 +59,16 @@ import java.util.UUID;
 @RequiredArgsConstructor
 @Slf4j
 public class ProduktReadService {
+    /**
+     * Maximale Anzahl an IDs bei der Suche mit mehreren IDs.
+     */
+    public static final int MAX_IDS = 100;
+
+    // Maximale Anzahl gleichzeitiger Aufrufe beim Angestellter-Service
+    private static final int MAX_PARALLEL = 8;
+    private static final String NICHT_VORHANDEN = "N/A";
+    private static final String FEHLER = "Exception";
+
     private final ProduktRepository repo;
     private final AngestellterRepository angestellterRepo;
 
@@ -80,14 +106,105 @@ public class ProduktReadService {
         }
 
         final var produkt = produktOpt.orElseThrow(NotFoundException::new);
-        final var nachname = fetchAngestellterById(produkt.getAngestellterId()).nachname();
-        produkt.setAngestellterNachname(nachname);
-        final var email = fetchEmailById(produkt.getAngestellterId());
-        produkt.setAngestellterEmail(email);
+        ergaenzeAngestellter(produkt);
+        log.debug("findById: {}", produkt);
+        return produkt;
+    }
+
+    /**
+     * Prüfen, ob ein Produkt Ersatzwerte für die Daten des Angestellten enthält, weil der Angestellte nicht gefunden
+     * wurde oder der Angestellter-Service nicht erreichbar war. Solche Daten sollen nicht gecacht werden.
+     *
+     * @param produkt Das ergänzte Produkt
+     * @return true, falls Nachname oder Emailadresse ein Ersatzwert ist
+     */
+    public static boolean hatErsatzwerte(@NonNull final Produkt produkt) {
+        final var nachname = produkt.getAngestellterNachname();
+        return NICHT_VORHANDEN.equals(nachname) || FEHLER.equals(nachname) ||
+            NICHT_VORHANDEN.equals(produkt.getAngestellterEmail());
+    }
+
+    /**
+     * Ein Produkt anhand seiner ID suchen, wobei nur die ausgewählten Felder gelesen werden. Der Umsatz wird nur bei
+     * Bedarf über einen Join gelesen und der Angestellter-Service wird nur für den Nachnamen bzw. die Emailadresse
+     * aufgerufen.
+     *
+     * @param id Die Id des gesuchten Produktes
+     * @param felder Die ausgewählten Felder
+     * @return Das gefundene Produkt mit ID, Versionsnummer und den ausgewählten Feldern
+     * @throws NotFoundException Falls kein Produkt gefunden wurde
+     */
+    public @NonNull Produkt findById(final UUID id, @NonNull final Set<ProduktFeld> felder) {
+        log.debug("findById: id={}, felder={}", id, felder);
+        final var produkt = repo.findProjektionById(id, felder).orElseThrow(() -> new NotFoundException(id));
+        ergaenzeAngestellter(List.of(produkt), felder);
         log.debug("findById: {}", produkt);
         return produkt;
     }
 
+    /**
+     * Produkte zu mehreren IDs mit einer einzigen Query suchen. Die Daten der Angestellten werden nur einmal pro
+     * Angestellter-ID und für alle Angestellten nebenläufig ermittelt.
+     *
+     * @param ids Die IDs der gesuchten Produkte
+     * @return Die gefundenen Produkte mit ihrer ID als Schlüssel, wobei nicht gefundene IDs fehlen
+     * @throws IllegalArgumentException Falls mehr als MAX_IDS IDs angegeben sind
+     */
+    public Map<UUID, Produkt> findByIds(@NonNull final Collection<UUID> ids) {
+        log.debug("findByIds: ids={}", ids);
+        if (ids.size() > MAX_IDS) {
+            throw new IllegalArgumentException("Hoechstens " + MAX_IDS + " IDs statt " + ids.size());
+        }
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+
+        final var produkte = repo.findByIdIn(ids);
+        final var angestellterIds = produkte.stream()
+            .map(Produkt::getAngestellterId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+        final var angestellte = fetchAngestellte(angestellterIds);
+        final Map<UUID, Produkt> ergebnis = new HashMap<>();
+        produkte.forEach(produkt -> {
+            final var angestellter = angestellte.get(produkt.getAngestellterId());
+            if (angestellter != null) {
+                produkt.setAngestellterNachname(angestellter.nachname());
+                produkt.setAngestellterEmail(angestellter.email());
+            }
+            ergebnis.put(produkt.getId(), produkt);
+        });
+        log.debug("findByIds: gefunden={}, angestellte={}", ergebnis.size(), angestellte.size());
+        return ergebnis;
+    }
+
+    /**
+     * Die aktuelle Versionsnummer eines Produktes ermitteln, ohne das Produkt zu laden und ohne Aufrufe beim
+     * Angestellter-Service.
+     *
+     * @param id Die Id des Produktes
+     * @return Die Versionsnummer
+     * @throws NotFoundException Falls kein Produkt gefunden wurde
+     */
+    public int findVersionById(final UUID id) {
+        log.debug("findVersionById: id={}", id);
+        final int version = repo.findVersionById(id).orElseThrow(() -> new NotFoundException(id));
+        log.debug("findVersionById: version={}", version);
+        return version;
+    }
+
+    /**
+     * Anzahl und letzte Änderung der Produkte ermitteln, ohne die Produkte zu laden.
+     *
+     * @param angestellterId Die ID des Angestellten oder null für alle Produkte
+     * @return Anzahl und letzte Änderung
+     */
+    public ProduktStand findStand(final UUID angestellterId) {
+        final var stand = angestellterId == null ? repo.findStand() : repo.findStandByAngestellterId(angestellterId);
+        log.debug("findStand: angestellterId={}, stand={}", angestellterId, stand);
+        return stand;
+    }
+
     /**
      * Produkte anhand von Suchkriterien als Collection suchen.
      *
@@ -123,6 +240,114 @@ public class ProduktReadService {
         return produkte;
     }
 
+    /**
+     * Eine Seite der Produkte zu Suchkriterien suchen, sortiert nach der ID. Die Folgeseite beginnt nach dem zuletzt
+     * gelieferten Produkt, so dass der Speicherbedarf nur von der Seitengröße abhängt.
+     *
+     * @param suchkriterien Die Suchkriterien, d.h. "name" oder keine
+     * @param nachId ID des zuletzt gelieferten Produktes oder null für die 1. Seite
+     * @param anzahl Maximale Anzahl an Produkten
+     * @return Die gefundenen Produkte oder eine leere Liste
+     * @throws IllegalArgumentException Falls die Suchkriterien ungültig sind
+     */
+    public List<Produkt> findSeite(
+        @NonNull final Map<String, List<String>> suchkriterien,
+        final UUID nachId,
+        final int anzahl
+    ) {
+        log.debug("findSeite: suchkriterien={}, nachId={}, anzahl={}", suchkriterien, nachId, anzahl);
+        final var pageable = PageRequest.of(0, anzahl);
+        final var name = toName(suchkriterien);
+        final List<Produkt> produkte;
+        if (name == null) {
+            produkte = nachId == null ? repo.findSeite(pageable) : repo.findSeiteNach(nachId, pageable);
+        } else {
+            produkte = nachId == null
+                ? repo.findSeiteByName(name, pageable)
+                : repo.findSeiteByNameNach(name, nachId, pageable);
+        }
+        log.debug("findSeite: anzahl={}", produkte.size());
+        return produkte;
+    }
+
+    /**
+     * Anzahl der Produkte zu Suchkriterien ermitteln, ohne die Produkte zu laden.
+     *
+     * @param suchkriterien Die Suchkriterien, d.h. "name" oder keine
+     * @return Die Anzahl der gefundenen Produkte
+     * @throws IllegalArgumentException Falls die Suchkriterien ungültig sind
+     */
+    public long count(@NonNull final Map<String, List<String>> suchkriterien) {
+        final var name = toName(suchkriterien);
+        final var anzahl = name == null ? repo.count() : repo.countByName(name);
+        log.debug("count: suchkriterien={}, anzahl={}", suchkriterien, anzahl);
+        return anzahl;
+    }
+
+    // Name als einziges Suchkriterium oder null fuer alle Produkte, auch fuer ProduktReactiveReadService
+    static String toName(final Map<String, List<String>> suchkriterien) {
+        if (suchkriterien.isEmpty()) {
+            return null;
+        }
+        final var namen = suchkriterien.get("name");
+        if (suchkriterien.size() == 1 && namen != null && namen.size() == 1) {
+            return namen.get(0);
+        }
+        throw new IllegalArgumentException("Ungueltige Suchkriterien " + suchkriterien);
+    }
+
+    /**
+     * Produkte optional zu einer Angestellter-ID und seitenweise suchen, wobei nur die ausgewählten Felder gelesen
+     * werden.
+     *
+     * @param angestellterId Die Id des Angestellten oder null für alle Produkte
+     * @param nachName Name des zuletzt gelieferten Produktes oder null für die 1. Seite
+     * @param nachId ID des zuletzt gelieferten Produktes oder null für die 1. Seite
+     * @param anzahl Maximale Anzahl an Produkten oder 0 für keine Begrenzung
+     * @param felder Die ausgewählten Felder
+     * @return Die gefundenen Produkte mit ID, Versionsnummer und den ausgewählten Feldern
+     * @throws NotFoundException Falls keine Produkte gefunden wurden
+     */
+    public List<Produkt> find(
+        final UUID angestellterId,
+        final String nachName,
+        final UUID nachId,
+        final int anzahl,
+        @NonNull final Set<ProduktFeld> felder
+    ) {
+        final var produkte = repo.findProjektion(angestellterId, nachName, nachId, anzahl, felder);
+        if (produkte.isEmpty()) {
+            throw new NotFoundException();
+        }
+        ergaenzeAngestellter(produkte, felder);
+        log.debug("find: anzahl={}", produkte.size());
+        return produkte;
+    }
+
+    // Aufrufe beim Angestellter-Service nur fuer ausgewaehlte Felder und nur einmal pro Angestellter-ID
+    private void ergaenzeAngestellter(final List<Produkt> produkte, final Set<ProduktFeld> felder) {
+        final var mitNachname = felder.contains(ANGESTELLTER_NACHNAME);
+        final var mitEmail = felder.contains(ANGESTELLTER_EMAIL);
+        if (mitNachname || mitEmail) {
+            final Map<UUID, String> nachnamen = new HashMap<>();
+            final Map<UUID, String> emails = new HashMap<>();
+            produkte.forEach(produkt -> {
+                final var angestellterId = produkt.getAngestellterId();
+                if (mitNachname) {
+                    produkt.setAngestellterNachname(
+                        nachnamen.computeIfAbsent(angestellterId, id -> fetchAngestellterById(id).nachname())
+                    );
+                }
+                if (mitEmail) {
+                    produkt.setAngestellterEmail(emails.computeIfAbsent(angestellterId, this::fetchEmailById));
+                }
+            });
+        }
+        if (!felder.contains(ANGESTELLTER_ID)) {
+            produkte.forEach(produkt -> produkt.setAngestellterId(null));
+        }
+    }
+
     /**
      * Abfrage, welche Namen es zu einem Präfix gibt.
      *
@@ -141,7 +366,7 @@ public class ProduktReadService {
     }
 
     /**
-     * Produkte zur Angestellter-ID suchen.
+     * Produkte zur Angestellter-ID suchen, sortiert nach Name und ID.
      *
      * @param angestellterId Die Id des gegebenen Angestellten.
      * @return Die gefundenen Produkte.
@@ -149,9 +374,46 @@ public class ProduktReadService {
      */
     public Collection<Produkt> findByAngestellterId(final UUID angestellterId) {
         log.debug("findByAngestellterId: angestellterId={}", angestellterId);
+        final var produkte = repo.findKurzformByAngestellterId(angestellterId, Pageable.unpaged());
+        return toProdukteMitAngestellter(produkte, angestellterId);
+    }
 
-        final var produkte = repo.findByAngestellterId(angestellterId);
-        if (produkte.isEmpty()) {
+    /**
+     * Eine Seite der Produkte zur Angestellter-ID suchen, sortiert nach Name und ID. Die Folgeseite beginnt nach dem
+     * zuletzt gelieferten Produkt, so dass keine Datensätze übersprungen werden müssen.
+     *
+     * @param angestellterId Die Id des gegebenen Angestellten.
+     * @param nachName Name des zuletzt gelieferten Produktes oder null für die 1. Seite.
+     * @param nachId ID des zuletzt gelieferten Produktes oder null für die 1. Seite.
+     * @param anzahl Maximale Anzahl an Produkten.
+     * @return Die gefundenen Produkte.
+     * @throws NotFoundException Falls keine Produkte gefunden wurden.
+     */
+    public List<Produkt> findByAngestellterId(
+        final UUID angestellterId,
+        final String nachName,
+        final UUID nachId,
+        final int anzahl
+    ) {
+        log.debug(
+            "findByAngestellterId: angestellterId={}, nachName={}, nachId={}, anzahl={}",
+            angestellterId,
+            nachName,
+            nachId,
+            anzahl
+        );
+        final var pageable = PageRequest.of(0, anzahl);
+        final var produkte = nachName == null || nachId == null
+            ? repo.findKurzformByAngestellterId(angestellterId, pageable)
+            : repo.findKurzformByAngestellterIdNach(angestellterId, nachName, nachId, pageable);
+        return toProdukteMitAngestellter(produkte, angestellterId);
+    }
+
+    private List<Produkt> toProdukteMitAngestellter(
+        final List<ProduktKurzform> produkteKurzform,
+        final UUID angestellterId
+    ) {
+        if (produkteKurzform.isEmpty()) {
             throw new NotFoundException();
         }
 
@@ -159,26 +421,72 @@ public class ProduktReadService {
         final var nachname = angestellter == null ? null : angestellter.nachname();
         final var email = fetchEmailById(angestellterId);
         log.trace("findByAngestellterId: nachname={}, email={}", nachname, email);
-        produkte.forEach(produkt -> {
-            produkt.setAngestellterNachname(nachname);
-            produkt.setAngestellterEmail(email);
-        });
+        final var produkte = produkteKurzform.stream()
+            .map(kurzform -> toProdukt(kurzform, nachname, email))
+            .toList();
 
         log.trace("findByAngestellterId: produkte={}", produkte);
         return produkte;
     }
 
+    private static Produkt toProdukt(final ProduktKurzform kurzform, final String nachname, final String email) {
+        final var umsatz = kurzform.betrag() == null
+            ? null
+            : Umsatz.builder().betrag(kurzform.betrag()).waehrung(kurzform.waehrung()).build();
+        return Produkt.builder()
+            .id(kurzform.id())
+            .version(kurzform.version())
+            .name(kurzform.name())
+            .erscheinungsdatum(kurzform.erscheinungsdatum())
+            .homepage(kurzform.homepage())
+            .umsatz(umsatz)
+            .angestellterId(kurzform.angestellterId())
+            .angestellterNachname(nachname)
+            .angestellterEmail(email)
+            .build();
+    }
+
+    // Nachname per REST und Emailadresse per GraphQL fuer mehrere Angestellte nebenlaeufig abfragen, wobei das
+    // Ergebnis wie bei fetchAngestellterById() und fetchEmailById() "N/A" bzw. "Exception" sein kann
+    private Map<UUID, Angestellter> fetchAngestellte(final Set<UUID> angestellterIds) {
+        final var angestellte = Flux.fromIterable(angestellterIds)
+            .flatMap(
+                angestellterId -> {
+                    final var nachname = angestellterRepo.findByIdReactive(angestellterId)
+                        .map(Angestellter::nachname)
+                        .defaultIfEmpty(NICHT_VORHANDEN)
+                        .onErrorReturn(AngestellterServiceException.class, FEHLER);
+                    final var email = angestellterRepo.findEmailByIdReactive(angestellterId)
+                        .defaultIfEmpty(NICHT_VORHANDEN)
+                        .onErrorReturn(AngestellterServiceException.class, NICHT_VORHANDEN);
+                    return Mono.zip(nachname, email, Angestellter::new)
+                        .map(angestellter -> Map.entry(angestellterId, angestellter));
+                },
+                MAX_PARALLEL
+            )
+            .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+            .block();
+        return angestellte == null ? Map.of() : angestellte;
+    }
+
+    private void ergaenzeAngestellter(final Produkt produkt) {
+        final var nachname = fetchAngestellterById(produkt.getAngestellterId()).nachname();
+        produkt.setAngestellterNachname(nachname);
+        final var email = fetchEmailById(produkt.getAngestellterId());
+        produkt.setAngestellterEmail(email);
+    }
+
     private Angestellter fetchAngestellterById(final UUID angestellterId) {
         log.debug("findAngestellterById: angestellterId={}", angestellterId);
         try {
             final var angestellter = angestellterRepo
                 .findById(angestellterId)
-                .orElse(new Angestellter("N/A", "n.a@acme.com"));
+                .orElse(new Angestellter(NICHT_VORHANDEN, "n.a@acme.com"));
             log.debug("findAngestellterById: {}", angestellter);
             return angestellter;
         } catch (final AngestellterServiceException ex) {
             log.debug("findAngestellterById: {}", ex.getRestException().getClass().getSimpleName());
-            return new Angestellter("Exception", "exception@acme.com");
+            return new Angestellter(FEHLER, "exception@acme.com");
         }
     }
 
@@ -187,10 +495,10 @@ public class ProduktReadService {
         final var emailOpt = angestellterRepo.findEmailById(angestellterId);
         String email;
         try {
-            email = emailOpt.orElse("N/A");
+            email = emailOpt.orElse(NICHT_VORHANDEN);
         } catch (final AngestellterServiceException ex) {
             log.debug("findEmailById: message = {}", ex.getGraphQlException().getMessage());
-            email = "N/A";
+            email = NICHT_VORHANDEN;
         }
         return email;
     }
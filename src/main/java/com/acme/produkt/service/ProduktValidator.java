@@ -0,0 +1,229 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.service;
+
+import com.acme.produkt.entity.Produkt;
+import com.acme.produkt.entity.Produkt.Batch;
+import com.acme.produkt.service.ProduktConstraintViolation.PropertyPath;
+import jakarta.validation.ClockProvider;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import jakarta.validation.groups.Default;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.regex.Pattern;
+
+/**
+ * Validierung von Produkten ohne Reflection. Die Constraints von Produkt werden einmalig beim Start aus den Metadaten
+ * des Jakarta Validators gelesen, d.h. Regex, Länge sowie Meldungen und ConstraintDescriptor. Danach erfolgt die
+ * Prüfung mit direkten Getter-Aufrufen. Stimmen die Constraints in der Entity-Klasse nicht mehr mit den hier
+ * implementierten Prüfungen überein, wird an den Jakarta Validator delegiert.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@Component
+@Slf4j
+final class ProduktValidator {
+    private static final String NAME = "name";
+    private static final String ERSCHEINUNGSDATUM = "erscheinungsdatum";
+    private static final String ANGESTELLTER_ID = "angestellterId";
+    private static final String NAME_NOT_NULL = "name:NotNull";
+    private static final String NAME_PATTERN = "name:Pattern";
+    private static final String NAME_SIZE = "name:Size";
+    private static final String ERSCHEINUNGSDATUM_PAST = "erscheinungsdatum:Past";
+    private static final String ANGESTELLTER_ID_NOT_NULL = "angestellterId:NotNull";
+    // Constraints mit einer anderen Gruppe als Default erhalten die Gruppe als Suffix
+    private static final String BATCH_SUFFIX = '@' + Batch.class.getSimpleName();
+    private static final Set<String> CONSTRAINTS = Set.of(
+        NAME_NOT_NULL,
+        NAME_PATTERN,
+        NAME_SIZE,
+        ERSCHEINUNGSDATUM_PAST,
+        ANGESTELLTER_ID_NOT_NULL + BATCH_SUFFIX
+    );
+    private static final Class<?>[] BATCH_GROUPS = {Default.class, Batch.class};
+
+    private final Validator validator;
+    private final ClockProvider clockProvider;
+    private final Map<String, ConstraintViolation<Produkt>> vorlagen;
+    private final Pattern namePattern;
+    private final int nameMin;
+    private final int nameMax;
+    private final boolean ohneReflection;
+
+    @SuppressWarnings({"FeatureEnvy", "OverlyLongMethod"})
+    ProduktValidator(final ValidatorFactory validatorFactory) {
+        validator = validatorFactory.getValidator();
+        clockProvider = validatorFactory.getClockProvider();
+
+        final var beanDescriptor = validator.getConstraintsForClass(Produkt.class);
+        final Set<String> constraints = new TreeSet<>();
+        beanDescriptor.getConstraintDescriptors()
+            .forEach(descriptor -> constraints.add(descriptor.getAnnotation().annotationType().getSimpleName()));
+        beanDescriptor.getConstrainedProperties().forEach(property -> {
+            if (property.isCascaded()) {
+                constraints.add(property.getPropertyName() + ":@Valid");
+            }
+            property.getConstraintDescriptors().forEach(descriptor -> constraints.add(
+                property.getPropertyName() + ':' + descriptor.getAnnotation().annotationType().getSimpleName() +
+                    gruppen(descriptor.getGroups())
+            ));
+        });
+
+        final var attribute = new HashMap<String, Object>();
+        beanDescriptor.getConstraintsForProperty(NAME).getConstraintDescriptors().forEach(descriptor ->
+            descriptor.getAttributes().forEach((key, value) ->
+                attribute.put(descriptor.getAnnotation().annotationType().getSimpleName() + '.' + key, value)
+            )
+        );
+        final var flags = (Object[]) attribute.getOrDefault("Pattern.flags", new Object[0]);
+        ohneReflection = CONSTRAINTS.equals(constraints) && flags.length == 0;
+        if (!ohneReflection) {
+            log.warn("Constraints von Produkt geaendert, Validierung durch Bean Validation: {}", constraints);
+            vorlagen = Map.of();
+            namePattern = null;
+            nameMin = 0;
+            nameMax = 0;
+            return;
+        }
+
+        namePattern = Pattern.compile((String) attribute.get("Pattern.regexp"));
+        nameMin = (Integer) attribute.get("Size.min");
+        nameMax = (Integer) attribute.get("Size.max");
+
+        // Meldungen und ConstraintDescriptor einmalig durch Bean Validation mit ungueltigen Produkten ermitteln
+        final var ungueltig = Produkt.builder()
+            .name("x".repeat(nameMax + 1))
+            .erscheinungsdatum(LocalDate.now(clockProvider.getClock()).plusDays(1))
+            .build();
+        // ohne Name und ohne Angestellter-ID, die nur im Batch geprueft wird
+        final var ohneName = Produkt.builder().build();
+        final var violations = new HashSet<>(validator.validate(ungueltig));
+        violations.addAll(validator.validate(ohneName, BATCH_GROUPS));
+        final var vorlagenMap = new HashMap<String, ConstraintViolation<Produkt>>();
+        violations.forEach(violation -> vorlagenMap.put(
+            violation.getPropertyPath() + ":" +
+                violation.getConstraintDescriptor().getAnnotation().annotationType().getSimpleName(),
+            violation
+        ));
+        vorlagen = Map.copyOf(vorlagenMap);
+        log.debug("ProduktValidator: vorlagen={}", vorlagen.keySet());
+    }
+
+    /**
+     * Ein Produkt mit den Constraints der Gruppe Default validieren.
+     *
+     * @param produkt Das zu validierende Produkt
+     * @return Die verletzten Constraints oder eine leere Menge
+     */
+    Set<ConstraintViolation<Produkt>> validate(final Produkt produkt) {
+        return validate(produkt, false);
+    }
+
+    /**
+     * Viele Produkte beim Neuanlegen im Batch validieren, d.h. zusätzlich mit den Constraints der Gruppe
+     * Produkt.Batch. Die Validierung erfolgt sequentiell im aufrufenden Thread, weil sie für höchstens
+     * MAX_CREATE_ALL Produkte nur wenige Mikrosekunden benötigt und der gemeinsame ForkJoinPool nicht durch Requests
+     * belegt werden soll.
+     *
+     * @param produkte Die zu validierenden Produkte
+     * @return Die verletzten Constraints in derselben Reihenfolge wie die Produkte
+     */
+    List<Set<ConstraintViolation<Produkt>>> validateAll(final List<Produkt> produkte) {
+        final var ergebnis = new ArrayList<Set<ConstraintViolation<Produkt>>>(produkte.size());
+        for (final var produkt : produkte) {
+            ergebnis.add(validate(produkt, true));
+        }
+        return ergebnis;
+    }
+
+    /**
+     * Abfrage, ob die Constraints ohne Reflection geprüft werden.
+     *
+     * @return false, falls die Constraints von Produkt geändert wurden und an Bean Validation delegiert wird
+     */
+    boolean isOhneReflection() {
+        return ohneReflection;
+    }
+
+    private Set<ConstraintViolation<Produkt>> validate(final Produkt produkt, final boolean batch) {
+        if (!ohneReflection) {
+            return batch ? validator.validate(produkt, BATCH_GROUPS) : validator.validate(produkt);
+        }
+
+        Set<ConstraintViolation<Produkt>> violations = Set.of();
+        final var name = produkt.getName();
+        if (name == null) {
+            violations = add(violations, NAME_NOT_NULL, NAME, produkt, null);
+        } else {
+            if (!namePattern.matcher(name).matches()) {
+                violations = add(violations, NAME_PATTERN, NAME, produkt, name);
+            }
+            if (name.length() < nameMin || name.length() > nameMax) {
+                violations = add(violations, NAME_SIZE, NAME, produkt, name);
+            }
+        }
+
+        final var erscheinungsdatum = produkt.getErscheinungsdatum();
+        if (erscheinungsdatum != null && !erscheinungsdatum.isBefore(LocalDate.now(clockProvider.getClock()))) {
+            violations = add(violations, ERSCHEINUNGSDATUM_PAST, ERSCHEINUNGSDATUM, produkt, erscheinungsdatum);
+        }
+
+        if (batch && produkt.getAngestellterId() == null) {
+            violations = add(violations, ANGESTELLTER_ID_NOT_NULL, ANGESTELLTER_ID, produkt, null);
+        }
+        return violations;
+    }
+
+    private static String gruppen(final Set<Class<?>> groups) {
+        return groups.equals(Set.of(Default.class))
+            ? ""
+            : groups.stream().map(group -> '@' + group.getSimpleName()).sorted().collect(Collectors.joining());
+    }
+
+    private Set<ConstraintViolation<Produkt>> add(
+        final Set<ConstraintViolation<Produkt>> violations,
+        final String constraint,
+        final String property,
+        final Produkt produkt,
+        final Object invalidValue
+    ) {
+        final var vorlage = vorlagen.get(constraint);
+        final var violation = new ProduktConstraintViolation(
+            vorlage.getMessage(),
+            vorlage.getMessageTemplate(),
+            produkt,
+            invalidValue,
+            new PropertyPath(property),
+            vorlage.getConstraintDescriptor()
+        );
+        final Set<ConstraintViolation<Produkt>> result = violations.isEmpty() ? new HashSet<>(4) : violations;
+        result.add(violation);
+        return result;
+    }
+}
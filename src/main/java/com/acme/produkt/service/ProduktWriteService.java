@@ -16,15 +16,34 @@
  */
 package com.acme.produkt.service;
 
+import com.acme.produkt.entity.EreignisArt;
 import com.acme.produkt.entity.Produkt;
+import com.acme.produkt.entity.ProduktEreignis;
+import com.acme.produkt.repository.ProduktEreignisRepository;
 import com.acme.produkt.repository.ProduktRepository;
-import jakarta.validation.Validator;
+import com.acme.produkt.repository.UmsatzSummeRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.function.Consumer;
+
+import static com.acme.produkt.entity.EreignisArt.ERZEUGT;
+import static com.acme.produkt.entity.EreignisArt.GEAENDERT;
+import static java.util.Comparator.naturalOrder;
+import static java.util.Comparator.nullsFirst;
 
 /**
  * Anwendungslogik für Produkte auch mit Bean Validation.
@@ -36,10 +55,22 @@ import java.util.UUID;
 @RequiredArgsConstructor
 @Slf4j
 public class ProduktWriteService {
+    /**
+     * Maximale Anzahl an Produkten beim Neuanlegen im Batch.
+     */
+    public static final int MAX_CREATE_ALL = 100;
+
+    private static final List<String> ALLE_FELDER =
+        List.of("name", "erscheinungsdatum", "homepage", "umsatz", "angestellterId");
+    private static final List<String> AENDERBARE_FELDER = List.of("name", "erscheinungsdatum", "homepage");
+
     private final ProduktRepository repo;
+    private final UmsatzSummeRepository umsatzSummeRepo;
+    private final ProduktEreignisRepository ereignisRepo;
+    private final ApplicationEventPublisher eventPublisher;
 
-    // https://docs.spring.io/spring-framework/docs/current/reference/html/core.html#validation-beanvalidation
-    private final Validator validator;
+    // Constraints aus Bean Validation, aber ohne Reflection pro Aufruf
+    private final ProduktValidator validator;
 
     /**
      * Einen neues Produkt anlegen.
@@ -60,21 +91,69 @@ public class ProduktWriteService {
         }
 
         final var produktDB = repo.save(produkt);
+        addiereUmsatz(produktDB);
+        speichereEreignis(ERZEUGT, produktDB, ALLE_FELDER);
 
         log.debug("create: {}", produktDB);
         return produktDB;
     }
 
     /**
-     * Ein vorhandenes Produkt aktualisieren.
+     * Mehrere neue Produkte in einer einzigen Transaktion anlegen. Alle Produkte werden vorab validiert und nur die
+     * gültigen Produkte werden gespeichert. Die INSERT-Anweisungen werden erst beim Flush gesendet und dabei durch
+     * `hibernate.jdbc.batch_size` und `hibernate.order_inserts` zu JDBC-Batches zusammengefasst.
+     *
+     * @param produkte Die neu anzulegenden Produkte
+     * @return Das Ergebnis für jedes Produkt in derselben Reihenfolge
+     * @throws IllegalArgumentException Falls mehr als MAX_CREATE_ALL Produkte angegeben sind
+     */
+    @Transactional
+    public List<CreateErgebnis> createAll(final List<Produkt> produkte) {
+        log.debug("createAll: anzahl={}", produkte.size());
+        if (produkte.size() > MAX_CREATE_ALL) {
+            throw new IllegalArgumentException("Hoechstens " + MAX_CREATE_ALL + " Produkte statt " + produkte.size());
+        }
+
+        final var violationsListe = validator.validateAll(produkte);
+        final var ergebnisse = new ArrayList<CreateErgebnis>(produkte.size());
+        final var gueltige = new ArrayList<Produkt>(produkte.size());
+        for (int i = 0; i < produkte.size(); i++) {
+            final var produkt = produkte.get(i);
+            final var violations = violationsListe.get(i);
+            ergebnisse.add(new CreateErgebnis(produkt, violations));
+            if (violations.isEmpty()) {
+                gueltige.add(produkt);
+            }
+        }
+        if (gueltige.isEmpty()) {
+            log.debug("createAll: keine gueltigen Produkte");
+            return ergebnisse;
+        }
+
+        // persist() weist die IDs ohne DB-Zugriff zu, d.h. die Objekte in "ergebnisse" erhalten ihre ID
+        repo.saveAll(gueltige);
+        // 1 Upsert pro Angestellter und Waehrung statt pro Produkt; der dabei ausgeloeste Flush sendet die Batches
+        addiereUmsaetze(gueltige);
+        gueltige.forEach(produkt -> speichereEreignis(ERZEUGT, produkt, ALLE_FELDER));
+
+        log.debug("createAll: angelegt={}, fehlerhaft={}", gueltige.size(), produkte.size() - gueltige.size());
+        return ergebnisse;
+    }
+
+    /**
+     * Ein vorhandenes Produkt aktualisieren. Die Prüfung der Versionsnummer und das Aktualisieren erfolgen mit einer
+     * einzigen UPDATE-Anweisung. Nur wenn dabei kein Datensatz aktualisiert wurde, wird ermittelt, ob die ID nicht
+     * existiert oder die Versionsnummer veraltet ist. Der Datensatz wird danach nicht erneut gelesen: Die neue
+     * Versionsnummer ist die um 1 erhöhte bisherige und das Änderungsereignis benötigt nur ID und Versionsnummer.
      *
      * @param produkt Das Objekt mit den neuen Daten (ohne ID)
      * @param id ID des zu aktualisierenden Produktes.
      * @param version Die Versionsnummer des zu aktualisierenden Produktes.
-     * @return Das aktualisierte Produkt.
+     * @return Das Objekt mit den neuen Daten, der ID und der neuen Versionsnummer, aber ohne die nicht
+     *      geänderten Attribute wie Umsatz und Angestellter-ID.
      * @throws ConstraintViolationsException Falls mindestens ein Constraint verletzt ist.
      * @throws NotFoundException Kein Produkt zur ID vorhanden.
-     *
+     * @throws VersionOutdatedException Falls die Versionsnummer nicht aktuell ist.
      */
     @Transactional
     public Produkt update(final Produkt produkt, final UUID id, final int version) {
@@ -88,20 +167,133 @@ public class ProduktWriteService {
         }
         log.trace("update: Keine Constraints verletzt");
 
-        final var produktDbOptional = repo.findById(id);
-        if (produktDbOptional.isEmpty()) {
-            throw new NotFoundException(id);
+        // Umsatz und Angestellter-ID werden nicht geaendert, d.h. die Umsatzsummen bleiben unveraendert
+        final var anzahl = repo.update(
+            id,
+            version,
+            produkt.getName(),
+            produkt.getErscheinungsdatum(),
+            produkt.getHomepage(),
+            LocalDateTime.now()
+        );
+        if (anzahl == 0) {
+            if (!repo.existsById(id)) {
+                throw new NotFoundException(id);
+            }
+            throw new VersionOutdatedException(version);
         }
 
-        var produktDb = produktDbOptional.get();
-        log.trace("update: version={}, produktDb={}", version, produktDb);
+        // das UPDATE hat die Versionsnummer genau um 1 erhoeht
+        produkt.setId(id);
+        produkt.setVersion(version + 1);
+        speichereEreignis(GEAENDERT, produkt, AENDERBARE_FELDER);
+        log.debug("update: {}", produkt);
+        return produkt;
+    }
+
+    /**
+     * Ein vorhandenes Produkt teilweise aktualisieren, z.B. bei JSON Merge Patch. Wegen @DynamicUpdate in der
+     * Entity-Klasse werden nur die tatsächlich geänderten Spalten geschrieben.
+     *
+     * @param id ID des zu aktualisierenden Produktes.
+     * @param version Die Versionsnummer des zu aktualisierenden Produktes.
+     * @param aenderungen Die Änderungen, die auf das gespeicherte Produkt angewendet werden.
+     * @return Das aktualisierte Produkt, dessen Versionsnummer nur bei tatsächlichen Änderungen erhöht ist.
+     * @throws ConstraintViolationsException Falls mindestens ein Constraint verletzt ist.
+     * @throws NotFoundException Kein Produkt zur ID vorhanden.
+     * @throws VersionOutdatedException Falls die Versionsnummer nicht aktuell ist.
+     */
+    @Transactional
+    public Produkt patch(final UUID id, final int version, final Consumer<Produkt> aenderungen) {
+        log.debug("patch: id={}, version={}", id, version);
+
+        final var produktDb = repo.findById(id).orElseThrow(() -> new NotFoundException(id));
+        log.trace("patch: version={}, produktDb={}", version, produktDb);
         if (version != produktDb.getVersion()) {
             throw new VersionOutdatedException(version);
         }
 
-        produktDb.set(produkt);
-        produktDb = repo.save(produktDb);
-        log.debug("update: {}", produktDb);
-        return produktDb;
+        // Umsatz und Angestellter-ID sind nicht aenderbar, d.h. die Umsatzsummen bleiben unveraendert
+        final var vorher = List.of(
+            Objects.toString(produktDb.getName(), ""),
+            Objects.toString(produktDb.getErscheinungsdatum(), ""),
+            Objects.toString(produktDb.getHomepage(), "")
+        );
+        aenderungen.accept(produktDb);
+        final var violations = validator.validate(produktDb);
+        if (!violations.isEmpty()) {
+            log.debug("patch: violations={}", violations);
+            // Rollback der Transaktion, d.h. die Aenderungen am Entity-Objekt werden nicht geschrieben
+            throw new ConstraintViolationsException(violations);
+        }
+
+        final var produktPatched = repo.saveAndFlush(produktDb);
+        final var nachher = List.of(
+            Objects.toString(produktPatched.getName(), ""),
+            Objects.toString(produktPatched.getErscheinungsdatum(), ""),
+            Objects.toString(produktPatched.getHomepage(), "")
+        );
+        final var felder = new ArrayList<String>(AENDERBARE_FELDER.size());
+        for (int i = 0; i < AENDERBARE_FELDER.size(); i++) {
+            if (!vorher.get(i).equals(nachher.get(i))) {
+                felder.add(AENDERBARE_FELDER.get(i));
+            }
+        }
+        if (!felder.isEmpty()) {
+            speichereEreignis(GEAENDERT, produktPatched, felder);
+        }
+        log.debug("patch: {}", produktPatched);
+        return produktPatched;
+    }
+
+    // Aenderungsereignis in derselben Transaktion in die Outbox schreiben; das Relay wird nach dem Commit geweckt
+    private void speichereEreignis(final EreignisArt art, final Produkt produkt, final Collection<String> felder) {
+        final var ereignis = ereignisRepo.save(ProduktEreignis.of(art, produkt, felder));
+        eventPublisher.publishEvent(ereignis);
+        log.trace("speichereEreignis: {}", ereignis);
+    }
+
+    // Umsatzsumme zum Angestellten und zur Waehrung in derselben Transaktion fortschreiben
+    private void addiereUmsatz(final Produkt produkt) {
+        final var umsatz = produkt.getUmsatz();
+        if (umsatz == null || umsatz.getBetrag() == null || umsatz.getWaehrung() == null) {
+            return;
+        }
+        umsatzSummeRepo.addiere(
+            produkt.getAngestellterId(),
+            umsatz.getWaehrung().getCurrencyCode(),
+            1,
+            umsatz.getBetrag()
+        );
+        log.trace("addiereUmsatz: angestellterId={}, umsatz={}", produkt.getAngestellterId(), umsatz);
+    }
+
+    // Umsatzsummen zusammengefasst fortschreiben; feste Reihenfolge der Zeilensperren wegen Deadlocks bei Batches
+    private void addiereUmsaetze(final Collection<Produkt> produkte) {
+        record Schluessel(UUID angestellterId, String waehrung) {
+        }
+        record Summe(long anzahl, BigDecimal betrag) {
+        }
+
+        // null-sicher, obwohl die Validierung eine fehlende Angestellter-ID bereits ablehnt
+        final Map<Schluessel, Summe> summen = new TreeMap<>(
+            Comparator.comparing(Schluessel::angestellterId, nullsFirst(naturalOrder()))
+                .thenComparing(Schluessel::waehrung)
+        );
+        for (final var produkt : produkte) {
+            final var umsatz = produkt.getUmsatz();
+            if (umsatz == null || umsatz.getBetrag() == null || umsatz.getWaehrung() == null) {
+                continue;
+            }
+            summen.merge(
+                new Schluessel(produkt.getAngestellterId(), umsatz.getWaehrung().getCurrencyCode()),
+                new Summe(1, umsatz.getBetrag()),
+                (alt, neu) -> new Summe(alt.anzahl() + neu.anzahl(), alt.betrag().add(neu.betrag()))
+            );
+        }
+        summen.forEach((schluessel, summe) ->
+            umsatzSummeRepo.addiere(schluessel.angestellterId(), schluessel.waehrung(), summe.anzahl(), summe.betrag())
+        );
+        log.trace("addiereUmsaetze: {}", summen);
     }
 }
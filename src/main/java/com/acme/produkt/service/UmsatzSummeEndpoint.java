@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Actuator-Endpoint, um die Umsatzsummen neu zu berechnen: `POST /actuator/umsatzsummen`.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@Component
+@Endpoint(id = "umsatzsummen")
+@RequiredArgsConstructor
+class UmsatzSummeEndpoint {
+    private final UmsatzSummeService service;
+
+    /**
+     * Die Umsatzsummen neu berechnen.
+     *
+     * @return Anzahl der neu berechneten Umsatzsummen
+     */
+    @WriteOperation
+    public Map<String, Integer> neuBerechnen() {
+        return Map.of("anzahl", service.neuBerechnen());
+    }
+}
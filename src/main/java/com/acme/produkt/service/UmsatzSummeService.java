@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.service;
+
+import com.acme.produkt.entity.UmsatzSumme;
+import com.acme.produkt.repository.UmsatzSummeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Currency;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Anwendungslogik für die Umsatzsummen pro Angestellter und Währung. Die Summen werden von ProduktWriteService
+ * fortgeschrieben, so dass der Aufwand einer Abfrage nur von der Anzahl der Gruppen abhängt.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@Service
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+@Slf4j
+public class UmsatzSummeService {
+    private final UmsatzSummeRepository repo;
+
+    /**
+     * Umsatzsummen suchen, optional eingeschränkt auf einen Angestellten und/oder eine Währung.
+     *
+     * @param angestellterId ID des Angestellten oder null
+     * @param waehrung Währung oder null
+     * @return Die gefundenen Umsatzsummen
+     * @throws NotFoundException Falls keine Umsatzsummen gefunden wurden
+     */
+    public List<UmsatzSumme> find(final UUID angestellterId, final Currency waehrung) {
+        log.debug("find: angestellterId={}, waehrung={}", angestellterId, waehrung);
+        final List<UmsatzSumme> summen;
+        if (angestellterId == null && waehrung == null) {
+            summen = repo.findAllByOrderByAngestellterIdAscWaehrungAsc();
+        } else if (waehrung == null) {
+            summen = repo.findByAngestellterIdOrderByWaehrung(angestellterId);
+        } else if (angestellterId == null) {
+            summen = repo.findByWaehrungOrderByAngestellterId(waehrung);
+        } else {
+            summen = repo.findByAngestellterIdAndWaehrung(angestellterId, waehrung);
+        }
+
+        if (summen.isEmpty()) {
+            throw new NotFoundException();
+        }
+        log.debug("find: {}", summen);
+        return summen;
+    }
+
+    /**
+     * Alle Umsatzsummen aus den Produkten neu berechnen, z.B. nach einem Import direkt in die DB. Während der
+     * Neuberechnung ist die Tabelle gesperrt, damit parallel angelegte Produkte weder fehlen noch doppelt zählen.
+     *
+     * @return Anzahl der neu berechneten Umsatzsummen
+     */
+    @Transactional
+    public int neuBerechnen() {
+        log.debug("neuBerechnen");
+        repo.sperren();
+        final var geloescht = repo.loeschen();
+        final var berechnet = repo.berechnen();
+        log.info("neuBerechnen: geloescht={}, berechnet={}", geloescht, berechnet);
+        return berechnet;
+    }
+}
@@ -0,0 +1,70 @@
+-- noinspection SqlNoDataSourceInspectionForFile
+
+-- noinspection SqlDialectInspectionForFile
+
+-- Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+--
+-- This program is free software: you can redistribute it and/or modify
+-- it under the terms of the GNU General Public License as published by
+-- the Free Software Foundation, either version 3 of the License, or
+-- (at your option) any later version.
+--
+-- This program is distributed in the hope that it will be useful,
+-- but WITHOUT ANY WARRANTY; without even the implied warranty of
+-- MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+-- GNU General Public License for more details.
+--
+-- You should have received a copy of the GNU General Public License
+-- along with this program.  If not, see <https://www.gnu.org/licenses/>.
+
+-- docker compose exec postgres bash
+-- psql --dbname=produkt --username=produkt [--file=/sql/V1.2__Partition.sql]
+
+-- Deklarative Hash-Partitionierung der Tabelle "produkt" nach "angestellter_id"
+-- https://www.postgresql.org/docs/current/ddl-partitioning.html
+-- * Queries mit "WHERE angestellter_id = ?" (z.B. findByAngestellterId) lesen durch "Partition Pruning" nur 1 Partition
+-- * VACUUM und Index-Wartung erfolgen pro Partition
+-- * Der Primaerschluessel muss den Partitionsschluessel enthalten. Die Eindeutigkeit der ID ist durch die UUID gegeben.
+--   In der Entity-Klasse bleibt "id" der Identifier, weshalb keine Aenderungen am Java-Code notwendig sind.
+-- * Der Fremdschluessel "umsatz_id" referenziert weiterhin die unpartitionierte Tabelle "umsatz".
+
+ALTER TABLE produkt RENAME TO produkt_alt;
+ALTER TABLE produkt_alt RENAME CONSTRAINT produkt_pkey TO produkt_alt_pkey;
+ALTER INDEX produkt_angestellter_id_idx RENAME TO produkt_alt_angestellter_id_idx;
+
+CREATE TABLE produkt (
+  id            uuid NOT NULL,
+  version       integer NOT NULL DEFAULT 0,
+  name      varchar(40) NOT NULL,
+  erscheinungsdatum  date CHECK (erscheinungsdatum < current_date),
+  homepage      varchar(40),
+  umsatz_id     uuid REFERENCES umsatz,
+  angestellter_id      uuid NOT NULL,
+  erzeugt       timestamp NOT NULL,
+  aktualisiert  timestamp NOT NULL,
+  PRIMARY KEY (id, angestellter_id) USING INDEX TABLESPACE produktspace
+  ) PARTITION BY HASH (angestellter_id) TABLESPACE produktspace;
+
+-- Anzahl der Partitionen als Zweierpotenz, damit spaeter jede Partition mit MODULUS 16 aufgeteilt werden kann
+CREATE TABLE produkt_p0 PARTITION OF produkt FOR VALUES WITH (MODULUS 8, REMAINDER 0) TABLESPACE produktspace;
+CREATE TABLE produkt_p1 PARTITION OF produkt FOR VALUES WITH (MODULUS 8, REMAINDER 1) TABLESPACE produktspace;
+CREATE TABLE produkt_p2 PARTITION OF produkt FOR VALUES WITH (MODULUS 8, REMAINDER 2) TABLESPACE produktspace;
+CREATE TABLE produkt_p3 PARTITION OF produkt FOR VALUES WITH (MODULUS 8, REMAINDER 3) TABLESPACE produktspace;
+CREATE TABLE produkt_p4 PARTITION OF produkt FOR VALUES WITH (MODULUS 8, REMAINDER 4) TABLESPACE produktspace;
+CREATE TABLE produkt_p5 PARTITION OF produkt FOR VALUES WITH (MODULUS 8, REMAINDER 5) TABLESPACE produktspace;
+CREATE TABLE produkt_p6 PARTITION OF produkt FOR VALUES WITH (MODULUS 8, REMAINDER 6) TABLESPACE produktspace;
+CREATE TABLE produkt_p7 PARTITION OF produkt FOR VALUES WITH (MODULUS 8, REMAINDER 7) TABLESPACE produktspace;
+
+-- Partitionierter Index: wird fuer jede Partition automatisch angelegt
+CREATE INDEX IF NOT EXISTS produkt_angestellter_id_idx ON produkt(angestellter_id) TABLESPACE produktspace;
+-- Suche nach der ID ohne Angestellter-ID, z.B. findById: Zugriff ueber den Primaerschluessel-Index jeder Partition,
+-- weil "id" die 1. Spalte des Primaerschluessels ist
+
+-- Bei sehr grossen Tabellen ggf. in mehreren Schritten mit WHERE-Klausel ueber die ID-Bereiche kopieren
+INSERT INTO produkt (id, version, name, erscheinungsdatum, homepage, umsatz_id, angestellter_id, erzeugt, aktualisiert)
+SELECT id, version, name, erscheinungsdatum, homepage, umsatz_id, angestellter_id, erzeugt, aktualisiert
+FROM   produkt_alt;
+
+DROP TABLE produkt_alt;
+
+ANALYZE produkt;
@@ -0,0 +1,38 @@
+-- noinspection SqlNoDataSourceInspectionForFile
+
+-- noinspection SqlDialectInspectionForFile
+
+-- Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+--
+-- This program is free software: you can redistribute it and/or modify
+-- it under the terms of the GNU General Public License as published by
+-- the Free Software Foundation, either version 3 of the License, or
+-- (at your option) any later version.
+--
+-- This program is distributed in the hope that it will be useful,
+-- but WITHOUT ANY WARRANTY; without even the implied warranty of
+-- MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+-- GNU General Public License for more details.
+--
+-- You should have received a copy of the GNU General Public License
+-- along with this program.  If not, see <https://www.gnu.org/licenses/>.
+
+-- docker compose exec postgres bash
+-- psql --dbname=produkt --username=produkt [--file=/sql/V1.3__Covering_Index.sql]
+
+-- "Covering Index" fuer die Produkte eines Angestellten
+-- https://www.postgresql.org/docs/current/indexes-index-only-scans.html
+-- * Schluessel (angestellter_id, name, id): stabile Sortierung und Keyset-Pagination ohne Sortierschritt
+-- * INCLUDE: restliche Spalten fuer ProduktModel, damit "produkt" per "Index Only Scan" gelesen wird
+-- * Voraussetzung fuer "Index Only Scan" ist eine aktuelle Visibility Map, d.h. regelmaessiges (Auto-) VACUUM
+CREATE INDEX IF NOT EXISTS produkt_angestellter_id_name_idx
+  ON produkt(angestellter_id, name, id)
+  INCLUDE (version, erscheinungsdatum, homepage, umsatz_id)
+  TABLESPACE produktspace;
+
+-- Der bisherige Index ist ein Praefix des neuen Index und deshalb ueberfluessig
+DROP INDEX IF EXISTS produkt_angestellter_id_idx;
+
+-- Flyway fuehrt die Migration in einer Transaktion aus, in der VACUUM nicht zulaessig ist.
+-- Die Visibility Map wird durch Autovacuum aktualisiert.
+ANALYZE produkt;
@@ -0,0 +1,40 @@
+-- noinspection SqlNoDataSourceInspectionForFile
+
+-- noinspection SqlDialectInspectionForFile
+
+-- Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+--
+-- This program is free software: you can redistribute it and/or modify
+-- it under the terms of the GNU General Public License as published by
+-- the Free Software Foundation, either version 3 of the License, or
+-- (at your option) any later version.
+--
+-- This program is distributed in the hope that it will be useful,
+-- but WITHOUT ANY WARRANTY; without even the implied warranty of
+-- MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+-- GNU General Public License for more details.
+--
+-- You should have received a copy of the GNU General Public License
+-- along with this program.  If not, see <https://www.gnu.org/licenses/>.
+
+-- docker compose exec postgres bash
+-- psql --dbname=produkt --username=produkt [--file=/sql/V1.4__Umsatz_Summe.sql]
+
+-- Anzahl der Produkte und Summe der Umsaetze pro Angestellter und Waehrung.
+-- Die Tabelle wird von ProduktWriteService in derselben Transaktion wie "produkt" fortgeschrieben.
+CREATE TABLE IF NOT EXISTS umsatz_summe (
+  angestellter_id  uuid NOT NULL,
+  waehrung         char(3) NOT NULL CHECK (waehrung ~ '[A-Z]{3}'),
+  anzahl           bigint NOT NULL DEFAULT 0,
+  -- 20 Stellen, davon 2 Nachkommastellen
+  summe            decimal(20,2) NOT NULL DEFAULT 0,
+  PRIMARY KEY (angestellter_id, waehrung) USING INDEX TABLESPACE produktspace
+  ) TABLESPACE produktspace;
+
+CREATE INDEX IF NOT EXISTS umsatz_summe_waehrung_idx ON umsatz_summe(waehrung) TABLESPACE produktspace;
+
+-- Initiales Befuellen fuer die vorhandenen Produkte
+INSERT INTO umsatz_summe (angestellter_id, waehrung, anzahl, summe)
+SELECT   p.angestellter_id, u.waehrung, count(*), sum(u.betrag)
+FROM     produkt p JOIN umsatz u ON p.umsatz_id = u.id
+GROUP BY p.angestellter_id, u.waehrung;
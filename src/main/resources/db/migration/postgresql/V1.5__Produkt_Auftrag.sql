@@ -0,0 +1,43 @@
+-- noinspection SqlNoDataSourceInspectionForFile
+
+-- noinspection SqlDialectInspectionForFile
+
+-- Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+--
+-- This program is free software: you can redistribute it and/or modify
+-- it under the terms of the GNU General Public License as published by
+-- the Free Software Foundation, either version 3 of the License, or
+-- (at your option) any later version.
+--
+-- This program is distributed in the hope that it will be useful,
+-- but WITHOUT ANY WARRANTY; without even the implied warranty of
+-- MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+-- GNU General Public License for more details.
+--
+-- You should have received a copy of the GNU General Public License
+-- along with this program.  If not, see <https://www.gnu.org/licenses/>.
+
+-- docker compose exec postgres bash
+-- psql --dbname=produkt --username=produkt [--file=/sql/V1.5__Produkt_Auftrag.sql]
+
+-- Warteschlange fuer asynchrones Neuanlegen: POST mit "Prefer: respond-async" fuegt nur einen Datensatz ein,
+-- ein Hintergrund-Thread uebertraegt die Auftraege in "produkt" und "umsatz".
+CREATE TABLE IF NOT EXISTS produkt_auftrag (
+  id                 uuid PRIMARY KEY USING INDEX TABLESPACE produktspace,
+  status             varchar(8) NOT NULL CHECK (status IN ('NEU', 'ERLEDIGT', 'FEHLER')),
+  name               varchar(40),
+  erscheinungsdatum  date,
+  homepage           varchar(40),
+  betrag             decimal(10,2),
+  waehrung           char(3),
+  angestellter_id    uuid,
+  produkt_id         uuid,
+  fehler             varchar(512),
+  erzeugt            timestamp NOT NULL,
+  aktualisiert       timestamp NOT NULL
+  ) TABLESPACE produktspace;
+
+-- Partieller Index: der Hintergrund-Thread liest nur die noch nicht verarbeiteten Auftraege
+CREATE INDEX IF NOT EXISTS produkt_auftrag_neu_idx ON produkt_auftrag(erzeugt)
+  TABLESPACE produktspace
+  WHERE status = 'NEU';
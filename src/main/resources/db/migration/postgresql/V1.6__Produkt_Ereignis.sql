@@ -0,0 +1,49 @@
+-- noinspection SqlNoDataSourceInspectionForFile
+
+-- noinspection SqlDialectInspectionForFile
+
+-- Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+--
+-- This program is free software: you can redistribute it and/or modify
+-- it under the terms of the GNU General Public License as published by
+-- the Free Software Foundation, either version 3 of the License, or
+-- (at your option) any later version.
+--
+-- This program is distributed in the hope that it will be useful,
+-- but WITHOUT ANY WARRANTY; without even the implied warranty of
+-- MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+-- GNU General Public License for more details.
+--
+-- You should have received a copy of the GNU General Public License
+-- along with this program.  If not, see <https://www.gnu.org/licenses/>.
+
+-- docker compose exec postgres bash
+-- psql --dbname=produkt --username=produkt [--file=/sql/V1.6__Produkt_Ereignis.sql]
+
+-- Position in der Reihenfolge der Zustellung, die das Relay unter einer Sperre vergibt
+CREATE SEQUENCE IF NOT EXISTS produkt_ereignis_position_seq;
+
+-- Outbox fuer Aenderungsereignisse: ProduktWriteService fuegt in derselben Transaktion wie "produkt" ein Ereignis ein.
+-- Die IDs werden beim INSERT vergeben und koennen deshalb in anderer Reihenfolge committet werden. Die Reihenfolge
+-- der Zustellung bestimmt "position", die erst das Relay fuer bereits committete Ereignisse vergibt.
+CREATE TABLE IF NOT EXISTS produkt_ereignis (
+  id          bigint GENERATED ALWAYS AS IDENTITY PRIMARY KEY USING INDEX TABLESPACE produktspace,
+  produkt_id  uuid NOT NULL,
+  version     integer NOT NULL,
+  art         varchar(9) NOT NULL CHECK (art IN ('ERZEUGT', 'GEAENDERT')),
+  -- Namen der geaenderten Attribute, durch Komma getrennt
+  felder      varchar(128) NOT NULL,
+  status      varchar(10) NOT NULL CHECK (status IN ('NEU', 'ZUGESTELLT', 'FEHLER')),
+  position    bigint,
+  versuche    integer NOT NULL DEFAULT 0,
+  fehler      varchar(512),
+  erzeugt     timestamp NOT NULL,
+  zugestellt  timestamp
+  ) TABLESPACE produktspace;
+
+-- Partieller Index: das Relay liest nur die noch nicht zugestellten Ereignisse
+CREATE INDEX IF NOT EXISTS produkt_ereignis_neu_idx ON produkt_ereignis(position, id)
+  TABLESPACE produktspace
+  WHERE status = 'NEU';
+CREATE UNIQUE INDEX IF NOT EXISTS produkt_ereignis_position_idx ON produkt_ereignis(position) TABLESPACE produktspace;
+CREATE INDEX IF NOT EXISTS produkt_ereignis_zugestellt_idx ON produkt_ereignis(zugestellt) TABLESPACE produktspace;
@@ -0,0 +1,30 @@
+-- noinspection SqlNoDataSourceInspectionForFile
+
+-- noinspection SqlDialectInspectionForFile
+
+-- Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+--
+-- This program is free software: you can redistribute it and/or modify
+-- it under the terms of the GNU General Public License as published by
+-- the Free Software Foundation, either version 3 of the License, or
+-- (at your option) any later version.
+--
+-- This program is distributed in the hope that it will be useful,
+-- but WITHOUT ANY WARRANTY; without even the implied warranty of
+-- MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+-- GNU General Public License for more details.
+--
+-- You should have received a copy of the GNU General Public License
+-- along with this program.  If not, see <https://www.gnu.org/licenses/>.
+
+-- docker compose exec postgres bash
+-- psql --dbname=produkt --username=produkt [--file=/sql/V1.7__Produkt_Ereignis_Sequenz.sql]
+
+-- IDs fuer die Outbox aus einer Sequenz statt IDENTITY: Hibernate reserviert mit einem Aufruf von nextval() einen
+-- Block von 100 IDs (allocationSize in ProduktEreignis) und kann die INSERT-Anweisungen deshalb als Batch senden.
+-- Bei IDENTITY muss dagegen jedes INSERT einzeln ausgefuehrt werden, um die generierte ID zu erhalten.
+ALTER TABLE produkt_ereignis ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE IF NOT EXISTS produkt_ereignis_id_seq INCREMENT BY 100 OWNED BY produkt_ereignis.id;
+
+-- Der 1. Block beginnt nach den bereits vorhandenen IDs
+SELECT setval('produkt_ereignis_id_seq', COALESCE((SELECT max(id) FROM produkt_ereignis), 0) + 100, false);
@@ -0,0 +1,148 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.graphql;
+
+import com.acme.produkt.GraphQlDokumentProps;
+import graphql.ExecutionInput;
+import graphql.GraphqlErrorBuilder;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.language.Document;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("unit")
+@Tag("graphql")
+@Tag("query")
+@DisplayName("Cache fuer geparste und validierte GraphQL-Dokumente")
+@ExtendWith(SoftAssertionsExtension.class)
+@SuppressWarnings("WriteTag")
+class DokumentCacheTest {
+    private static final int MAX_SIZE = 2;
+    private static final int MAX_QUERY_LENGTH = 30;
+    private static final String QUERY = "{ produkt(id: 1) { name } }";
+    private static final String METRIC = "graphql.dokument.cache";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DokumentCache cache = new DokumentCache(
+        new GraphQlDokumentProps(MAX_SIZE, MAX_QUERY_LENGTH, "classpath:graphql/persisted/*.graphql"),
+        meterRegistry
+    );
+    private final AtomicInteger geparst = new AtomicInteger();
+
+    @InjectSoftAssertions
+    private SoftAssertions softly;
+
+    @Test
+    @DisplayName("Wiederholtes Dokument wird nur einmal geparst")
+    void treffer() {
+        // when
+        final var erster = getDocument(QUERY, parsen());
+        final var zweiter = getDocument(QUERY, parsen());
+
+        // then
+        softly.assertThat(zweiter).isSameAs(erster);
+        softly.assertThat(geparst).hasValue(1);
+        softly.assertThat(counter("treffer")).isEqualTo(1.0);
+        softly.assertThat(counter("fehlschlag")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Zu langes Dokument wird nicht gecacht")
+    void zuLang() {
+        // given
+        final var query = "{ produkt(id: 1) { name umsatz { betrag } } }";
+        assertThat(query).hasSizeGreaterThan(MAX_QUERY_LENGTH);
+
+        // when
+        getDocument(query, parsen());
+        getDocument(query, parsen());
+
+        // then
+        softly.assertThat(geparst).hasValue(2);
+        softly.assertThat(size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Dokument mit Fehlern wird nicht gecacht")
+    void fehlerhaft() {
+        // given
+        final Function<ExecutionInput, PreparsedDocumentEntry> fehlerhaft = input -> {
+            geparst.incrementAndGet();
+            return new PreparsedDocumentEntry(GraphqlErrorBuilder.newError().message("Syntaxfehler").build());
+        };
+
+        // when
+        getDocument("{ produkt(", fehlerhaft);
+        getDocument("{ produkt(", fehlerhaft);
+
+        // then
+        softly.assertThat(geparst).hasValue(2);
+        softly.assertThat(size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Verdraengung nach LRU")
+    void lru() {
+        // given
+        getDocument("{ a }", parsen());
+        getDocument("{ b }", parsen());
+        // Zugriff auf a, so dass b am laengsten nicht verwendet wurde
+        getDocument("{ a }", parsen());
+
+        // when
+        getDocument("{ c }", parsen());
+        getDocument("{ a }", parsen());
+        getDocument("{ b }", parsen());
+
+        // then
+        // a, b, c und erneut b
+        softly.assertThat(geparst).hasValue(4);
+        softly.assertThat(size()).isEqualTo(MAX_SIZE);
+    }
+
+    private PreparsedDocumentEntry getDocument(
+        final String query,
+        final Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidate
+    ) {
+        return cache.getDocumentAsync(ExecutionInput.newExecutionInput(query).build(), parseAndValidate).join();
+    }
+
+    private Function<ExecutionInput, PreparsedDocumentEntry> parsen() {
+        return input -> {
+            geparst.incrementAndGet();
+            return new PreparsedDocumentEntry(Document.newDocument().build());
+        };
+    }
+
+    private double counter(final String ergebnis) {
+        return meterRegistry.get(METRIC).tag("ergebnis", ergebnis).counter().count();
+    }
+
+    private double size() {
+        return meterRegistry.get(METRIC + ".size").gauge().value();
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.graphql;
+
+import graphql.GraphQLError;
+import graphql.execution.ExecutionStepInfo;
+import graphql.execution.ResultPath;
+import graphql.language.Field;
+import graphql.schema.DataFetchingEnvironment;
+
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.ThrowableAssert.ThrowingCallable;
+import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+import static org.mockito.Mockito.when;
+import static org.springframework.graphql.execution.ErrorType.BAD_REQUEST;
+
+@Tag("unit")
+@Tag("graphql")
+@Tag("query")
+@DisplayName("Abbildung von Exceptions auf GraphQL-Fehler")
+@ExtendWith({MockitoExtension.class, SoftAssertionsExtension.class})
+@SuppressWarnings("WriteTag")
+class ExceptionHandlerTest {
+    private final ExceptionHandler handler = new ExceptionHandler();
+
+    @Mock
+    private DataFetchingEnvironment env;
+
+    @Mock
+    private ExecutionStepInfo executionStepInfo;
+
+    @InjectSoftAssertions
+    private SoftAssertions softly;
+
+    @ParameterizedTest(name = "[{index}] Ungueltige Seitengroesse: first={0}")
+    @ValueSource(ints = {0, -1, ProduktConnection.MAX_FIRST + 1})
+    @DisplayName("Ungueltige Seitengroesse ergibt BAD_REQUEST")
+    void firstUngueltig(final int first) {
+        // given
+        mockEnv();
+
+        // when
+        final var error = resolve(() -> ProduktConnection.pruefeFirst(first));
+
+        // then
+        assertThat(error).isNotNull();
+        softly.assertThat(error.getErrorType()).isEqualTo(BAD_REQUEST);
+        softly.assertThat(error.getMessage()).contains(String.valueOf(first));
+        softly.assertThat(error.getPath()).containsExactly("produkte");
+    }
+
+    @ParameterizedTest(name = "[{index}] Ungueltiger Cursor: after={0}")
+    @ValueSource(strings = {"!!!", "YWJj", ""})
+    @DisplayName("Ungueltiger Cursor ergibt BAD_REQUEST")
+    void cursorUngueltig(final String after) {
+        // given
+        mockEnv();
+
+        // when
+        final var error = resolve(() -> ProduktConnection.decodeCursor(after));
+
+        // then
+        assertThat(error).isNotNull();
+        softly.assertThat(error.getErrorType()).isEqualTo(BAD_REQUEST);
+    }
+
+    @Test
+    @DisplayName("Andere IllegalArgumentException wird nicht als BAD_REQUEST abgebildet")
+    void illegalArgument() {
+        // when
+        final var error = handler.resolveToSingleError(new IllegalArgumentException("intern"), env);
+
+        // then
+        assertThat(error).isNull();
+    }
+
+    private void mockEnv() {
+        when(env.getField()).thenReturn(Field.newField("produkte").build());
+        when(env.getExecutionStepInfo()).thenReturn(executionStepInfo);
+        when(executionStepInfo.getPath()).thenReturn(ResultPath.rootPath().segment("produkte"));
+    }
+
+    private GraphQLError resolve(final ThrowingCallable pagination) {
+        final var ex = catchThrowableOfType(pagination, PaginationException.class);
+        assertThat(ex).isNotNull();
+        return handler.resolveToSingleError(ex, env);
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.graphql;
+
+import com.acme.produkt.GraphQlKostenProps;
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.execution.AbortExecutionException;
+import graphql.schema.idl.SchemaParser;
+import graphql.schema.idl.UnExecutableSchemaGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("unit")
+@Tag("graphql")
+@Tag("query")
+@DisplayName("Kosten und Schachtelungstiefe von GraphQL-Operationen")
+@ExtendWith(SoftAssertionsExtension.class)
+@SuppressWarnings("WriteTag")
+class KostenInstrumentationTest {
+    private static final String METRIC = "graphql.operation.kosten";
+    private static final String ID = "00000000-0000-0000-0000-000000000001";
+
+    // kleines Budget, damit die Operationen im Test ueberschaubar bleiben
+    private final GraphQlKostenProps props = new GraphQlKostenProps(100, 4, 10, null);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private GraphQL graphQL;
+
+    @InjectSoftAssertions
+    private SoftAssertions softly;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // Schema ohne Resolver: abgelehnte Operationen werden vor dem 1. Resolver abgebrochen
+        try (var schema = getClass().getResourceAsStream("/graphql/schema.graphqls")) {
+            final var registry = new SchemaParser().parse(new InputStreamReader(Objects.requireNonNull(schema), UTF_8));
+            graphQL = GraphQL
+                .newGraphQL(UnExecutableSchemaGenerator.makeUnExecutableSchema(registry))
+                .instrumentation(new KostenInstrumentation(props, meterRegistry))
+                .build();
+        }
+    }
+
+    @Test
+    @DisplayName("Einfache Query wird akzeptiert")
+    void akzeptiert() {
+        // when
+        final var result = execute("{ produkt(id: \"" + ID + "\") { name umsatz { betrag } } }", Map.of());
+
+        // then
+        softly.assertThat(abgebrochen(result)).isFalse();
+        // produkt + name + umsatz + betrag
+        softly.assertThat(kosten("akzeptiert")).isEqualTo(4.0);
+    }
+
+    @Test
+    @DisplayName("Seitengroesse first multipliziert die Kosten der Unterfelder")
+    void kostenZuHoch() {
+        // when
+        final var result = execute(
+            "{ produkte(first: 10) { edges { node { angestellterNachname } } } }",
+            Map.of()
+        );
+
+        // then
+        // produkte 1 + edges (1 + 10 * (node 1 + angestellterNachname 10))
+        softly.assertThat(abgebrochen(result)).isTrue();
+        softly.assertThat(result.getErrors())
+            .singleElement()
+            .satisfies(error -> assertThat(error.getMessage()).contains("Kosten 112 "));
+        softly.assertThat(kosten("abgelehnt")).isEqualTo(112.0);
+    }
+
+    @Test
+    @DisplayName("Anzahl der IDs aus einer Variablen multipliziert die Kosten der Unterfelder")
+    void ids() {
+        // given
+        final var ids = List.of(ID, ID, ID, ID, ID, ID, ID, ID, ID, ID);
+
+        // when
+        final var result = execute(
+            "query($ids: [ID!]!) { produkteByIds(ids: $ids) { angestellterEmail } }",
+            Map.of("ids", ids)
+        );
+
+        // then
+        // produkteByIds 1 + 10 * angestellterEmail 10
+        softly.assertThat(abgebrochen(result)).isTrue();
+        softly.assertThat(kosten("abgelehnt")).isEqualTo(101.0);
+    }
+
+    @Test
+    @DisplayName("Ohne first wird der Default-Wert aus dem Schema verwendet")
+    void firstDefault() {
+        // when
+        final var result = execute("{ produkte { edges { node { id } } } }", Map.of());
+
+        // then
+        // Default-Wert first: 20 aus dem Schema, d.h. produkte 1 + edges (1 + 20 * (node 1 + id 1))
+        softly.assertThat(abgebrochen(result)).isFalse();
+        softly.assertThat(kosten("akzeptiert")).isEqualTo(42.0);
+    }
+
+    @Test
+    @DisplayName("Bei Listen ohne first oder ids wird die angenommene Listengroesse verwendet")
+    void listenGroesse() {
+        // when
+        final var result = execute("{ umsatzSummen { anzahl } }", Map.of());
+
+        // then
+        // umsatzSummen 1 + 10 * anzahl 1
+        softly.assertThat(abgebrochen(result)).isFalse();
+        softly.assertThat(kosten("akzeptiert")).isEqualTo(11.0);
+    }
+
+    @Test
+    @DisplayName("Zu tiefe Schachtelung wird abgelehnt")
+    void zuTief() {
+        // when
+        final var result = execute("{ produkte(first: 1) { edges { node { umsatz { betrag } } } } }", Map.of());
+
+        // then
+        softly.assertThat(abgebrochen(result)).isTrue();
+        softly.assertThat(result.getErrors())
+            .singleElement()
+            .satisfies(error -> assertThat(error.getMessage()).contains("Tiefe 5 "));
+    }
+
+    @Test
+    @DisplayName("Introspection wird weder bei den Kosten noch bei der Tiefe beruecksichtigt")
+    void introspection() {
+        // when
+        final var result = execute(
+            "{ __schema { types { name fields { name type { name ofType { name } } } } } }",
+            Map.of()
+        );
+
+        // then
+        softly.assertThat(abgebrochen(result)).isFalse();
+        softly.assertThat(kosten("akzeptiert")).isZero();
+    }
+
+    private ExecutionResult execute(final String query, final Map<String, Object> variables) {
+        return graphQL.execute(ExecutionInput.newExecutionInput(query).variables(variables).build());
+    }
+
+    private static boolean abgebrochen(final ExecutionResult result) {
+        return result.getErrors().stream().anyMatch(AbortExecutionException.class::isInstance);
+    }
+
+    private double kosten(final String ergebnis) {
+        final var summary = meterRegistry.find(METRIC).tag("ergebnis", ergebnis).summary();
+        assertThat(summary).isNotNull();
+        return summary.totalAmount();
+    }
+}
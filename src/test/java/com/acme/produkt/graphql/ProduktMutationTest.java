@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.graphql;
+
+import com.jayway.jsonpath.JsonPath;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.acme.produkt.dev.DevConfig.DEV;
+import static com.acme.produkt.graphql.ProduktQueryTest.HOST;
+import static com.acme.produkt.graphql.ProduktQueryTest.SCHEMA;
+import static com.acme.produkt.graphql.ProduktQueryTest.execute;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.condition.JRE.JAVA_19;
+import static org.junit.jupiter.api.condition.JRE.JAVA_20;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+
+@Tag("integration")
+@Tag("graphql")
+@Tag("mutation")
+@DisplayName("GraphQL-Schnittstelle fuer Mutations")
+@ExtendWith(SoftAssertionsExtension.class)
+@SpringBootTest(webEnvironment = RANDOM_PORT)
+@ActiveProfiles(DEV)
+@EnabledForJreRange(min = JAVA_19, max = JAVA_20)
+@SuppressWarnings("WriteTag")
+class ProduktMutationTest {
+    private static final String ANGESTELLTER_ID = "00000000-0000-0000-0000-000000000001";
+    private static final String CREATE_PRODUKTE = """
+        mutation($input: [ProduktInput!]!) {
+          createProdukte(input: $input) {
+            id
+          }
+        }
+        """;
+    private static final String QUERY_PRODUKT = """
+        query($id: ID!) {
+          produkt(id: $id) {
+            name
+            angestellterId
+          }
+        }
+        """;
+
+    private final WebClient client;
+
+    @InjectSoftAssertions
+    private SoftAssertions softly;
+
+    ProduktMutationTest(@LocalServerPort final int port) {
+        final var baseUrl = UriComponentsBuilder.newInstance()
+            .scheme(SCHEMA)
+            .host(HOST)
+            .port(port)
+            .build()
+            .toUriString();
+        client = WebClient
+            .builder()
+            .baseUrl(baseUrl)
+            .build();
+    }
+
+    @Test
+    @DisplayName("Batch mit einem Produkt ohne Angestellter-ID")
+    void createProdukteOhneAngestellterId() {
+        // given
+        final var ohneAngestellterId = produktInput("Batch-Ohne");
+        ohneAngestellterId.remove("angestellterId");
+        final var input = List.of(produktInput("Batch-Erstes"), ohneAngestellterId, produktInput("Batch-Drittes"));
+
+        // when
+        final var body = execute(client, CREATE_PRODUKTE, Map.of("input", input));
+
+        // then
+        assertThat(body).isNotNull();
+        final List<String> ids = JsonPath.read(body, "$.data.createProdukte[*].id");
+        assertThat(ids).hasSize(3);
+        softly.assertThat(ids.get(0)).isNotNull();
+        softly.assertThat(ids.get(1)).isNull();
+        softly.assertThat(ids.get(2)).isNotNull();
+        final List<String> errorTypes = JsonPath.read(body, "$.errors[*].extensions.classification");
+        softly.assertThat(errorTypes).containsExactly("BAD_REQUEST");
+        final List<Object> path = JsonPath.read(body, "$.errors[0].path");
+        softly.assertThat(path).containsExactly("input", 1, "angestellterId");
+
+        // Die gueltigen Produkte wurden trotz des fehlerhaften Produktes angelegt
+        final var produkt = execute(client, QUERY_PRODUKT, Map.of("id", ids.get(2)));
+        assertThat(produkt).isNotNull();
+        final String name = JsonPath.read(produkt, "$.data.produkt.name");
+        softly.assertThat(name).isEqualTo("Batch-Drittes");
+    }
+
+    @Test
+    @DisplayName("Batch mit einem Produkt mit ungueltigem Namen")
+    void createProdukteNameUngueltig() {
+        // given
+        final var input = List.of(produktInput("Batch-Gueltig"), produktInput("?!$"));
+
+        // when
+        final var body = execute(client, CREATE_PRODUKTE, Map.of("input", input));
+
+        // then
+        assertThat(body).isNotNull();
+        final List<String> ids = JsonPath.read(body, "$.data.createProdukte[*].id");
+        assertThat(ids).hasSize(2);
+        softly.assertThat(ids.get(0)).isNotNull();
+        softly.assertThat(ids.get(1)).isNull();
+        final List<List<Object>> paths = JsonPath.read(body, "$.errors[*].path");
+        softly.assertThat(paths)
+            .isNotEmpty()
+            .allSatisfy(path -> assertThat(path).containsExactly("input", 1, "name"));
+    }
+
+    // veraenderbare Map, damit einzelne Felder entfernt werden koennen
+    private static Map<String, Object> produktInput(final String name) {
+        final var input = new HashMap<String, Object>();
+        input.put("name", name);
+        input.put("erscheinungsdatum", "2022-01-31");
+        input.put("umsatz", Map.of("betrag", "1", "waehrung", "EUR"));
+        input.put("angestellterId", ANGESTELLTER_ID);
+        return input;
+    }
+}
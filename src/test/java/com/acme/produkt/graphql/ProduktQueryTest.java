@@ -0,0 +1,411 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.graphql;
+
+import com.jayway.jsonpath.JsonPath;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static com.acme.produkt.dev.DevConfig.DEV;
+import static com.acme.produkt.service.ProduktReadService.MAX_IDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.condition.JRE.JAVA_19;
+import static org.junit.jupiter.api.condition.JRE.JAVA_20;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+import static org.springframework.http.HttpStatus.OK;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+
+@Tag("integration")
+@Tag("graphql")
+@Tag("query")
+@DisplayName("GraphQL-Schnittstelle fuer Queries")
+@ExtendWith(SoftAssertionsExtension.class)
+@SpringBootTest(webEnvironment = RANDOM_PORT)
+@ActiveProfiles(DEV)
+@EnabledForJreRange(min = JAVA_19, max = JAVA_20)
+@SuppressWarnings("WriteTag")
+class ProduktQueryTest {
+    static final String SCHEMA = "http";
+    static final String HOST = "localhost";
+    static final String GRAPHQL_PATH = "/graphql";
+
+    private static final String ANGESTELLTER_ID = "00000000-0000-0000-0000-000000000001";
+    private static final String ID_VORHANDEN_PRODUKT = "00000000-0000-0000-0000-000000000001";
+    private static final String ID_VORHANDEN_ANDERES_PRODUKT = "00000000-0000-0000-0000-000000000002";
+    private static final String ID_NICHT_VORHANDEN = "ffffffff-ffff-ffff-ffff-ffffffffffff";
+
+    private final WebClient client;
+
+    @InjectSoftAssertions
+    private SoftAssertions softly;
+
+    ProduktQueryTest(@LocalServerPort final int port) {
+        final var baseUrl = UriComponentsBuilder.newInstance()
+            .scheme(SCHEMA)
+            .host(HOST)
+            .port(port)
+            .build()
+            .toUriString();
+        client = WebClient
+            .builder()
+            .baseUrl(baseUrl)
+            .build();
+    }
+
+    /**
+     * Eine GraphQL-Operation senden und den Response-Body als String liefern, der mit JsonPath ausgewertet wird.
+     *
+     * @param client WebClient mit der Basis-URL
+     * @param query Die Operation
+     * @param variables Die Variablen
+     * @return Der Response-Body
+     */
+    static String execute(final WebClient client, final String query, final Map<String, Object> variables) {
+        return client
+            .post()
+            .uri(GRAPHQL_PATH)
+            .contentType(APPLICATION_JSON)
+            .accept(APPLICATION_JSON)
+            .bodyValue(Map.of("query", query, "variables", variables))
+            .retrieve()
+            .bodyToMono(String.class)
+            .block();
+    }
+
+    @Nested
+    @DisplayName("Umsatzsummen pro Angestellter und Waehrung")
+    class UmsatzSummen {
+        private static final String QUERY = """
+            query($angestellterId: ID, $waehrung: String) {
+              umsatzSummen(angestellterId: $angestellterId, waehrung: $waehrung) {
+                angestellterId
+                waehrung
+                anzahl
+              }
+            }
+            """;
+
+        @ParameterizedTest(name = "[{index}] Umsatzsummen mit gueltiger Waehrung: waehrung={0}")
+        @ValueSource(strings = "EUR")
+        @DisplayName("Umsatzsummen mit gueltiger Waehrung")
+        void umsatzSummen(final String waehrung) {
+            // when
+            final var body = execute(client, QUERY, Map.of("angestellterId", ANGESTELLTER_ID, "waehrung", waehrung));
+
+            // then
+            assertThat(body).isNotNull();
+            final Map<String, Object> result = JsonPath.read(body, "$");
+            softly.assertThat(result).doesNotContainKey("errors");
+            final List<String> waehrungen = JsonPath.read(body, "$.data.umsatzSummen[*].waehrung");
+            softly.assertThat(waehrungen)
+                .isNotEmpty()
+                .containsOnly(waehrung);
+        }
+
+        @ParameterizedTest(name = "[{index}] Umsatzsummen mit ungueltiger Waehrung: waehrung={0}")
+        @ValueSource(strings = {"XYZ", "euro"})
+        @DisplayName("Umsatzsummen mit ungueltiger Waehrung")
+        void umsatzSummenWaehrungUngueltig(final String waehrung) {
+            // when
+            final var body = execute(client, QUERY, Map.of("waehrung", waehrung));
+
+            // then
+            assertThat(body).isNotNull();
+            final List<String> errorTypes = JsonPath.read(body, "$.errors[*].extensions.classification");
+            softly.assertThat(errorTypes).containsExactly("BAD_REQUEST");
+            final List<String> messages = JsonPath.read(body, "$.errors[*].message");
+            softly.assertThat(messages).singleElement().asString().contains(waehrung);
+        }
+    }
+
+    @Nested
+    @DisplayName("Suche mit mehreren IDs")
+    class ProdukteByIds {
+        private static final String QUERY = """
+            query($ids: [ID!]!) {
+              produkteByIds(ids: $ids) {
+                id
+                name
+              }
+            }
+            """;
+
+        @ParameterizedTest(name = "[{index}] Suche mit vorhandenen und nicht vorhandener ID: ids={0}")
+        @ValueSource(strings = ID_VORHANDEN_ANDERES_PRODUKT + ',' + ID_NICHT_VORHANDEN + ',' + ID_VORHANDEN_PRODUKT)
+        @DisplayName("Suche mit vorhandenen und nicht vorhandener ID")
+        void produkteByIds(final String ids) {
+            // when
+            final var body = execute(client, QUERY, Map.of("ids", List.of(ids.split(","))));
+
+            // then
+            assertThat(body).isNotNull();
+            final List<String> produktIds = JsonPath.read(body, "$.data.produkteByIds[*].id");
+            softly.assertThat(produktIds).containsExactly(ID_VORHANDEN_ANDERES_PRODUKT, null, ID_VORHANDEN_PRODUKT);
+            final List<String> errorTypes = JsonPath.read(body, "$.errors[*].extensions.classification");
+            softly.assertThat(errorTypes).containsExactly("NOT_FOUND");
+            final List<Object> path = JsonPath.read(body, "$.errors[0].path");
+            softly.assertThat(path).containsExactly("produkteByIds", 1);
+        }
+
+        @ParameterizedTest(name = "[{index}] Suche mit doppelter ID: id={0}")
+        @ValueSource(strings = ID_VORHANDEN_PRODUKT)
+        @DisplayName("Suche mit doppelter ID liefert das Produkt an beiden Positionen")
+        void produkteByIdsDoppelt(final String id) {
+            // when
+            final var body = execute(client, QUERY, Map.of("ids", List.of(id, id)));
+
+            // then
+            assertThat(body).isNotNull();
+            final Map<String, Object> result = JsonPath.read(body, "$");
+            softly.assertThat(result).doesNotContainKey("errors");
+            final List<String> produktIds = JsonPath.read(body, "$.data.produkteByIds[*].id");
+            softly.assertThat(produktIds).containsExactly(id, id);
+        }
+
+        @Test
+        @DisplayName("Suche mit zu vielen IDs")
+        void produkteByIdsZuViele() {
+            // given
+            final var ids = IntStream.rangeClosed(1, MAX_IDS + 1)
+                .mapToObj(i -> new UUID(0, i).toString())
+                .toList();
+
+            // when
+            final var body = execute(client, QUERY, Map.of("ids", ids));
+
+            // then
+            assertThat(body).isNotNull();
+            final List<String> errorTypes = JsonPath.read(body, "$.errors[*].extensions.classification");
+            softly.assertThat(errorTypes).containsExactly("BAD_REQUEST");
+        }
+    }
+
+    @Nested
+    @DisplayName("Seitenweise Suche als Connection")
+    class Produkte {
+        private static final String QUERY = """
+            query($first: Int, $after: String) {
+              produkte(first: $first, after: $after) {
+                edges {
+                  node {
+                    id
+                  }
+                }
+                pageInfo {
+                  hasNextPage
+                  endCursor
+                }
+              }
+            }
+            """;
+
+        @Test
+        @DisplayName("Folgeseite mit dem Cursor des letzten Produktes")
+        void produkteFolgeseite() {
+            // given
+            final var ersteSeite = execute(client, QUERY, Map.of("first", 1));
+            assertThat(ersteSeite).isNotNull();
+            final String endCursor = JsonPath.read(ersteSeite, "$.data.produkte.pageInfo.endCursor");
+            final List<String> ersteIds = JsonPath.read(ersteSeite, "$.data.produkte.edges[*].node.id");
+
+            // when
+            final var body = execute(client, QUERY, Map.of("first", 1, "after", endCursor));
+
+            // then
+            assertThat(body).isNotNull();
+            final Map<String, Object> result = JsonPath.read(body, "$");
+            softly.assertThat(result).doesNotContainKey("errors");
+            final List<String> ids = JsonPath.read(body, "$.data.produkte.edges[*].node.id");
+            softly.assertThat(ids)
+                .hasSize(1)
+                .doesNotContainAnyElementsOf(ersteIds);
+        }
+
+        @ParameterizedTest(name = "[{index}] Ungueltige Seitengroesse: first={0}")
+        @ValueSource(ints = {0, ProduktConnection.MAX_FIRST + 1})
+        @DisplayName("Ungueltige Seitengroesse")
+        void produkteFirstUngueltig(final int first) {
+            // when
+            final var body = execute(client, QUERY, Map.of("first", first));
+
+            // then
+            assertThat(body).isNotNull();
+            final List<String> errorTypes = JsonPath.read(body, "$.errors[*].extensions.classification");
+            softly.assertThat(errorTypes).containsExactly("BAD_REQUEST");
+        }
+
+        @ParameterizedTest(name = "[{index}] Ungueltiger Cursor: after={0}")
+        @ValueSource(strings = {"!!!", "YWJj"})
+        @DisplayName("Ungueltiger Cursor")
+        void produkteCursorUngueltig(final String after) {
+            // when
+            final var body = execute(client, QUERY, Map.of("first", 1, "after", after));
+
+            // then
+            assertThat(body).isNotNull();
+            final List<String> errorTypes = JsonPath.read(body, "$.errors[*].extensions.classification");
+            softly.assertThat(errorTypes).containsExactly("BAD_REQUEST");
+            final List<String> messages = JsonPath.read(body, "$.errors[*].message");
+            softly.assertThat(messages).singleElement().asString().contains(after);
+        }
+    }
+
+    @Nested
+    @DisplayName("Begrenzung der Kosten einer Operation")
+    class Kosten {
+        @Test
+        @DisplayName("Zu aufwendige Operation wird ohne Resolver abgelehnt")
+        void kostenZuHoch() {
+            // given
+            // produkte 1 + edges (1 + 100 * node 25), d.h. ueber dem Budget 2500
+            final var query = """
+                {
+                  produkte(first: 100) {
+                    edges {
+                      node {
+                        name
+                        umsatz {
+                          betrag
+                          waehrung
+                        }
+                        angestellterNachname
+                        angestellterEmail
+                      }
+                    }
+                  }
+                }
+                """;
+
+            // when
+            final var body = execute(client, query, Map.of());
+
+            // then
+            assertThat(body).isNotNull();
+            final Map<String, Object> result = JsonPath.read(body, "$");
+            softly.assertThat(result.get("data")).isNull();
+            final List<String> errorTypes = JsonPath.read(body, "$.errors[*].extensions.classification");
+            softly.assertThat(errorTypes).containsExactly("ExecutionAborted");
+            final List<String> messages = JsonPath.read(body, "$.errors[*].message");
+            softly.assertThat(messages).singleElement().asString().contains("Kosten 2502 ");
+        }
+
+        @Test
+        @DisplayName("Operation innerhalb des Budgets wird ausgefuehrt")
+        void kostenAkzeptiert() {
+            // given
+            final var query = """
+                {
+                  produkte(first: 10) {
+                    edges {
+                      node {
+                        name
+                        angestellterNachname
+                      }
+                    }
+                  }
+                }
+                """;
+
+            // when
+            final var body = execute(client, query, Map.of());
+
+            // then
+            assertThat(body).isNotNull();
+            final Map<String, Object> result = JsonPath.read(body, "$");
+            softly.assertThat(result).doesNotContainKey("errors");
+            final List<String> namen = JsonPath.read(body, "$.data.produkte.edges[*].node.name");
+            softly.assertThat(namen).isNotEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("Zeitmessung der Resolver")
+    class Zeitmessung {
+        private static final String ENDPOINT = "/actuator/graphqlmetriken";
+        private static final String QUERY = """
+            query($id: ID!) {
+              produkt(id: $id) {
+                name
+              }
+            }
+            """;
+
+        @AfterEach
+        void ausschalten() {
+            setEnabled(false);
+        }
+
+        @Test
+        @DisplayName("Dauer des Resolvers fuer Query.produkt nach dem Einschalten")
+        void feldDauer() {
+            // given
+            setEnabled(true);
+
+            // when
+            final var body = execute(client, QUERY, Map.of("id", ID_VORHANDEN_PRODUKT));
+
+            // then
+            assertThat(body).isNotNull();
+            final var metrik = client
+                .get()
+                .uri(builder -> builder
+                    .path("/actuator/metrics/graphql.feld.dauer")
+                    .queryParam("tag", "feld:Query.produkt")
+                    .build())
+                .accept(APPLICATION_JSON)
+                .exchangeToMono(response -> {
+                    assertThat(response.statusCode()).isEqualTo(OK);
+                    return response.bodyToMono(String.class);
+                })
+                .block();
+            assertThat(metrik).isNotNull();
+            final List<Double> anzahl = JsonPath.read(metrik, "$.measurements[?(@.statistic == 'COUNT')].value");
+            softly.assertThat(anzahl).singleElement().satisfies(wert -> assertThat(wert).isPositive());
+        }
+
+        private void setEnabled(final boolean enabled) {
+            client
+                .post()
+                .uri(ENDPOINT)
+                .contentType(APPLICATION_JSON)
+                .bodyValue(Map.of("enabled", enabled))
+                .retrieve()
+                .toBodilessEntity()
+                .block();
+        }
+    }
+}
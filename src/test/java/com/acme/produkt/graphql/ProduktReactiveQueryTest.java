@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.graphql;
+
+import com.jayway.jsonpath.JsonPath;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.acme.produkt.dev.DevConfig.DEV;
+import static com.acme.produkt.graphql.ProduktQueryTest.HOST;
+import static com.acme.produkt.graphql.ProduktQueryTest.SCHEMA;
+import static com.acme.produkt.graphql.ProduktQueryTest.execute;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.condition.JRE.JAVA_19;
+import static org.junit.jupiter.api.condition.JRE.JAVA_20;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+
+@Tag("integration")
+@Tag("graphql")
+@Tag("query_reactive")
+@DisplayName("Reaktive GraphQL-Schnittstelle fuer Queries im Profile reactive")
+@ExtendWith(SoftAssertionsExtension.class)
+@SpringBootTest(webEnvironment = RANDOM_PORT)
+@ActiveProfiles({DEV, "reactive"})
+@EnabledForJreRange(min = JAVA_19, max = JAVA_20)
+@SuppressWarnings("WriteTag")
+class ProduktReactiveQueryTest {
+    private static final String ID_VORHANDEN = "00000000-0000-0000-0000-000000000001";
+
+    private final WebClient client;
+
+    @InjectSoftAssertions
+    private SoftAssertions softly;
+
+    ProduktReactiveQueryTest(@LocalServerPort final int port, final ApplicationContext ctx) {
+        // Im Profile "reactive" gibt es nur den reaktiven Controller
+        assertThat(ctx.getBeansOfType(ProduktReactiveQueryController.class)).hasSize(1);
+        assertThat(ctx.getBeansOfType(ProduktQueryController.class)).isEmpty();
+
+        final var baseUrl = UriComponentsBuilder.newInstance()
+            .scheme(SCHEMA)
+            .host(HOST)
+            .port(port)
+            .build()
+            .toUriString();
+        client = WebClient
+            .builder()
+            .baseUrl(baseUrl)
+            .build();
+    }
+
+    @ParameterizedTest(name = "[{index}] Suche mit vorhandener ID: id={0}")
+    @ValueSource(strings = ID_VORHANDEN)
+    @DisplayName("Suche mit vorhandener ID")
+    void produkt(final String id) {
+        // given
+        final var query = """
+            query($id: ID!) {
+              produkt(id: $id) {
+                name
+                angestellterNachname
+              }
+            }
+            """;
+
+        // when
+        final var body = execute(client, query, Map.of("id", id));
+
+        // then
+        assertThat(body).isNotNull();
+        final String name = JsonPath.read(body, "$.data.produkt.name");
+        softly.assertThat(name).isNotBlank();
+        final String nachname = JsonPath.read(body, "$.data.produkt.angestellterNachname");
+        softly.assertThat(nachname).isNotBlank();
+    }
+
+    @Test
+    @DisplayName("Erste Seite mit Cursor und Gesamtanzahl")
+    void produkte() {
+        // given
+        final var query = """
+            query($first: Int) {
+              produkte(first: $first) {
+                edges { cursor node { name } }
+                pageInfo { hasNextPage endCursor }
+                totalCount
+              }
+            }
+            """;
+
+        // when
+        final var body = execute(client, query, Map.of("first", 1));
+
+        // then
+        assertThat(body).isNotNull();
+        final List<String> namen = JsonPath.read(body, "$.data.produkte.edges[*].node.name");
+        softly.assertThat(namen).hasSize(1);
+        final boolean hasNextPage = JsonPath.read(body, "$.data.produkte.pageInfo.hasNextPage");
+        softly.assertThat(hasNextPage).isTrue();
+        final String endCursor = JsonPath.read(body, "$.data.produkte.pageInfo.endCursor");
+        softly.assertThat(endCursor).isNotBlank();
+        final int totalCount = JsonPath.read(body, "$.data.produkte.totalCount");
+        softly.assertThat(totalCount).isGreaterThan(1);
+    }
+}
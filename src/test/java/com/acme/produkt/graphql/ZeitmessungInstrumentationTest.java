@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.graphql;
+
+import com.acme.produkt.GraphQlMetrikProps;
+import graphql.ExecutionInput;
+import graphql.GraphQL;
+import graphql.schema.idl.SchemaParser;
+import graphql.schema.idl.UnExecutableSchemaGenerator;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+@Tag("unit")
+@Tag("graphql")
+@Tag("query")
+@DisplayName("Zeitmessung fuer GraphQL-Operationen")
+@ExtendWith(SoftAssertionsExtension.class)
+@SuppressWarnings("WriteTag")
+class ZeitmessungInstrumentationTest {
+    private static final String METRIC_OPERATION = "graphql.operation.dauer";
+    private static final int MAX_OPERATIONEN = 3;
+    private static final int ANZAHL = 200;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectSoftAssertions
+    private SoftAssertions softly;
+
+    @Test
+    @DisplayName("Gleichzeitige neue Operationsnamen ueberschreiten das Limit nicht")
+    void maxOperationen() throws IOException {
+        // given
+        final var graphQL = graphQL(true);
+
+        // when
+        try (var executor = Executors.newFixedThreadPool(16)) {
+            final var futures = IntStream.range(0, ANZAHL)
+                .mapToObj(i -> CompletableFuture.runAsync(
+                    () -> graphQL.execute(ExecutionInput.newExecutionInput("query op" + i + " { __typename }").build()),
+                    executor
+                ))
+                .toArray(CompletableFuture[]::new);
+            CompletableFuture.allOf(futures).join();
+        }
+
+        // then
+        final var operationen = meterRegistry.find(METRIC_OPERATION).timers()
+            .stream()
+            .map(timer -> timer.getId().getTag("operation"))
+            .distinct()
+            .toList();
+        softly.assertThat(operationen)
+            .contains("andere")
+            .hasSize(MAX_OPERATIONEN + 1);
+        final var anzahl = meterRegistry.find(METRIC_OPERATION).timers()
+            .stream()
+            .mapToLong(Timer::count)
+            .sum();
+        softly.assertThat(anzahl).isEqualTo(ANZAHL);
+    }
+
+    @Test
+    @DisplayName("Ohne Zeitmessung werden keine Timer registriert")
+    void inaktiv() throws IOException {
+        // given
+        final var graphQL = graphQL(false);
+
+        // when
+        graphQL.execute("query op { __typename }");
+
+        // then
+        softly.assertThat(meterRegistry.getMeters()).isEmpty();
+    }
+
+    private GraphQL graphQL(final boolean enabled) throws IOException {
+        final var instrumentation = new ZeitmessungInstrumentation(
+            new GraphQlMetrikProps(enabled, MAX_OPERATIONEN),
+            meterRegistry
+        );
+        try (var schema = getClass().getResourceAsStream("/graphql/schema.graphqls")) {
+            final var registry = new SchemaParser().parse(new InputStreamReader(Objects.requireNonNull(schema), UTF_8));
+            return GraphQL
+                .newGraphQL(UnExecutableSchemaGenerator.makeUnExecutableSchema(registry))
+                .instrumentation(instrumentation)
+                .build();
+        }
+    }
+}
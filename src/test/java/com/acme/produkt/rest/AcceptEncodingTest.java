@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.rest;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("unit")
+@Tag("rest")
+@DisplayName("Auswertung des Headers Accept-Encoding")
+@SuppressWarnings("WriteTag")
+class AcceptEncodingTest {
+    @ParameterizedTest(name = "[{index}] Accept-Encoding: {0}")
+    @ValueSource(strings = {
+        "gzip", "GZIP", "gzip, deflate, br", "br;q=1.0, gzip;q=0.8", "gzip; q=0.001", "*", "br, *;q=0.5", "x-gzip"
+    })
+    @DisplayName("gzip wird akzeptiert")
+    void gzip(final String header) {
+        // when
+        final var gzip = AcceptEncoding.gzip(header);
+
+        // then
+        assertThat(gzip).isTrue();
+    }
+
+    @ParameterizedTest(name = "[{index}] Accept-Encoding: {0}")
+    @ValueSource(strings = {
+        "", "identity", "br, deflate", "gzip;q=0", "gzip; q=0.0", "gzip;q=0, *", "*;q=0", "gzip;q=x", "gzip;q=2",
+        "x-gzipped"
+    })
+    @DisplayName("gzip wird nicht akzeptiert")
+    void keinGzip(final String header) {
+        // when
+        final var gzip = AcceptEncoding.gzip(header);
+
+        // then
+        assertThat(gzip).isFalse();
+    }
+
+    @Test
+    @DisplayName("Ohne Header wird gzip nicht verwendet")
+    void ohneHeader() {
+        // when
+        final var gzip = AcceptEncoding.gzip(null);
+
+        // then
+        assertThat(gzip).isFalse();
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.rest;
+
+import com.acme.produkt.LimitProps;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import static com.acme.produkt.rest.AdaptivesLimitTest.props;
+import static com.acme.produkt.rest.ProduktChangesController.CHANGES_PATH;
+import static com.acme.produkt.rest.ProduktExportController.EXPORT_PATH;
+import static com.acme.produkt.rest.ProduktGetController.REST_PATH;
+import static jakarta.servlet.http.HttpServletResponse.SC_OK;
+import static jakarta.servlet.http.HttpServletResponse.SC_SERVICE_UNAVAILABLE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.HttpHeaders.RETRY_AFTER;
+
+@Tag("unit")
+@Tag("rest")
+@Tag("rest_limit")
+@DisplayName("Servlet-Filter fuer das adaptive Limit")
+@ExtendWith(SoftAssertionsExtension.class)
+@SuppressWarnings("WriteTag")
+class AdaptivesLimitFilterTest {
+    private static final String ID_PATH = REST_PATH + "/00000000-0000-0000-0000-000000000001";
+    private static final String GET = "GET";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectSoftAssertions
+    private SoftAssertions softly;
+
+    @Test
+    @DisplayName("Statuscode 503 mit Retry-After, falls das Limit erreicht ist")
+    void limitErreicht() throws ServletException, IOException {
+        // given
+        // Limit 1: waehrend des 1. Requests wird ein 2. Request fuer dieselbe Endpunktklasse abgewiesen
+        final var filter = new AdaptivesLimitFilter(props(1, 1, 1), meterRegistry);
+        final var zweiteResponse = new MockHttpServletResponse();
+        final FilterChain chain = (request, response) -> filter.doFilter(
+            new MockHttpServletRequest(GET, ID_PATH),
+            zweiteResponse,
+            (zweiterRequest, zweiteAntwort) -> { }
+        );
+        final var ersteResponse = new MockHttpServletResponse();
+
+        // when
+        filter.doFilter(new MockHttpServletRequest(GET, ID_PATH), ersteResponse, chain);
+
+        // then
+        softly.assertThat(ersteResponse.getStatus()).isEqualTo(SC_OK);
+        softly.assertThat(zweiteResponse.getStatus()).isEqualTo(SC_SERVICE_UNAVAILABLE);
+        softly.assertThat(zweiteResponse.getHeader(RETRY_AFTER)).isEqualTo("1");
+        softly.assertThat(abgelehnt("id")).isEqualTo(1.0);
+        softly.assertThat(laufend("id")).isZero();
+    }
+
+    @Test
+    @DisplayName("Eigenes Limit pro Endpunktklasse")
+    void endpunktklassen() throws ServletException, IOException {
+        // given
+        final var filter = new AdaptivesLimitFilter(props(1, 1, 1), meterRegistry);
+        final var listeResponse = new MockHttpServletResponse();
+        final FilterChain chain = (request, response) -> filter.doFilter(
+            new MockHttpServletRequest(GET, REST_PATH),
+            listeResponse,
+            (listeRequest, listeAntwort) -> { }
+        );
+
+        // when
+        filter.doFilter(new MockHttpServletRequest(GET, ID_PATH), new MockHttpServletResponse(), chain);
+
+        // then
+        softly.assertThat(listeResponse.getStatus()).isEqualTo(SC_OK);
+        softly.assertThat(abgelehnt("liste")).isZero();
+    }
+
+    @ParameterizedTest(name = "[{index}] Ohne Limit: path={0}")
+    @ValueSource(strings = {REST_PATH + EXPORT_PATH, REST_PATH + CHANGES_PATH, "/actuator/health"})
+    @DisplayName("Lang laufende Streams und andere Pfade werden nicht begrenzt")
+    void ohneLimit(final String path) throws ServletException, IOException {
+        // given
+        final var filter = new AdaptivesLimitFilter(props(1, 1, 1), meterRegistry);
+        final var zweiteResponse = new MockHttpServletResponse();
+        final FilterChain chain = (request, response) -> filter.doFilter(
+            new MockHttpServletRequest(GET, path),
+            zweiteResponse,
+            (zweiterRequest, zweiteAntwort) -> { }
+        );
+
+        // when
+        filter.doFilter(new MockHttpServletRequest(GET, path), new MockHttpServletResponse(), chain);
+
+        // then
+        assertThat(zweiteResponse.getStatus()).isEqualTo(SC_OK);
+    }
+
+    @Test
+    @DisplayName("Ausgeschaltetes Limit")
+    void ausgeschaltet() throws ServletException, IOException {
+        // given
+        final var filter = new AdaptivesLimitFilter(new LimitProps(false, 1, 1, 1, 1.5, 0.2, 600), meterRegistry);
+        final var zweiteResponse = new MockHttpServletResponse();
+        final FilterChain chain = (request, response) -> filter.doFilter(
+            new MockHttpServletRequest(GET, ID_PATH),
+            zweiteResponse,
+            (zweiterRequest, zweiteAntwort) -> { }
+        );
+
+        // when
+        filter.doFilter(new MockHttpServletRequest(GET, ID_PATH), new MockHttpServletResponse(), chain);
+
+        // then
+        assertThat(zweiteResponse.getStatus()).isEqualTo(SC_OK);
+    }
+
+    private double abgelehnt(final String klasse) {
+        return meterRegistry.get("http.limit.abgelehnt").tag("klasse", klasse).counter().count();
+    }
+
+    private double laufend(final String klasse) {
+        return meterRegistry.get("http.limit.laufend").tag("klasse", klasse).gauge().value();
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.rest;
+
+import com.acme.produkt.LimitProps;
+
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("unit")
+@Tag("rest")
+@Tag("rest_limit")
+@DisplayName("Adaptives Limit fuer gleichzeitige Requests")
+@ExtendWith(SoftAssertionsExtension.class)
+@SuppressWarnings("WriteTag")
+class AdaptivesLimitTest {
+    private static final int INITIAL = 20;
+    // genug belegte Plaetze, damit die Latenz als aussagekraeftig gilt
+    private static final int BELEGT = 15;
+    private static final long SCHNELL = 1_000_000L;
+    private static final long LANGSAM = 100_000_000L;
+
+    @InjectSoftAssertions
+    private SoftAssertions softly;
+
+    @Test
+    @DisplayName("Belegen bis zum Limit und Freigeben")
+    void belegenFreigeben() {
+        // given
+        final var limit = new AdaptivesLimit(props(3, 1, 1000));
+
+        // when
+        final var belegt = new boolean[] {limit.belegen(), limit.belegen(), limit.belegen()};
+        final var ueberLimit = limit.belegen();
+        // ohne Latenz wird das Limit nicht angepasst
+        limit.freigeben(0);
+        final var nachFreigabe = limit.belegen();
+
+        // then
+        softly.assertThat(belegt).containsOnly(true);
+        softly.assertThat(ueberLimit).isFalse();
+        softly.assertThat(nachFreigabe).isTrue();
+        softly.assertThat(limit.getLaufend()).isEqualTo(3);
+        softly.assertThat(limit.getLimit()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Limit waechst bei gleichbleibender Latenz")
+    void wachsen() {
+        // given
+        final var limit = new AdaptivesLimit(props(INITIAL, 5, 1000));
+        belegen(limit, BELEGT);
+
+        // when
+        anfragen(limit, 10, SCHNELL);
+
+        // then
+        assertThat(limit.getLimit()).isGreaterThan(INITIAL);
+    }
+
+    @Test
+    @DisplayName("Limit sinkt bei steigender Latenz")
+    void schrumpfen() {
+        // given
+        final var limit = new AdaptivesLimit(props(INITIAL, 5, 1000));
+        belegen(limit, BELEGT);
+        anfragen(limit, 1, SCHNELL);
+
+        // when
+        anfragen(limit, 3, LANGSAM);
+
+        // then
+        assertThat(limit.getLimit()).isLessThan(INITIAL);
+    }
+
+    @Test
+    @DisplayName("Limit zwischen Unter- und Obergrenze")
+    void grenzen() {
+        // given
+        final var min = INITIAL - 1;
+        final var max = INITIAL + 2;
+        final var schrumpfend = new AdaptivesLimit(props(INITIAL, min, max));
+        belegen(schrumpfend, BELEGT);
+        anfragen(schrumpfend, 1, SCHNELL);
+        final var wachsend = new AdaptivesLimit(props(INITIAL, min, max));
+        belegen(wachsend, BELEGT);
+
+        // when
+        anfragen(schrumpfend, 20, LANGSAM);
+        anfragen(wachsend, 20, SCHNELL);
+
+        // then
+        softly.assertThat(schrumpfend.getLimit()).isEqualTo(min);
+        softly.assertThat(wachsend.getLimit()).isEqualTo(max);
+    }
+
+    @Test
+    @DisplayName("Limit bleibt bei geringer Auslastung unveraendert")
+    void geringeAuslastung() {
+        // given
+        final var limit = new AdaptivesLimit(props(INITIAL, 5, 1000));
+
+        // when
+        anfragen(limit, 10, SCHNELL);
+        anfragen(limit, 10, LANGSAM);
+
+        // then
+        softly.assertThat(limit.getLimit()).isEqualTo(INITIAL);
+        softly.assertThat(limit.getLaufend()).isZero();
+    }
+
+    static LimitProps props(final int initial, final int min, final int max) {
+        return new LimitProps(true, initial, min, max, 1.5, 0.2, 600);
+    }
+
+    private static void belegen(final AdaptivesLimit limit, final int anzahl) {
+        for (var i = 0; i < anzahl; i++) {
+            assertThat(limit.belegen()).isTrue();
+        }
+    }
+
+    // Requests nacheinander, solange das Limit einen weiteren Platz zulaesst
+    private static void anfragen(final AdaptivesLimit limit, final int anzahl, final long rttNanos) {
+        for (var i = 0; i < anzahl && limit.belegen(); i++) {
+            limit.freigeben(rttNanos);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.rest;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("unit")
+@Tag("rest")
+@Tag("rest_get")
+@DisplayName("Auswertung des Headers If-None-Match")
+@SuppressWarnings("WriteTag")
+class IfNoneMatchTest {
+    private static final String ETAG = "\"0\"";
+    private static final String ETAG_CBOR = "\"0-cbor\"";
+
+    @ParameterizedTest(name = "[{index}] If-None-Match: {0}")
+    @ValueSource(strings = {"\"0\"", "W/\"0\"", "\"5\", \"0\"", "\"5\",W/\"0\"", "*"})
+    @DisplayName("Passende ETags wie bei ServletWebRequest.checkNotModified()")
+    void passt(final String header) {
+        // when
+        final var ifNoneMatch = IfNoneMatch.of(header);
+
+        // then
+        assertThat(ifNoneMatch).hasValueSatisfying(value -> assertThat(value.passt(ETAG)).isTrue());
+    }
+
+    @Test
+    @DisplayName("ETag mit anderer Versionsnummer")
+    void passtNicht() {
+        // when
+        final var ifNoneMatch = IfNoneMatch.of("W/\"5\", \"6\"");
+
+        // then
+        assertThat(ifNoneMatch).hasValueSatisfying(value -> assertThat(value.passt(ETAG)).isFalse());
+    }
+
+    @Test
+    @DisplayName("ETag derselben Version, aber eines anderen Formats")
+    void anderesFormat() {
+        // when
+        final var ifNoneMatch = IfNoneMatch.of(ETAG_CBOR);
+
+        // then
+        assertThat(ifNoneMatch).hasValueSatisfying(value -> {
+            assertThat(value.passt(ETAG)).isFalse();
+            assertThat(value.passt(ETAG_CBOR)).isTrue();
+        });
+    }
+
+    @ParameterizedTest(name = "[{index}] If-None-Match: {0}")
+    @ValueSource(strings = {"", "0", "W/", "W/0"})
+    @DisplayName("Header ohne verwertbaren ETag")
+    void ungueltig(final String header) {
+        // when
+        final var ifNoneMatch = IfNoneMatch.of(header);
+
+        // then
+        assertThat(ifNoneMatch).isEmpty();
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.rest;
+
+import com.acme.produkt.ChangesProps;
+import com.acme.produkt.entity.ProduktEreignis;
+import com.acme.produkt.service.ProduktEreignisService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import static com.acme.produkt.entity.EreignisArt.GEAENDERT;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Tag("unit")
+@Tag("rest")
+@Tag("rest_changes")
+@DisplayName("Feed der Aenderungen mit eigener Abfrage der Outbox-Tabelle")
+@ExtendWith({MockitoExtension.class, SoftAssertionsExtension.class})
+@SuppressWarnings("WriteTag")
+class ProduktChangeFeedTest {
+    private static final int REPLAY_SIZE = 3;
+    private static final UUID PRODUKT_ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+
+    @Mock
+    private ProduktEreignisService service;
+
+    @Mock
+    private AsyncTaskExecutor executor;
+
+    @InjectSoftAssertions
+    private SoftAssertions softly;
+
+    private ProduktChangeFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        // kurze Verbindungen, damit der Stream im Test endet
+        final var props = new ChangesProps(
+            REPLAY_SIZE,
+            16,
+            Duration.ofMillis(50),
+            Duration.ofMillis(300),
+            Duration.ofMillis(100)
+        );
+        feed = new ProduktChangeFeed(props, service, executor, new ObjectMapper(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Beim Start wird gepuffert, danach nach der letzten Position abgefragt und verteilt")
+    void abfragen() throws IOException {
+        // given
+        when(service.findLetzte(REPLAY_SIZE)).thenReturn(List.of(ereignis(1), ereignis(2)));
+        when(service.findNachPosition(2, REPLAY_SIZE)).thenReturn(List.of(ereignis(5)));
+        feed.start();
+        feed.abfragen();
+        final var stream = feed.abonnieren(null);
+
+        // when
+        feed.abfragen();
+
+        // then
+        final var events = schreiben(stream);
+        softly.assertThat(events)
+            .contains("id: 5\n")
+            .contains("\"id\":\"" + PRODUKT_ID + '"')
+            .doesNotContain("id: 1\n")
+            .doesNotContain("id: 2\n");
+        verify(executor).execute(any(Runnable.class));
+    }
+
+    @Test
+    @DisplayName("Fortsetzung mit Last-Event-ID als Position")
+    void replay() throws IOException {
+        // given
+        when(service.findLetzte(REPLAY_SIZE)).thenReturn(List.of(ereignis(1), ereignis(2), ereignis(4)));
+        feed.abfragen();
+
+        // when
+        final var events = schreiben(feed.abonnieren("2"));
+
+        // then
+        softly.assertThat(events)
+            .contains("id: 4\n")
+            .doesNotContain("id: 2\n")
+            .doesNotContain("event: reset");
+    }
+
+    @Test
+    @DisplayName("Reset, falls die Position nicht mehr im Ringpuffer ist")
+    void reset() throws IOException {
+        // given
+        when(service.findLetzte(REPLAY_SIZE)).thenReturn(List.of(ereignis(3), ereignis(4), ereignis(5)));
+        feed.abfragen();
+
+        // when
+        final var events = schreiben(feed.abonnieren("1"));
+
+        // then
+        assertThat(events).startsWith("event: reset");
+    }
+
+    @Test
+    @DisplayName("Reset vor der ersten Abfrage und bei ungueltiger Last-Event-ID")
+    void resetOhnePuffer() throws IOException {
+        // when
+        final var events = schreiben(feed.abonnieren("1"));
+        final var eventsUngueltig = schreiben(feed.abonnieren("x"));
+
+        // then
+        softly.assertThat(events).startsWith("event: reset");
+        softly.assertThat(eventsUngueltig).startsWith("event: reset");
+        verify(service, never()).findNachPosition(anyLong(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Ohne Ereignisse beginnt die Abfrage bei Position 0")
+    void ohneEreignisse() {
+        // given
+        when(service.findLetzte(REPLAY_SIZE)).thenReturn(List.of());
+        when(service.findNachPosition(0, REPLAY_SIZE)).thenReturn(List.of(ereignis(1)));
+        feed.abfragen();
+
+        // when
+        final var anzahl = feed.abfragen();
+
+        // then
+        assertThat(anzahl).isEqualTo(1);
+    }
+
+    private static String schreiben(final StreamingResponseBody stream) throws IOException {
+        final var out = new ByteArrayOutputStream();
+        stream.writeTo(out);
+        return out.toString(UTF_8);
+    }
+
+    private static ProduktEreignis ereignis(final long position) {
+        return ProduktEreignis.builder()
+            .id(position + 100)
+            .produktId(PRODUKT_ID)
+            .version((int) position)
+            .art(GEAENDERT)
+            .position(position)
+            .build();
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.rest;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Currency;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import static com.acme.produkt.dev.DevConfig.DEV;
+import static com.acme.produkt.rest.ProduktChangesController.CHANGES_PATH;
+import static com.acme.produkt.rest.ProduktGetController.REST_PATH;
+import static com.acme.produkt.rest.ProduktGetRestTest.HOST;
+import static com.acme.produkt.rest.ProduktGetRestTest.SCHEMA;
+import static java.math.BigDecimal.ONE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.condition.JRE.JAVA_19;
+import static org.junit.jupiter.api.condition.JRE.JAVA_20;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.TEXT_EVENT_STREAM;
+
+@Tag("integration")
+@Tag("rest")
+@Tag("rest_changes")
+@DisplayName("REST-Schnittstelle fuer den Feed der Aenderungen")
+@SpringBootTest(webEnvironment = RANDOM_PORT)
+@ActiveProfiles(DEV)
+@EnabledForJreRange(min = JAVA_19, max = JAVA_20)
+@SuppressWarnings("WriteTag")
+class ProduktChangesRestTest {
+    private static final String ANGESTELLTER_ID = "00000000-0000-0000-0000-000000000001";
+    private static final String LAST_EVENT_ID = "Last-Event-ID";
+    // Relay und Abfrage der Outbox-Tabelle in jeder Instanz
+    private static final Duration TIMEOUT = Duration.ofSeconds(15);
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> EVENT_TYPE =
+        new ParameterizedTypeReference<>() { };
+
+    private final WebClient client;
+
+    ProduktChangesRestTest(@LocalServerPort final int port) {
+        final var baseUrl = UriComponentsBuilder.newInstance()
+            .scheme(SCHEMA)
+            .host(HOST)
+            .port(port)
+            .path(REST_PATH)
+            .build()
+            .toUriString();
+        client = WebClient
+            .builder()
+            .baseUrl(baseUrl)
+            .build();
+    }
+
+    @Test
+    @DisplayName("Ein neues Produkt erscheint im Feed mit der Position als Event-ID")
+    void neuesProdukt() {
+        // given
+        final var produktDTO = new ProduktDTO(
+            "Changefeed",
+            LocalDate.of(2022, 1, 31),
+            null,
+            new UmsatzDTO(ONE, Currency.getInstance("EUR")),
+            UUID.fromString(ANGESTELLTER_ID)
+        );
+        final var location = client
+            .post()
+            .contentType(APPLICATION_JSON)
+            .bodyValue(produktDTO)
+            .retrieve()
+            .toBodilessEntity()
+            .map(response -> response.getHeaders().getLocation())
+            .block();
+        assertThat(location).isNotNull();
+        final var pfad = location.getPath();
+        final var produktId = pfad.substring(pfad.lastIndexOf('/') + 1);
+
+        // when
+        // Mit Last-Event-ID 0 werden auch die bereits gelesenen Ereignisse aus dem Ringpuffer gesendet
+        final var event = changes("0")
+            .filter(sse -> sse.data() != null && sse.data().contains(produktId))
+            .next()
+            .block(TIMEOUT);
+
+        // then
+        assertThat(event).isNotNull();
+        assertThat(event.id()).matches("\\d+");
+        assertThat(event.data()).contains("\"art\":\"ERZEUGT\"");
+
+        // Nach der Event-ID wird das Ereignis nicht erneut gesendet
+        final var replay = changes(event.id())
+            .take(Duration.ofSeconds(2))
+            .filter(sse -> sse.data() != null && sse.data().contains(produktId))
+            .collectList()
+            .block(TIMEOUT);
+        assertThat(replay).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Reset bei einer ungueltigen Last-Event-ID")
+    void reset() {
+        // when
+        final var event = changes("x").next().block(TIMEOUT);
+
+        // then
+        assertThat(event).isNotNull();
+        assertThat(event.event()).isEqualTo("reset");
+    }
+
+    private Flux<ServerSentEvent<String>> changes(final String lastEventId) {
+        return client
+            .get()
+            .uri(CHANGES_PATH)
+            .accept(TEXT_EVENT_STREAM)
+            .header(LAST_EVENT_ID, lastEventId)
+            .retrieve()
+            .bodyToFlux(EVENT_TYPE);
+    }
+}
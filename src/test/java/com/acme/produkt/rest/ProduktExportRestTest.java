@@ -0,0 +1,181 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.rest;
+
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import static com.acme.produkt.dev.DevConfig.DEV;
+import static com.acme.produkt.rest.ProduktExportController.EXPORT_PATH;
+import static com.acme.produkt.rest.ProduktExportController.TEXT_CSV_VALUE;
+import static com.acme.produkt.rest.ProduktGetController.REST_PATH;
+import static com.acme.produkt.rest.ProduktGetRestTest.HOST;
+import static com.acme.produkt.rest.ProduktGetRestTest.SCHEMA;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.condition.JRE.JAVA_19;
+import static org.junit.jupiter.api.condition.JRE.JAVA_20;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+import static org.springframework.http.HttpHeaders.ACCEPT_ENCODING;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.OK;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
+
+@Tag("integration")
+@Tag("rest")
+@Tag("rest_export")
+@DisplayName("REST-Schnittstelle fuer den Export")
+@ExtendWith(SoftAssertionsExtension.class)
+@SpringBootTest(webEnvironment = RANDOM_PORT)
+@ActiveProfiles(DEV)
+@EnabledForJreRange(min = JAVA_19, max = JAVA_20)
+@SuppressWarnings("WriteTag")
+class ProduktExportRestTest {
+    private static final String ANGESTELLTER_ID = "00000000-0000-0000-0000-000000000001";
+
+    private final WebClient client;
+
+    @InjectSoftAssertions
+    private SoftAssertions softly;
+
+    ProduktExportRestTest(@LocalServerPort final int port) {
+        final var baseUrl = UriComponentsBuilder.newInstance()
+            .scheme(SCHEMA)
+            .host(HOST)
+            .port(port)
+            .path(REST_PATH + EXPORT_PATH)
+            .build()
+            .toUriString();
+        client = WebClient
+            .builder()
+            .baseUrl(baseUrl)
+            .build();
+    }
+
+    @Test
+    @DisplayName("Export aller Produkte als NDJSON")
+    void exportNdjson() {
+        // when
+        final var body = client
+            .get()
+            .accept(APPLICATION_NDJSON)
+            .retrieve()
+            .bodyToMono(String.class)
+            .block();
+
+        // then
+        assertThat(body).isNotNull().isNotBlank();
+        final var zeilen = body.split("\n");
+        softly.assertThat(zeilen).isNotEmpty();
+        for (final var zeile : zeilen) {
+            softly.assertThat(zeile).startsWith("{\"id\":\"").endsWith("}");
+        }
+    }
+
+    @Test
+    @DisplayName("Export zu einer Angestellter-ID als CSV mit Kopfzeile")
+    void exportCsv() {
+        // when
+        final var body = client
+            .get()
+            .uri(builder -> builder.queryParam("angestellterId", ANGESTELLTER_ID).build())
+            .accept(MediaType.valueOf(TEXT_CSV_VALUE))
+            .retrieve()
+            .bodyToMono(String.class)
+            .block();
+
+        // then
+        assertThat(body).isNotNull();
+        final var zeilen = body.split("\r\n");
+        assertThat(zeilen).hasSizeGreaterThan(1);
+        softly.assertThat(zeilen[0]).startsWith("id,version,name,");
+        for (int i = 1; i < zeilen.length; i++) {
+            softly.assertThat(zeilen[i]).contains(ANGESTELLTER_ID);
+        }
+    }
+
+    @Test
+    @DisplayName("Export mit gzip")
+    void exportGzip() {
+        // when
+        final var response = client
+            .get()
+            .accept(APPLICATION_NDJSON)
+            .header(ACCEPT_ENCODING, "gzip")
+            .exchangeToMono(Mono::just)
+            .block();
+
+        // then
+        assertThat(response).isNotNull();
+        softly.assertThat(response.statusCode()).isEqualTo(OK);
+        softly.assertThat(response.headers().header("Content-Encoding")).containsExactly("gzip");
+        response.releaseBody().block();
+    }
+
+    @ParameterizedTest(name = "[{index}] Export ohne gzip: Accept-Encoding={0}")
+    @ValueSource(strings = {"gzip;q=0", "identity", "*;q=0"})
+    @DisplayName("Export ohne gzip, falls gzip nicht akzeptabel ist")
+    void exportOhneGzip(final String acceptEncoding) {
+        // when
+        final var response = client
+            .get()
+            .accept(APPLICATION_NDJSON)
+            .header(ACCEPT_ENCODING, acceptEncoding)
+            .exchangeToMono(Mono::just)
+            .block();
+
+        // then
+        assertThat(response).isNotNull();
+        softly.assertThat(response.statusCode()).isEqualTo(OK);
+        softly.assertThat(response.headers().header("Content-Encoding")).isEmpty();
+        response.releaseBody().block();
+    }
+
+    @ParameterizedTest(name = "[{index}] Export mit ungueltiger Partition: partition={0}, partitions={1}")
+    @CsvSource({"4, 4", "-1, 4", "0, 0", "x, 2"})
+    @DisplayName("Export mit ungueltiger Partition")
+    void exportPartitionUngueltig(final String partition, final String partitions) {
+        // when
+        final var statusCode = client
+            .get()
+            .uri(builder -> builder
+                .queryParam("partition", partition)
+                .queryParam("partitions", partitions)
+                .build())
+            .accept(APPLICATION_NDJSON)
+            .exchangeToMono(response -> Mono.just(response.statusCode()))
+            .block();
+
+        // then
+        assertThat(statusCode).isEqualTo(BAD_REQUEST);
+    }
+}
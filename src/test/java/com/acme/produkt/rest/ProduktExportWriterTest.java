@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.rest;
+
+import com.acme.produkt.entity.Produkt;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.UUID;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("unit")
+@Tag("rest_export")
+@DisplayName("Export als CSV")
+@SuppressWarnings("WriteTag")
+class ProduktExportWriterTest {
+    private static final UUID ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+
+    @Test
+    @DisplayName("Felder mit Sonderzeichen werden gemaess RFC 4180 in Anfuehrungszeichen gesetzt")
+    void csvQuoting() throws IOException {
+        // given
+        final var out = new ByteArrayOutputStream();
+        final var produkt = Produkt.builder()
+            .id(ID)
+            .name("a\rb")
+            .angestellterId(ID)
+            .build();
+
+        // when
+        try (var writer = ProduktExportWriter.csv(out)) {
+            writer.accept(produkt);
+            writer.accept(Produkt.builder().id(ID).name("x,\"y\"\nz").build());
+        }
+
+        // then
+        final var csv = out.toString(UTF_8);
+        assertThat(csv)
+            .contains(",\"a\rb\",")
+            .contains(",\"x,\"\"y\"\"\nz\",");
+    }
+}
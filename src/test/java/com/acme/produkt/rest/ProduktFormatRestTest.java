@@ -0,0 +1,228 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.rest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import java.io.IOException;
+
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+import static com.acme.produkt.dev.DevConfig.DEV;
+import static com.acme.produkt.entity.Produkt.NAME_PATTERN;
+import static com.acme.produkt.rest.ProduktGetController.APPLICATION_SMILE_VALUE;
+import static com.acme.produkt.rest.ProduktGetController.REST_PATH;
+import static com.acme.produkt.rest.ProduktGetRestTest.HOST;
+import static com.acme.produkt.rest.ProduktGetRestTest.SCHEMA;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.condition.JRE.JAVA_19;
+import static org.junit.jupiter.api.condition.JRE.JAVA_20;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+import static org.springframework.hateoas.MediaTypes.HAL_JSON_VALUE;
+import static org.springframework.http.HttpHeaders.ACCEPT;
+import static org.springframework.http.HttpStatus.NOT_ACCEPTABLE;
+import static org.springframework.http.HttpStatus.NOT_MODIFIED;
+import static org.springframework.http.HttpStatus.OK;
+import static org.springframework.http.MediaType.APPLICATION_CBOR_VALUE;
+
+@Tag("integration")
+@Tag("rest")
+@Tag("rest_get")
+@DisplayName("REST-Schnittstelle mit HAL als JSON, CBOR und Smile")
+@ExtendWith(SoftAssertionsExtension.class)
+@SpringBootTest(webEnvironment = RANDOM_PORT)
+@ActiveProfiles(DEV)
+@EnabledForJreRange(min = JAVA_19, max = JAVA_20)
+@SuppressWarnings("WriteTag")
+class ProduktFormatRestTest {
+    private static final String ID_VORHANDEN = "00000000-0000-0000-0000-000000000001";
+    private static final String ANGESTELLTER_ID = "00000000-0000-0000-0000-000000000001";
+    private static final String ID_PATH = "/{id}";
+    private static final String ANGESTELLTER_ID_PARAM = "angestellterId";
+
+    private final String baseUrl;
+    private final WebClient client;
+
+    @InjectSoftAssertions
+    private SoftAssertions softly;
+
+    ProduktFormatRestTest(@LocalServerPort final int port) {
+        baseUrl = UriComponentsBuilder.newInstance()
+            .scheme(SCHEMA)
+            .host(HOST)
+            .port(port)
+            .path(REST_PATH)
+            .build()
+            .toUriString();
+        client = WebClient
+            .builder()
+            .baseUrl(baseUrl)
+            .build();
+    }
+
+    @ParameterizedTest(name = "[{index}] Suche mit vorhandener ID: Accept={0}, ETag={1}")
+    @CsvSource({
+        HAL_JSON_VALUE + ", \"0\"",
+        APPLICATION_CBOR_VALUE + ", \"0-cbor\"",
+        APPLICATION_SMILE_VALUE + ", \"0-smile\""
+    })
+    @DisplayName("Suche mit vorhandener ID in jedem Format mit eigenem starken ETag")
+    void findById(final String format, final String eTag) throws IOException {
+        // when
+        final var response = client
+            .get()
+            .uri(ID_PATH, ID_VORHANDEN)
+            .header(ACCEPT, format)
+            .retrieve()
+            .toEntity(byte[].class)
+            .block();
+
+        // then
+        assertThat(response).isNotNull();
+        softly.assertThat(response.getStatusCode()).isEqualTo(OK);
+        softly.assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.parseMediaType(format));
+        softly.assertThat(response.getHeaders().getETag()).isEqualTo(eTag);
+        softly.assertThat(response.getHeaders().getVary()).contains(ACCEPT);
+        final var body = response.getBody();
+        assertThat(body).isNotNull();
+        final var produkt = mapper(format).readTree(body);
+        softly.assertThat(produkt.path("name").asText()).matches(NAME_PATTERN);
+        softly.assertThat(produkt.at("/_links/self/href").asText()).isEqualTo(baseUrl + '/' + ID_VORHANDEN);
+    }
+
+    @ParameterizedTest(name = "[{index}] Suche mit ETag aus JSON: Accept={0}")
+    @ValueSource(strings = {APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+    @DisplayName("Der ETag aus JSON gilt nicht fuer CBOR und Smile")
+    void findByIdETagAusJson(final String format) {
+        // given
+        final var responseJson = client
+            .get()
+            .uri(ID_PATH, ID_VORHANDEN)
+            .header(ACCEPT, HAL_JSON_VALUE)
+            .retrieve()
+            .toBodilessEntity()
+            .block();
+        assertThat(responseJson).isNotNull();
+        final var eTag = responseJson.getHeaders().getETag();
+        assertThat(eTag).isNotNull();
+
+        // when
+        final var statusCode = client
+            .get()
+            .uri(ID_PATH, ID_VORHANDEN)
+            .header(ACCEPT, format)
+            .ifNoneMatch(eTag)
+            .exchangeToMono(response -> Mono.just(response.statusCode()))
+            .block();
+
+        // then
+        assertThat(statusCode).isEqualTo(OK);
+    }
+
+    @ParameterizedTest(name = "[{index}] Suche mit eigenem ETag: Accept={0}")
+    @ValueSource(strings = {HAL_JSON_VALUE, APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+    @DisplayName("Der ETag eines Formats gilt fuer dasselbe Format")
+    void findByIdETagEigenesFormat(final String format) {
+        // given
+        final var responseFormat = client
+            .get()
+            .uri(ID_PATH, ID_VORHANDEN)
+            .header(ACCEPT, format)
+            .retrieve()
+            .toBodilessEntity()
+            .block();
+        assertThat(responseFormat).isNotNull();
+        final var eTag = responseFormat.getHeaders().getETag();
+        assertThat(eTag).isNotNull();
+
+        // when
+        final var statusCode = client
+            .get()
+            .uri(ID_PATH, ID_VORHANDEN)
+            .header(ACCEPT, format)
+            .ifNoneMatch(eTag)
+            .exchangeToMono(response -> Mono.just(response.statusCode()))
+            .block();
+
+        // then
+        assertThat(statusCode).isEqualTo(NOT_MODIFIED);
+    }
+
+    @ParameterizedTest(name = "[{index}] Suche mit Angestellter-ID: Accept={0}")
+    @ValueSource(strings = {APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+    @DisplayName("Suche mit Angestellter-ID als CBOR und Smile")
+    void findByAngestellterId(final String format) throws IOException {
+        // when
+        final var response = client
+            .get()
+            .uri(uriBuilder -> uriBuilder.queryParam(ANGESTELLTER_ID_PARAM, ANGESTELLTER_ID).build())
+            .header(ACCEPT, format)
+            .retrieve()
+            .toEntity(byte[].class)
+            .block();
+
+        // then
+        assertThat(response).isNotNull();
+        softly.assertThat(response.getStatusCode()).isEqualTo(OK);
+        softly.assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.parseMediaType(format));
+        final var body = response.getBody();
+        assertThat(body).isNotNull();
+        final var produkte = mapper(format).readTree(body).at("/_embedded/produkte");
+        softly.assertThat(produkte.isArray()).isTrue();
+        softly.assertThat(produkte).isNotEmpty();
+    }
+
+    @Test
+    @DisplayName("Suche mit nicht-unterstuetztem Format")
+    void findByIdFormatNichtUnterstuetzt() {
+        // when
+        final var statusCode = client
+            .get()
+            .uri(ID_PATH, ID_VORHANDEN)
+            .header(ACCEPT, "application/xml")
+            .exchangeToMono(response -> Mono.just(response.statusCode()))
+            .block();
+
+        // then
+        assertThat(statusCode).isEqualTo(NOT_ACCEPTABLE);
+    }
+
+    private static ObjectMapper mapper(final String format) {
+        return switch (format) {
+            case APPLICATION_CBOR_VALUE -> new ObjectMapper(new CBORFactory());
+            case APPLICATION_SMILE_VALUE -> new ObjectMapper(new SmileFactory());
+            default -> new ObjectMapper();
+        };
+    }
+}
@@ -18,7 +18,12 @@ package com.acme.produkt.rest;
 
 import com.jayway.jsonpath.JsonPath;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.assertj.core.api.SoftAssertions;
 import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
@@ -38,6 +43,7 @@ import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.context.ApplicationContext;
 import org.springframework.hateoas.mediatype.hal.HalLinkDiscoverer;
 import org.springframework.hateoas.client.LinkDiscoverer;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
@@ -48,16 +54,25 @@ import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Mono;
 import static com.acme.produkt.dev.DevConfig.DEV;
 import static com.acme.produkt.entity.Produkt.NAME_PATTERN;
+import static com.acme.produkt.rest.ProduktGetController.APPLICATION_SMILE_VALUE;
 import static com.acme.produkt.rest.ProduktGetController.REST_PATH;
+import static com.acme.produkt.rest.UmsatzSummeController.UMSATZSUMMEN_PATH;
+import static com.acme.produkt.service.ProduktReadService.MAX_IDS;
 import static java.util.Collections.emptyMap;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.condition.JRE.JAVA_19;
 import static org.junit.jupiter.api.condition.JRE.JAVA_20;
 import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
 import static org.springframework.hateoas.MediaTypes.HAL_JSON;
+import static org.springframework.hateoas.MediaTypes.HAL_JSON_VALUE;
+import static org.springframework.http.HttpHeaders.ACCEPT;
+import static org.springframework.http.HttpHeaders.IF_NONE_MATCH;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.FORBIDDEN;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
 import static org.springframework.http.HttpStatus.NOT_MODIFIED;
+import static org.springframework.http.HttpStatus.OK;
+import static org.springframework.http.MediaType.APPLICATION_CBOR_VALUE;
 
 @Tag("integration")
 @Tag("rest")
@@ -83,6 +98,10 @@ class ProduktGetRestTest {
     private static final String ID_PATH = "/{id}";
     private static final String NAME_PARAM = "name";
     private static final String ANGESTELLTER_ID_PARAM = "angestellterId";
+    private static final String SIZE_PARAM = "size";
+    private static final String AFTER_PARAM = "after";
+    private static final String FIELDS_PARAM = "fields";
+    private static final String IDS_PARAM = "ids";
 
     private final String baseUrl;
     private final WebClient client;
@@ -270,6 +289,91 @@ class ProduktGetRestTest {
             assertThat(statusCode).isEqualTo(NOT_MODIFIED);
         }
 
+        @ParameterizedTest(name = "[{index}] Suche mit If-None-Match: {0}")
+        @ValueSource(strings = {"W/\"0\"", "\"5\", \"0\"", "*"})
+        @DisplayName("Suche mit schwachem ETag, Liste von ETags oder *")
+        void findByIdIfNoneMatch(final String ifNoneMatch) {
+            // when
+            final var response = client
+                .get()
+                .uri(ID_PATH, ID_VORHANDEN)
+                .accept(HAL_JSON)
+                .header(IF_NONE_MATCH, ifNoneMatch)
+                .retrieve()
+                .toBodilessEntity()
+                .block();
+
+            // then
+            assertThat(response).isNotNull();
+            softly.assertThat(response.getStatusCode()).isEqualTo(NOT_MODIFIED);
+            softly.assertThat(response.getHeaders().getETag()).isEqualTo("\"0\"");
+        }
+
+        @ParameterizedTest(name = "[{index}] Suche mit fields und If-None-Match: {0}")
+        @ValueSource(strings = {"W/\"0\"", "\"5\", \"0\"", "*"})
+        @DisplayName("Suche mit fields und If-None-Match durch den Controller")
+        void findByIdFieldsIfNoneMatch(final String ifNoneMatch) {
+            // when
+            final var statusCode = client
+                .get()
+                .uri(uriBuilder -> uriBuilder.path(ID_PATH).queryParam(FIELDS_PARAM, "name").build(ID_VORHANDEN))
+                .accept(HAL_JSON)
+                .header(IF_NONE_MATCH, ifNoneMatch)
+                .exchangeToMono(response -> Mono.just(response.statusCode()))
+                .block();
+
+            // then
+            assertThat(statusCode).isEqualTo(NOT_MODIFIED);
+        }
+
+        @ParameterizedTest(name = "[{index}] Suche mit vorhandener ID und veralteter Version: id={0}, version={1}")
+        @CsvSource(ID_VORHANDEN + ", 99, 0")
+        @DisplayName("Suche mit vorhandener ID und veralteter Version")
+        void findByIdVersionVeraltet(final String id, final String version, final String versionAktuell) {
+            // when
+            final var response = client
+                .get()
+                .uri(ID_PATH, id)
+                .accept(HAL_JSON)
+                .ifNoneMatch("\"" + version + '"')
+                .retrieve()
+                .toEntity(ProduktDownload.class)
+                .block();
+
+            // then
+            assertThat(response).isNotNull();
+            softly.assertThat(response.getStatusCode()).isEqualTo(OK);
+            softly.assertThat(response.getHeaders().getETag()).isEqualTo("\"" + versionAktuell + '"');
+            final var produkt = response.getBody();
+            assertThat(produkt).isNotNull();
+            softly.assertThat(produkt.name()).matches(NAME_PATTERN);
+            softly.assertThat(produkt.angestellterNachname()).isNotBlank();
+        }
+
+        @ParameterizedTest(name = "[{index}] Header mit vorhandener ID: accept={0}, eTag={1}")
+        @CsvSource({
+            HAL_JSON_VALUE + ", 0",
+            APPLICATION_CBOR_VALUE + ", 0-cbor",
+            APPLICATION_SMILE_VALUE + ", 0-smile"
+        })
+        @DisplayName("Header mit vorhandener ID wie bei GET fuer HAL, CBOR und Smile")
+        void head(final String accept, final String eTag) {
+            // when
+            final var response = client
+                .head()
+                .uri(ID_PATH, ID_VORHANDEN)
+                .header(ACCEPT, accept)
+                .retrieve()
+                .toBodilessEntity()
+                .block();
+
+            // then
+            assertThat(response).isNotNull();
+            softly.assertThat(response.getStatusCode()).isEqualTo(OK);
+            softly.assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.parseMediaType(accept));
+            softly.assertThat(response.getHeaders().getETag()).isEqualTo("\"" + eTag + '"');
+        }
+
         @ParameterizedTest(name = "[{index}] Suche mit vorhandener ID und Version als produkt: id={0}, version={1}")
         @CsvSource(ID_VORHANDEN_PRODUKT + ", 0")
         @DisplayName("Suche mit vorhandener ID und Version als produkt")
@@ -386,4 +490,328 @@ class ProduktGetRestTest {
                 .forEach(name -> assertThat(name).startsWith(prefix));
         }
     }
+
+    @Nested
+    @DisplayName("REST-Schnittstelle fuer die Umsatzsummen")
+    class UmsatzSummen {
+        @ParameterizedTest(name = "[{index}] Umsatzsummen zu Angestellter-ID und Waehrung: waehrung={0}")
+        @ValueSource(strings = "EUR")
+        @DisplayName("Umsatzsummen zu Angestellter-ID und Waehrung")
+        void findUmsatzSummen(final String waehrung) {
+            // when
+            final var body = client
+                .get()
+                .uri(builder -> builder
+                    .path(UMSATZSUMMEN_PATH)
+                    .queryParam(ANGESTELLTER_ID_PARAM, ANGESTELLTER_ID)
+                    .queryParam("waehrung", waehrung)
+                    .build())
+                .exchangeToMono(response -> {
+                    assertThat(response.statusCode()).isEqualTo(OK);
+                    return response.bodyToMono(String.class);
+                })
+                .block();
+
+            // then
+            assertThat(body).isNotNull();
+            final List<String> waehrungen = JsonPath.read(body, "$[*].waehrung");
+            softly.assertThat(waehrungen)
+                .isNotEmpty()
+                .containsOnly(waehrung);
+        }
+
+        @ParameterizedTest(name = "[{index}] Umsatzsummen mit ungueltiger Waehrung: waehrung={0}")
+        @ValueSource(strings = {"XYZ", "euro"})
+        @DisplayName("Umsatzsummen mit ungueltiger Waehrung")
+        void findUmsatzSummenWaehrungUngueltig(final String waehrung) {
+            // when
+            final var statusCode = client
+                .get()
+                .uri(builder -> builder.path(UMSATZSUMMEN_PATH).queryParam("waehrung", waehrung).build())
+                .exchangeToMono(response -> Mono.just(response.statusCode()))
+                .block();
+
+            // then
+            assertThat(statusCode).isEqualTo(BAD_REQUEST);
+        }
+    }
+
+    @Nested
+    @DisplayName("REST-Schnittstelle fuer die seitenweise Suche")
+    class Pagination {
+        @ParameterizedTest(name = "[{index}] Erste Seite mit Link zur Folgeseite: angestellterId={0}, size={1}")
+        @CsvSource(ANGESTELLTER_ID + ", 1")
+        @DisplayName("Erste Seite mit Link zur Folgeseite")
+        void ersteSeite(final String angestellterId, final String size) {
+            // when
+            final var body = client
+                .get()
+                .uri(builder -> builder
+                    .queryParam(ANGESTELLTER_ID_PARAM, angestellterId)
+                    .queryParam(SIZE_PARAM, size)
+                    .build())
+                .accept(HAL_JSON)
+                .exchangeToMono(response -> {
+                    assertThat(response.statusCode()).isEqualTo(OK);
+                    return response.bodyToMono(String.class);
+                })
+                .block();
+
+            // then
+            assertThat(body).isNotNull();
+            final List<String> namen = JsonPath.read(body, "$._embedded.produkte[*].name");
+            softly.assertThat(namen).hasSize(Integer.parseInt(size));
+            final String next = JsonPath.read(body, "$._links.next.href");
+            softly.assertThat(next).contains(AFTER_PARAM + '=');
+        }
+
+        // Auch bei einer Angestellter-ID ohne Produkte wird zuerst die Pagination geprueft
+        @ParameterizedTest(name = "[{index}] Ungueltige Pagination: angestellterId={0}, size={1}, after={2}")
+        @CsvSource({
+            ANGESTELLTER_ID + ", 0,",
+            ANGESTELLTER_ID + ", 101,",
+            ANGESTELLTER_ID + ", x,",
+            ANGESTELLTER_ID + ", 5, !!!",
+            ANGESTELLTER_ID + ", 5, YWJj",
+            ID_NICHT_VORHANDEN + ", 0,"
+        })
+        @DisplayName("Ungueltige Angaben zur Pagination")
+        void paginationUngueltig(final String angestellterId, final String size, final String after) {
+            // when
+            final var statusCode = client
+                .get()
+                .uri(builder -> builder
+                    .queryParam(ANGESTELLTER_ID_PARAM, angestellterId)
+                    .queryParam(SIZE_PARAM, size)
+                    .queryParamIfPresent(AFTER_PARAM, Optional.ofNullable(after))
+                    .build())
+                .accept(HAL_JSON)
+                .exchangeToMono(response -> Mono.just(response.statusCode()))
+                .block();
+
+            // then
+            assertThat(statusCode).isEqualTo(BAD_REQUEST);
+        }
+    }
+
+    @Nested
+    @DisplayName("Auswahl der Felder mit fields")
+    class Felder {
+        @ParameterizedTest(name = "[{index}] Suche mit ausgewaehlten Feldern: id={0}, fields={1}")
+        @CsvSource(ID_VORHANDEN + ", 'name,umsatz'")
+        @DisplayName("Suche mit vorhandener ID und ausgewaehlten Feldern")
+        void findByIdFelder(final String id, final String fields) {
+            // when
+            final var response = client
+                .get()
+                .uri(builder -> builder.path(ID_PATH).queryParam(FIELDS_PARAM, fields).build(id))
+                .accept(HAL_JSON)
+                .retrieve()
+                .toEntity(ProduktDownload.class)
+                .block();
+
+            // then
+            assertThat(response).isNotNull();
+            softly.assertThat(response.getStatusCode()).isEqualTo(OK);
+            final var produkt = response.getBody();
+            assertThat(produkt).isNotNull();
+            softly.assertThat(produkt.name()).matches(NAME_PATTERN);
+            softly.assertThat(produkt.umsatz()).isNotNull();
+            softly.assertThat(produkt.erscheinungsdatum()).isNull();
+            softly.assertThat(produkt.homepage()).isNull();
+            softly.assertThat(produkt.angestellterId()).isNull();
+            softly.assertThat(produkt.angestellterNachname()).isNull();
+            softly.assertThat(produkt.angestellterEmail()).isNull();
+            softly.assertThat(produkt._links().self().href()).isEqualTo(baseUrl + '/' + id);
+        }
+
+        @ParameterizedTest(name = "[{index}] Suche nur mit dem Nachnamen des Angestellten: id={0}")
+        @ValueSource(strings = ID_VORHANDEN)
+        @DisplayName("Suche mit dem Nachnamen des Angestellten, aber ohne Angestellter-ID")
+        void findByIdNachname(final String id) {
+            // when
+            final var produkt = client
+                .get()
+                .uri(builder -> builder.path(ID_PATH).queryParam(FIELDS_PARAM, "angestellterNachname").build(id))
+                .accept(HAL_JSON)
+                .retrieve()
+                .bodyToMono(ProduktDownload.class)
+                .block();
+
+            // then
+            assertThat(produkt).isNotNull();
+            softly.assertThat(produkt.angestellterNachname()).isNotBlank();
+            softly.assertThat(produkt.angestellterId()).isNull();
+            softly.assertThat(produkt.angestellterEmail()).isNull();
+            softly.assertThat(produkt.name()).isNull();
+        }
+
+        @ParameterizedTest(name = "[{index}] Suche mit Angestellter-ID und ausgewaehlten Feldern: angestellterId={0}")
+        @ValueSource(strings = ANGESTELLTER_ID)
+        @DisplayName("Suche mit Angestellter-ID und ausgewaehlten Feldern")
+        void findByAngestellterIdFelder(final String angestellterId) {
+            // when
+            final var body = client
+                .get()
+                .uri(builder -> builder
+                    .queryParam(ANGESTELLTER_ID_PARAM, angestellterId)
+                    .queryParam(FIELDS_PARAM, "name")
+                    .build())
+                .accept(HAL_JSON)
+                .exchangeToMono(response -> {
+                    assertThat(response.statusCode()).isEqualTo(OK);
+                    return response.bodyToMono(String.class);
+                })
+                .block();
+
+            // then
+            assertThat(body).isNotNull();
+            final List<String> namen = JsonPath.read(body, "$._embedded.produkte[*].name");
+            softly.assertThat(namen)
+                .isNotEmpty()
+                .allMatch(name -> name.matches(NAME_PATTERN));
+            final List<Object> homepages = JsonPath.read(body, "$._embedded.produkte[*].homepage");
+            softly.assertThat(homepages).isEmpty();
+        }
+
+        @ParameterizedTest(name = "[{index}] Pagination mit ausgewaehlten Feldern: angestellterId={0}")
+        @ValueSource(strings = ANGESTELLTER_ID)
+        @DisplayName("Link zur Folgeseite auch ohne das Feld name")
+        void paginationFelder(final String angestellterId) {
+            // when
+            final var body = client
+                .get()
+                .uri(builder -> builder
+                    .queryParam(ANGESTELLTER_ID_PARAM, angestellterId)
+                    .queryParam(FIELDS_PARAM, "umsatz")
+                    .queryParam(SIZE_PARAM, "1")
+                    .build())
+                .accept(HAL_JSON)
+                .exchangeToMono(response -> {
+                    assertThat(response.statusCode()).isEqualTo(OK);
+                    return response.bodyToMono(String.class);
+                })
+                .block();
+
+            // then
+            assertThat(body).isNotNull();
+            final String next = JsonPath.read(body, "$._links.next.href");
+            softly.assertThat(next)
+                .contains(AFTER_PARAM + '=')
+                .contains(FIELDS_PARAM + "=umsatz");
+        }
+
+        @ParameterizedTest(name = "[{index}] Suche mit unbekanntem Feld: fields={0}")
+        @ValueSource(strings = {"name,passwort", "x", ""})
+        @DisplayName("Suche mit unbekanntem Feld")
+        void findByIdFeldUnbekannt(final String fields) {
+            // when
+            final var statusCode = client
+                .get()
+                .uri(builder -> builder.path(ID_PATH).queryParam(FIELDS_PARAM, fields).build(ID_VORHANDEN))
+                .accept(HAL_JSON)
+                .exchangeToMono(response -> Mono.just(response.statusCode()))
+                .block();
+
+            // then
+            assertThat(statusCode).isEqualTo(BAD_REQUEST);
+        }
+    }
+
+    @Nested
+    @DisplayName("Suche mit mehreren IDs")
+    class Ids {
+        @Test
+        @DisplayName("Suche mit mehreren IDs in der Reihenfolge der IDs und ohne Duplikate")
+        void findByIds() {
+            // given
+            final var ids = String.join(
+                ",",
+                ID_VORHANDEN_ANDERES_PRODUKT,
+                ID_NICHT_VORHANDEN,
+                ID_VORHANDEN_PRODUKT,
+                ID_VORHANDEN_ANDERES_PRODUKT
+            );
+
+            // when
+            final var body = client
+                .get()
+                .uri(builder -> builder.queryParam(IDS_PARAM, ids).build())
+                .accept(HAL_JSON)
+                .exchangeToMono(response -> {
+                    assertThat(response.statusCode()).isEqualTo(OK);
+                    return response.bodyToMono(String.class);
+                })
+                .block();
+
+            // then
+            assertThat(body).isNotNull();
+            final List<String> selfLinks = JsonPath.read(body, "$._embedded.produkte[*]._links.self.href");
+            softly.assertThat(selfLinks).containsExactly(
+                baseUrl + '/' + ID_VORHANDEN_ANDERES_PRODUKT,
+                baseUrl + '/' + ID_VORHANDEN_PRODUKT
+            );
+            final List<String> nichtGefunden = JsonPath.read(body, "$.nichtGefunden");
+            softly.assertThat(nichtGefunden).containsExactly(ID_NICHT_VORHANDEN);
+        }
+
+        @Test
+        @DisplayName("Suche mit mehreren IDs als wiederholter Query-Parameter")
+        void findByIdsWiederholt() {
+            // when
+            final var produkte = client
+                .get()
+                .uri(builder -> builder
+                    .queryParam(IDS_PARAM, ID_VORHANDEN_PRODUKT)
+                    .queryParam(IDS_PARAM, ID_VORHANDEN_ANDERES_PRODUKT)
+                    .build())
+                .accept(HAL_JSON)
+                .retrieve()
+                .bodyToMono(ProdukteDownload.class)
+                .block();
+
+            // then
+            assertThat(produkte).isNotNull();
+            assertThat(produkte._embedded()).isNotNull();
+            softly.assertThat(produkte._embedded().produkte())
+                .hasSize(2)
+                .allMatch(produkt -> produkt.name().matches(NAME_PATTERN));
+        }
+
+        @ParameterizedTest(name = "[{index}] Suche mit ungueltigen IDs: ids={0}")
+        @ValueSource(strings = {"", "x", ID_VORHANDEN + ",x"})
+        @DisplayName("Suche mit keinen oder ungueltigen IDs")
+        void findByIdsUngueltig(final String ids) {
+            // when
+            final var statusCode = client
+                .get()
+                .uri(builder -> builder.queryParam(IDS_PARAM, ids).build())
+                .accept(HAL_JSON)
+                .exchangeToMono(response -> Mono.just(response.statusCode()))
+                .block();
+
+            // then
+            assertThat(statusCode).isEqualTo(BAD_REQUEST);
+        }
+
+        @Test
+        @DisplayName("Suche mit zu vielen IDs")
+        void findByIdsZuViele() {
+            // given
+            final var ids = IntStream.rangeClosed(1, MAX_IDS + 1)
+                .mapToObj(i -> new UUID(0, i).toString())
+                .collect(Collectors.joining(","));
+
+            // when
+            final var statusCode = client
+                .get()
+                .uri(builder -> builder.queryParam(IDS_PARAM, ids).build())
+                .accept(HAL_JSON)
+                .exchangeToMono(response -> Mono.just(response.statusCode()))
+                .block();
+
+            // then
+            assertThat(statusCode).isEqualTo(BAD_REQUEST);
+        }
+    }
 }
@@ -0,0 +1,265 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.rest;
+
+import com.acme.produkt.entity.Produkt;
+import com.acme.produkt.entity.Umsatz;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Currency;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import lombok.Getter;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.LinkRelation;
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.hateoas.mediatype.MessageResolver;
+import org.springframework.hateoas.mediatype.hal.CurieProvider;
+import org.springframework.hateoas.mediatype.hal.Jackson2HalModule;
+import org.springframework.hateoas.server.core.EvoInflectorLinkRelationProvider;
+import org.springframework.hateoas.server.core.Relation;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+@Tag("unit")
+@Tag("rest")
+@Tag("rest_get")
+@DisplayName("Serializer fuer Produkte im Vergleich mit HAL von Spring HATEOAS")
+@ExtendWith(SoftAssertionsExtension.class)
+@SuppressWarnings("WriteTag")
+class ProduktModelSerializerTest {
+    private static final String BASE_URI = "https://localhost:8080/rest";
+    private static final String NEXT_URI = BASE_URI + "?angestellterId=00000000-0000-0000-0000-000000000001&after=x";
+
+    // wie Spring Boot mit Spring HATEOAS und "default-property-inclusion: non_null"
+    private static final ObjectMapper HAL_MAPPER = new ObjectMapper()
+        .registerModule(new JavaTimeModule())
+        .registerModule(new Jackson2HalModule())
+        .setHandlerInstantiator(new Jackson2HalModule.HalHandlerInstantiator(
+            new EvoInflectorLinkRelationProvider(),
+            CurieProvider.NONE,
+            MessageResolver.DEFAULTS_ONLY
+        ))
+        .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    // Zahlen unabhaengig von der Darstellung vergleichen, z.B. BigDecimal in CBOR und double in JSON
+    private static final Comparator<JsonNode> NUMERISCH = (node1, node2) -> {
+        if (node1.isNumber() && node2.isNumber()) {
+            return node1.decimalValue().compareTo(node2.decimalValue());
+        }
+        return node1.equals(node2) ? 0 : 1;
+    };
+
+    @InjectSoftAssertions
+    @SuppressWarnings("NotNullFieldNotInitialized")
+    private SoftAssertions softly;
+
+    static Stream<Produkt> produkte() throws MalformedURLException {
+        return Stream.of(
+            produktVollstaendig(),
+            Produkt.builder().id(UUID.fromString("00000000-0000-0000-0000-000000000002")).name("Beta").build(),
+            Produkt.builder()
+                .id(UUID.fromString("00000000-0000-0000-0000-000000000003"))
+                .name("Gamma")
+                .umsatz(Umsatz.builder().betrag(new BigDecimal("0.5")).build())
+                .build()
+        );
+    }
+
+    static Stream<Arguments> binaereFormate() {
+        return Stream.of(
+            arguments("CBOR", new ObjectMapper(new CBORFactory())),
+            arguments("Smile", new ObjectMapper(new SmileFactory()))
+        );
+    }
+
+    @ParameterizedTest(name = "[{index}] {0}")
+    @MethodSource("produkte")
+    @DisplayName("Ein Produkt mit allen Links wie bei Spring HATEOAS")
+    void produkt(final Produkt produkt) throws IOException {
+        // given
+        final var erwartet = HAL_MAPPER.readTree(HAL_MAPPER.writeValueAsBytes(HalModel.of(produkt, true)));
+
+        // when
+        final var json = MAPPER.readTree(MAPPER.writeValueAsBytes(new ProduktModel(produkt, BASE_URI, true)));
+
+        // then
+        softly.assertThat(json).isEqualTo(erwartet);
+    }
+
+    @Test
+    @DisplayName("Ein Produkt mit Links, Umsatz und Datumsformat")
+    void produktDetails() throws IOException {
+        // given
+        final var produkt = produktVollstaendig();
+        final var idUri = BASE_URI + '/' + produkt.getId();
+
+        // when
+        final var json = MAPPER.readTree(MAPPER.writeValueAsBytes(new ProduktModel(produkt, BASE_URI, true)));
+
+        // then
+        softly.assertThat(json.at("/erscheinungsdatum").asText()).isEqualTo("2022-01-31");
+        softly.assertThat(json.at("/homepage").asText()).isEqualTo("https://www.acme.com");
+        softly.assertThat(json.at("/umsatz/betrag").decimalValue()).isEqualByComparingTo("12.34");
+        softly.assertThat(json.at("/umsatz/waehrung").asText()).isEqualTo("EUR");
+        softly.assertThat(json.at("/umsatz/id").isMissingNode()).isTrue();
+        softly.assertThat(json.at("/_links/self/href").asText()).isEqualTo(idUri);
+        softly.assertThat(json.at("/_links/list/href").asText()).isEqualTo(BASE_URI);
+        softly.assertThat(json.at("/_links/add/href").asText()).isEqualTo(BASE_URI);
+        softly.assertThat(json.at("/_links/update/href").asText()).isEqualTo(idUri);
+        softly.assertThat(json.at("/_links/remove/href").asText()).isEqualTo(idUri);
+    }
+
+    @Test
+    @DisplayName("Produkte mit dem Link next wie bei Spring HATEOAS")
+    void produkteNext() throws IOException {
+        // given
+        final var produkte = produkte().toList();
+        final var halModels = produkte.stream().map(produkt -> HalModel.of(produkt, false)).toList();
+        final var collectionModel = CollectionModel.of(halModels, Link.of(NEXT_URI, IanaLinkRelations.NEXT));
+        final var erwartet = HAL_MAPPER.readTree(HAL_MAPPER.writeValueAsBytes(collectionModel));
+
+        // when
+        final var json = MAPPER.readTree(MAPPER.writeValueAsBytes(produkteModel(produkte, NEXT_URI)));
+
+        // then
+        softly.assertThat(json).isEqualTo(erwartet);
+        softly.assertThat(json.at("/_links/next/href").asText()).isEqualTo(NEXT_URI);
+        softly.assertThat(json.at("/_embedded/produkte/0/_links/list").isMissingNode()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Produkte ohne Folgeseite wie bei Spring HATEOAS")
+    void produkteOhneNext() throws IOException {
+        // given
+        final var produkte = produkte().toList();
+        final var halModels = produkte.stream().map(produkt -> HalModel.of(produkt, false)).toList();
+        final var erwartet = HAL_MAPPER.readTree(HAL_MAPPER.writeValueAsBytes(CollectionModel.of(halModels)));
+
+        // when
+        final var json = MAPPER.readTree(MAPPER.writeValueAsBytes(produkteModel(produkte, null)));
+
+        // then
+        assertThat(json).isEqualTo(erwartet);
+    }
+
+    @ParameterizedTest(name = "[{index}] {0}")
+    @MethodSource("binaereFormate")
+    @DisplayName("CBOR und Smile mit denselben Daten wie JSON")
+    void binaer(final String format, final ObjectMapper binaerMapper) throws IOException {
+        // given
+        final var produkte = produkte().toList();
+        final var produktModel = new ProduktModel(produkte.get(0), BASE_URI, true);
+        final var produkteModel = produkteModel(produkte, NEXT_URI);
+
+        // when
+        final var produktBinaer = binaerMapper.readTree(binaerMapper.writeValueAsBytes(produktModel));
+        final var produkteBinaer = binaerMapper.readTree(binaerMapper.writeValueAsBytes(produkteModel));
+
+        // then
+        final var produktJson = MAPPER.readTree(MAPPER.writeValueAsBytes(produktModel));
+        final var produkteJson = MAPPER.readTree(MAPPER.writeValueAsBytes(produkteModel));
+        softly.assertThat(produktBinaer.equals(NUMERISCH, produktJson)).as(format).isTrue();
+        softly.assertThat(produkteBinaer.equals(NUMERISCH, produkteJson)).as(format).isTrue();
+    }
+
+    private static Produkt produktVollstaendig() throws MalformedURLException {
+        return Produkt.builder()
+            .id(UUID.fromString("00000000-0000-0000-0000-000000000001"))
+            .name("Alpha")
+            .erscheinungsdatum(LocalDate.of(2022, 1, 31))
+            .homepage(new URL("https://www.acme.com"))
+            .umsatz(Umsatz.builder().betrag(new BigDecimal("12.34")).waehrung(Currency.getInstance("EUR")).build())
+            .angestellterId(UUID.fromString("00000000-0000-0000-0000-000000000001"))
+            .angestellterNachname("Alpha")
+            .angestellterEmail("alpha@acme.de")
+            .build();
+    }
+
+    private static ProdukteModel produkteModel(final List<Produkt> produkte, final String nextUri) {
+        final var models = produkte.stream().map(produkt -> new ProduktModel(produkt, BASE_URI, false)).toList();
+        return new ProdukteModel(models, nextUri);
+    }
+
+    /**
+     * Bisheriges Model mit Link-Objekten als Vergleich.
+     */
+    @Relation(collectionRelation = "produkte", itemRelation = "produkte")
+    @Getter
+    @SuppressWarnings("unused")
+    static final class HalModel extends RepresentationModel<HalModel> {
+        private final String name;
+        private final LocalDate erscheinungsdatum;
+        private final URL homepage;
+        private final Umsatz umsatz;
+        private final UUID angestellterId;
+        private final String angestellterNachname;
+        private final String angestellterEmail;
+
+        private HalModel(final Produkt produkt) {
+            name = produkt.getName();
+            erscheinungsdatum = produkt.getErscheinungsdatum();
+            homepage = produkt.getHomepage();
+            umsatz = produkt.getUmsatz();
+            angestellterId = produkt.getAngestellterId();
+            angestellterNachname = produkt.getAngestellterNachname();
+            angestellterEmail = produkt.getAngestellterEmail();
+        }
+
+        static HalModel of(final Produkt produkt, final boolean alleLinks) {
+            final var model = new HalModel(produkt);
+            final var idUri = BASE_URI + '/' + produkt.getId();
+            model.add(Link.of(idUri));
+            if (alleLinks) {
+                model.add(
+                    Link.of(BASE_URI, LinkRelation.of("list")),
+                    Link.of(BASE_URI, LinkRelation.of("add")),
+                    Link.of(idUri, LinkRelation.of("update")),
+                    Link.of(idUri, LinkRelation.of("remove"))
+                );
+            }
+            return model;
+        }
+    }
+}
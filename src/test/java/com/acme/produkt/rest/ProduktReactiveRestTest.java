@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.rest;
+
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+import static com.acme.produkt.dev.DevConfig.DEV;
+import static com.acme.produkt.entity.Produkt.NAME_PATTERN;
+import static com.acme.produkt.rest.ProduktGetController.REST_PATH;
+import static com.acme.produkt.rest.ProduktGetRestTest.HOST;
+import static com.acme.produkt.rest.ProduktGetRestTest.SCHEMA;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.condition.JRE.JAVA_19;
+import static org.junit.jupiter.api.condition.JRE.JAVA_20;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+import static org.springframework.hateoas.MediaTypes.HAL_JSON;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.NOT_MODIFIED;
+import static org.springframework.http.HttpStatus.OK;
+
+@Tag("integration")
+@Tag("rest")
+@Tag("rest_reactive")
+@DisplayName("Reaktive REST-Schnittstelle fuer GET-Requests im Profile reactive")
+@ExtendWith(SoftAssertionsExtension.class)
+@SpringBootTest(webEnvironment = RANDOM_PORT)
+@ActiveProfiles({DEV, "reactive"})
+@EnabledForJreRange(min = JAVA_19, max = JAVA_20)
+@SuppressWarnings("WriteTag")
+class ProduktReactiveRestTest {
+    private static final String ID_VORHANDEN = "00000000-0000-0000-0000-000000000001";
+    private static final String ID_NICHT_VORHANDEN = "ffffffff-ffff-ffff-ffff-ffffffffffff";
+    private static final String ANGESTELLTER_ID = "00000000-0000-0000-0000-000000000001";
+    private static final String ID_PATH = "/{id}";
+    private static final String ANGESTELLTER_ID_PARAM = "angestellterId";
+
+    private final String baseUrl;
+    private final WebClient client;
+
+    @InjectSoftAssertions
+    private SoftAssertions softly;
+
+    ProduktReactiveRestTest(@LocalServerPort final int port, final ApplicationContext ctx) {
+        // Im Profile "reactive" gibt es nur den reaktiven Controller
+        assertThat(ctx.getBeansOfType(ProduktReactiveGetController.class)).hasSize(1);
+        assertThat(ctx.getBeansOfType(ProduktGetController.class)).isEmpty();
+
+        baseUrl = UriComponentsBuilder.newInstance()
+            .scheme(SCHEMA)
+            .host(HOST)
+            .port(port)
+            .path(REST_PATH)
+            .build()
+            .toUriString();
+        client = WebClient
+            .builder()
+            .baseUrl(baseUrl)
+            .build();
+    }
+
+    @ParameterizedTest(name = "[{index}] Suche mit vorhandener ID: id={0}")
+    @ValueSource(strings = ID_VORHANDEN)
+    @DisplayName("Suche mit vorhandener ID")
+    void findById(final String id) {
+        // when
+        final var response = client
+            .get()
+            .uri(ID_PATH, id)
+            .accept(HAL_JSON)
+            .retrieve()
+            .toEntity(ProduktDownload.class)
+            .block();
+
+        // then
+        assertThat(response).isNotNull();
+        softly.assertThat(response.getStatusCode()).isEqualTo(OK);
+        softly.assertThat(response.getHeaders().getETag()).isEqualTo("\"0\"");
+        final var produkt = response.getBody();
+        assertThat(produkt).isNotNull();
+        softly.assertThat(produkt.name()).matches(NAME_PATTERN);
+        softly.assertThat(produkt.angestellterNachname()).isNotBlank();
+        softly.assertThat(produkt.angestellterEmail()).isNotBlank();
+        softly.assertThat(produkt._links().self().href()).isEqualTo(baseUrl + '/' + id);
+    }
+
+    @ParameterizedTest(name = "[{index}] Suche mit If-None-Match: {0}")
+    @ValueSource(strings = {"\"0\"", "W/\"0\"", "*"})
+    @DisplayName("Suche mit vorhandener ID und aktueller Version")
+    void findByIdNichtGeaendert(final String ifNoneMatch) {
+        // when
+        final var statusCode = client
+            .get()
+            .uri(ID_PATH, ID_VORHANDEN)
+            .accept(HAL_JSON)
+            .ifNoneMatch(ifNoneMatch)
+            .exchangeToMono(response -> Mono.just(response.statusCode()))
+            .block();
+
+        // then
+        assertThat(statusCode).isEqualTo(NOT_MODIFIED);
+    }
+
+    @Test
+    @DisplayName("Suche mit nicht-vorhandener ID")
+    void findByIdNichtVorhanden() {
+        // when
+        final var statusCode = client
+            .get()
+            .uri(ID_PATH, ID_NICHT_VORHANDEN)
+            .accept(HAL_JSON)
+            .exchangeToMono(response -> Mono.just(response.statusCode()))
+            .block();
+
+        // then
+        assertThat(statusCode).isEqualTo(NOT_FOUND);
+    }
+
+    @ParameterizedTest(name = "[{index}] Suche mit Angestellter-ID: angestellterId={0}")
+    @ValueSource(strings = ANGESTELLTER_ID)
+    @DisplayName("Suche mit Angestellter-ID")
+    void findByAngestellterId(final String angestellterId) {
+        // when
+        final var produkte = client
+            .get()
+            .uri(builder -> builder.queryParam(ANGESTELLTER_ID_PARAM, angestellterId).build())
+            .accept(HAL_JSON)
+            .retrieve()
+            .bodyToMono(ProdukteDownload.class)
+            .block();
+
+        // then
+        assertThat(produkte).isNotNull();
+        final var embedded = produkte._embedded();
+        assertThat(embedded).isNotNull();
+        assertThat(embedded.produkte())
+            .isNotEmpty()
+            .allSatisfy(produkt -> {
+                softly.assertThat(produkt.angestellterId()).hasToString(angestellterId);
+                softly.assertThat(produkt.angestellterNachname()).isNotBlank();
+            });
+    }
+
+    @Test
+    @DisplayName("Suche mit nicht-vorhandener Angestellter-ID")
+    void findByAngestellterIdNichtVorhanden() {
+        // when
+        final var statusCode = client
+            .get()
+            .uri(builder -> builder.queryParam(ANGESTELLTER_ID_PARAM, ID_NICHT_VORHANDEN).build())
+            .accept(HAL_JSON)
+            .exchangeToMono(response -> Mono.just(response.statusCode()))
+            .block();
+
+        // then
+        assertThat(statusCode).isEqualTo(NOT_FOUND);
+    }
+}
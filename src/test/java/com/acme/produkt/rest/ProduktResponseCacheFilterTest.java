@@ -0,0 +1,255 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.rest;
+
+import com.acme.produkt.ResponseCacheProps;
+import com.acme.produkt.service.ProduktReadService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.UUID;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+import static com.acme.produkt.rest.ProduktGetController.REST_PATH;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+import static org.springframework.hateoas.MediaTypes.HAL_JSON_VALUE;
+import static org.springframework.http.HttpHeaders.ACCEPT;
+import static org.springframework.http.HttpHeaders.ACCEPT_ENCODING;
+import static org.springframework.http.HttpHeaders.CACHE_CONTROL;
+import static org.springframework.http.HttpHeaders.CONTENT_ENCODING;
+import static org.springframework.http.HttpHeaders.ETAG;
+import static org.springframework.http.HttpHeaders.IF_NONE_MATCH;
+import static org.springframework.http.HttpHeaders.VARY;
+import static org.springframework.http.MediaType.APPLICATION_CBOR_VALUE;
+
+@Tag("unit")
+@Tag("rest")
+@Tag("rest_get")
+@DisplayName("Servlet-Filter fuer gecachte Responses")
+@ExtendWith({MockitoExtension.class, SoftAssertionsExtension.class})
+@SuppressWarnings("WriteTag")
+class ProduktResponseCacheFilterTest {
+    private static final UUID ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final int VERSION = 0;
+    private static final String ETAG_VERSION = "\"0\"";
+    private static final String BODY = "{\"name\":\"Alpha\"}";
+
+    @Mock
+    private ProduktReadService service;
+
+    @InjectSoftAssertions
+    private SoftAssertions softly;
+
+    private ProduktResponseCacheFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        final var props = new ResponseCacheProps(true, DataSize.ofMegabytes(16), Duration.ofMinutes(5));
+        final var cache = new ProduktResponseCache(props, new SimpleMeterRegistry());
+        filter = new ProduktResponseCacheFilter(cache, service, new UriHelper(), props);
+    }
+
+    @Test
+    @DisplayName("Treffer mit den Headern des Controllers und ohne Aufruf des Controllers")
+    void treffer() throws ServletException, IOException {
+        // given
+        when(service.findVersionById(ID)).thenReturn(VERSION);
+        final var ersteChain = new MockFilterChain(new ControllerServlet(null));
+        filter.doFilter(request(), new MockHttpServletResponse(), ersteChain);
+        final var zweiteChain = new MockFilterChain();
+        final var response = new MockHttpServletResponse();
+
+        // when
+        filter.doFilter(request(), response, zweiteChain);
+
+        // then
+        softly.assertThat(ersteChain.getRequest()).isNotNull();
+        softly.assertThat(zweiteChain.getRequest()).isNull();
+        softly.assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        softly.assertThat(response.getContentType()).startsWith(HAL_JSON_VALUE);
+        softly.assertThat(response.getHeader(ETAG)).isEqualTo(ETAG_VERSION);
+        softly.assertThat(response.getHeaders(VARY)).contains(ACCEPT, ACCEPT_ENCODING);
+        softly.assertThat(response.getContentAsString(UTF_8)).isEqualTo(BODY);
+    }
+
+    @ParameterizedTest(name = "[{index}] Accept: {0}")
+    @ValueSource(strings = {"*/*", "application/*", "application/hal+json;q=0.9, application/cbor;q=0.1", ""})
+    @DisplayName("Derselbe Eintrag fuer verschiedene Header Accept mit demselben Content-Type")
+    void trefferAccept(final String accept) throws ServletException, IOException {
+        // given
+        when(service.findVersionById(ID)).thenReturn(VERSION);
+        filter.doFilter(request(), new MockHttpServletResponse(), new MockFilterChain(new ControllerServlet(null)));
+        final var request = new MockHttpServletRequest("GET", REST_PATH + '/' + ID);
+        if (!accept.isEmpty()) {
+            request.addHeader(ACCEPT, accept);
+        }
+        final var chain = new MockFilterChain();
+        final var response = new MockHttpServletResponse();
+
+        // when
+        filter.doFilter(request, response, chain);
+
+        // then
+        softly.assertThat(chain.getRequest()).isNull();
+        softly.assertThat(response.getContentType()).startsWith(HAL_JSON_VALUE);
+        softly.assertThat(response.getContentAsString(UTF_8)).isEqualTo(BODY);
+    }
+
+    @Test
+    @DisplayName("Anderer Content-Type ist ein anderer Eintrag")
+    void fehlschlagAnderesFormat() throws ServletException, IOException {
+        // given
+        when(service.findVersionById(ID)).thenReturn(VERSION);
+        filter.doFilter(request(), new MockHttpServletResponse(), new MockFilterChain(new ControllerServlet(null)));
+        final var request = request();
+        request.removeHeader(ACCEPT);
+        request.addHeader(ACCEPT, APPLICATION_CBOR_VALUE);
+        final var chain = new MockFilterChain(new ControllerServlet(null));
+
+        // when
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // then
+        assertThat(chain.getRequest()).isNotNull();
+    }
+
+    @ParameterizedTest(name = "[{index}] Accept-Encoding: {0}")
+    @CsvSource(delimiter = '|', value = {"gzip|true", "gzip;q=0|false", "br, *;q=0.5|true", "*;q=0|false"})
+    @DisplayName("Treffer mit gzip nur, falls gzip akzeptabel ist")
+    void gzip(final String acceptEncoding, final boolean gzip) throws ServletException, IOException {
+        // given
+        when(service.findVersionById(ID)).thenReturn(VERSION);
+        filter.doFilter(request(), new MockHttpServletResponse(), new MockFilterChain(new ControllerServlet(null)));
+        final var request = request();
+        request.addHeader(ACCEPT_ENCODING, acceptEncoding);
+        final var response = new MockHttpServletResponse();
+
+        // when
+        filter.doFilter(request, response, new MockFilterChain());
+
+        // then
+        softly.assertThat(response.getHeader(CONTENT_ENCODING)).isEqualTo(gzip ? "gzip" : null);
+        if (!gzip) {
+            softly.assertThat(response.getContentAsString(UTF_8)).isEqualTo(BODY);
+        }
+    }
+
+    @Test
+    @DisplayName("Response mit Cache-Control: no-store wird nicht gecacht")
+    void noStore() throws ServletException, IOException {
+        // given
+        when(service.findVersionById(ID)).thenReturn(VERSION);
+        final var noStoreChain = new MockFilterChain(new ControllerServlet("no-store"));
+        filter.doFilter(request(), new MockHttpServletResponse(), noStoreChain);
+        final var chain = new MockFilterChain(new ControllerServlet(null));
+        final var response = new MockHttpServletResponse();
+
+        // when
+        filter.doFilter(request(), response, chain);
+
+        // then
+        softly.assertThat(chain.getRequest()).isNotNull();
+        softly.assertThat(response.getContentAsString(UTF_8)).isEqualTo(BODY);
+    }
+
+    @ParameterizedTest(name = "[{index}] If-None-Match: {0}")
+    @ValueSource(strings = {"\"0\"", "W/\"0\"", "\"5\", \"0\"", "*"})
+    @DisplayName("Statuscode 304 ohne Aufruf des Controllers")
+    void nichtGeaendert(final String ifNoneMatch) throws ServletException, IOException {
+        // given
+        when(service.findVersionById(ID)).thenReturn(VERSION);
+        final var request = request();
+        request.addHeader(IF_NONE_MATCH, ifNoneMatch);
+        final var chain = new MockFilterChain();
+        final var response = new MockHttpServletResponse();
+
+        // when
+        filter.doFilter(request, response, chain);
+
+        // then
+        softly.assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_NOT_MODIFIED);
+        softly.assertThat(response.getHeader(ETAG)).isEqualTo(ETAG_VERSION);
+        softly.assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    @DisplayName("Kein Statuscode 304 mit dem ETag eines anderen Formats")
+    void nichtGeaendertAnderesFormat() throws ServletException, IOException {
+        // given
+        when(service.findVersionById(ID)).thenReturn(VERSION);
+        final var request = request();
+        request.addHeader(IF_NONE_MATCH, "\"0-cbor\"");
+        final var chain = new MockFilterChain(new ControllerServlet(null));
+        final var response = new MockHttpServletResponse();
+
+        // when
+        filter.doFilter(request, response, chain);
+
+        // then
+        softly.assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        softly.assertThat(chain.getRequest()).isNotNull();
+    }
+
+    private static MockHttpServletRequest request() {
+        final var request = new MockHttpServletRequest("GET", REST_PATH + '/' + ID);
+        request.addHeader(ACCEPT, HAL_JSON_VALUE);
+        return request;
+    }
+
+    // Ersatz fuer den Controller mit ETag, Vary und ggf. Cache-Control
+    private static final class ControllerServlet extends HttpServlet {
+        private final String cacheControl;
+
+        ControllerServlet(final String cacheControl) {
+            this.cacheControl = cacheControl;
+        }
+
+        @Override
+        protected void doGet(final HttpServletRequest request, final HttpServletResponse response)
+            throws IOException {
+            response.setContentType(HAL_JSON_VALUE);
+            response.setHeader(ETAG, ETAG_VERSION);
+            response.addHeader(VARY, ACCEPT);
+            if (cacheControl != null) {
+                response.setHeader(CACHE_CONTROL, cacheControl);
+            }
+            response.getOutputStream().write(BODY.getBytes(UTF_8));
+        }
+    }
+}
@@ -22,8 +22,10 @@ import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.Currency;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
+import com.jayway.jsonpath.JsonPath;
 import org.assertj.core.api.SoftAssertions;
 import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
 import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
@@ -39,6 +41,7 @@ import org.junit.jupiter.params.provider.ValueSource;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.context.ApplicationContext;
+import org.springframework.http.MediaType;
 import org.springframework.http.ProblemDetail;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.web.reactive.function.client.ClientResponse;
@@ -46,6 +49,7 @@ import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Mono;
 import static com.acme.produkt.dev.DevConfig.DEV;
+import static com.acme.produkt.rest.ProduktAuftragController.AUFTRAEGE_PATH;
 import static com.acme.produkt.rest.ProduktGetController.ID_PATTERN;
 import static com.acme.produkt.rest.ProduktGetController.REST_PATH;
 import static com.acme.produkt.rest.ProduktGetRestTest.HOST;
@@ -57,8 +61,13 @@ import static org.junit.jupiter.api.condition.JRE.JAVA_20;
 import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
 import static org.springframework.hateoas.MediaTypes.HAL_JSON;
 import static org.springframework.http.HttpHeaders.IF_MATCH;
+import static org.springframework.http.HttpStatus.ACCEPTED;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.CREATED;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
 import static org.springframework.http.HttpStatus.NO_CONTENT;
+import static org.springframework.http.HttpStatus.OK;
+import static org.springframework.http.HttpStatus.PRECONDITION_FAILED;
 import static org.springframework.http.HttpStatus.PRECONDITION_REQUIRED;
 import static org.springframework.http.HttpStatus.UNPROCESSABLE_ENTITY;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
@@ -75,6 +84,7 @@ import static org.springframework.http.MediaType.APPLICATION_JSON;
 class ProduktWriteRestTest {
     private static final String ANGESTELLTER_ID = "00000000-0000-0000-0000-000000000001";
     private static final String ID_VORHANDEN = "00000000-0000-0000-0000-000000000001";
+    private static final String ID_NICHT_VORHANDEN = "99999999-9999-9999-9999-999999999999";
     private static final String ID_UPDATE_PUT = "00000000-0000-0000-0000-000000000030";
     private static final String ID_UPDATE_PATCH = "00000000-0000-0000-0000-000000000040";
     private static final String NEUER_NAME = "Neuername-Rest";
@@ -86,6 +96,12 @@ class ProduktWriteRestTest {
     private static final String NEUES_ERSCHEINUNGSSDATUM_INVALID = "3000-01-31";
 
     private static final String ID_PATH = "/{id}";
+    private static final String PREFER = "Prefer";
+    private static final String PREFERENCE_APPLIED = "Preference-Applied";
+    private static final String RESPOND_ASYNC = "respond-async";
+    private static final int MAX_ABFRAGEN = 50;
+    private static final long WARTEZEIT_MS = 200L;
+    private static final MediaType MERGE_PATCH_JSON = MediaType.valueOf(ProduktMergePatch.MERGE_PATCH_JSON_VALUE);
 
     private final WebClient client;
 
@@ -151,6 +167,80 @@ class ProduktWriteRestTest {
             softly.assertThat(location.toString()).matches(".*/" + ID_PATTERN + "$");
         }
 
+        @ParameterizedTest(name = "[{index}] Asynchrones Neuanlegen eines neuen Produktes: name={0}")
+        @CsvSource(NEUER_NAME + "-async," + NEUES_ERSCHEINUNGSDATUM + "," + CURRENCY_CODE + "," + ANGESTELLTER_ID)
+        @DisplayName("Asynchrones Neuanlegen eines neuen Produktes")
+        void createAsync(final ArgumentsAccessor args) throws InterruptedException {
+            // given
+            final var umsatz = new UmsatzDTO(ONE, Currency.getInstance(args.getString(2)));
+            final var produktDTO = new ProduktDTO(
+                args.getString(0),
+                args.get(1, LocalDate.class),
+                null,
+                umsatz,
+                UUID.fromString(args.getString(3))
+            );
+
+            // when
+            final var response = client
+                .post()
+                .contentType(APPLICATION_JSON)
+                .header(PREFER, RESPOND_ASYNC)
+                .bodyValue(produktDTO)
+                .exchangeToMono(Mono::just)
+                .block();
+
+            // then
+            assertThat(response)
+                .isNotNull()
+                .extracting(ClientResponse::statusCode)
+                .isEqualTo(ACCEPTED);
+            final var headers = response.headers().asHttpHeaders();
+            softly.assertThat(headers.getFirst(PREFERENCE_APPLIED)).isEqualTo(RESPOND_ASYNC);
+            final var location = headers.getLocation();
+            assertThat(location).isNotNull();
+            assertThat(location.toString()).matches(".*" + AUFTRAEGE_PATH + "/" + ID_PATTERN + "$");
+            // Location enthaelt den Pfad ab "/rest", die Basis-URL des Clients endet mit "/rest"
+            final var auftragPath = location.toString().substring(location.toString().indexOf(AUFTRAEGE_PATH));
+
+            // Der Auftrag wird im Hintergrund verarbeitet
+            var auftrag = client.get().uri(auftragPath).exchangeToMono(Mono::just).block();
+            for (var i = 0; i < MAX_ABFRAGEN; i++) {
+                assertThat(auftrag).isNotNull();
+                assertThat(auftrag.statusCode()).isEqualTo(OK);
+                if (auftrag.headers().asHttpHeaders().getLocation() != null) {
+                    break;
+                }
+                auftrag.releaseBody().block();
+                Thread.sleep(WARTEZEIT_MS);
+                auftrag = client.get().uri(auftragPath).exchangeToMono(Mono::just).block();
+            }
+            assertThat(auftrag).isNotNull();
+            final var body = auftrag.bodyToMono(String.class).block();
+            assertThat(body).isNotNull();
+            softly.assertThat(JsonPath.<String>read(body, "$.status")).isEqualTo("ERLEDIGT");
+            final var produktLocation = auftrag.headers().asHttpHeaders().getLocation();
+            assertThat(produktLocation).isNotNull();
+            softly.assertThat(produktLocation.toString()).matches(".*/" + ID_PATTERN + "$");
+            softly.assertThat(produktLocation.toString())
+                .endsWith('/' + JsonPath.<String>read(body, "$.produktId"));
+        }
+
+        @ParameterizedTest(name = "[{index}] Status zu einem nicht-vorhandenen Auftrag: id={0}")
+        @ValueSource(strings = ID_NICHT_VORHANDEN)
+        @DisplayName("Status zu einem nicht-vorhandenen Auftrag")
+        void auftragNichtVorhanden(final String id) {
+            // when
+            final var statusCode = client
+                .get()
+                .uri(AUFTRAEGE_PATH + ID_PATH, id)
+                .exchangeToMono(response -> Mono.just(response.statusCode()))
+                .block();
+
+            // then
+            assertThat(statusCode).isEqualTo(NOT_FOUND);
+        }
+
         @ParameterizedTest(name = "[{index}] Neuanlegen mit ungueltigen Werten: name={0}, erscheinungsdatum={1}")
         @CsvSource(NEUER_NAME_INVALID + "," + NEUES_ERSCHEINUNGSSDATUM_INVALID)
         @DisplayName("Neuanlegen mit ungueltigen Werten")
@@ -248,6 +338,179 @@ class ProduktWriteRestTest {
                 assertThat(statusCode).isEqualTo(NO_CONTENT);
             }
 
+            @ParameterizedTest(name = "[{index}] Aendern durch Put ohne Aenderung von Umsatz und Angestellter: id={0}")
+            @ValueSource(strings = ID_UPDATE_PUT)
+            @DisplayName("Aendern durch Put ohne Aenderung von Umsatz und Angestellter")
+            void putUnveraenderteFelder(final String id) {
+                // given
+                final var responseGet = client
+                    .get()
+                    .uri(ID_PATH, id)
+                    .accept(HAL_JSON)
+                    .retrieve()
+                    .toEntity(ProduktDownload.class)
+                    .block();
+                assertThat(responseGet).isNotNull();
+                final var etag = responseGet.getHeaders().getETag();
+                assertThat(etag).isNotNull();
+                final var version = Integer.parseInt(etag.substring(etag.indexOf('"') + 1, etag.length() - 1));
+                final var produktOrig = responseGet.getBody();
+                assertThat(produktOrig).isNotNull();
+                final var produkt = new ProduktDTO(
+                    produktOrig.name(),
+                    produktOrig.erscheinungsdatum(),
+                    produktOrig.homepage(),
+                    null,
+                    produktOrig.angestellterId()
+                );
+
+                // when
+                final var response = client
+                    .put()
+                    .uri(ID_PATH, id)
+                    .contentType(APPLICATION_JSON)
+                    .header(IF_MATCH, etag)
+                    .bodyValue(produkt)
+                    .exchangeToMono(Mono::just)
+                    .block();
+
+                // then
+                assertThat(response).isNotNull();
+                softly.assertThat(response.statusCode()).isEqualTo(NO_CONTENT);
+                softly.assertThat(response.headers().asHttpHeaders().getETag()).isEqualTo("\"" + (version + 1) + '"');
+                final var produktNeu = client
+                    .get()
+                    .uri(ID_PATH, id)
+                    .accept(HAL_JSON)
+                    .retrieve()
+                    .bodyToMono(ProduktDownload.class)
+                    .block();
+                assertThat(produktNeu).isNotNull();
+                softly.assertThat(produktNeu.umsatz()).isEqualTo(produktOrig.umsatz());
+                softly.assertThat(produktNeu.angestellterId()).isEqualTo(produktOrig.angestellterId());
+            }
+
+            @ParameterizedTest(name = "[{index}] Aendern durch Put mit veralteter Version: id={0}, version={1}")
+            @CsvSource(ID_UPDATE_PUT + ", 999")
+            @DisplayName("Aendern durch Put mit veralteter Version")
+            void putVersionVeraltet(final String id, final String version) {
+                // given
+                final var produkt = new ProduktDTO(
+                    NEUER_NAME,
+                    LocalDate.parse(NEUES_ERSCHEINUNGSDATUM),
+                    null,
+                    null,
+                    UUID.fromString(ANGESTELLTER_ID)
+                );
+
+                // when
+                final var body = client
+                    .put()
+                    .uri(ID_PATH, id)
+                    .contentType(APPLICATION_JSON)
+                    .header(IF_MATCH, "\"" + version + '"')
+                    .bodyValue(produkt)
+                    .exchangeToMono(response -> {
+                        assertThat(response)
+                            .extracting(ClientResponse::statusCode)
+                            .isEqualTo(PRECONDITION_FAILED);
+                        return response.bodyToMono(ProblemDetail.class);
+                    })
+                    .block();
+
+                // then
+                assertThat(body).isNotNull();
+                softly.assertThat(body.getType().toString()).endsWith(ProblemType.PRECONDITION.getValue());
+                softly.assertThat(body.getInstance()).isNotNull();
+            }
+
+            @ParameterizedTest(name = "[{index}] Aendern durch Put mit schwachem ETag: id={0}")
+            @ValueSource(strings = ID_UPDATE_PUT)
+            @DisplayName("Aendern durch Put mit schwachem ETag bei If-Match")
+            void putSchwacherETag(final String id) {
+                // given
+                final var responseGet = client
+                    .get()
+                    .uri(ID_PATH, id)
+                    .accept(HAL_JSON)
+                    .retrieve()
+                    .toEntity(ProduktDownload.class)
+                    .block();
+                assertThat(responseGet).isNotNull();
+                final var etag = responseGet.getHeaders().getETag();
+                assertThat(etag).isNotNull();
+                final var produktOrig = responseGet.getBody();
+                assertThat(produktOrig).isNotNull();
+                final var produkt = new ProduktDTO(
+                    produktOrig.name(),
+                    produktOrig.erscheinungsdatum(),
+                    produktOrig.homepage(),
+                    null,
+                    produktOrig.angestellterId()
+                );
+
+                // when
+                final var body = client
+                    .put()
+                    .uri(ID_PATH, id)
+                    .contentType(APPLICATION_JSON)
+                    .header(IF_MATCH, "W/" + etag)
+                    .bodyValue(produkt)
+                    .exchangeToMono(response -> {
+                        assertThat(response)
+                            .extracting(ClientResponse::statusCode)
+                            .isEqualTo(PRECONDITION_FAILED);
+                        return response.bodyToMono(ProblemDetail.class);
+                    })
+                    .block();
+
+                // then
+                assertThat(body).isNotNull();
+                softly.assertThat(body.getType().toString()).endsWith(ProblemType.PRECONDITION.getValue());
+            }
+
+            @ParameterizedTest(name = "[{index}] Aendern durch Put mit dem ETag von CBOR: id={0}")
+            @ValueSource(strings = ID_UPDATE_PUT)
+            @DisplayName("Aendern durch Put mit dem starken ETag eines anderen Formats")
+            void putETagCbor(final String id) {
+                // given
+                final var responseGet = client
+                    .get()
+                    .uri(ID_PATH, id)
+                    .accept(HAL_JSON)
+                    .retrieve()
+                    .toEntity(ProduktDownload.class)
+                    .block();
+                assertThat(responseGet).isNotNull();
+                final var etag = responseGet.getHeaders().getETag();
+                assertThat(etag).isNotNull();
+                final var version = Integer.parseInt(etag.substring(1, etag.length() - 1));
+                final var produktOrig = responseGet.getBody();
+                assertThat(produktOrig).isNotNull();
+                final var produkt = new ProduktDTO(
+                    produktOrig.name(),
+                    produktOrig.erscheinungsdatum(),
+                    produktOrig.homepage(),
+                    null,
+                    produktOrig.angestellterId()
+                );
+
+                // when
+                final var response = client
+                    .put()
+                    .uri(ID_PATH, id)
+                    .contentType(APPLICATION_JSON)
+                    .header(IF_MATCH, "\"" + version + "-cbor\"")
+                    .bodyValue(produkt)
+                    .exchangeToMono(Mono::just)
+                    .block();
+
+                // then
+                assertThat(response).isNotNull();
+                softly.assertThat(response.statusCode()).isEqualTo(NO_CONTENT);
+                softly.assertThat(response.headers().asHttpHeaders().getETag()).isEqualTo("\"" + (version + 1) + '"');
+            }
+
             @ParameterizedTest(name = "[{index}] Aendern durch Put mit ungueltigen Werten: id={0}, name={1}")
             @CsvSource(ID_UPDATE_PUT + ',' + NEUER_NAME_INVALID + ',')
             @DisplayName("Aendern durch Put mit ungueltigen Werten")
@@ -353,5 +616,67 @@ class ProduktWriteRestTest {
                     .isEqualTo("Versionsnummer fehlt");
             }
         }
+
+        @Nested
+        @DisplayName("REST-Schnittstelle fuer Patch")
+        class AendernDurchPatch {
+            @ParameterizedTest(name = "[{index}] Aendern eines vorhandenen Produktes durch PATCH: id={0}, name={1}")
+            @CsvSource(ID_UPDATE_PATCH + ',' + NEUER_NAME)
+            @DisplayName("Aendern eines vorhandenen Produktes durch PATCH")
+            void patch(final String id, final String name) {
+                // given
+                final var responseGet = client
+                    .get()
+                    .uri(ID_PATH, id)
+                    .accept(HAL_JSON)
+                    .retrieve()
+                    .toEntity(ProduktDownload.class)
+                    .block();
+                assertThat(responseGet).isNotNull();
+                final var etag = responseGet.getHeaders().getETag();
+                assertThat(etag)
+                    .isNotNull()
+                    .isNotEmpty();
+                final var patch = Map.of("name", name);
+
+                // when
+                final var response = client
+                    .patch()
+                    .uri(ID_PATH, id)
+                    .contentType(MERGE_PATCH_JSON)
+                    .header(IF_MATCH, etag)
+                    .bodyValue(patch)
+                    .exchangeToMono(Mono::just)
+                    .block();
+
+                // then
+                assertThat(response).isNotNull();
+                softly.assertThat(response.statusCode()).isEqualTo(NO_CONTENT);
+                softly.assertThat(response.headers().asHttpHeaders().getETag())
+                    .isNotNull()
+                    .isNotEqualTo(etag);
+            }
+
+            @ParameterizedTest(name = "[{index}] Aendern durch Patch mit nicht-aenderbarer Property: id={0}")
+            @ValueSource(strings = ID_UPDATE_PATCH)
+            @DisplayName("Aendern durch Patch mit nicht-aenderbarer Property")
+            void patchNichtAenderbar(final String id) {
+                // given
+                final var patch = Map.of("angestellterId", ANGESTELLTER_ID);
+
+                // when
+                final var statusCode = client
+                    .patch()
+                    .uri(ID_PATH, id)
+                    .contentType(MERGE_PATCH_JSON)
+                    .header(IF_MATCH, "\"0\"")
+                    .bodyValue(patch)
+                    .exchangeToMono(response -> Mono.just(response.statusCode()))
+                    .block();
+
+                // then
+                assertThat(statusCode).isEqualTo(BAD_REQUEST);
+            }
+        }
     }
 }
@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.service;
+
+import com.acme.produkt.MailProps;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Configuration;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("unit")
+@Tag("mail")
+@DisplayName("Validierung der Properties fuer Emails")
+@SuppressWarnings("WriteTag")
+class MailPropsTest {
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+        .withConfiguration(AutoConfigurations.of(ValidationAutoConfiguration.class))
+        .withUserConfiguration(MailPropsConfig.class);
+
+    @Test
+    @DisplayName("Default-Werte sind gueltig")
+    void defaultWerte() {
+        runner.run(ctx -> {
+            assertThat(ctx).hasNotFailed();
+            assertThat(ctx.getBean(MailProps.class).maxPerMinute()).isPositive();
+        });
+    }
+
+    @ParameterizedTest(name = "[{index}] Ungueltiger Wert verhindert den Start: {0}")
+    @ValueSource(strings = {
+        "app.mail.max-per-minute=0",
+        "app.mail.max-per-minute=-1",
+        "app.mail.queue-capacity=0",
+        "app.mail.digest-size=0",
+        "app.mail.max-retries=-1"
+    })
+    @DisplayName("Ungueltiger Wert verhindert den Start")
+    void ungueltigerWert(final String property) {
+        runner
+            .withPropertyValues(property)
+            .run(ctx -> assertThat(ctx).hasFailed());
+    }
+
+    @Configuration
+    @EnableConfigurationProperties(MailProps.class)
+    static class MailPropsConfig {
+    }
+}
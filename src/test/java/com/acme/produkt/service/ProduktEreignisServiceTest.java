@@ -0,0 +1,217 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.service;
+
+import com.acme.produkt.EreignisProps;
+import com.acme.produkt.entity.ProduktEreignis;
+import com.acme.produkt.repository.ProduktEreignisRepository;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Pageable;
+import static com.acme.produkt.entity.EreignisArt.GEAENDERT;
+import static com.acme.produkt.entity.EreignisStatus.FEHLER;
+import static com.acme.produkt.entity.EreignisStatus.NEU;
+import static com.acme.produkt.entity.EreignisStatus.ZUGESTELLT;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Tag("unit")
+@Tag("service")
+@Tag("ereignis")
+@DisplayName("Zustellung der Aenderungsereignisse")
+@ExtendWith({MockitoExtension.class, SoftAssertionsExtension.class})
+@SuppressWarnings("WriteTag")
+class ProduktEreignisServiceTest {
+    private static final int BATCH_SIZE = 10;
+    private static final int MAX_VERSUCHE = 3;
+
+    @Mock
+    private ProduktEreignisRepository repo;
+
+    @Mock
+    private ObjectProvider<ProduktEreignisListener> listeners;
+
+    @InjectSoftAssertions
+    private SoftAssertions softly;
+
+    private final TestListener listener = new TestListener();
+    private ProduktEreignisService service;
+
+    @BeforeEach
+    void setUp() {
+        final var props = new EreignisProps(BATCH_SIZE, Duration.ofSeconds(1), Duration.ofDays(7), MAX_VERSUCHE);
+        service = new ProduktEreignisService(repo, listeners, props);
+    }
+
+    @Test
+    @DisplayName("Zustellung in der Reihenfolge der neu vergebenen Positionen")
+    void zustellen() {
+        // given
+        final var ereignis1 = neuesEreignis(null, 0);
+        final var ereignis2 = neuesEreignis(null, 0);
+        when(repo.findByStatus(eq(NEU), any(Pageable.class))).thenReturn(List.of(ereignis1, ereignis2));
+        when(repo.naechstePositionen(2)).thenReturn(List.of(7L, 8L));
+        when(listeners.orderedStream()).thenAnswer(invocation -> Stream.of(listener));
+
+        // when
+        final var anzahl = service.zustellen(BATCH_SIZE);
+
+        // then
+        softly.assertThat(anzahl).isEqualTo(2);
+        softly.assertThat(listener.ereignisse).containsExactly(ereignis1, ereignis2);
+        softly.assertThat(ereignis1.getPosition()).isEqualTo(7L);
+        softly.assertThat(ereignis2.getPosition()).isEqualTo(8L);
+        softly.assertThat(ereignis1.getStatus()).isEqualTo(ZUGESTELLT);
+        softly.assertThat(ereignis2.getStatus()).isEqualTo(ZUGESTELLT);
+        softly.assertThat(ereignis1.getZugestellt()).isNotNull();
+        // Die Sperre wird vor dem Lesen angefordert
+        final var inOrder = inOrder(repo);
+        inOrder.verify(repo).sperren();
+        inOrder.verify(repo).findByStatus(eq(NEU), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Positionen nur fuer Ereignisse ohne Position vergeben")
+    void positionenVergeben() {
+        // given
+        final var ereignisAlt = neuesEreignis(5L, 1);
+        final var ereignisNeu = neuesEreignis(null, 0);
+        when(repo.findByStatus(eq(NEU), any(Pageable.class))).thenReturn(List.of(ereignisAlt, ereignisNeu));
+        when(repo.naechstePositionen(1)).thenReturn(List.of(9L));
+        when(listeners.orderedStream()).thenAnswer(invocation -> Stream.of(listener));
+
+        // when
+        service.zustellen(BATCH_SIZE);
+
+        // then
+        softly.assertThat(ereignisAlt.getPosition()).isEqualTo(5L);
+        softly.assertThat(ereignisNeu.getPosition()).isEqualTo(9L);
+        softly.assertThat(listener.ereignisse).containsExactly(ereignisAlt, ereignisNeu);
+    }
+
+    @Test
+    @DisplayName("Keine Ereignisse")
+    void keineEreignisse() {
+        // given
+        when(repo.findByStatus(eq(NEU), any(Pageable.class))).thenReturn(List.of());
+
+        // when
+        final var anzahl = service.zustellen(BATCH_SIZE);
+
+        // then
+        assertThat(anzahl).isZero();
+        verify(repo, never()).naechstePositionen(anyInt());
+    }
+
+    @Test
+    @DisplayName("Nach einem Fehler im Listener wird der Batch abgebrochen")
+    void fehlerImListener() {
+        // given
+        final var ereignis1 = neuesEreignis(null, 0);
+        final var ereignis2 = neuesEreignis(null, 0);
+        listener.fehlerhaft.add(ereignis1.getProduktId());
+        when(repo.findByStatus(eq(NEU), any(Pageable.class))).thenReturn(List.of(ereignis1, ereignis2));
+        when(repo.naechstePositionen(2)).thenReturn(List.of(1L, 2L));
+        when(listeners.orderedStream()).thenAnswer(invocation -> Stream.of(listener));
+
+        // when
+        final var anzahl = service.zustellen(BATCH_SIZE);
+
+        // then
+        softly.assertThat(anzahl).isZero();
+        softly.assertThat(ereignis1.getStatus()).isEqualTo(NEU);
+        softly.assertThat(ereignis1.getVersuche()).isEqualTo(1);
+        softly.assertThat(ereignis1.getFehler()).contains(TestListener.MELDUNG);
+        // Das nachfolgende Ereignis behaelt seine Position, wird aber erst nach dem erneuten Versuch zugestellt
+        softly.assertThat(ereignis2.getStatus()).isEqualTo(NEU);
+        softly.assertThat(ereignis2.getPosition()).isEqualTo(2L);
+        softly.assertThat(listener.ereignisse).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Status FEHLER nach der maximalen Anzahl an Versuchen")
+    void fehlerNachMaxVersuchen() {
+        // given
+        final var ereignis1 = neuesEreignis(1L, MAX_VERSUCHE - 1);
+        final var ereignis2 = neuesEreignis(2L, 0);
+        listener.fehlerhaft.add(ereignis1.getProduktId());
+        when(repo.findByStatus(eq(NEU), any(Pageable.class))).thenReturn(List.of(ereignis1, ereignis2));
+        when(listeners.orderedStream()).thenAnswer(invocation -> Stream.of(listener));
+
+        // when
+        final var anzahl = service.zustellen(BATCH_SIZE);
+
+        // then
+        softly.assertThat(anzahl).isEqualTo(2);
+        softly.assertThat(ereignis1.getStatus()).isEqualTo(FEHLER);
+        softly.assertThat(ereignis1.getVersuche()).isEqualTo(MAX_VERSUCHE);
+        softly.assertThat(ereignis1.getZugestellt()).isNull();
+        softly.assertThat(ereignis2.getStatus()).isEqualTo(ZUGESTELLT);
+        softly.assertThat(listener.ereignisse).containsExactly(ereignis2);
+    }
+
+    private static ProduktEreignis neuesEreignis(final Long position, final int versuche) {
+        return ProduktEreignis.builder()
+            .produktId(UUID.randomUUID())
+            .version(1)
+            .art(GEAENDERT)
+            .felder("name")
+            .status(NEU)
+            .position(position)
+            .versuche(versuche)
+            .build();
+    }
+
+    // Listener, der die Ereignisse protokolliert und fuer bestimmte Produkte fehlschlaegt
+    private static final class TestListener implements ProduktEreignisListener {
+        static final String MELDUNG = "Fehler im TestListener";
+
+        final Set<UUID> fehlerhaft = new HashSet<>();
+        final List<ProduktEreignis> ereignisse = new ArrayList<>();
+
+        @Override
+        public void onEreignis(final ProduktEreignis ereignis) {
+            if (fehlerhaft.contains(ereignis.getProduktId())) {
+                throw new IllegalStateException(MELDUNG);
+            }
+            ereignisse.add(ereignis);
+        }
+    }
+}
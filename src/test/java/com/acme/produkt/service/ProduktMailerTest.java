@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.service;
+
+import com.acme.produkt.entity.Produkt;
+import com.acme.produkt.repository.ProduktRepository;
+import com.jayway.jsonpath.JsonPath;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.reactive.function.client.WebClient;
+import static com.acme.produkt.dev.DevConfig.DEV;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.condition.JRE.JAVA_19;
+import static org.junit.jupiter.api.condition.JRE.JAVA_20;
+
+@Tag("integration")
+@Tag("service")
+@Tag("mail")
+@DisplayName("Emails an den Vertrieb")
+@SpringBootTest
+@ActiveProfiles(DEV)
+@EnabledForJreRange(min = JAVA_19, max = JAVA_20)
+@EnabledIf("mailhogErreichbar")
+@SuppressWarnings("WriteTag")
+class ProduktMailerTest {
+    // Lokaler Mailserver aus extras/mailserver: SMTP auf Port 5025 wie im Profile "dev", REST-API auf Port 8025
+    private static final String MAILHOG_HOST = "localhost";
+    private static final int MAILHOG_PORT = 8025;
+    private static final String MAILHOG_URL = "http://" + MAILHOG_HOST + ':' + MAILHOG_PORT + "/api/v2";
+    private static final int CONNECT_TIMEOUT_MS = 500;
+    private static final String ANGESTELLTER_ID = "00000000-0000-0000-0000-000000000001";
+    private static final int MAX_ABFRAGEN = 50;
+    private static final long WARTEZEIT_MS = 200L;
+
+    private final ProduktWriteService writeService;
+    private final ProduktRepository repo;
+    private final WebClient mailhog = WebClient.create(MAILHOG_URL);
+    private UUID id;
+
+    ProduktMailerTest(final ProduktWriteService writeService, final ProduktRepository repo) {
+        this.writeService = writeService;
+        this.repo = repo;
+    }
+
+    // Ohne laufenden Mailserver wird der Test uebersprungen statt fehlzuschlagen
+    @SuppressWarnings("unused")
+    static boolean mailhogErreichbar() {
+        try (var socket = new Socket()) {
+            socket.connect(new InetSocketAddress(MAILHOG_HOST, MAILHOG_PORT), CONNECT_TIMEOUT_MS);
+            return true;
+        } catch (final IOException ex) {
+            return false;
+        }
+    }
+
+    @AfterEach
+    void afterEach() {
+        // Das Testprodukt wieder loeschen, damit andere Tests unveraenderte Testdaten vorfinden
+        if (id != null) {
+            repo.deleteById(id);
+            id = null;
+        }
+    }
+
+    @ParameterizedTest(name = "[{index}] Email zu einem neuen Produkt: name={0}")
+    @ValueSource(strings = "Mailtest")
+    @DisplayName("Email zu einem neuen Produkt")
+    void emailNeuesProdukt(final String name) throws InterruptedException {
+        // given
+        final var produkt = Produkt.builder()
+            .name(name)
+            .erscheinungsdatum(LocalDate.parse("2022-01-31"))
+            .angestellterId(UUID.fromString(ANGESTELLTER_ID))
+            .build();
+
+        // when
+        id = writeService.create(produkt).getId();
+
+        // then
+        // Die Email wird nach dem Commit im Hintergrund versendet
+        List<String> subjects = List.of();
+        for (var i = 0; i < MAX_ABFRAGEN && subjects.isEmpty(); i++) {
+            Thread.sleep(WARTEZEIT_MS);
+            final var body = mailhog
+                .get()
+                .uri(uriBuilder -> uriBuilder
+                    .path("/search")
+                    .queryParam("kind", "containing")
+                    .queryParam("query", id.toString())
+                    .build())
+                .retrieve()
+                .bodyToMono(String.class)
+                .block();
+            assertThat(body).isNotNull();
+            subjects = JsonPath.read(body, "$.items[*].Content.Headers.Subject[0]");
+        }
+        assertThat(subjects).containsExactly("Neues Produkt " + name);
+    }
+}
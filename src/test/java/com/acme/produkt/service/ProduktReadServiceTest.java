@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.service;
+
+import com.acme.produkt.entity.Produkt;
+import com.acme.produkt.repository.Angestellter;
+import com.acme.produkt.repository.AngestellterRepository;
+import com.acme.produkt.repository.ProduktRepository;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@Tag("unit")
+@Tag("service")
+@Tag("service_read")
+@DisplayName("Versionsnummer und Suche anhand der ID mit den Daten des Angestellten")
+@ExtendWith({MockitoExtension.class, SoftAssertionsExtension.class})
+@SuppressWarnings("WriteTag")
+class ProduktReadServiceTest {
+    private static final UUID ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID ANGESTELLTER_ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final int VERSION = 2;
+
+    @Mock
+    private ProduktRepository repo;
+
+    @Mock
+    private AngestellterRepository angestellterRepo;
+
+    @InjectSoftAssertions
+    private SoftAssertions softly;
+
+    private ProduktReadService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ProduktReadService(repo, angestellterRepo);
+    }
+
+    @Test
+    @DisplayName("Versionsnummer: eine Query ohne das Produkt, kein Aufruf beim Angestellter-Service")
+    void findVersionById() {
+        // given
+        when(repo.findVersionById(ID)).thenReturn(Optional.of(VERSION));
+
+        // when
+        final var version = service.findVersionById(ID);
+
+        // then
+        softly.assertThat(version).isEqualTo(VERSION);
+        verify(repo, times(1)).findVersionById(ID);
+        verify(repo, never()).findById(any());
+        verifyNoInteractions(angestellterRepo);
+    }
+
+    @Test
+    @DisplayName("Ergaenzen mit den Daten des Angestellten")
+    void findById() {
+        // given
+        when(repo.findById(ID)).thenReturn(Optional.of(produkt()));
+        when(angestellterRepo.findById(ANGESTELLTER_ID))
+            .thenReturn(Optional.of(new Angestellter("Alpha", "alpha@acme.de")));
+        when(angestellterRepo.findEmailById(ANGESTELLTER_ID)).thenReturn(Optional.of("alpha@acme.de"));
+
+        // when
+        final var produkt = service.findById(ID);
+
+        // then
+        softly.assertThat(produkt.getVersion()).isEqualTo(VERSION);
+        softly.assertThat(produkt.getAngestellterNachname()).isEqualTo("Alpha");
+        softly.assertThat(produkt.getAngestellterEmail()).isEqualTo("alpha@acme.de");
+        softly.assertThat(ProduktReadService.hatErsatzwerte(produkt)).isFalse();
+        verify(repo, never()).findVersionById(any());
+    }
+
+    @Test
+    @DisplayName("Ersatzwerte, falls der Angestellte nicht gefunden wird")
+    void ersatzwerte() {
+        // given
+        when(repo.findById(ID)).thenReturn(Optional.of(produkt()));
+        when(angestellterRepo.findById(ANGESTELLTER_ID)).thenReturn(Optional.empty());
+        when(angestellterRepo.findEmailById(ANGESTELLTER_ID)).thenReturn(Optional.empty());
+
+        // when
+        final var produkt = service.findById(ID);
+
+        // then
+        softly.assertThat(produkt.getAngestellterNachname()).isEqualTo("N/A");
+        softly.assertThat(ProduktReadService.hatErsatzwerte(produkt)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Nicht-vorhandene ID")
+    void nichtVorhanden() {
+        // given
+        when(repo.findVersionById(ID)).thenReturn(Optional.empty());
+
+        // when/then
+        assertThatExceptionOfType(NotFoundException.class)
+            .isThrownBy(() -> service.findVersionById(ID));
+    }
+
+    private static Produkt produkt() {
+        return Produkt.builder()
+            .id(ID)
+            .version(VERSION)
+            .name("Alpha")
+            .angestellterId(ANGESTELLTER_ID)
+            .build();
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.service;
+
+import com.acme.produkt.entity.Produkt;
+import com.acme.produkt.entity.Produkt.Batch;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import jakarta.validation.groups.Default;
+import jakarta.validation.metadata.ConstraintDescriptor;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+@Tag("unit")
+@Tag("service")
+@DisplayName("Validierung ohne Reflection im Vergleich mit Bean Validation")
+@ExtendWith(SoftAssertionsExtension.class)
+@SuppressWarnings("WriteTag")
+class ProduktValidatorTest {
+    private static final String NAME = "Alpha";
+    private static final LocalDate ERSCHEINUNGSDATUM = LocalDate.parse("2022-01-31");
+    private static final UUID ANGESTELLTER_ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+
+    private static ValidatorFactory validatorFactory;
+    private static Validator beanValidator;
+    private static ProduktValidator validator;
+
+    @InjectSoftAssertions
+    @SuppressWarnings("NotNullFieldNotInitialized")
+    private SoftAssertions softly;
+
+    // Vergleichbare Angaben eines verletzten Constraints
+    private record Verletzung(String propertyPath, String message, ConstraintDescriptor<?> descriptor) {
+        static Verletzung of(final ConstraintViolation<Produkt> violation) {
+            return new Verletzung(
+                violation.getPropertyPath().toString(),
+                violation.getMessage(),
+                violation.getConstraintDescriptor()
+            );
+        }
+    }
+
+    @BeforeAll
+    static void beforeAll() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        beanValidator = validatorFactory.getValidator();
+        validator = new ProduktValidator(validatorFactory);
+    }
+
+    @AfterAll
+    static void afterAll() {
+        validatorFactory.close();
+    }
+
+    static Stream<Arguments> produkte() {
+        final var morgen = LocalDate.now().plusDays(1);
+        return Stream.of(
+            arguments("gueltig", produkt(NAME, ERSCHEINUNGSDATUM, ANGESTELLTER_ID)),
+            arguments("gueltig ohne Erscheinungsdatum", produkt(NAME, null, ANGESTELLTER_ID)),
+            arguments("gueltig mit Doppelname", produkt("Alpha-Beta", ERSCHEINUNGSDATUM, ANGESTELLTER_ID)),
+            arguments("ohne Name", produkt(null, ERSCHEINUNGSDATUM, ANGESTELLTER_ID)),
+            arguments("Name klein geschrieben", produkt("alpha", ERSCHEINUNGSDATUM, ANGESTELLTER_ID)),
+            arguments("Name zu lang", produkt("A" + "a".repeat(40), ERSCHEINUNGSDATUM, ANGESTELLTER_ID)),
+            arguments("Name zu lang und ungueltig", produkt("a".repeat(41), ERSCHEINUNGSDATUM, ANGESTELLTER_ID)),
+            arguments("Erscheinungsdatum heute", produkt(NAME, LocalDate.now(), ANGESTELLTER_ID)),
+            arguments("Erscheinungsdatum morgen", produkt(NAME, morgen, ANGESTELLTER_ID)),
+            arguments("ohne Angestellter-ID", produkt(NAME, ERSCHEINUNGSDATUM, null)),
+            arguments("alles ungueltig", produkt("?", morgen, null))
+        );
+    }
+
+    @Test
+    @DisplayName("Die Constraints von Produkt werden ohne Reflection geprueft")
+    void ohneReflection() {
+        // then
+        assertThat(validator.isOhneReflection()).isTrue();
+    }
+
+    @ParameterizedTest(name = "[{index}] {0}")
+    @MethodSource("produkte")
+    @DisplayName("Dieselben Verletzungen wie Bean Validation")
+    void validate(final String beschreibung, final Produkt produkt) {
+        // given
+        final var erwartet = verletzungen(beanValidator.validate(produkt));
+
+        // when
+        final var violations = validator.validate(produkt);
+
+        // then
+        // ohne die Gruppe Batch, d.h. eine fehlende Angestellter-ID ist hier kein Fehler
+        softly.assertThat(verletzungen(violations)).as(beschreibung).isEqualTo(erwartet);
+        violations.forEach(violation -> {
+            softly.assertThat(violation.getRootBean()).isSameAs(produkt);
+            softly.assertThat(violation.getMessageTemplate())
+                .isEqualTo(violation.getConstraintDescriptor().getMessageTemplate());
+        });
+    }
+
+    @Test
+    @DisplayName("Viele Produkte in derselben Reihenfolge und mit der Gruppe Batch validieren")
+    void validateAll() {
+        // given
+        final var produkte = produkte()
+            .map(arguments -> (Produkt) arguments.get()[1])
+            .toList();
+
+        // when
+        final var violationsListe = validator.validateAll(produkte);
+
+        // then
+        assertThat(violationsListe).hasSameSizeAs(produkte);
+        for (int i = 0; i < produkte.size(); i++) {
+            softly.assertThat(verletzungen(violationsListe.get(i)))
+                .isEqualTo(verletzungen(beanValidator.validate(produkte.get(i), Default.class, Batch.class)));
+        }
+    }
+
+    private static Produkt produkt(final String name, final LocalDate erscheinungsdatum, final UUID angestellterId) {
+        return Produkt.builder()
+            .name(name)
+            .erscheinungsdatum(erscheinungsdatum)
+            .angestellterId(angestellterId)
+            .build();
+    }
+
+    private static Set<Verletzung> verletzungen(final Set<ConstraintViolation<Produkt>> violations) {
+        return violations.stream()
+            .map(Verletzung::of)
+            .collect(Collectors.toSet());
+    }
+}
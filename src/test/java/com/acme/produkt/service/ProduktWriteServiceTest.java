@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.produkt.service;
+
+import com.acme.produkt.entity.Produkt;
+import com.acme.produkt.repository.ProduktRepository;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import org.hibernate.Session;
+import org.hibernate.SessionEventListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import static com.acme.produkt.dev.DevConfig.DEV;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.condition.JRE.JAVA_19;
+import static org.junit.jupiter.api.condition.JRE.JAVA_20;
+
+@Tag("integration")
+@Tag("service")
+@DisplayName("Anwendungskern fuer Schreiben")
+@SpringBootTest
+@ActiveProfiles(DEV)
+@EnabledForJreRange(min = JAVA_19, max = JAVA_20)
+@SuppressWarnings("WriteTag")
+class ProduktWriteServiceTest {
+    private static final String ANGESTELLTER_ID = "00000000-0000-0000-0000-000000000001";
+
+    private final ProduktWriteService service;
+    private final ProduktRepository repo;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TransactionTemplate transactionTemplate;
+    private List<UUID> ids = List.of();
+
+    ProduktWriteServiceTest(
+        final ProduktWriteService service,
+        final ProduktRepository repo,
+        final EntityManagerFactory entityManagerFactory,
+        final PlatformTransactionManager transactionManager
+    ) {
+        this.service = service;
+        this.repo = repo;
+        this.entityManagerFactory = entityManagerFactory;
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void afterEach() {
+        // Die Testprodukte wieder loeschen, damit andere Tests unveraenderte Testdaten vorfinden
+        repo.deleteAllById(ids);
+        ids = List.of();
+    }
+
+    @ParameterizedTest(name = "[{index}] Neuanlegen mehrerer Produkte als Batch: anzahl={0}")
+    @ValueSource(ints = 40)
+    @DisplayName("Produkte und Ereignisse werden als Batch eingefuegt")
+    void createAllBatch(final int anzahl) {
+        // given
+        final var produkte = IntStream.range(0, anzahl)
+            .mapToObj(i -> Produkt.builder()
+                .name("Batchtest")
+                .erscheinungsdatum(LocalDate.parse("2022-01-31"))
+                .angestellterId(UUID.fromString(ANGESTELLTER_ID))
+                .build())
+            .toList();
+        final var zaehler = new JdbcZaehler();
+
+        // when
+        final var ergebnisse = transactionTemplate.execute(status -> {
+            // Die Session der Transaktion, in der createAll() ausgefuehrt und beim Commit geflusht wird
+            EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory)
+                .unwrap(Session.class)
+                .addEventListeners(zaehler);
+            return service.createAll(produkte);
+        });
+
+        // then
+        assertThat(ergebnisse).hasSize(anzahl).allMatch(CreateErgebnis::isAngelegt);
+        ids = ergebnisse.stream().map(ergebnis -> ergebnis.produkt().getId()).toList();
+        // 1 Batch fuer "produkt" und 1 Batch fuer "produkt_ereignis"; mit IDENTITY gaebe es pro Ereignis ein INSERT
+        assertThat(zaehler.batches).isGreaterThanOrEqualTo(2);
+        assertThat(zaehler.statements).isLessThan(anzahl);
+    }
+
+    // Zaehlt die JDBC-Anweisungen und Batches einer Session
+    private static final class JdbcZaehler implements SessionEventListener {
+        private int statements;
+        private int batches;
+
+        @Override
+        public void jdbcPrepareStatementStart() {
+            statements++;
+        }
+
+        @Override
+        public void jdbcExecuteBatchStart() {
+            batches++;
+        }
+    }
+}